@@ -82,6 +82,11 @@ public final class NoOpTransactionScopedCache implements TransactionScopedCache
         return HitDigest.of(ImmutableSet.of());
     }
 
+    @Override
+    public Set<Cell> getUnlockedCells(TableReference tableReference, Set<Cell> cells) {
+        return ImmutableSet.of();
+    }
+
     @Override
     public TransactionScopedCache createReadOnlyCache(CommitUpdate commitUpdate) {
         return ReadOnlyTransactionScopedCache.create(NoOpTransactionScopedCache.create());
@@ -89,6 +89,11 @@ public final class ReadOnlyTransactionScopedCache implements TransactionScopedCa
         throw new UnsupportedOperationException("Cannot get a hit digest from the read only transaction cache");
     }
 
+    @Override
+    public Set<Cell> getUnlockedCells(TableReference tableReference, Set<Cell> cells) {
+        return delegate.getUnlockedCells(tableReference, cells);
+    }
+
     @Override
     public TransactionScopedCache createReadOnlyCache(CommitUpdate commitUpdate) {
         throw new UnsupportedOperationException("Cannot create a read only transaction cache from itself");
@@ -92,5 +92,14 @@ public interface TransactionScopedCache {
 
     HitDigest getHitDigest();
 
+    /**
+     * Returns the subset of the given cells of a watched table for which no lock was held or taken out, as far as
+     * the lock watch state seen by this cache can tell. For the read only cache returned at commit time, this covers
+     * the whole window between the transaction's start and commit, so no other transaction can have committed a
+     * write to these cells in that window; serializable transactions may then skip re-reading them when checking for
+     * read-write conflicts. Implementations that cannot prove this for a cell must not return it.
+     */
+    Set<Cell> getUnlockedCells(TableReference tableReference, Set<Cell> cells);
+
     TransactionScopedCache createReadOnlyCache(CommitUpdate commitUpdate);
 }
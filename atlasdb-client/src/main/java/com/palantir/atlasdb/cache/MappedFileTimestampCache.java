@@ -0,0 +1,401 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.cache;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.annotations.VisibleForTesting;
+import com.palantir.common.base.Throwables;
+import com.palantir.logsafe.Preconditions;
+import com.palantir.logsafe.SafeArg;
+import com.palantir.logsafe.UnsafeArg;
+import com.palantir.logsafe.logger.SafeLogger;
+import com.palantir.logsafe.logger.SafeLoggerFactory;
+import com.palantir.tritium.metrics.registry.MetricName;
+import com.palantir.tritium.metrics.registry.TaggedMetricRegistry;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.StampedLock;
+import javax.annotation.Nullable;
+
+/**
+ * A {@link TimestampCache} that keeps its entries in a memory-mapped file, outside of the Java heap, so that the
+ * cache survives process restarts and a bounced node does not start with a cold commit timestamp cache.
+ *
+ * Every entry occupies a fixed 16 byte slot: the start timestamp, followed by the commit timestamp delta-encoded
+ * against the start timestamp (as in {@link DeltaEncodingTimestampEntryMapper}). A committed transaction always has
+ * a non-zero delta, so a zero delta marks an empty slot and a freshly extended (sparse, zero-filled) file is an empty
+ * cache. Slots are grouped into set-associative buckets, evicting by CLOCK within a bucket.
+ *
+ * The file header records whether the cache was closed cleanly. A file that was not closed cleanly, or whose layout
+ * does not match the requested size, is discarded on startup rather than trusted. This is what protects the cache
+ * against crashes, as nothing controls the order in which dirty pages of the mapping reach the disk: the file is
+ * marked open on disk before any entry is written, no entry is written once the cache starts closing, and the file is
+ * only marked clean once every entry has been flushed to disk. Unlike
+ * {@link DefaultTimestampCache}, the size cannot change while the cache is open, as it determines the layout of the
+ * file; a new size takes effect when the cache is next created, and discards the old contents. A cache file must
+ * only ever be used with a single key value service; delete it when restoring that key value service from a backup.
+ */
+public final class MappedFileTimestampCache implements TimestampCache, Closeable {
+    private static final SafeLogger log = SafeLoggerFactory.get(MappedFileTimestampCache.class);
+
+    private static final MetricName CACHE_HIT = constructCacheMetricName("cacheHit");
+    private static final MetricName CACHE_MISS = constructCacheMetricName("cacheMiss");
+    private static final MetricName CACHE_SIZE = constructCacheMetricName("cacheSize");
+
+    @VisibleForTesting
+    static final int SLOT_BYTES = 16;
+
+    @VisibleForTesting
+    static final int WAYS = 4;
+
+    private static final int HEADER_BYTES = 4096;
+    private static final long MAGIC = 0x4154_4c41_5354_5343L;
+    private static final int VERSION = 1;
+    private static final int STATE_CLEAN = 1;
+    private static final int STATE_OPEN = 2;
+    private static final int MAX_SHARDS = 64;
+    private static final long EMPTY_DELTA = 0L;
+
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 8;
+    private static final int SHARD_COUNT_OFFSET = 12;
+    private static final int BUCKETS_PER_SHARD_OFFSET = 16;
+    private static final int STATE_OFFSET = 20;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private final Shard[] shards;
+    private final AtomicLong size = new AtomicLong();
+    private final Meter cacheHit;
+    private final Meter cacheMiss;
+
+    private MappedFileTimestampCache(
+            FileChannel channel, MappedByteBuffer header, Shard[] shards, TaggedMetricRegistry taggedMetricRegistry) {
+        this.channel = channel;
+        this.header = header;
+        this.shards = shards;
+        this.cacheHit = taggedMetricRegistry.meter(CACHE_HIT);
+        this.cacheMiss = taggedMetricRegistry.meter(CACHE_MISS);
+        Gauge<Long> cacheSizeGauge = size::get;
+        taggedMetricRegistry.registerWithReplacement(CACHE_SIZE, cacheSizeGauge);
+    }
+
+    /**
+     * Opens the cache stored in the given file, creating it if it does not exist. The file is sized to hold at least
+     * {@code maxSize} entries.
+     */
+    public static MappedFileTimestampCache create(Path file, TaggedMetricRegistry taggedMetricRegistry, long maxSize) {
+        long totalBuckets = Math.max(1, (maxSize + WAYS - 1) / WAYS);
+        int shardCount = (int) Math.min(MAX_SHARDS, Long.highestOneBit(totalBuckets));
+        long bucketsPerShard = (totalBuckets + shardCount - 1) / shardCount;
+        long shardBytes = bucketsPerShard * WAYS * SLOT_BYTES;
+        Preconditions.checkArgument(
+                shardBytes <= Integer.MAX_VALUE,
+                "Requested timestamp cache size is too large",
+                SafeArg.of("maxSize", maxSize));
+
+        try {
+            FileChannel channel = FileChannel.open(
+                    file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+            if (!isReusable(header, shardCount, (int) bucketsPerShard)) {
+                log.info(
+                        "Discarding existing timestamp cache file contents, as it was not closed cleanly or has a"
+                                + " different layout",
+                        UnsafeArg.of("file", file),
+                        SafeArg.of("shardCount", shardCount),
+                        SafeArg.of("bucketsPerShard", bucketsPerShard));
+                channel.truncate(HEADER_BYTES);
+            }
+            writeHeader(header, shardCount, (int) bucketsPerShard, STATE_OPEN);
+
+            Shard[] shards = new Shard[shardCount];
+            for (int i = 0; i < shardCount; i++) {
+                MappedByteBuffer region =
+                        channel.map(FileChannel.MapMode.READ_WRITE, HEADER_BYTES + i * shardBytes, shardBytes);
+                shards[i] = new Shard(region, (int) bucketsPerShard);
+            }
+            MappedFileTimestampCache cache =
+                    new MappedFileTimestampCache(channel, header, shards, taggedMetricRegistry);
+            cache.size.set(cache.countEntries());
+            return cache;
+        } catch (IOException e) {
+            throw Throwables.rewrapAndThrowUncheckedException("Could not open timestamp cache file", e);
+        }
+    }
+
+    @Override
+    @Nullable
+    public Long getCommitTimestampIfPresent(Long startTimestamp) {
+        long start = startTimestamp;
+        long hash = spread(start);
+        long delta = shardFor(hash).get(start, hash);
+        if (delta == EMPTY_DELTA) {
+            cacheMiss.mark();
+            return null;
+        }
+        cacheHit.mark();
+        return start + delta;
+    }
+
+    /**
+     * Be very careful to only insert timestamps here that are already present in the backing store. Entries written
+     * here are persisted, and will be served again after a restart.
+     */
+    @Override
+    public void putAlreadyCommittedTransaction(Long startTimestamp, Long commitTimestamp) {
+        long start = startTimestamp;
+        long delta = commitTimestamp - start;
+        if (delta == EMPTY_DELTA) {
+            return;
+        }
+        long hash = spread(start);
+        if (shardFor(hash).put(start, delta, hash)) {
+            size.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void clear() {
+        for (Shard shard : shards) {
+            shard.clear();
+        }
+        size.set(0);
+    }
+
+    /**
+     * Flushes the cache to disk and marks the file as cleanly closed, so that it is reused on the next startup. Entries
+     * put after the cache starts closing are ignored, so that they cannot reach a file that is already marked clean.
+     */
+    @Override
+    public void close() throws IOException {
+        for (Shard shard : shards) {
+            shard.close();
+        }
+        header.putInt(STATE_OFFSET, STATE_CLEAN);
+        header.force();
+        channel.close();
+    }
+
+    @VisibleForTesting
+    long size() {
+        return size.get();
+    }
+
+    private long countEntries() {
+        long entries = 0;
+        for (Shard shard : shards) {
+            entries += shard.countEntries();
+        }
+        return entries;
+    }
+
+    private Shard shardFor(long hash) {
+        return shards[(int) (hash >>> 58) & (shards.length - 1)];
+    }
+
+    private static boolean isReusable(MappedByteBuffer header, int shardCount, int bucketsPerShard) {
+        return header.getLong(MAGIC_OFFSET) == MAGIC
+                && header.getInt(VERSION_OFFSET) == VERSION
+                && header.getInt(SHARD_COUNT_OFFSET) == shardCount
+                && header.getInt(BUCKETS_PER_SHARD_OFFSET) == bucketsPerShard
+                && header.getInt(STATE_OFFSET) == STATE_CLEAN;
+    }
+
+    private static void writeHeader(MappedByteBuffer header, int shardCount, int bucketsPerShard, int state) {
+        header.putLong(MAGIC_OFFSET, MAGIC);
+        header.putInt(VERSION_OFFSET, VERSION);
+        header.putInt(SHARD_COUNT_OFFSET, shardCount);
+        header.putInt(BUCKETS_PER_SHARD_OFFSET, bucketsPerShard);
+        header.putInt(STATE_OFFSET, state);
+        header.force();
+    }
+
+    private static long spread(long key) {
+        long hash = key;
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private static MetricName constructCacheMetricName(String metricSuffix) {
+        return MetricName.builder()
+                .safeName(MetricRegistry.name(MappedFileTimestampCache.class, metricSuffix))
+                .build();
+    }
+
+    private static final class Shard {
+        private static final int ZERO_CHUNK_BYTES = 64 * 1024;
+
+        private final StampedLock lock = new StampedLock();
+        private final MappedByteBuffer region;
+        private final int buckets;
+        private final byte[] referenced;
+        private final byte[] hands;
+
+        // Guarded by the write lock.
+        private boolean closed = false;
+
+        Shard(MappedByteBuffer region, int buckets) {
+            this.region = region;
+            this.buckets = buckets;
+            this.referenced = new byte[buckets * WAYS];
+            this.hands = new byte[buckets];
+        }
+
+        /**
+         * Returns the stored commit timestamp delta, or {@link #EMPTY_DELTA} if the start timestamp is not cached.
+         */
+        long get(long startTimestamp, long hash) {
+            int base = bucketBase(hash);
+            long stamp = lock.readLock();
+            try {
+                int slot = find(base, startTimestamp);
+                if (slot < 0) {
+                    return EMPTY_DELTA;
+                }
+                referenced[slot] = 1;
+                return deltaAt(slot);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        /**
+         * Returns true if the number of entries in the cache grew.
+         */
+        boolean put(long startTimestamp, long delta, long hash) {
+            int base = bucketBase(hash);
+            long stamp = lock.writeLock();
+            try {
+                if (closed) {
+                    return false;
+                }
+                int slot = find(base, startTimestamp);
+                if (slot >= 0) {
+                    referenced[slot] = 1;
+                    return false;
+                }
+                for (int i = base; i < base + WAYS; i++) {
+                    if (deltaAt(i) == EMPTY_DELTA) {
+                        write(i, startTimestamp, delta);
+                        return true;
+                    }
+                }
+                write(clockVictim(base), startTimestamp, delta);
+                return false;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        void clear() {
+            byte[] zeros = new byte[ZERO_CHUNK_BYTES];
+            long stamp = lock.writeLock();
+            try {
+                if (closed) {
+                    return;
+                }
+                ByteBuffer view = region.duplicate();
+                while (view.hasRemaining()) {
+                    view.put(zeros, 0, Math.min(ZERO_CHUNK_BYTES, view.remaining()));
+                }
+                Arrays.fill(referenced, (byte) 0);
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        long countEntries() {
+            long entries = 0;
+            for (int slot = 0; slot < buckets * WAYS; slot++) {
+                if (deltaAt(slot) != EMPTY_DELTA) {
+                    entries++;
+                }
+            }
+            return entries;
+        }
+
+        /**
+         * Stops any further writes and flushes the shard to disk.
+         */
+        void close() {
+            long stamp = lock.writeLock();
+            try {
+                closed = true;
+                region.force();
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        /**
+         * Readers are excluded by the write lock. A crash part way through may tear the slot on disk, which is why a
+         * file that was not closed cleanly is never trusted.
+         */
+        private void write(int slot, long startTimestamp, long delta) {
+            int offset = slot * SLOT_BYTES;
+            region.putLong(offset, startTimestamp);
+            region.putLong(offset + Long.BYTES, delta);
+            referenced[slot] = 0;
+        }
+
+        private int find(int base, long startTimestamp) {
+            for (int i = base; i < base + WAYS; i++) {
+                if (deltaAt(i) != EMPTY_DELTA && region.getLong(i * SLOT_BYTES) == startTimestamp) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private long deltaAt(int slot) {
+            return region.getLong(slot * SLOT_BYTES + Long.BYTES);
+        }
+
+        private int clockVictim(int base) {
+            int bucket = base / WAYS;
+            int hand = hands[bucket];
+            while (true) {
+                int slot = base + hand;
+                hand = (hand + 1) % WAYS;
+                if (referenced[slot] == 0) {
+                    hands[bucket] = (byte) hand;
+                    return slot;
+                }
+                referenced[slot] = 0;
+            }
+        }
+
+        private int bucketBase(long hash) {
+            int bucket = (int) (((hash & 0xFFFFFFFFL) * buckets) >>> 32);
+            return bucket * WAYS;
+        }
+    }
+}
@@ -0,0 +1,384 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.cache;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.annotations.VisibleForTesting;
+import com.palantir.logsafe.SafeArg;
+import com.palantir.logsafe.logger.SafeLogger;
+import com.palantir.logsafe.logger.SafeLoggerFactory;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+import org.eclipse.collections.api.LongIterable;
+import org.eclipse.collections.api.map.primitive.LongLongMap;
+import org.eclipse.collections.api.map.primitive.MutableLongLongMap;
+import org.eclipse.collections.impl.map.mutable.primitive.LongLongHashMap;
+
+/**
+ * A {@link TimestampCache} that stores start and commit timestamps in primitive {@code long[]} arrays, so that
+ * neither lookups nor insertions allocate.
+ *
+ * The cache is split into shards, each of which is a set-associative table: a start timestamp hashes to a bucket of
+ * {@link #WAYS} adjacent slots, and when a bucket is full the victim is chosen by CLOCK (second chance) eviction
+ * within that bucket. Reads are optimistic and only fall back to taking a shard's read lock if they race with a
+ * writer to the same shard.
+ *
+ * The capacity follows the provided size supplier. When the supplier changes, the table is rebuilt at the new size
+ * and the existing entries are carried over; insertions that race with a rebuild may be dropped, which is safe as
+ * this is only a cache.
+ */
+public final class PrimitiveTimestampCache implements TimestampCache {
+    private static final SafeLogger log = SafeLoggerFactory.get(PrimitiveTimestampCache.class);
+
+    @VisibleForTesting
+    static final int WAYS = 8;
+
+    private static final int MAX_SHARDS = 64;
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private final LongSupplier size;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private volatile Table table;
+
+    public PrimitiveTimestampCache(MetricRegistry metricRegistry, LongSupplier size) {
+        this.size = size;
+        this.table = new Table(size.getAsLong());
+        registerMetrics(metricRegistry, MetricRegistry.name(TimestampCache.class, "startToCommitTimestamp"));
+    }
+
+    public static TimestampCache createForTests() {
+        return new PrimitiveTimestampCache(new MetricRegistry(), () -> 1000L);
+    }
+
+    @Override
+    @Nullable
+    public Long getCommitTimestampIfPresent(Long startTimestamp) {
+        long start = startTimestamp;
+        Table current = resizeIfNecessary();
+        long commitTimestamp = current.get(start);
+        if (commitTimestamp == EMPTY) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return commitTimestamp;
+    }
+
+    @Override
+    public LongLongMap getCommitTimestampsIfPresent(LongIterable startTimestamps) {
+        Table current = resizeIfNecessary();
+        MutableLongLongMap result = new LongLongHashMap();
+        startTimestamps.forEach(startTimestamp -> {
+            long commitTimestamp = current.get(startTimestamp);
+            if (commitTimestamp != EMPTY) {
+                result.put(startTimestamp, commitTimestamp);
+            }
+        });
+        hits.add(result.size());
+        misses.add(startTimestamps.size() - result.size());
+        return result;
+    }
+
+    @Override
+    public void putAlreadyCommittedTransaction(Long startTimestamp, Long commitTimestamp) {
+        if (table.put(startTimestamp, commitTimestamp)) {
+            evictions.increment();
+        }
+    }
+
+    @Override
+    public void clear() {
+        table.clear();
+    }
+
+    @VisibleForTesting
+    long capacity() {
+        return table.capacity();
+    }
+
+    @VisibleForTesting
+    long estimatedSize() {
+        return table.estimatedSize();
+    }
+
+    private Table resizeIfNecessary() {
+        Table current = table;
+        long targetSize = size.getAsLong();
+        if (current.maximumSize == targetSize) {
+            return current;
+        }
+        synchronized (this) {
+            current = table;
+            if (current.maximumSize != targetSize) {
+                Table resized = new Table(targetSize);
+                evictions.add(current.copyInto(resized));
+                table = resized;
+                current = resized;
+            }
+            return current;
+        }
+    }
+
+    private void registerMetrics(MetricRegistry metricRegistry, String metricsPrefix) {
+        Set<String> existingMetrics = metricRegistry.getMetrics().keySet().stream()
+                .filter(name -> name.startsWith(metricsPrefix))
+                .collect(Collectors.toSet());
+        if (!existingMetrics.isEmpty()) {
+            log.info(
+                    "Not registering cache with prefix '{}' as metric registry already contains metrics: {}",
+                    SafeArg.of("metricsPrefix", metricsPrefix),
+                    SafeArg.of("existingMetrics", existingMetrics));
+            return;
+        }
+        Map<String, Gauge<?>> gauges = Map.of(
+                "cache.hit.count", hits::sum,
+                "cache.miss.count", misses::sum,
+                "cache.request.count", this::requestCount,
+                "cache.hit.ratio", () -> ratio(hits.sum(), requestCount()),
+                "cache.miss.ratio", () -> ratio(misses.sum(), requestCount()),
+                "cache.eviction.count", evictions::sum,
+                "cache.estimated.size", this::estimatedSize,
+                "cache.maximum.size", () -> table.maximumSize);
+        gauges.forEach((name, gauge) -> metricRegistry.register(MetricRegistry.name(metricsPrefix, name), gauge));
+    }
+
+    private long requestCount() {
+        return hits.sum() + misses.sum();
+    }
+
+    private static double ratio(long numerator, long denominator) {
+        return denominator == 0 ? Double.NaN : (double) numerator / denominator;
+    }
+
+    private static long spread(long key) {
+        // Murmur3 finalizer; timestamps are dense and sequential, so they need mixing before bucketing.
+        long hash = key;
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private static final class Table {
+        private final long maximumSize;
+        private final Shard[] shards;
+
+        Table(long maximumSize) {
+            this.maximumSize = maximumSize;
+            long totalBuckets = Math.max(1, (maximumSize + WAYS - 1) / WAYS);
+            int shardCount = (int) Math.min(MAX_SHARDS, Long.highestOneBit(totalBuckets));
+            int bucketsPerShard = Math.toIntExact((totalBuckets + shardCount - 1) / shardCount);
+            this.shards = new Shard[shardCount];
+            for (int i = 0; i < shardCount; i++) {
+                shards[i] = new Shard(bucketsPerShard);
+            }
+        }
+
+        long get(long startTimestamp) {
+            if (startTimestamp == EMPTY) {
+                return EMPTY;
+            }
+            long hash = spread(startTimestamp);
+            return shardFor(hash).get(startTimestamp, hash);
+        }
+
+        /**
+         * Returns true if an existing entry had to be evicted to make room.
+         */
+        boolean put(long startTimestamp, long commitTimestamp) {
+            if (startTimestamp == EMPTY) {
+                return false;
+            }
+            long hash = spread(startTimestamp);
+            return shardFor(hash).put(startTimestamp, commitTimestamp, hash);
+        }
+
+        void clear() {
+            for (Shard shard : shards) {
+                shard.clear();
+            }
+        }
+
+        long capacity() {
+            return (long) shards.length * shards[0].keys.length;
+        }
+
+        long estimatedSize() {
+            long total = 0;
+            for (Shard shard : shards) {
+                total += shard.size;
+            }
+            return total;
+        }
+
+        /**
+         * Copies every entry into the target table, returning the number of entries that were evicted on the way.
+         */
+        long copyInto(Table target) {
+            long evicted = 0;
+            for (Shard shard : shards) {
+                evicted += shard.copyInto(target);
+            }
+            return evicted;
+        }
+
+        private Shard shardFor(long hash) {
+            // Shard count is a power of two; use the high bits so they are independent of the bucket choice.
+            return shards[(int) (hash >>> 58) & (shards.length - 1)];
+        }
+    }
+
+    private static final class Shard {
+        private final StampedLock lock = new StampedLock();
+        private final int buckets;
+        private final long[] keys;
+        private final long[] values;
+        private final byte[] referenced;
+        private final byte[] hands;
+        private int size;
+
+        Shard(int buckets) {
+            this.buckets = buckets;
+            this.keys = new long[buckets * WAYS];
+            this.values = new long[buckets * WAYS];
+            this.referenced = new byte[buckets * WAYS];
+            this.hands = new byte[buckets];
+            Arrays.fill(keys, EMPTY);
+        }
+
+        long get(long startTimestamp, long hash) {
+            int base = bucketBase(hash);
+            long stamp = lock.tryOptimisticRead();
+            int slot = find(base, startTimestamp);
+            long value = slot < 0 ? EMPTY : values[slot];
+            if (!lock.validate(stamp)) {
+                stamp = lock.readLock();
+                try {
+                    slot = find(base, startTimestamp);
+                    value = slot < 0 ? EMPTY : values[slot];
+                } finally {
+                    lock.unlockRead(stamp);
+                }
+            }
+            if (slot >= 0) {
+                // Benign race: the reference bit is only a hint for eviction.
+                referenced[slot] = 1;
+            }
+            return value;
+        }
+
+        boolean put(long startTimestamp, long commitTimestamp, long hash) {
+            int base = bucketBase(hash);
+            long stamp = lock.writeLock();
+            try {
+                int slot = find(base, startTimestamp);
+                if (slot >= 0) {
+                    values[slot] = commitTimestamp;
+                    referenced[slot] = 1;
+                    return false;
+                }
+                for (int i = base; i < base + WAYS; i++) {
+                    if (keys[i] == EMPTY) {
+                        keys[i] = startTimestamp;
+                        values[i] = commitTimestamp;
+                        referenced[i] = 0;
+                        size++;
+                        return false;
+                    }
+                }
+                int victim = clockVictim(base);
+                keys[victim] = startTimestamp;
+                values[victim] = commitTimestamp;
+                referenced[victim] = 0;
+                return true;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        void clear() {
+            long stamp = lock.writeLock();
+            try {
+                Arrays.fill(keys, EMPTY);
+                Arrays.fill(referenced, (byte) 0);
+                size = 0;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        long copyInto(Table target) {
+            long evicted = 0;
+            long stamp = lock.readLock();
+            try {
+                for (int i = 0; i < keys.length; i++) {
+                    if (keys[i] != EMPTY && target.put(keys[i], values[i])) {
+                        evicted++;
+                    }
+                }
+            } finally {
+                lock.unlockRead(stamp);
+            }
+            return evicted;
+        }
+
+        private int find(int base, long startTimestamp) {
+            for (int i = base; i < base + WAYS; i++) {
+                if (keys[i] == startTimestamp) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Advances the bucket's clock hand, clearing reference bits, until it finds an unreferenced slot. Terminates
+         * within two sweeps of the bucket.
+         */
+        private int clockVictim(int base) {
+            int bucket = base / WAYS;
+            int hand = hands[bucket];
+            while (true) {
+                int slot = base + hand;
+                hand = (hand + 1) % WAYS;
+                if (referenced[slot] == 0) {
+                    hands[bucket] = (byte) hand;
+                    return slot;
+                }
+                referenced[slot] = 0;
+            }
+        }
+
+        private int bucketBase(long hash) {
+            // Lemire's multiply-shift range reduction on the low 32 bits, avoiding a modulo.
+            int bucket = (int) (((hash & 0xFFFFFFFFL) * buckets) >>> 32);
+            return bucket * WAYS;
+        }
+    }
+}
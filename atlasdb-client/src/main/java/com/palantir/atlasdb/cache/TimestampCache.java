@@ -18,6 +18,10 @@ package com.palantir.atlasdb.cache;
 
 import com.palantir.atlasdb.metrics.Timed;
 import javax.annotation.Nullable;
+import org.eclipse.collections.api.LongIterable;
+import org.eclipse.collections.api.factory.primitive.LongLongMaps;
+import org.eclipse.collections.api.map.primitive.LongLongMap;
+import org.eclipse.collections.api.map.primitive.MutableLongLongMap;
 
 public interface TimestampCache {
     /**
@@ -43,4 +47,23 @@ public interface TimestampCache {
     @Nullable
     @Timed
     Long getCommitTimestampIfPresent(Long startTimestamp);
+
+    /**
+     * Looks up a batch of start timestamps at once. Start timestamps that are not present in the cache are absent
+     * from the returned map.
+     *
+     * @param startTimestamps transaction start timestamps
+     * @return map from start timestamp to commit timestamp, for the start timestamps that were present in cache
+     */
+    @Timed
+    default LongLongMap getCommitTimestampsIfPresent(LongIterable startTimestamps) {
+        MutableLongLongMap result = LongLongMaps.mutable.empty();
+        startTimestamps.forEach(startTimestamp -> {
+            Long commitTimestamp = getCommitTimestampIfPresent(startTimestamp);
+            if (commitTimestamp != null) {
+                result.put(startTimestamp, commitTimestamp);
+            }
+        });
+        return result;
+    }
 }
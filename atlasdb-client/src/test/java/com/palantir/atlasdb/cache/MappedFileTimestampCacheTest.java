@@ -0,0 +1,125 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.palantir.tritium.metrics.registry.DefaultTaggedMetricRegistry;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public final class MappedFileTimestampCacheTest {
+    private static final long MAX_SIZE = 1_000;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Path file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = temporaryFolder.getRoot().toPath().resolve("timestamp-cache");
+    }
+
+    @Test
+    public void returnsCachedCommitTimestamps() throws IOException {
+        try (MappedFileTimestampCache cache = open(MAX_SIZE)) {
+            cache.putAlreadyCommittedTransaction(1L, 2L);
+            cache.putAlreadyCommittedTransaction(3L, -1L);
+
+            assertThat(cache.getCommitTimestampIfPresent(1L)).isEqualTo(2L);
+            assertThat(cache.getCommitTimestampIfPresent(3L)).isEqualTo(-1L);
+            assertThat(cache.getCommitTimestampIfPresent(5L)).isNull();
+        }
+    }
+
+    @Test
+    public void entriesSurviveCleanRestart() throws IOException {
+        try (MappedFileTimestampCache cache = open(MAX_SIZE)) {
+            cache.putAlreadyCommittedTransaction(1L, 2L);
+        }
+
+        try (MappedFileTimestampCache cache = open(MAX_SIZE)) {
+            assertThat(cache.getCommitTimestampIfPresent(1L)).isEqualTo(2L);
+            assertThat(cache.size()).isEqualTo(1L);
+        }
+    }
+
+    @Test
+    public void discardsEntriesIfNotClosedCleanly() throws IOException {
+        MappedFileTimestampCache unclean = open(MAX_SIZE);
+        unclean.putAlreadyCommittedTransaction(1L, 2L);
+
+        try (MappedFileTimestampCache cache = open(MAX_SIZE)) {
+            assertThat(cache.getCommitTimestampIfPresent(1L)).isNull();
+        }
+    }
+
+    @Test
+    public void ignoresEntriesPutAfterClose() throws IOException {
+        MappedFileTimestampCache closed = open(MAX_SIZE);
+        closed.close();
+        closed.putAlreadyCommittedTransaction(1L, 2L);
+
+        try (MappedFileTimestampCache cache = open(MAX_SIZE)) {
+            assertThat(cache.getCommitTimestampIfPresent(1L)).isNull();
+            assertThat(cache.size()).isZero();
+        }
+    }
+
+    @Test
+    public void discardsEntriesIfSizeChanges() throws IOException {
+        try (MappedFileTimestampCache cache = open(MAX_SIZE)) {
+            cache.putAlreadyCommittedTransaction(1L, 2L);
+        }
+
+        try (MappedFileTimestampCache cache = open(MAX_SIZE * 10)) {
+            assertThat(cache.getCommitTimestampIfPresent(1L)).isNull();
+        }
+    }
+
+    @Test
+    public void usesFixedSizeSlots() throws IOException {
+        try (MappedFileTimestampCache cache = open(MAX_SIZE)) {
+            for (long startTs = 1; startTs <= 10 * MAX_SIZE; startTs++) {
+                cache.putAlreadyCommittedTransaction(startTs, startTs + 1);
+            }
+            assertThat(cache.size()).isLessThanOrEqualTo(Files.size(file) / MappedFileTimestampCache.SLOT_BYTES);
+        }
+        assertThat(Files.size(file)).isLessThan(2 * MAX_SIZE * MappedFileTimestampCache.SLOT_BYTES + 4096);
+    }
+
+    @Test
+    public void clearRemovesAllEntries() throws IOException {
+        try (MappedFileTimestampCache cache = open(MAX_SIZE)) {
+            cache.putAlreadyCommittedTransaction(1L, 2L);
+            cache.clear();
+
+            assertThat(cache.getCommitTimestampIfPresent(1L)).isNull();
+            assertThat(cache.size()).isZero();
+        }
+    }
+
+    private MappedFileTimestampCache open(long maxSize) {
+        return MappedFileTimestampCache.create(file, new DefaultTaggedMetricRegistry(), maxSize);
+    }
+}
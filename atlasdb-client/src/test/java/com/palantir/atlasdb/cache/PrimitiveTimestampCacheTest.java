@@ -0,0 +1,124 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import java.util.concurrent.atomic.AtomicLong;
+import org.eclipse.collections.api.factory.primitive.LongLists;
+import org.eclipse.collections.api.map.primitive.LongLongMap;
+import org.junit.Test;
+
+public final class PrimitiveTimestampCacheTest {
+    private static final String METRICS_PREFIX =
+            MetricRegistry.name(TimestampCache.class, "startToCommitTimestamp");
+
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+    private final AtomicLong size = new AtomicLong(1_000);
+    private final PrimitiveTimestampCache cache = new PrimitiveTimestampCache(metricRegistry, size::get);
+
+    @Test
+    public void returnsNullForUnknownTimestamps() {
+        assertThat(cache.getCommitTimestampIfPresent(1L)).isNull();
+    }
+
+    @Test
+    public void returnsCachedCommitTimestamps() {
+        cache.putAlreadyCommittedTransaction(1L, 2L);
+        cache.putAlreadyCommittedTransaction(3L, -1L);
+
+        assertThat(cache.getCommitTimestampIfPresent(1L)).isEqualTo(2L);
+        assertThat(cache.getCommitTimestampIfPresent(3L)).isEqualTo(-1L);
+    }
+
+    @Test
+    public void bulkLookupOnlyReturnsPresentTimestamps() {
+        cache.putAlreadyCommittedTransaction(1L, 2L);
+        cache.putAlreadyCommittedTransaction(5L, 6L);
+
+        LongLongMap result = cache.getCommitTimestampsIfPresent(LongLists.immutable.of(1L, 3L, 5L));
+
+        assertThat(result.size()).isEqualTo(2);
+        assertThat(result.get(1L)).isEqualTo(2L);
+        assertThat(result.get(5L)).isEqualTo(6L);
+        assertThat(result.containsKey(3L)).isFalse();
+    }
+
+    @Test
+    public void clearRemovesAllEntries() {
+        cache.putAlreadyCommittedTransaction(1L, 2L);
+        cache.clear();
+
+        assertThat(cache.getCommitTimestampIfPresent(1L)).isNull();
+        assertThat(cache.estimatedSize()).isZero();
+    }
+
+    @Test
+    public void doesNotGrowBeyondCapacity() {
+        for (long startTs = 1; startTs <= 10_000; startTs++) {
+            cache.putAlreadyCommittedTransaction(startTs, startTs + 1);
+        }
+
+        assertThat(cache.estimatedSize()).isLessThanOrEqualTo(cache.capacity());
+        assertThat(cache.capacity()).isLessThan(2_000L);
+        assertThat(getGauge("cache.eviction.count")).isEqualTo(10_000L - cache.estimatedSize());
+        assertThat(cache.getCommitTimestampIfPresent(10_000L)).isEqualTo(10_001L);
+    }
+
+    @Test
+    public void recentlyReadEntriesSurviveEviction() {
+        PrimitiveTimestampCache singleBucket = new PrimitiveTimestampCache(new MetricRegistry(), () -> 1);
+        for (long startTs = 1; startTs <= PrimitiveTimestampCache.WAYS; startTs++) {
+            singleBucket.putAlreadyCommittedTransaction(startTs, startTs + 1);
+        }
+        assertThat(singleBucket.getCommitTimestampIfPresent(1L)).isEqualTo(2L);
+
+        singleBucket.putAlreadyCommittedTransaction(100L, 101L);
+
+        assertThat(singleBucket.getCommitTimestampIfPresent(1L)).isEqualTo(2L);
+        assertThat(singleBucket.getCommitTimestampIfPresent(2L)).isNull();
+        assertThat(singleBucket.getCommitTimestampIfPresent(100L)).isEqualTo(101L);
+    }
+
+    @Test
+    public void resizesWhenSizeSupplierChanges() {
+        cache.putAlreadyCommittedTransaction(1L, 2L);
+        size.set(100_000);
+
+        assertThat(cache.getCommitTimestampIfPresent(1L)).isEqualTo(2L);
+        assertThat(cache.capacity()).isGreaterThanOrEqualTo(100_000L);
+        assertThat(getGauge("cache.maximum.size")).isEqualTo(100_000L);
+    }
+
+    @Test
+    public void recordsHitsAndMisses() {
+        cache.putAlreadyCommittedTransaction(1L, 2L);
+        cache.getCommitTimestampIfPresent(1L);
+        cache.getCommitTimestampsIfPresent(LongLists.immutable.of(1L, 2L, 3L));
+
+        assertThat(getGauge("cache.hit.count")).isEqualTo(2L);
+        assertThat(getGauge("cache.miss.count")).isEqualTo(2L);
+        assertThat(getGauge("cache.request.count")).isEqualTo(4L);
+    }
+
+    private Object getGauge(String name) {
+        Gauge<?> gauge = metricRegistry.getGauges().get(MetricRegistry.name(METRICS_PREFIX, name));
+        return gauge.getValue();
+    }
+}
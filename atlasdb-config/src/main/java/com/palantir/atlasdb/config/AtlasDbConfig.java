@@ -291,6 +291,21 @@ public abstract class AtlasDbConfig {
      */
     public abstract Optional<TimestampCache> timestampCache();
 
+    /**
+     * The implementation of the timestamp cache that AtlasDB creates if {@link #timestampCache()} is not set.
+     */
+    @Value.Default
+    public TimestampCacheImplementation timestampCacheImplementation() {
+        return TimestampCacheImplementation.CAFFEINE;
+    }
+
+    /**
+     * The file that stores the timestamp cache, which must be set if the timestamp cache implementation is
+     * {@link TimestampCacheImplementation#MAPPED_FILE}. The file must only ever be used with this key value service,
+     * and must be deleted if the key value service is restored from a backup.
+     */
+    public abstract Optional<String> timestampCacheFile();
+
     /**
      * If set, allows the timelock and key-value-service namespaces to be different.
      *
@@ -328,6 +343,7 @@ public abstract class AtlasDbConfig {
         checkLockAndTimestampBlocks();
         checkNamespaceConfigConsistent();
         checkSweepConfigs();
+        checkTimestampCacheConfig();
     }
 
     @Value.Derived
@@ -346,6 +362,13 @@ public abstract class AtlasDbConfig {
         }
     }
 
+    private void checkTimestampCacheConfig() {
+        Preconditions.checkState(
+                timestampCacheImplementation() != TimestampCacheImplementation.MAPPED_FILE
+                        || timestampCacheFile().isPresent(),
+                "A memory-mapped timestamp cache requires the timestamp cache file to be set.");
+    }
+
     private void checkLeaderAndTimelockBlocks() {
         if (leader().isPresent()) {
             Preconditions.checkState(
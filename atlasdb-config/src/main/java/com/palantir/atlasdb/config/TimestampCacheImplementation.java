@@ -0,0 +1,41 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.config;
+
+import com.palantir.atlasdb.cache.DefaultTimestampCache;
+import com.palantir.atlasdb.cache.MappedFileTimestampCache;
+import com.palantir.atlasdb.cache.PrimitiveTimestampCache;
+
+/**
+ * The implementations of the commit timestamp cache that can be selected through {@link AtlasDbConfig}.
+ */
+public enum TimestampCacheImplementation {
+    /**
+     * {@link DefaultTimestampCache}, an on-heap Caffeine cache.
+     */
+    CAFFEINE,
+
+    /**
+     * {@link PrimitiveTimestampCache}, an on-heap cache of primitive arrays that does not allocate on lookups.
+     */
+    PRIMITIVE_ARRAY,
+
+    /**
+     * {@link MappedFileTimestampCache}, an off-heap cache in a memory-mapped file that survives restarts. Its size is
+     * fixed when it is created, so changes to the runtime timestamp cache size only take effect after a restart.
+     */
+    MAPPED_FILE
+}
@@ -26,6 +26,8 @@ import com.palantir.async.initializer.LambdaCallback;
 import com.palantir.atlasdb.AtlasDbConstants;
 import com.palantir.atlasdb.AtlasDbMetricNames;
 import com.palantir.atlasdb.cache.DefaultTimestampCache;
+import com.palantir.atlasdb.cache.MappedFileTimestampCache;
+import com.palantir.atlasdb.cache.PrimitiveTimestampCache;
 import com.palantir.atlasdb.cache.TimestampCache;
 import com.palantir.atlasdb.cleaner.CleanupFollower;
 import com.palantir.atlasdb.cleaner.DefaultCleanerBuilder;
@@ -43,6 +45,7 @@ import com.palantir.atlasdb.config.ServerListConfig;
 import com.palantir.atlasdb.config.SweepConfig;
 import com.palantir.atlasdb.config.TimeLockClientConfig;
 import com.palantir.atlasdb.config.TimeLockRequestBatcherProviders;
+import com.palantir.atlasdb.config.TimestampCacheImplementation;
 import com.palantir.atlasdb.coordination.CoordinationService;
 import com.palantir.atlasdb.debug.ConflictTracer;
 import com.palantir.atlasdb.debug.LockDiagnosticComponents;
@@ -139,6 +142,8 @@ import com.palantir.timestamp.ManagedTimestampService;
 import com.palantir.timestamp.TimestampStoreInvalidator;
 import com.palantir.tritium.metrics.registry.DefaultTaggedMetricRegistry;
 import com.palantir.tritium.metrics.registry.TaggedMetricRegistry;
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -146,6 +151,7 @@ import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.LongSupplier;
 import java.util.function.Supplier;
 import java.util.function.ToLongFunction;
 import java.util.stream.Collectors;
@@ -484,9 +490,11 @@ public abstract class TransactionManagers {
         Supplier<TransactionConfig> transactionConfigSupplier =
                 runtime.map(AtlasDbRuntimeConfig::transaction).map(this::withConsolidatedGrabImmutableTsLockFlag);
 
+        Optional<MappedFileTimestampCache> mappedTimestampCache =
+                initializeCloseable(createMappedTimestampCache(metricsManager, runtime), closeables);
         TimestampCache timestampCache = config().timestampCache()
-                .orElseGet(() -> new DefaultTimestampCache(
-                        metricsManager.getRegistry(), () -> runtime.get().getTimestampCacheSize()));
+                .or(() -> mappedTimestampCache)
+                .orElseGet(() -> createTimestampCache(metricsManager, runtime));
 
         ConflictTracer conflictTracer = lockDiagnosticComponents()
                 .map(LockDiagnosticComponents::clientLockDiagnosticCollector)
@@ -530,6 +538,7 @@ public abstract class TransactionManagers {
                 closeables);
 
         transactionManager.registerClosingCallback(runtimeConfigRefreshable::close);
+        mappedTimestampCache.ifPresent(cache -> transactionManager.registerClosingCallback(() -> closeQuietly(cache)));
 
         timeLockFeedbackBackgroundTask.ifPresent(task -> transactionManager.registerClosingCallback(task::close));
 
@@ -788,6 +797,35 @@ public abstract class TransactionManagers {
         return backgroundCompactorOptional;
     }
 
+    private TimestampCache createTimestampCache(
+            MetricsManager metricsManager, Refreshable<AtlasDbRuntimeConfig> runtime) {
+        LongSupplier size = () -> runtime.get().getTimestampCacheSize();
+        if (config().timestampCacheImplementation() == TimestampCacheImplementation.PRIMITIVE_ARRAY) {
+            return new PrimitiveTimestampCache(metricsManager.getRegistry(), size);
+        }
+        return new DefaultTimestampCache(metricsManager.getRegistry(), size);
+    }
+
+    private Optional<MappedFileTimestampCache> createMappedTimestampCache(
+            MetricsManager metricsManager, Refreshable<AtlasDbRuntimeConfig> runtime) {
+        if (config().timestampCache().isPresent()
+                || config().timestampCacheImplementation() != TimestampCacheImplementation.MAPPED_FILE) {
+            return Optional.empty();
+        }
+        return Optional.of(MappedFileTimestampCache.create(
+                Paths.get(config().timestampCacheFile().orElseThrow()),
+                metricsManager.getTaggedRegistry(),
+                runtime.get().getTimestampCacheSize()));
+    }
+
+    private static void closeQuietly(MappedFileTimestampCache cache) {
+        try {
+            cache.close();
+        } catch (IOException e) {
+            log.warn("Failed to close the timestamp cache; it will be discarded on the next startup", e);
+        }
+    }
+
     private static <T extends AutoCloseable> T initializeCloseable(
             Supplier<T> closeableSupplier, @Output List<AutoCloseable> closeables) {
         T ret = closeableSupplier.get();
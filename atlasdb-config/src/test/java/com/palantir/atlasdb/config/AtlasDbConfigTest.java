@@ -93,6 +93,21 @@ public class AtlasDbConfigTest {
         assertThatThrownBy(() -> ImmutableAtlasDbConfig.builder().build()).isInstanceOf(IllegalStateException.class);
     }
 
+    @Test
+    public void mappedFileTimestampCacheRequiresAFile() {
+        assertThatThrownBy(() -> ImmutableAtlasDbConfig.builder()
+                        .keyValueService(KVS_CONFIG_WITH_NAMESPACE)
+                        .timestampCacheImplementation(TimestampCacheImplementation.MAPPED_FILE)
+                        .build())
+                .isInstanceOf(IllegalStateException.class);
+        assertThatCode(() -> ImmutableAtlasDbConfig.builder()
+                        .keyValueService(KVS_CONFIG_WITH_NAMESPACE)
+                        .timestampCacheImplementation(TimestampCacheImplementation.MAPPED_FILE)
+                        .timestampCacheFile("var/data/timestamp-cache")
+                        .build())
+                .doesNotThrowAnyException();
+    }
+
     @Test
     public void configWithLeaderBlockIsValid() {
         assertThatCode(() -> ImmutableAtlasDbConfig.builder()
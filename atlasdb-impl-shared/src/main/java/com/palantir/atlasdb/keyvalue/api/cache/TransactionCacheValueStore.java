@@ -47,5 +47,10 @@ interface TransactionCacheValueStore {
 
     Set<CellReference> getHitDigest();
 
+    /**
+     * Returns the cells for which the snapshot backing this store has seen no lock being held or taken out.
+     */
+    Set<Cell> getUnlockedCells(TableReference table, Set<Cell> cells);
+
     TransactionCacheValueStore createWithFilteredSnapshot(CommitUpdate commitUpdate);
 }
@@ -134,6 +134,13 @@ final class TransactionCacheValueStoreImpl implements TransactionCacheValueStore
                 .collect(Collectors.toSet());
     }
 
+    @Override
+    public Set<Cell> getUnlockedCells(TableReference table, Set<Cell> cells) {
+        return cells.stream()
+                .filter(cell -> snapshot.isUnlocked(CellReference.of(table, cell)))
+                .collect(Collectors.toSet());
+    }
+
     private void cacheHitInternal(TableReference table, Cell cell, CacheValue value) {
         localUpdates.compute(CellReference.of(table, cell), (_unused, previousValue) -> {
             if (previousValue != null) {
@@ -17,6 +17,7 @@
 package com.palantir.atlasdb.keyvalue.api.cache;
 
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
 import com.google.common.collect.Streams;
 import com.google.common.primitives.UnsignedBytes;
@@ -165,6 +166,14 @@ final class TransactionScopedCacheImpl implements TransactionScopedCache {
         return HitDigest.of(valueStore.getHitDigest());
     }
 
+    @Override
+    public synchronized Set<Cell> getUnlockedCells(TableReference tableReference, Set<Cell> cells) {
+        if (!valueStore.isWatched(tableReference)) {
+            return ImmutableSet.of();
+        }
+        return valueStore.getUnlockedCells(tableReference, cells);
+    }
+
     @Override
     public TransactionScopedCache createReadOnlyCache(CommitUpdate commitUpdate) {
         return ReadOnlyTransactionScopedCache.create(
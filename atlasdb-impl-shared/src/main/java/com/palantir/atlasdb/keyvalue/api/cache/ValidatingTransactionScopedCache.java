@@ -17,6 +17,7 @@
 package com.palantir.atlasdb.keyvalue.api.cache;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Maps;
 import com.google.common.primitives.UnsignedBytes;
 import com.google.common.util.concurrent.Futures;
@@ -161,6 +162,18 @@ final class ValidatingTransactionScopedCache implements TransactionScopedCache {
         return delegate.getHitDigest();
     }
 
+    /**
+     * When validating, no cells are reported as unlocked, so that serializable conflict checking reads them
+     * remotely and compares them with the cached reads.
+     */
+    @Override
+    public Set<Cell> getUnlockedCells(TableReference tableReference, Set<Cell> cells) {
+        if (shouldValidate()) {
+            return ImmutableSet.of();
+        }
+        return delegate.getUnlockedCells(tableReference, cells);
+    }
+
     @Override
     public TransactionScopedCache createReadOnlyCache(CommitUpdate commitUpdate) {
         return create(delegate.createReadOnlyCache(commitUpdate), validationProbability, failureCallback);
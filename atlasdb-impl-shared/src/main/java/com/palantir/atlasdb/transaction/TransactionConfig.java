@@ -21,6 +21,8 @@ import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.palantir.atlasdb.AtlasDbConstants;
 import com.palantir.atlasdb.transaction.impl.TransactionRetryStrategy;
 import com.palantir.conjure.java.api.config.service.HumanReadableDuration;
+import com.palantir.logsafe.Preconditions;
+import com.palantir.logsafe.SafeArg;
 import org.immutables.value.Value;
 
 @JsonDeserialize(as = ImmutableTransactionConfig.class)
@@ -62,6 +64,114 @@ public abstract class TransactionConfig {
         return HumanReadableDuration.minutes(15);
     }
 
+    /**
+     * If enabled, the key value service writes of concurrently committing transactions are coalesced, so that a
+     * batch of commits shares one put per table instead of one multiPut per transaction. This trades a small amount of
+     * commit latency for far fewer key value service round trips on write-heavy workloads with many small
+     * transactions.
+     */
+    @Value.Default
+    public boolean enableGroupCommit() {
+        return false;
+    }
+
+    /**
+     * If enabled, transactions buffer their writes compactly in byte arenas rather than in a skip list of cells,
+     * and spill buffered values to a temporary file once they exceed
+     * {@link com.palantir.atlasdb.transaction.impl.TransactionConstants#WARN_LEVEL_FOR_QUEUED_BYTES}. This greatly
+     * reduces heap usage and GC pressure for transactions that write millions of cells, at some cost to reading back
+     * local writes.
+     */
+    @Value.Default
+    public boolean enableCompactLocalWriteBuffer() {
+        return false;
+    }
+
+    /**
+     * If enabled, the writes of transactions that write more than {@link #commitWriteChunkSizeBytes()} are split
+     * into chunks of about that size at commit time, both when enqueueing them to the sweep queue and when writing
+     * them to the key value service. Chunks are written to the key value service in parallel, at most
+     * {@link #commitWriteChunkConcurrency()} at a time per transaction, so very large transactions neither send one
+     * huge request nor hold a second full copy of their writes while committing.
+     */
+    @Value.Default
+    public boolean enableChunkedCommitWrites() {
+        return false;
+    }
+
+    @Value.Default
+    public long commitWriteChunkSizeBytes() {
+        return 16 * 1024 * 1024;
+    }
+
+    @Value.Default
+    public int commitWriteChunkConcurrency() {
+        return 4;
+    }
+
+    /**
+     * Maximum number of subsets that cells still unresolved after the first round of post-filtering a read are split
+     * into. Each subset independently looks up commit timestamps and re-reads older versions until it resolves, so a
+     * slow lookup or re-read for some cells does not hold up the next round for the others. A value of 1 post-filters
+     * all cells together, one round at a time.
+     */
+    @Value.Default
+    public int postFilteringParallelism() {
+        return 1;
+    }
+
+    /**
+     * Number of pages that each batch of a range scan is split into and read ahead of the consumer, on a bounded
+     * executor shared by the transaction manager, so that the key value service keeps serving the batch while the
+     * caller processes its earlier pages. Read-ahead stops at the end of the batch being read. Pages are also cut off
+     * at about {@link #rangeScanPrefetchPageBytes()}, so each scan buffers at most roughly this many times that much.
+     * Zero, the default, disables prefetching.
+     */
+    @Value.Default
+    public int rangeScanPrefetchPages() {
+        return 0;
+    }
+
+    @Value.Default
+    public long rangeScanPrefetchPageBytes() {
+        return 4 * 1024 * 1024;
+    }
+
+    /**
+     * If enabled, each transaction remembers the values it has read from the key value service, so that reading the
+     * same cells again within the transaction is served from memory, and concurrent reads of overlapping cells share a
+     * single key value service request. This applies to all tables, not just those cached through lock watches, at the
+     * cost of holding every value read by point lookups until the transaction ends.
+     */
+    @Value.Default
+    public boolean enableReadCoalescing() {
+        return false;
+    }
+
+    @Value.Check
+    protected void check() {
+        Preconditions.checkArgument(
+                commitWriteChunkSizeBytes() > 0,
+                "Commit write chunk size must be positive",
+                SafeArg.of("commitWriteChunkSizeBytes", commitWriteChunkSizeBytes()));
+        Preconditions.checkArgument(
+                commitWriteChunkConcurrency() > 0,
+                "Commit write chunk concurrency must be positive",
+                SafeArg.of("commitWriteChunkConcurrency", commitWriteChunkConcurrency()));
+        Preconditions.checkArgument(
+                postFilteringParallelism() > 0,
+                "Post-filtering parallelism must be positive",
+                SafeArg.of("postFilteringParallelism", postFilteringParallelism()));
+        Preconditions.checkArgument(
+                rangeScanPrefetchPages() >= 0,
+                "Range scan prefetch pages must not be negative",
+                SafeArg.of("rangeScanPrefetchPages", rangeScanPrefetchPages()));
+        Preconditions.checkArgument(
+                rangeScanPrefetchPageBytes() > 0,
+                "Range scan prefetch page size must be positive",
+                SafeArg.of("rangeScanPrefetchPageBytes", rangeScanPrefetchPageBytes()));
+    }
+
     /**
      * TODO(fdesouza): Remove this once PDS-95791 is resolved.
      * @deprecated Remove this once PDS-95791 is resolved.
@@ -0,0 +1,1066 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.transaction.impl;
+
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.logsafe.Preconditions;
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.function.IntFunction;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A compact alternative to {@link java.util.concurrent.ConcurrentSkipListMap} for buffering the local writes of a
+ * transaction, intended for transactions that write very many cells.
+ *
+ * Cell names and values are appended to {@link ByteArena}s, and the map itself is a handful of primitive arrays: an
+ * open-addressing hash index for point lookups and overwrites, and two runs of entry ids kept in cell order: a large
+ * base run and a small run of recent writes. The order is only restored lazily, when the map is next navigated or
+ * iterated, by sorting new writes into the recent run; that run is folded into the base run once it outgrows the
+ * square root of the base run, so interleaving writes with navigation costs O(sqrt n) per write rather than O(n).
+ * Writes that arrive in cell order (as in most backfills) are merged in linear time. {@link Cell}s and values are
+ * materialised on read.
+ *
+ * Writes may not be removed, so the removal and polling operations are not supported, and neither are descending
+ * views. Iterators are weakly consistent, as for {@link java.util.concurrent.ConcurrentSkipListMap}. Overwriting a
+ * value leaves the previous one in the arena until the map is discarded.
+ */
+@ThreadSafe
+final class ArenaCellMap extends AbstractMap<Cell, byte[]> implements ConcurrentNavigableMap<Cell, byte[]> {
+    private final Store store;
+
+    @Nullable
+    private final Cell lo;
+
+    private final boolean loInclusive;
+
+    @Nullable
+    private final Cell hi;
+
+    private final boolean hiInclusive;
+
+    ArenaCellMap(ByteArena valueArena) {
+        this(new Store(valueArena), null, false, null, false);
+    }
+
+    private ArenaCellMap(
+            Store store, @Nullable Cell lo, boolean loInclusive, @Nullable Cell hi, boolean hiInclusive) {
+        this.store = store;
+        this.lo = lo;
+        this.loInclusive = loInclusive;
+        this.hi = hi;
+        this.hiInclusive = hiInclusive;
+    }
+
+    @Override
+    public int size() {
+        synchronized (store) {
+            if (lo == null && hi == null) {
+                return store.size;
+            }
+            store.ensureSorted();
+            return store.count(lo, loInclusive, hi, hiInclusive);
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        if (!(key instanceof Cell) || !inRange((Cell) key)) {
+            return false;
+        }
+        synchronized (store) {
+            return store.find((Cell) key) >= 0;
+        }
+    }
+
+    @Override
+    public byte[] get(Object key) {
+        if (!(key instanceof Cell) || !inRange((Cell) key)) {
+            return null;
+        }
+        synchronized (store) {
+            int id = store.find((Cell) key);
+            return id < 0 ? null : store.value(id);
+        }
+    }
+
+    @Override
+    public byte[] put(Cell key, byte[] value) {
+        checkPut(key, value);
+        synchronized (store) {
+            return store.put(key, value, false);
+        }
+    }
+
+    @Override
+    public byte[] putIfAbsent(Cell key, byte[] value) {
+        checkPut(key, value);
+        synchronized (store) {
+            return store.put(key, value, true);
+        }
+    }
+
+    /**
+     * Unlike {@link java.util.concurrent.ConcurrentSkipListMap}, values are compared by content, since stored values
+     * are copies.
+     */
+    @Override
+    public boolean replace(Cell key, byte[] oldValue, byte[] newValue) {
+        checkPut(key, newValue);
+        synchronized (store) {
+            int id = store.find(key);
+            if (id < 0 || !Arrays.equals(store.value(id), oldValue)) {
+                return false;
+            }
+            store.setValue(id, newValue);
+            return true;
+        }
+    }
+
+    @Override
+    public byte[] replace(Cell key, byte[] value) {
+        checkPut(key, value);
+        synchronized (store) {
+            int id = store.find(key);
+            if (id < 0) {
+                return null;
+            }
+            byte[] previous = store.value(id);
+            store.setValue(id, value);
+            return previous;
+        }
+    }
+
+    @Override
+    public byte[] remove(Object key) {
+        throw new UnsupportedOperationException("Buffered local writes cannot be removed");
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+        throw new UnsupportedOperationException("Buffered local writes cannot be removed");
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException("Buffered local writes cannot be removed");
+    }
+
+    @Override
+    public Set<Entry<Cell, byte[]>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<Cell, byte[]>> iterator() {
+                return new PositionIterator<>(store::entry);
+            }
+
+            @Override
+            public int size() {
+                return ArenaCellMap.this.size();
+            }
+        };
+    }
+
+    @Override
+    public Collection<byte[]> values() {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<byte[]> iterator() {
+                return new PositionIterator<>(store::value);
+            }
+
+            @Override
+            public int size() {
+                return ArenaCellMap.this.size();
+            }
+        };
+    }
+
+    @Override
+    public NavigableSet<Cell> keySet() {
+        return new KeySet();
+    }
+
+    @Override
+    public NavigableSet<Cell> navigableKeySet() {
+        return new KeySet();
+    }
+
+    @Override
+    public Comparator<? super Cell> comparator() {
+        return null;
+    }
+
+    @Override
+    public Cell firstKey() {
+        return keyOrThrow(idOfFirst());
+    }
+
+    @Override
+    public Cell lastKey() {
+        return keyOrThrow(idOfLast());
+    }
+
+    @Override
+    public Entry<Cell, byte[]> firstEntry() {
+        return entryOrNull(idOfFirst());
+    }
+
+    @Override
+    public Entry<Cell, byte[]> lastEntry() {
+        return entryOrNull(idOfLast());
+    }
+
+    @Override
+    public Entry<Cell, byte[]> lowerEntry(Cell key) {
+        return entryOrNull(idOfLower(key));
+    }
+
+    @Override
+    public Cell lowerKey(Cell key) {
+        return keyOrNull(idOfLower(key));
+    }
+
+    @Override
+    public Entry<Cell, byte[]> floorEntry(Cell key) {
+        return entryOrNull(idOfFloor(key));
+    }
+
+    @Override
+    public Cell floorKey(Cell key) {
+        return keyOrNull(idOfFloor(key));
+    }
+
+    @Override
+    public Entry<Cell, byte[]> ceilingEntry(Cell key) {
+        return entryOrNull(idOfCeiling(key));
+    }
+
+    @Override
+    public Cell ceilingKey(Cell key) {
+        return keyOrNull(idOfCeiling(key));
+    }
+
+    @Override
+    public Entry<Cell, byte[]> higherEntry(Cell key) {
+        return entryOrNull(idOfHigher(key));
+    }
+
+    @Override
+    public Cell higherKey(Cell key) {
+        return keyOrNull(idOfHigher(key));
+    }
+
+    @Override
+    public Entry<Cell, byte[]> pollFirstEntry() {
+        throw new UnsupportedOperationException("Buffered local writes cannot be removed");
+    }
+
+    @Override
+    public Entry<Cell, byte[]> pollLastEntry() {
+        throw new UnsupportedOperationException("Buffered local writes cannot be removed");
+    }
+
+    @Override
+    public ConcurrentNavigableMap<Cell, byte[]> descendingMap() {
+        throw new UnsupportedOperationException("Descending views of buffered local writes are not supported");
+    }
+
+    @Override
+    public NavigableSet<Cell> descendingKeySet() {
+        throw new UnsupportedOperationException("Descending views of buffered local writes are not supported");
+    }
+
+    @Override
+    public ConcurrentNavigableMap<Cell, byte[]> subMap(
+            Cell fromKey, boolean fromInclusive, Cell toKey, boolean toInclusive) {
+        Preconditions.checkNotNull(fromKey, "fromKey");
+        Preconditions.checkNotNull(toKey, "toKey");
+        return restrict(fromKey, fromInclusive, toKey, toInclusive);
+    }
+
+    @Override
+    public ConcurrentNavigableMap<Cell, byte[]> headMap(Cell toKey, boolean inclusive) {
+        Preconditions.checkNotNull(toKey, "toKey");
+        return restrict(null, false, toKey, inclusive);
+    }
+
+    @Override
+    public ConcurrentNavigableMap<Cell, byte[]> tailMap(Cell fromKey, boolean inclusive) {
+        Preconditions.checkNotNull(fromKey, "fromKey");
+        return restrict(fromKey, inclusive, null, false);
+    }
+
+    @Override
+    public ConcurrentNavigableMap<Cell, byte[]> subMap(Cell fromKey, Cell toKey) {
+        return subMap(fromKey, true, toKey, false);
+    }
+
+    @Override
+    public ConcurrentNavigableMap<Cell, byte[]> headMap(Cell toKey) {
+        return headMap(toKey, false);
+    }
+
+    @Override
+    public ConcurrentNavigableMap<Cell, byte[]> tailMap(Cell fromKey) {
+        return tailMap(fromKey, true);
+    }
+
+    private void checkPut(Cell key, byte[] value) {
+        Preconditions.checkNotNull(key, "key");
+        Preconditions.checkNotNull(value, "value");
+        Preconditions.checkArgument(inRange(key), "Key is out of the range of this view");
+    }
+
+    private ArenaCellMap restrict(
+            @Nullable Cell fromKey, boolean fromInclusive, @Nullable Cell toKey, boolean toInclusive) {
+        Cell newLo = lo;
+        boolean newLoInclusive = loInclusive;
+        if (fromKey != null) {
+            int cmp = lo == null ? 1 : fromKey.compareTo(lo);
+            if (cmp > 0 || (cmp == 0 && !fromInclusive)) {
+                newLo = fromKey;
+                newLoInclusive = fromInclusive;
+            }
+        }
+        Cell newHi = hi;
+        boolean newHiInclusive = hiInclusive;
+        if (toKey != null) {
+            int cmp = hi == null ? -1 : toKey.compareTo(hi);
+            if (cmp < 0 || (cmp == 0 && !toInclusive)) {
+                newHi = toKey;
+                newHiInclusive = toInclusive;
+            }
+        }
+        return new ArenaCellMap(store, newLo, newLoInclusive, newHi, newHiInclusive);
+    }
+
+    private boolean inRange(Cell key) {
+        if (lo != null) {
+            int cmp = key.compareTo(lo);
+            if (cmp < 0 || (cmp == 0 && !loInclusive)) {
+                return false;
+            }
+        }
+        if (hi != null) {
+            int cmp = key.compareTo(hi);
+            return cmp < 0 || (cmp == 0 && hiInclusive);
+        }
+        return true;
+    }
+
+    @GuardedBy("store")
+    private boolean aboveLo(int id) {
+        if (lo == null) {
+            return true;
+        }
+        int cmp = store.compare(id, lo);
+        return cmp > 0 || (cmp == 0 && loInclusive);
+    }
+
+    @GuardedBy("store")
+    private boolean belowHi(int id) {
+        if (hi == null) {
+            return true;
+        }
+        int cmp = store.compare(id, hi);
+        return cmp < 0 || (cmp == 0 && hiInclusive);
+    }
+
+    @GuardedBy("store")
+    private int firstInView() {
+        int id = lo == null ? store.first() : (loInclusive ? store.ceiling(lo) : store.higher(lo));
+        return id >= 0 && belowHi(id) ? id : -1;
+    }
+
+    @GuardedBy("store")
+    private int lastInView() {
+        int id = hi == null ? store.last() : (hiInclusive ? store.floor(hi) : store.lower(hi));
+        return id >= 0 && aboveLo(id) ? id : -1;
+    }
+
+    /**
+     * Clamps an entry preceding some key to this view: if it lies above the view, so does the key.
+     */
+    @GuardedBy("store")
+    private int clampPreceding(int id) {
+        if (id < 0) {
+            return -1;
+        }
+        if (!belowHi(id)) {
+            return lastInView();
+        }
+        return aboveLo(id) ? id : -1;
+    }
+
+    /**
+     * Clamps an entry succeeding some key to this view: if it lies below the view, so does the key.
+     */
+    @GuardedBy("store")
+    private int clampSucceeding(int id) {
+        if (id < 0) {
+            return -1;
+        }
+        if (!aboveLo(id)) {
+            return firstInView();
+        }
+        return belowHi(id) ? id : -1;
+    }
+
+    private int idOfFirst() {
+        synchronized (store) {
+            store.ensureSorted();
+            return firstInView();
+        }
+    }
+
+    private int idOfLast() {
+        synchronized (store) {
+            store.ensureSorted();
+            return lastInView();
+        }
+    }
+
+    private int idOfLower(Cell key) {
+        synchronized (store) {
+            store.ensureSorted();
+            return clampPreceding(store.lower(key));
+        }
+    }
+
+    private int idOfFloor(Cell key) {
+        synchronized (store) {
+            store.ensureSorted();
+            return clampPreceding(store.floor(key));
+        }
+    }
+
+    private int idOfCeiling(Cell key) {
+        synchronized (store) {
+            store.ensureSorted();
+            return clampSucceeding(store.ceiling(key));
+        }
+    }
+
+    private int idOfHigher(Cell key) {
+        synchronized (store) {
+            store.ensureSorted();
+            return clampSucceeding(store.higher(key));
+        }
+    }
+
+    private Cell keyOrThrow(int id) {
+        if (id < 0) {
+            throw new NoSuchElementException();
+        }
+        return keyOrNull(id);
+    }
+
+    private Cell keyOrNull(int id) {
+        if (id < 0) {
+            return null;
+        }
+        synchronized (store) {
+            return store.key(id);
+        }
+    }
+
+    private Entry<Cell, byte[]> entryOrNull(int id) {
+        if (id < 0) {
+            return null;
+        }
+        synchronized (store) {
+            return store.entry(id);
+        }
+    }
+
+    /**
+     * Walks the entries of this view in cell order, merging the two sorted runs of the store. If entries are inserted
+     * concurrently, the iterator re-seeks to the first entries after the last one it returned, so it reflects some of
+     * the insertions but never repeats or skips existing entries.
+     */
+    private final class PositionIterator<T> implements Iterator<T> {
+        private final IntFunction<T> extractor;
+        private int basePosition;
+        private int baseEnd;
+        private int recentPosition;
+        private int recentEnd;
+        private int lastId = -1;
+        private long expectedModCount;
+
+        PositionIterator(IntFunction<T> extractor) {
+            this.extractor = extractor;
+            synchronized (store) {
+                seek();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            synchronized (store) {
+                reseekIfModified();
+                return basePosition < baseEnd || recentPosition < recentEnd;
+            }
+        }
+
+        @Override
+        public T next() {
+            synchronized (store) {
+                reseekIfModified();
+                int baseId = basePosition < baseEnd ? store.base[basePosition] : -1;
+                int recentId = recentPosition < recentEnd ? store.recent[recentPosition] : -1;
+                if (baseId < 0 && recentId < 0) {
+                    throw new NoSuchElementException();
+                }
+                if (recentId < 0 || (baseId >= 0 && store.compareIds(baseId, recentId) < 0)) {
+                    lastId = baseId;
+                    basePosition++;
+                } else {
+                    lastId = recentId;
+                    recentPosition++;
+                }
+                return extractor.apply(lastId);
+            }
+        }
+
+        @GuardedBy("store")
+        private void reseekIfModified() {
+            if (store.modCount != expectedModCount) {
+                seek();
+            }
+        }
+
+        @GuardedBy("store")
+        private void seek() {
+            store.ensureSorted();
+            basePosition = startPosition(store.base);
+            baseEnd = endPosition(store.base);
+            recentPosition = startPosition(store.recent);
+            recentEnd = endPosition(store.recent);
+            expectedModCount = store.modCount;
+        }
+
+        @GuardedBy("store")
+        private int startPosition(int[] run) {
+            int position = lo == null ? 0 : store.search(run, lo, !loInclusive);
+            return lastId < 0 ? position : Math.max(position, store.higherPosition(run, lastId));
+        }
+
+        @GuardedBy("store")
+        private int endPosition(int[] run) {
+            return hi == null ? run.length : store.search(run, hi, hiInclusive);
+        }
+    }
+
+    private final class KeySet extends AbstractSet<Cell> implements NavigableSet<Cell> {
+        @Override
+        public Iterator<Cell> iterator() {
+            return new PositionIterator<>(store::key);
+        }
+
+        @Override
+        public int size() {
+            return ArenaCellMap.this.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return ArenaCellMap.this.isEmpty();
+        }
+
+        @Override
+        public boolean contains(Object object) {
+            return containsKey(object);
+        }
+
+        @Override
+        public boolean remove(Object object) {
+            throw new UnsupportedOperationException("Buffered local writes cannot be removed");
+        }
+
+        @Override
+        public Cell lower(Cell cell) {
+            return lowerKey(cell);
+        }
+
+        @Override
+        public Cell floor(Cell cell) {
+            return floorKey(cell);
+        }
+
+        @Override
+        public Cell ceiling(Cell cell) {
+            return ceilingKey(cell);
+        }
+
+        @Override
+        public Cell higher(Cell cell) {
+            return higherKey(cell);
+        }
+
+        @Override
+        public Cell pollFirst() {
+            throw new UnsupportedOperationException("Buffered local writes cannot be removed");
+        }
+
+        @Override
+        public Cell pollLast() {
+            throw new UnsupportedOperationException("Buffered local writes cannot be removed");
+        }
+
+        @Override
+        public NavigableSet<Cell> descendingSet() {
+            throw new UnsupportedOperationException("Descending views of buffered local writes are not supported");
+        }
+
+        @Override
+        public Iterator<Cell> descendingIterator() {
+            throw new UnsupportedOperationException("Descending views of buffered local writes are not supported");
+        }
+
+        @Override
+        public NavigableSet<Cell> subSet(Cell fromElement, boolean fromInclusive, Cell toElement, boolean toInclusive) {
+            return subMap(fromElement, fromInclusive, toElement, toInclusive).navigableKeySet();
+        }
+
+        @Override
+        public NavigableSet<Cell> headSet(Cell toElement, boolean inclusive) {
+            return headMap(toElement, inclusive).navigableKeySet();
+        }
+
+        @Override
+        public NavigableSet<Cell> tailSet(Cell fromElement, boolean inclusive) {
+            return tailMap(fromElement, inclusive).navigableKeySet();
+        }
+
+        @Override
+        public SortedSet<Cell> subSet(Cell fromElement, Cell toElement) {
+            return subSet(fromElement, true, toElement, false);
+        }
+
+        @Override
+        public SortedSet<Cell> headSet(Cell toElement) {
+            return headSet(toElement, false);
+        }
+
+        @Override
+        public SortedSet<Cell> tailSet(Cell fromElement) {
+            return tailSet(fromElement, true);
+        }
+
+        @Override
+        public Comparator<? super Cell> comparator() {
+            return null;
+        }
+
+        @Override
+        public Cell first() {
+            return firstKey();
+        }
+
+        @Override
+        public Cell last() {
+            return lastKey();
+        }
+    }
+
+    /**
+     * The storage shared by a map and all of its views. All access must be synchronized on the store.
+     *
+     * Each cell name is stored in the key arena as a two byte row length, a two byte column length, the row and the
+     * column; cell names are at most {@link Cell#MAX_NAME_LENGTH} bytes, so the lengths always fit.
+     */
+    private static final class Store {
+        private static final int INITIAL_CAPACITY = 16;
+        private static final int NAME_HEADER_BYTES = 4;
+
+        private final ByteArena keys = ByteArena.createHeapOnly();
+        private final ByteArena values;
+
+        private long[] keyAddresses = new long[INITIAL_CAPACITY];
+        private long[] valueAddresses = new long[INITIAL_CAPACITY];
+        private int[] valueLengths = new int[INITIAL_CAPACITY];
+        private int[] hashes = new int[INITIAL_CAPACITY];
+        private int size;
+
+        /**
+         * Open-addressing hash index from cell to entry id + 1; zero denotes an empty slot.
+         */
+        private int[] slots = new int[INITIAL_CAPACITY * 2];
+
+        /**
+         * The ids of entries {@code [0, base.length)} in cell order.
+         */
+        private int[] base = new int[0];
+
+        /**
+         * The ids of entries {@code [base.length, base.length + recent.length)} in cell order. Entries are assigned
+         * increasing ids, so any entry with a larger id has been inserted since the order was last restored.
+         */
+        private int[] recent = new int[0];
+
+        /**
+         * Incremented whenever an entry is inserted.
+         */
+        private long modCount;
+
+        Store(ByteArena values) {
+            this.values = values;
+        }
+
+        int find(Cell cell) {
+            byte[] row = cell.getRowName();
+            byte[] col = cell.getColumnName();
+            int hash = hash(row, col);
+            int mask = slots.length - 1;
+            for (int slot = hash & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+                int id = slots[slot] - 1;
+                if (hashes[id] == hash && compare(id, row, col) == 0) {
+                    return id;
+                }
+            }
+            return -1;
+        }
+
+        byte[] put(Cell cell, byte[] value, boolean onlyIfAbsent) {
+            int id = find(cell);
+            if (id >= 0) {
+                byte[] previous = value(id);
+                if (!onlyIfAbsent) {
+                    setValue(id, value);
+                }
+                return previous;
+            }
+            insert(cell, value);
+            return null;
+        }
+
+        void setValue(int id, byte[] value) {
+            valueAddresses[id] = values.append(value);
+            valueLengths[id] = value.length;
+        }
+
+        byte[] value(int id) {
+            return values.read(valueAddresses[id], valueLengths[id]);
+        }
+
+        Cell key(int id) {
+            long address = keyAddresses[id];
+            byte[] chunk = keys.chunk(address);
+            int offset = ByteArena.offset(address);
+            int rowLength = readLength(chunk, offset);
+            int colLength = readLength(chunk, offset + 2);
+            int rowStart = offset + NAME_HEADER_BYTES;
+            return Cell.create(
+                    Arrays.copyOfRange(chunk, rowStart, rowStart + rowLength),
+                    Arrays.copyOfRange(chunk, rowStart + rowLength, rowStart + rowLength + colLength));
+        }
+
+        Map.Entry<Cell, byte[]> entry(int id) {
+            return new SimpleImmutableEntry<>(key(id), value(id));
+        }
+
+        /**
+         * Sorts the entries inserted since the last call into the recent run, and folds the recent run into the base
+         * run once it is longer than the square root of the base run. Sorting in new entries costs
+         * O(sqrt n + k log k), and folding costs O(n) once per O(sqrt n) insertions.
+         */
+        void ensureSorted() {
+            int ordered = base.length + recent.length;
+            if (ordered == size) {
+                return;
+            }
+            int[] fresh = new int[size - ordered];
+            for (int i = 0; i < fresh.length; i++) {
+                fresh[i] = ordered + i;
+            }
+            sortIds(fresh, new int[fresh.length], 0, fresh.length);
+            recent = merge(recent, fresh);
+            if ((long) recent.length * recent.length > base.length) {
+                base = merge(base, recent);
+                recent = new int[0];
+            }
+        }
+
+        int first() {
+            return lesser(at(base, 0), at(recent, 0));
+        }
+
+        int last() {
+            return greater(at(base, base.length - 1), at(recent, recent.length - 1));
+        }
+
+        /**
+         * Returns the least entry whose cell is not less than the given cell, or -1 if there is none.
+         */
+        int ceiling(Cell cell) {
+            return lesser(at(base, search(base, cell, false)), at(recent, search(recent, cell, false)));
+        }
+
+        /**
+         * Returns the least entry whose cell is greater than the given cell, or -1 if there is none.
+         */
+        int higher(Cell cell) {
+            return lesser(at(base, search(base, cell, true)), at(recent, search(recent, cell, true)));
+        }
+
+        /**
+         * Returns the greatest entry whose cell is not greater than the given cell, or -1 if there is none.
+         */
+        int floor(Cell cell) {
+            return greater(at(base, search(base, cell, true) - 1), at(recent, search(recent, cell, true) - 1));
+        }
+
+        /**
+         * Returns the greatest entry whose cell is less than the given cell, or -1 if there is none.
+         */
+        int lower(Cell cell) {
+            return greater(at(base, search(base, cell, false) - 1), at(recent, search(recent, cell, false) - 1));
+        }
+
+        /**
+         * Returns the number of sorted entries between the given bounds, where a null bound is unbounded.
+         */
+        int count(@Nullable Cell lo, boolean loInclusive, @Nullable Cell hi, boolean hiInclusive) {
+            return count(base, lo, loInclusive, hi, hiInclusive) + count(recent, lo, loInclusive, hi, hiInclusive);
+        }
+
+        int compare(int id, Cell cell) {
+            return compare(id, cell.getRowName(), cell.getColumnName());
+        }
+
+        /**
+         * Returns the first position in the given run whose cell is greater than that of the given entry.
+         */
+        int higherPosition(int[] run, int id) {
+            int low = 0;
+            int high = run.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (compareIds(run[mid], id) <= 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * Returns the first position in the given run whose cell is greater than (if strictly greater) or not less
+         * than the given cell.
+         */
+        int search(int[] run, Cell cell, boolean strictlyGreater) {
+            byte[] row = cell.getRowName();
+            byte[] col = cell.getColumnName();
+            int low = 0;
+            int high = run.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                int cmp = compare(run[mid], row, col);
+                if (cmp < 0 || (cmp == 0 && strictlyGreater)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private int count(int[] run, @Nullable Cell lo, boolean loInclusive, @Nullable Cell hi, boolean hiInclusive) {
+            int from = lo == null ? 0 : search(run, lo, !loInclusive);
+            int to = hi == null ? run.length : search(run, hi, hiInclusive);
+            return Math.max(0, to - from);
+        }
+
+        private int[] merge(int[] first, int[] second) {
+            int[] merged = new int[first.length + second.length];
+            int i = 0;
+            int j = 0;
+            int k = 0;
+            while (i < first.length && j < second.length) {
+                merged[k++] = compareIds(second[j], first[i]) < 0 ? second[j++] : first[i++];
+            }
+            System.arraycopy(first, i, merged, k, first.length - i);
+            System.arraycopy(second, j, merged, k + first.length - i, second.length - j);
+            return merged;
+        }
+
+        private int lesser(int first, int second) {
+            if (first < 0 || second < 0) {
+                return Math.max(first, second);
+            }
+            return compareIds(first, second) < 0 ? first : second;
+        }
+
+        private int greater(int first, int second) {
+            if (first < 0 || second < 0) {
+                return Math.max(first, second);
+            }
+            return compareIds(first, second) > 0 ? first : second;
+        }
+
+        private static int at(int[] run, int position) {
+            return position >= 0 && position < run.length ? run[position] : -1;
+        }
+
+        private void insert(Cell cell, byte[] value) {
+            if (size == keyAddresses.length) {
+                int capacity = size * 2;
+                keyAddresses = Arrays.copyOf(keyAddresses, capacity);
+                valueAddresses = Arrays.copyOf(valueAddresses, capacity);
+                valueLengths = Arrays.copyOf(valueLengths, capacity);
+                hashes = Arrays.copyOf(hashes, capacity);
+            }
+            byte[] row = cell.getRowName();
+            byte[] col = cell.getColumnName();
+            int id = size++;
+            keyAddresses[id] = appendName(row, col);
+            hashes[id] = hash(row, col);
+            setValue(id, value);
+            if (size * 2 > slots.length) {
+                slots = new int[slots.length * 2];
+                for (int existing = 0; existing < size; existing++) {
+                    insertSlot(existing);
+                }
+            } else {
+                insertSlot(id);
+            }
+            modCount++;
+        }
+
+        private void insertSlot(int id) {
+            int mask = slots.length - 1;
+            int slot = hashes[id] & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = id + 1;
+        }
+
+        private long appendName(byte[] row, byte[] col) {
+            long address = keys.allocate(NAME_HEADER_BYTES + row.length + col.length);
+            byte[] chunk = keys.chunk(address);
+            int offset = ByteArena.offset(address);
+            chunk[offset] = (byte) (row.length >>> 8);
+            chunk[offset + 1] = (byte) row.length;
+            chunk[offset + 2] = (byte) (col.length >>> 8);
+            chunk[offset + 3] = (byte) col.length;
+            System.arraycopy(row, 0, chunk, offset + NAME_HEADER_BYTES, row.length);
+            System.arraycopy(col, 0, chunk, offset + NAME_HEADER_BYTES + row.length, col.length);
+            return address;
+        }
+
+        private int compare(int id, byte[] row, byte[] col) {
+            long address = keyAddresses[id];
+            byte[] chunk = keys.chunk(address);
+            int offset = ByteArena.offset(address);
+            int rowLength = readLength(chunk, offset);
+            int colLength = readLength(chunk, offset + 2);
+            int rowStart = offset + NAME_HEADER_BYTES;
+            int cmp = Arrays.compareUnsigned(chunk, rowStart, rowStart + rowLength, row, 0, row.length);
+            if (cmp != 0) {
+                return cmp;
+            }
+            int colStart = rowStart + rowLength;
+            return Arrays.compareUnsigned(chunk, colStart, colStart + colLength, col, 0, col.length);
+        }
+
+        private int compareIds(int first, int second) {
+            long firstAddress = keyAddresses[first];
+            long secondAddress = keyAddresses[second];
+            byte[] firstChunk = keys.chunk(firstAddress);
+            byte[] secondChunk = keys.chunk(secondAddress);
+            int firstOffset = ByteArena.offset(firstAddress);
+            int secondOffset = ByteArena.offset(secondAddress);
+            int firstRowLength = readLength(firstChunk, firstOffset);
+            int secondRowLength = readLength(secondChunk, secondOffset);
+            int firstRowStart = firstOffset + NAME_HEADER_BYTES;
+            int secondRowStart = secondOffset + NAME_HEADER_BYTES;
+            int cmp = Arrays.compareUnsigned(
+                    firstChunk,
+                    firstRowStart,
+                    firstRowStart + firstRowLength,
+                    secondChunk,
+                    secondRowStart,
+                    secondRowStart + secondRowLength);
+            if (cmp != 0) {
+                return cmp;
+            }
+            int firstColStart = firstRowStart + firstRowLength;
+            int secondColStart = secondRowStart + secondRowLength;
+            return Arrays.compareUnsigned(
+                    firstChunk,
+                    firstColStart,
+                    firstColStart + readLength(firstChunk, firstOffset + 2),
+                    secondChunk,
+                    secondColStart,
+                    secondColStart + readLength(secondChunk, secondOffset + 2));
+        }
+
+        /**
+         * Merge sort, which is linear if the ids are already in cell order.
+         */
+        private void sortIds(int[] ids, int[] scratch, int from, int to) {
+            if (to - from < 2) {
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            sortIds(ids, scratch, from, mid);
+            sortIds(ids, scratch, mid, to);
+            if (compareIds(ids[mid - 1], ids[mid]) <= 0) {
+                return;
+            }
+            System.arraycopy(ids, from, scratch, from, to - from);
+            int i = from;
+            int j = mid;
+            int k = from;
+            while (i < mid && j < to) {
+                ids[k++] = compareIds(scratch[j], scratch[i]) < 0 ? scratch[j++] : scratch[i++];
+            }
+            System.arraycopy(scratch, i, ids, k, mid - i);
+            System.arraycopy(scratch, j, ids, k + mid - i, to - j);
+        }
+
+        private static int readLength(byte[] chunk, int offset) {
+            return ((chunk[offset] & 0xff) << 8) | (chunk[offset + 1] & 0xff);
+        }
+
+        private static int hash(byte[] row, byte[] col) {
+            int hash = 31 * Arrays.hashCode(row) + Arrays.hashCode(col);
+            return hash ^ (hash >>> 16);
+        }
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.transaction.impl;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.palantir.common.base.Throwables;
+import com.palantir.logsafe.Preconditions;
+import com.palantir.logsafe.SafeArg;
+import com.palantir.logsafe.logger.SafeLogger;
+import com.palantir.logsafe.logger.SafeLoggerFactory;
+import com.palantir.util.file.TempFileUtils;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Append-only byte storage, used by {@link ArenaCellMap} to hold cell names and values in a handful of large arrays
+ * rather than one array per name and value.
+ *
+ * Records are addressed by a long: non-negative addresses refer to heap chunks (chunk index in the high bits, offset
+ * in the low bits). Once more than the spill threshold has been appended, further records are written to a temporary
+ * file instead and addressed by the bitwise complement of their file position. The file is deleted on
+ * {@link #close()}.
+ */
+@ThreadSafe
+final class ByteArena implements Closeable {
+    private static final SafeLogger log = SafeLoggerFactory.get(ByteArena.class);
+
+    private static final int MIN_CHUNK_SIZE = 4 * 1024;
+    private static final int MAX_CHUNK_SIZE = 1024 * 1024;
+    private static final int SPILL_BUFFER_SIZE = 64 * 1024;
+
+    private final long spillThresholdBytes;
+
+    @GuardedBy("this")
+    private final List<byte[]> chunks = new ArrayList<>();
+
+    @GuardedBy("this")
+    private int chunkPosition;
+
+    @GuardedBy("this")
+    private long heapBytes;
+
+    @GuardedBy("this")
+    private FileChannel spillFile;
+
+    @GuardedBy("this")
+    private ByteBuffer spillBuffer;
+
+    @GuardedBy("this")
+    private long spillFileSize;
+
+    ByteArena(long spillThresholdBytes) {
+        this.spillThresholdBytes = spillThresholdBytes;
+    }
+
+    static ByteArena createHeapOnly() {
+        return new ByteArena(Long.MAX_VALUE);
+    }
+
+    /**
+     * Appends the given bytes, returning the address at which they can be read.
+     */
+    synchronized long append(byte[] bytes) {
+        if (heapBytes + bytes.length > spillThresholdBytes) {
+            return ~appendToSpillFile(bytes);
+        }
+        long address = allocate(bytes.length);
+        System.arraycopy(bytes, 0, chunks.get(chunkIndex(address)), offset(address), bytes.length);
+        return address;
+    }
+
+    /**
+     * Reserves space on the heap for a record of the given length, which the caller must then fill in via
+     * {@link #chunk(long)} and {@link #offset(long)}. Records written in this way are never spilled.
+     */
+    synchronized long allocate(int length) {
+        byte[] current = chunks.isEmpty() ? null : chunks.get(chunks.size() - 1);
+        if (current == null || current.length - chunkPosition < length) {
+            int nextChunkSize = current == null ? MIN_CHUNK_SIZE : Math.min(current.length * 2, MAX_CHUNK_SIZE);
+            current = new byte[Math.max(nextChunkSize, length)];
+            chunks.add(current);
+            chunkPosition = 0;
+        }
+        long address = ((long) (chunks.size() - 1) << 32) | chunkPosition;
+        chunkPosition += length;
+        heapBytes += length;
+        return address;
+    }
+
+    /**
+     * Returns a copy of the record of the given length at the given address.
+     */
+    synchronized byte[] read(long address, int length) {
+        byte[] result = new byte[length];
+        if (address >= 0) {
+            System.arraycopy(chunks.get(chunkIndex(address)), offset(address), result, 0, length);
+        } else {
+            readFromSpillFile(~address, result);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the heap chunk containing the record at the given (heap) address. Callers must not modify it outside
+     * of records they have allocated.
+     */
+    synchronized byte[] chunk(long address) {
+        Preconditions.checkArgument(address >= 0, "Spilled records cannot be accessed in place");
+        return chunks.get(chunkIndex(address));
+    }
+
+    static int offset(long address) {
+        return (int) address;
+    }
+
+    synchronized long heapBytes() {
+        return heapBytes;
+    }
+
+    @VisibleForTesting
+    synchronized long spilledBytes() {
+        return spillFileSize + (spillBuffer == null ? 0 : spillBuffer.position());
+    }
+
+    @Override
+    public synchronized void close() {
+        chunks.clear();
+        if (spillFile != null) {
+            try {
+                spillFile.close();
+            } catch (IOException e) {
+                log.warn("Failed to close local write buffer spill file", e);
+            }
+            spillFile = null;
+            spillBuffer = null;
+            spillFileSize = 0;
+        }
+    }
+
+    private static int chunkIndex(long address) {
+        return (int) (address >>> 32);
+    }
+
+    @GuardedBy("this")
+    private long appendToSpillFile(byte[] bytes) {
+        try {
+            if (spillFile == null) {
+                openSpillFile();
+            }
+            if (spillBuffer.remaining() < bytes.length) {
+                flushSpillBuffer();
+            }
+            long position = spillFileSize + spillBuffer.position();
+            if (bytes.length > spillBuffer.capacity()) {
+                writeFully(ByteBuffer.wrap(bytes), spillFileSize);
+                spillFileSize += bytes.length;
+            } else {
+                spillBuffer.put(bytes);
+            }
+            return position;
+        } catch (IOException e) {
+            throw Throwables.rewrapAndThrowUncheckedException("Failed to spill local writes to disk", e);
+        }
+    }
+
+    @GuardedBy("this")
+    private void readFromSpillFile(long position, byte[] result) {
+        if (position >= spillFileSize) {
+            // Records are never split between the file and the buffer, so this one is entirely unflushed.
+            ByteBuffer unflushed = spillBuffer.duplicate();
+            unflushed.position(Math.toIntExact(position - spillFileSize));
+            unflushed.get(result);
+            return;
+        }
+        try {
+            ByteBuffer target = ByteBuffer.wrap(result);
+            while (target.hasRemaining()) {
+                int read = spillFile.read(target, position + target.position());
+                if (read < 0) {
+                    throw new IOException("Unexpected end of local write buffer spill file");
+                }
+            }
+        } catch (IOException e) {
+            throw Throwables.rewrapAndThrowUncheckedException("Failed to read spilled local writes", e);
+        }
+    }
+
+    @GuardedBy("this")
+    private void openSpillFile() throws IOException {
+        spillFile = FileChannel.open(
+                TempFileUtils.createTempFile("atlasdb-local-writes", ".tmp").toPath(),
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.DELETE_ON_CLOSE);
+        spillBuffer = ByteBuffer.allocateDirect(SPILL_BUFFER_SIZE);
+        log.info(
+                "A single transaction has buffered enough writes that further values will be spilled to disk",
+                SafeArg.of("heapBytes", heapBytes),
+                SafeArg.of("spillThresholdBytes", spillThresholdBytes));
+    }
+
+    @GuardedBy("this")
+    private void flushSpillBuffer() throws IOException {
+        spillBuffer.flip();
+        int length = spillBuffer.remaining();
+        writeFully(spillBuffer, spillFileSize);
+        spillFileSize += length;
+        spillBuffer.clear();
+    }
+
+    @GuardedBy("this")
+    private void writeFully(ByteBuffer source, long position) throws IOException {
+        long target = position;
+        while (source.hasRemaining()) {
+            target += spillFile.write(source, target);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.transaction.impl;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Timer;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.palantir.atlasdb.futures.AtlasFutures;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.KeyAlreadyExistsException;
+import com.palantir.atlasdb.keyvalue.api.KeyValueService;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.keyvalue.impl.ForwardingKeyValueService;
+import com.palantir.atlasdb.transaction.TransactionConfig;
+import com.palantir.atlasdb.util.MetricsManager;
+import com.palantir.common.base.Throwables;
+import com.palantir.common.concurrent.PTExecutors;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Splits the {@link KeyValueService#multiPut(Map, long)} made when committing a very large transaction into chunks of
+ * bounded size (see {@link CommitWriteChunks}), and writes those chunks in parallel on a dedicated executor.
+ *
+ * Chunks are only built once a permit to write them is available, so at most
+ * {@link TransactionConfig#commitWriteChunkConcurrency()} chunks are in flight (and one more is pending) at any time,
+ * however large the transaction. A failure of any chunk fails the whole put and cancels the chunks still being
+ * written; as for a failed multiPut, the transaction has not yet written its commit timestamp, so any chunks that were
+ * written will be rolled back.
+ *
+ * Transactions whose writes fit in a single chunk, or all writes while chunking is disabled, go straight to the
+ * delegate on the calling thread.
+ */
+public final class ChunkedWriteKeyValueService extends ForwardingKeyValueService {
+    private final KeyValueService delegate;
+    private final Supplier<TransactionConfig> transactionConfig;
+    private final ListeningExecutorService executor;
+    private final Timer chunkWriteTimer;
+    private final Histogram chunkSizes;
+
+    private ChunkedWriteKeyValueService(
+            KeyValueService delegate,
+            Supplier<TransactionConfig> transactionConfig,
+            ExecutorService executor,
+            MetricsManager metricsManager) {
+        this.delegate = delegate;
+        this.transactionConfig = transactionConfig;
+        this.executor = MoreExecutors.listeningDecorator(executor);
+        this.chunkWriteTimer = metricsManager.registerOrGetTimer(ChunkedWriteKeyValueService.class, "chunkWrite");
+        this.chunkSizes = metricsManager.registerOrGetHistogram(ChunkedWriteKeyValueService.class, "chunkSizeBytes");
+    }
+
+    public static ChunkedWriteKeyValueService create(
+            KeyValueService delegate, Supplier<TransactionConfig> transactionConfig, MetricsManager metricsManager) {
+        return new ChunkedWriteKeyValueService(
+                delegate,
+                transactionConfig,
+                PTExecutors.newCachedThreadPool("atlas-chunked-commit-writes"),
+                metricsManager);
+    }
+
+    @Override
+    public KeyValueService delegate() {
+        return delegate;
+    }
+
+    @Override
+    public void multiPut(Map<TableReference, ? extends Map<Cell, byte[]>> valuesByTable, long timestamp)
+            throws KeyAlreadyExistsException {
+        TransactionConfig config = transactionConfig.get();
+        if (!config.enableChunkedCommitWrites()
+                || !CommitWriteChunks.exceedsSize(valuesByTable, config.commitWriteChunkSizeBytes())) {
+            delegate.multiPut(valuesByTable, timestamp);
+            return;
+        }
+        writeChunks(
+                CommitWriteChunks.chunks(valuesByTable, config.commitWriteChunkSizeBytes()),
+                timestamp,
+                config.commitWriteChunkConcurrency());
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+        delegate.close();
+    }
+
+    private void writeChunks(Iterator<Map<TableReference, Map<Cell, byte[]>>> chunks, long timestamp, int concurrency) {
+        Semaphore inFlight = new Semaphore(concurrency);
+        AtomicBoolean failed = new AtomicBoolean();
+        List<ListenableFuture<?>> writes = new ArrayList<>();
+        try {
+            // Stop building chunks as soon as one fails, since the whole put will fail anyway.
+            while (chunks.hasNext() && !failed.get()) {
+                inFlight.acquire();
+                if (failed.get()) {
+                    break;
+                }
+                Map<TableReference, Map<Cell, byte[]>> chunk = chunks.next();
+                writes.add(executor.submit(() -> {
+                    try {
+                        writeChunk(chunk, timestamp);
+                    } catch (RuntimeException | Error e) {
+                        failed.set(true);
+                        throw e;
+                    } finally {
+                        inFlight.release();
+                    }
+                }));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancelAll(writes);
+            throw Throwables.rewrapAndThrowUncheckedException(e);
+        }
+        try {
+            AtlasFutures.getUnchecked(Futures.allAsList(writes));
+        } catch (RuntimeException | Error e) {
+            // The put has failed, so there is no point in finishing the chunks that are still being written.
+            cancelAll(writes);
+            throw e;
+        }
+    }
+
+    private static void cancelAll(List<ListenableFuture<?>> writes) {
+        writes.forEach(write -> write.cancel(true));
+    }
+
+    private void writeChunk(Map<TableReference, Map<Cell, byte[]>> chunk, long timestamp) {
+        chunkSizes.update(CommitWriteChunks.approximateSize(chunk));
+        try (Timer.Context timer = chunkWriteTimer.time()) {
+            delegate.multiPut(chunk, timestamp);
+        }
+    }
+}
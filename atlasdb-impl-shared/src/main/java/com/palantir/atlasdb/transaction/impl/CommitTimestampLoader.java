@@ -107,13 +107,10 @@ public final class CommitTimestampLoader {
         }
 
         MutableLongSet pendingGets = LongSets.mutable.of();
-        MutableLongLongMap result = new LongLongHashMap();
+        MutableLongLongMap result = new LongLongHashMap(timestampCache.getCommitTimestampsIfPresent(startTimestamps));
         startTimestamps.each(startTs -> {
-            Long commitTs = timestampCache.getCommitTimestampIfPresent(startTs);
-            if (commitTs == null) {
+            if (!result.containsKey(startTs)) {
                 pendingGets.add(startTs);
-            } else {
-                result.put(startTs, commitTs);
             }
         });
 
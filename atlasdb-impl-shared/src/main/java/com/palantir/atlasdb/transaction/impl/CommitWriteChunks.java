@@ -0,0 +1,106 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.transaction.impl;
+
+import com.google.common.collect.AbstractIterator;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.keyvalue.impl.Cells;
+import com.palantir.logsafe.Preconditions;
+import com.palantir.logsafe.SafeArg;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Splits the buffered writes of a transaction into chunks of bounded approximate size, so that a very large
+ * transaction does not have to be written to the key value service or the sweep queue as a single giant operation.
+ *
+ * Chunks are built lazily as the returned iterator is consumed, so only the chunks that are being written need to be
+ * held in memory alongside the write buffer itself. Sizes are weighted in the same way as
+ * {@link LocalWriteBuffer#getValuesByteCount()}.
+ */
+final class CommitWriteChunks {
+    private CommitWriteChunks() {
+        // utility
+    }
+
+    static long approximateSize(Map<TableReference, ? extends Map<Cell, byte[]>> writes) {
+        long size = 0;
+        for (Map<Cell, byte[]> writesForTable : writes.values()) {
+            for (Map.Entry<Cell, byte[]> write : writesForTable.entrySet()) {
+                size += approximateSize(write);
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Returns whether the approximate size of the given writes exceeds the given limit, looking at no more writes than
+     * needed to tell.
+     */
+    static boolean exceedsSize(Map<TableReference, ? extends Map<Cell, byte[]>> writes, long limitBytes) {
+        long size = 0;
+        for (Map<Cell, byte[]> writesForTable : writes.values()) {
+            for (Map.Entry<Cell, byte[]> write : writesForTable.entrySet()) {
+                size += approximateSize(write);
+                if (size > limitBytes) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    static Iterator<Map<TableReference, Map<Cell, byte[]>>> chunks(
+            Map<TableReference, ? extends Map<Cell, byte[]>> writes, long maxChunkBytes) {
+        Preconditions.checkArgument(
+                maxChunkBytes > 0, "Chunk size must be positive", SafeArg.of("maxChunkBytes", maxChunkBytes));
+        Iterator<? extends Map.Entry<TableReference, ? extends Map<Cell, byte[]>>> tables =
+                writes.entrySet().iterator();
+        return new AbstractIterator<>() {
+            private TableReference currentTable;
+            private Iterator<Map.Entry<Cell, byte[]>> currentWrites;
+
+            @Override
+            protected Map<TableReference, Map<Cell, byte[]>> computeNext() {
+                Map<TableReference, Map<Cell, byte[]>> chunk = new HashMap<>();
+                long chunkBytes = 0;
+                while (chunkBytes < maxChunkBytes) {
+                    if (currentWrites == null || !currentWrites.hasNext()) {
+                        if (!tables.hasNext()) {
+                            break;
+                        }
+                        Map.Entry<TableReference, ? extends Map<Cell, byte[]>> table = tables.next();
+                        currentTable = table.getKey();
+                        currentWrites = table.getValue().entrySet().iterator();
+                        continue;
+                    }
+                    Map.Entry<Cell, byte[]> write = currentWrites.next();
+                    chunk.computeIfAbsent(currentTable, _table -> new HashMap<>())
+                            .put(write.getKey(), write.getValue());
+                    chunkBytes += approximateSize(write);
+                }
+                return chunk.isEmpty() ? endOfData() : chunk;
+            }
+        };
+    }
+
+    private static long approximateSize(Map.Entry<Cell, byte[]> write) {
+        return write.getValue().length + Cells.getApproxSizeOfCell(write.getKey());
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.transaction.impl;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Multimap;
+import com.google.common.collect.MultimapBuilder;
+import com.palantir.atlasdb.autobatch.Autobatchers;
+import com.palantir.atlasdb.autobatch.BatchElement;
+import com.palantir.atlasdb.autobatch.DisruptorAutobatcher;
+import com.palantir.atlasdb.futures.AtlasFutures;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.KeyAlreadyExistsException;
+import com.palantir.atlasdb.keyvalue.api.KeyValueService;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.keyvalue.api.Value;
+import com.palantir.atlasdb.keyvalue.impl.ForwardingKeyValueService;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+import javax.annotation.concurrent.GuardedBy;
+
+/**
+ * Coalesces the {@link KeyValueService#multiPut(Map, long)} calls that concurrently committing transactions make
+ * when writing their buffered values, so that a batch of commits shares a single put per table rather than making
+ * one round trip per transaction.
+ *
+ * Each transaction writes at its own start timestamp, so a batch of more than one transaction is written with
+ * {@link KeyValueService#putWithTimestamps(TableReference, Multimap)}. The key value service has no write of values
+ * with their own timestamps to several tables at once, so such a batch makes one put per table it touches, in the
+ * order the tables first appear in the batch. If one of those puts fails, the tables before it have already been
+ * written and the tables after it are not written at all, and every transaction in the batch fails. This is safe, as
+ * none of them have written a commit timestamp yet, so their values are never read and are rolled back in the same way
+ * as those of a multiPut that failed part way through, which is no more atomic across tables.
+ *
+ * Coalescing can be toggled at runtime; when disabled, calls go straight to the delegate.
+ */
+public final class GroupCommitKeyValueService extends ForwardingKeyValueService {
+    private final KeyValueService delegate;
+    private final BooleanSupplier groupCommitEnabled;
+
+    @GuardedBy("this")
+    private DisruptorAutobatcher<PendingWrites, Void> autobatcher;
+
+    private GroupCommitKeyValueService(KeyValueService delegate, BooleanSupplier groupCommitEnabled) {
+        this.delegate = delegate;
+        this.groupCommitEnabled = groupCommitEnabled;
+    }
+
+    public static GroupCommitKeyValueService create(KeyValueService delegate, BooleanSupplier groupCommitEnabled) {
+        return new GroupCommitKeyValueService(delegate, groupCommitEnabled);
+    }
+
+    @Override
+    public KeyValueService delegate() {
+        return delegate;
+    }
+
+    @Override
+    public void multiPut(Map<TableReference, ? extends Map<Cell, byte[]>> valuesByTable, long timestamp)
+            throws KeyAlreadyExistsException {
+        if (!groupCommitEnabled.getAsBoolean()) {
+            delegate.multiPut(valuesByTable, timestamp);
+            return;
+        }
+        AtlasFutures.getUnchecked(getAutobatcher().apply(new PendingWrites(valuesByTable, timestamp)));
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (autobatcher != null) {
+                autobatcher.close();
+            }
+        }
+        delegate.close();
+    }
+
+    /**
+     * The autobatcher owns a thread, so it is only created once group commit is first used.
+     */
+    private synchronized DisruptorAutobatcher<PendingWrites, Void> getAutobatcher() {
+        if (autobatcher == null) {
+            autobatcher = Autobatchers.<PendingWrites, Void>independent(elements -> processBatch(delegate, elements))
+                    .safeLoggablePurpose("group-commit-key-value-service")
+                    .batchFunctionTimeout(Duration.ofMinutes(5))
+                    .build();
+        }
+        return autobatcher;
+    }
+
+    @VisibleForTesting
+    static void processBatch(KeyValueService delegate, List<BatchElement<PendingWrites, Void>> batch) {
+        try {
+            if (batch.size() == 1) {
+                PendingWrites writes = batch.get(0).argument();
+                delegate.multiPut(writes.valuesByTable(), writes.timestamp());
+            } else {
+                groupByTable(batch).forEach(delegate::putWithTimestamps);
+            }
+            batch.forEach(element -> element.result().set(null));
+        } catch (RuntimeException e) {
+            batch.forEach(element -> element.result().setException(e));
+        }
+    }
+
+    private static Map<TableReference, Multimap<Cell, Value>> groupByTable(
+            List<BatchElement<PendingWrites, Void>> batch) {
+        Map<TableReference, Multimap<Cell, Value>> valuesByTable = new LinkedHashMap<>();
+        for (BatchElement<PendingWrites, Void> element : batch) {
+            long timestamp = element.argument().timestamp();
+            element.argument().valuesByTable().forEach((tableRef, values) -> {
+                Multimap<Cell, Value> tableValues = valuesByTable.computeIfAbsent(
+                        tableRef,
+                        _ignore -> MultimapBuilder.hashKeys().arrayListValues().build());
+                values.forEach((cell, value) -> tableValues.put(cell, Value.create(value, timestamp)));
+            });
+        }
+        return valuesByTable;
+    }
+
+    @VisibleForTesting
+    static final class PendingWrites {
+        private final Map<TableReference, ? extends Map<Cell, byte[]>> valuesByTable;
+        private final long timestamp;
+
+        PendingWrites(Map<TableReference, ? extends Map<Cell, byte[]>> valuesByTable, long timestamp) {
+            this.valuesByTable = valuesByTable;
+            this.timestamp = timestamp;
+        }
+
+        Map<TableReference, ? extends Map<Cell, byte[]>> valuesByTable() {
+            return valuesByTable;
+        }
+
+        long timestamp() {
+            return timestamp;
+        }
+    }
+}
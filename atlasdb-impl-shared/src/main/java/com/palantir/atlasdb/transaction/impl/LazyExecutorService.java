@@ -0,0 +1,103 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.transaction.impl;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+
+/**
+ * Creates its executor when the first task is submitted, so that a transaction manager only starts threads for the
+ * features that are actually used. Shutting it down before then never creates the executor at all.
+ */
+final class LazyExecutorService extends AbstractExecutorService {
+    private final Supplier<ExecutorService> factory;
+
+    @Nullable
+    @GuardedBy("this")
+    private ExecutorService delegate;
+
+    @GuardedBy("this")
+    private boolean shutdown;
+
+    LazyExecutorService(Supplier<ExecutorService> factory) {
+        this.factory = factory;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        getOrCreateDelegate().execute(command);
+    }
+
+    @Override
+    public synchronized void shutdown() {
+        shutdown = true;
+        if (delegate != null) {
+            delegate.shutdown();
+        }
+    }
+
+    @Override
+    public synchronized List<Runnable> shutdownNow() {
+        shutdown = true;
+        return delegate == null ? ImmutableList.of() : delegate.shutdownNow();
+    }
+
+    @Override
+    public synchronized boolean isShutdown() {
+        return delegate == null ? shutdown : delegate.isShutdown();
+    }
+
+    @Override
+    public synchronized boolean isTerminated() {
+        return delegate == null ? shutdown : delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        ExecutorService created;
+        synchronized (this) {
+            if (delegate == null) {
+                return shutdown;
+            }
+            created = delegate;
+        }
+        return created.awaitTermination(timeout, unit);
+    }
+
+    @VisibleForTesting
+    synchronized boolean isCreated() {
+        return delegate != null;
+    }
+
+    private synchronized ExecutorService getOrCreateDelegate() {
+        if (delegate == null) {
+            if (shutdown) {
+                throw new RejectedExecutionException("Executor has been shut down");
+            }
+            delegate = factory.get();
+        }
+        return delegate;
+    }
+}
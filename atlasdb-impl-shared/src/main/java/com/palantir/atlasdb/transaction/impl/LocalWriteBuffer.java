@@ -29,28 +29,77 @@ import com.palantir.logsafe.UnsafeArg;
 import com.palantir.logsafe.exceptions.SafeIllegalStateException;
 import com.palantir.logsafe.logger.SafeLogger;
 import com.palantir.logsafe.logger.SafeLoggerFactory;
+import java.io.Closeable;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ConcurrentNavigableMap;
 import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nullable;
 
-class LocalWriteBuffer {
+class LocalWriteBuffer implements Closeable {
     private static final SafeLogger log = SafeLoggerFactory.get(LocalWriteBuffer.class);
 
+    /**
+     * Shared by all read-only transactions. It can never hold any writes, so the same immutable, empty map is returned
+     * for every table rather than allocating one per table read.
+     */
+    private static final LocalWriteBuffer READ_ONLY = new LocalWriteBuffer(null, true);
+
+    /**
+     * If present, writes are buffered in {@link ArenaCellMap}s whose values share this arena.
+     */
+    @Nullable
+    private final ByteArena valueArena;
+
     private final ConcurrentMap<TableReference, ConcurrentNavigableMap<Cell, byte[]>> writesByTable =
             new ConcurrentHashMap<>();
+    private final Map<TableReference, NavigableMap<Cell, byte[]>> unmodifiableWritesByTable =
+            Collections.unmodifiableMap(writesByTable);
     private final ConcurrentMap<TableReference, Map<Cell, ChangeMetadata>> metadataByTable = new ConcurrentHashMap<>();
     private final ConcurrentMap<TableReference, Object> locksByTable = new ConcurrentHashMap<>();
     private final AtomicLong valuesByteCount = new AtomicLong();
+    private final boolean readOnly;
+
+    LocalWriteBuffer() {
+        this(null, false);
+    }
+
+    private LocalWriteBuffer(@Nullable ByteArena valueArena, boolean readOnly) {
+        this.valueArena = valueArena;
+        this.readOnly = readOnly;
+    }
+
+    /**
+     * Creates a buffer that stores writes compactly in byte arenas rather than in skip lists, which is much cheaper
+     * in heap and GC for transactions that write very many cells. Once
+     * {@link TransactionConstants#WARN_LEVEL_FOR_QUEUED_BYTES} of values have been buffered, further values are
+     * spilled to a temporary file, which is deleted when the buffer is closed.
+     */
+    static LocalWriteBuffer createCompact() {
+        return new LocalWriteBuffer(new ByteArena(TransactionConstants.WARN_LEVEL_FOR_QUEUED_BYTES), false);
+    }
+
+    /**
+     * Returns a buffer for transactions that never write, which throws on any attempt to buffer writes. It holds no
+     * per-transaction state.
+     */
+    static LocalWriteBuffer readOnly() {
+        return READ_ONLY;
+    }
 
     public void putLocalWritesAndMetadata(
             TableReference tableRef, Map<Cell, byte[]> values, Map<Cell, ChangeMetadata> metadata) {
-        ConcurrentMap<Cell, byte[]> writes = getLocalWritesForTable(tableRef);
+        if (readOnly) {
+            throw new SafeIllegalStateException(
+                    "Cannot buffer writes in a read-only transaction", LoggingArgs.tableRef(tableRef));
+        }
+        ConcurrentMap<Cell, byte[]> writes = getLocalWritesForTableInternal(tableRef);
         Map<Cell, ChangeMetadata> metadataForWrites = getChangeMetadataForTableInternal(tableRef);
         int numMetadataWritten = 0;
         synchronized (getLockForTable(tableRef)) {
@@ -93,23 +142,29 @@ class LocalWriteBuffer {
     }
 
     /**
-     * Returns all local writes that have been buffered.
+     * Returns an unmodifiable view of all local writes that have been buffered, by table.
      */
-    public ConcurrentMap<TableReference, ConcurrentNavigableMap<Cell, byte[]>> getLocalWrites() {
-        return writesByTable;
+    public Map<TableReference, NavigableMap<Cell, byte[]>> getLocalWrites() {
+        return unmodifiableWritesByTable;
     }
 
     /**
-     * Returns the local writes for cells of the given table.
+     * Returns the local writes for cells of the given table. This is immutable (and empty) for read-only buffers.
      */
-    public ConcurrentNavigableMap<Cell, byte[]> getLocalWritesForTable(TableReference tableRef) {
-        return writesByTable.computeIfAbsent(tableRef, unused -> new ConcurrentSkipListMap<>());
+    public NavigableMap<Cell, byte[]> getLocalWritesForTable(TableReference tableRef) {
+        if (readOnly) {
+            return Collections.emptyNavigableMap();
+        }
+        return getLocalWritesForTableInternal(tableRef);
     }
 
     /**
      * Returns an unmodifiable view of the change metadata for cells of the given table.
      */
     public Map<Cell, ChangeMetadata> getChangeMetadataForTable(TableReference tableRef) {
+        if (readOnly) {
+            return Collections.emptyMap();
+        }
         return Collections.unmodifiableMap(getChangeMetadataForTableInternal(tableRef));
     }
 
@@ -121,6 +176,22 @@ class LocalWriteBuffer {
         return metadataByTable.values().stream().mapToLong(Map::size).sum();
     }
 
+    /**
+     * Releases the buffered values, and deletes any file they were spilled to. The buffered cells remain readable.
+     * This is idempotent.
+     */
+    @Override
+    public void close() {
+        if (valueArena != null) {
+            valueArena.close();
+        }
+    }
+
+    private ConcurrentNavigableMap<Cell, byte[]> getLocalWritesForTableInternal(TableReference tableRef) {
+        return writesByTable.computeIfAbsent(
+                tableRef, unused -> valueArena == null ? new ConcurrentSkipListMap<>() : new ArenaCellMap(valueArena));
+    }
+
     private Map<Cell, ChangeMetadata> getChangeMetadataForTableInternal(TableReference tableRef) {
         // No need for concurrency control on the cell level since it is only written to with a lock and
         // read during commit, which is guaranteed to be single-threaded and exclusive with writing.
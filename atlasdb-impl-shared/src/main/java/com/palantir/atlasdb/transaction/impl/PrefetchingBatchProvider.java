@@ -0,0 +1,323 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.transaction.impl;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.ImmutableList;
+import com.google.common.math.IntMath;
+import com.google.common.primitives.Ints;
+import com.google.errorprone.annotations.MustBeClosed;
+import com.palantir.atlasdb.keyvalue.api.RowResult;
+import com.palantir.atlasdb.keyvalue.api.Value;
+import com.palantir.atlasdb.util.MetricsManager;
+import com.palantir.common.base.ClosableIterator;
+import com.palantir.common.base.Throwables;
+import com.palantir.logsafe.Preconditions;
+import com.palantir.logsafe.SafeArg;
+import com.palantir.logsafe.exceptions.SafeRuntimeException;
+import java.math.RoundingMode;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.ToLongFunction;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+
+/**
+ * Reads ahead of the consumer of a range scan, so that the key value service is fetching the later pages of a batch
+ * while the caller is still processing the earlier ones.
+ *
+ * Each batch of {@code batchSize} rows is cut into {@code maxPagesInFlight} pages, which are read on the given
+ * executor and buffered until the consumer reaches them. Each page is also cut off once it holds about
+ * {@code targetPageBytes}, so pages of wide rows hold fewer rows and buffered memory stays bounded however wide the
+ * rows are. Read-ahead never goes past the end of the batch the consumer is reading: the next batch is only read once
+ * the consumer asks for its first row. {@link BatchSizeIncreasingIterator} closes the iterator whenever it changes the
+ * batch size, so rows read ahead of that would be thrown away. Pages are read by short-lived tasks that never wait on
+ * the consumer, so a bounded executor cannot deadlock even when many scans share it. If the executor rejects a page,
+ * the consumer reads it itself once it gets to it.
+ *
+ * How many pages are read ahead adapts to how fast the consumer is. Whenever the consumer has to wait for a page, twice
+ * as many pages are read ahead, up to {@code maxPagesInFlight}. Whenever the consumer has found the buffer full for as
+ * many pages in a row as are read ahead, it is slower than the key value service, and one page fewer is read ahead.
+ */
+final class PrefetchingBatchProvider<T> implements BatchProvider<T> {
+    private final BatchProvider<T> delegate;
+    private final Executor executor;
+    private final int maxPagesInFlight;
+    private final long targetPageBytes;
+    private final ToLongFunction<T> sizeEstimator;
+    private final Meter prefetchHits;
+    private final Meter prefetchMisses;
+    private final Histogram bufferedPages;
+
+    PrefetchingBatchProvider(
+            BatchProvider<T> delegate,
+            Executor executor,
+            int maxPagesInFlight,
+            long targetPageBytes,
+            ToLongFunction<T> sizeEstimator,
+            MetricsManager metricsManager) {
+        Preconditions.checkArgument(
+                maxPagesInFlight > 0,
+                "Must allow at least one page in flight",
+                SafeArg.of("maxPagesInFlight", maxPagesInFlight));
+        this.delegate = delegate;
+        this.executor = executor;
+        this.maxPagesInFlight = maxPagesInFlight;
+        this.targetPageBytes = targetPageBytes;
+        this.sizeEstimator = sizeEstimator;
+        this.prefetchHits = metricsManager.registerOrGetMeter(PrefetchingBatchProvider.class, "prefetchHit");
+        this.prefetchMisses = metricsManager.registerOrGetMeter(PrefetchingBatchProvider.class, "prefetchMiss");
+        this.bufferedPages = metricsManager.registerOrGetHistogram(PrefetchingBatchProvider.class, "bufferedPages");
+    }
+
+    static long approximateRowSize(RowResult<Value> row) {
+        long size = row.getRowName().length;
+        for (Map.Entry<byte[], Value> column : row.getColumns().entrySet()) {
+            size += column.getKey().length + column.getValue().getContents().length;
+        }
+        return size;
+    }
+
+    @MustBeClosed
+    @Override
+    public ClosableIterator<T> getBatch(int batchSize, @Nullable byte[] lastToken) {
+        return new PrefetchingIterator(delegate.getBatch(batchSize, lastToken), batchSize);
+    }
+
+    @Override
+    public boolean hasNext(byte[] lastToken) {
+        return delegate.hasNext(lastToken);
+    }
+
+    @Override
+    public byte[] getLastToken(List<T> batch) {
+        return delegate.getLastToken(batch);
+    }
+
+    private final class PrefetchingIterator extends AbstractIterator<T> implements ClosableIterator<T> {
+        private final ClosableIterator<T> source;
+        private final int batchSize;
+        private final int maxPageRows;
+        private Iterator<T> currentPage = ImmutableList.<T>of().iterator();
+
+        @GuardedBy("this")
+        private long rowsFetched;
+
+        /**
+         * Rows are only fetched up to here, the end of the batch the consumer is reading.
+         */
+        @GuardedBy("this")
+        private long fetchLimit;
+
+        @GuardedBy("this")
+        private final Deque<List<T>> pages = new ArrayDeque<>();
+
+        @GuardedBy("this")
+        private boolean fetching;
+
+        @GuardedBy("this")
+        private int pagesAhead = maxPagesInFlight;
+
+        /**
+         * How many pages in a row the consumer found the buffer full.
+         */
+        @GuardedBy("this")
+        private int fullBufferTakes;
+
+        @GuardedBy("this")
+        private boolean exhausted;
+
+        @GuardedBy("this")
+        private boolean closed;
+
+        @GuardedBy("this")
+        private RuntimeException failure;
+
+        private PrefetchingIterator(ClosableIterator<T> source, int batchSize) {
+            this.source = source;
+            this.batchSize = batchSize;
+            this.maxPageRows = IntMath.divide(batchSize, maxPagesInFlight, RoundingMode.CEILING);
+            synchronized (this) {
+                fetchLimit = batchSize;
+                fetchIfNeeded();
+            }
+        }
+
+        @Override
+        protected T computeNext() {
+            while (!currentPage.hasNext()) {
+                List<T> page = takePage();
+                if (page == null) {
+                    return endOfData();
+                }
+                currentPage = page.iterator();
+            }
+            return currentPage.next();
+        }
+
+        @Override
+        public void close() {
+            synchronized (this) {
+                closed = true;
+                pages.clear();
+                boolean interrupted = false;
+                while (fetching) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            source.close();
+        }
+
+        @Nullable
+        private synchronized List<T> takePage() {
+            bufferedPages.update(pages.size());
+            if (!pages.isEmpty()) {
+                prefetchHits.mark();
+                adaptToHit();
+            } else if (!exhausted && failure == null) {
+                prefetchMisses.mark();
+                adaptToMiss();
+            }
+            try {
+                while (pages.isEmpty() && !exhausted && !closed && failure == null) {
+                    if (fetching) {
+                        wait();
+                    } else if (rowsFetched >= fetchLimit) {
+                        // The consumer has read the whole batch, and wants the first row of the next one.
+                        fetchLimit += batchSize;
+                        fetchIfNeeded();
+                    } else {
+                        // Nothing is fetching the rows the consumer is waiting for, as the executor rejected the page.
+                        fetching = true;
+                        fetchPage(nextPageRows());
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw Throwables.rewrapAndThrowUncheckedException(e);
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            List<T> page = pages.poll();
+            fetchIfNeeded();
+            return page;
+        }
+
+        @GuardedBy("this")
+        private void adaptToHit() {
+            if (pages.size() < pagesAhead) {
+                fullBufferTakes = 0;
+            } else if (++fullBufferTakes >= pagesAhead) {
+                pagesAhead = Math.max(1, pagesAhead - 1);
+                fullBufferTakes = 0;
+            }
+        }
+
+        @GuardedBy("this")
+        private void adaptToMiss() {
+            pagesAhead = Math.min(maxPagesInFlight, pagesAhead * 2);
+            fullBufferTakes = 0;
+        }
+
+        @GuardedBy("this")
+        private void fetchIfNeeded() {
+            if (fetching
+                    || exhausted
+                    || closed
+                    || failure != null
+                    || pages.size() >= pagesAhead
+                    || rowsFetched >= fetchLimit) {
+                return;
+            }
+            fetching = true;
+            int pageRows = nextPageRows();
+            try {
+                executor.execute(() -> fetchPage(pageRows));
+            } catch (RejectedExecutionException e) {
+                fetching = false;
+                notifyAll();
+            }
+        }
+
+        @GuardedBy("this")
+        private int nextPageRows() {
+            return Ints.checkedCast(Math.min(maxPageRows, fetchLimit - rowsFetched));
+        }
+
+        /**
+         * Only ever runs while {@link #fetching} is set, so the source iterator is never accessed concurrently.
+         */
+        private void fetchPage(int pageRows) {
+            List<T> page = new ArrayList<>();
+            long pageBytes = 0;
+            boolean sourceExhausted = false;
+            try {
+                // The source is only asked for another row when the page has room for it, as asking may make the key
+                // value service read its next batch.
+                while (page.size() < pageRows && pageBytes < targetPageBytes && !isClosed()) {
+                    if (!source.hasNext()) {
+                        sourceExhausted = true;
+                        break;
+                    }
+                    T row = source.next();
+                    page.add(row);
+                    pageBytes += sizeEstimator.applyAsLong(row);
+                }
+                synchronized (this) {
+                    fetching = false;
+                    if (!closed) {
+                        if (!page.isEmpty()) {
+                            pages.add(page);
+                        }
+                        rowsFetched += page.size();
+                        exhausted = sourceExhausted;
+                        fetchIfNeeded();
+                    }
+                    notifyAll();
+                }
+            } catch (RuntimeException | Error e) {
+                synchronized (this) {
+                    fetching = false;
+                    failure = e instanceof RuntimeException
+                            ? (RuntimeException) e
+                            : new SafeRuntimeException("Failed to prefetch range", e);
+                    notifyAll();
+                }
+            }
+        }
+
+        private synchronized boolean isClosed() {
+            return closed;
+        }
+    }
+}
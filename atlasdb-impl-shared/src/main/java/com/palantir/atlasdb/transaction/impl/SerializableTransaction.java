@@ -165,6 +165,8 @@ public class SerializableTransaction extends SnapshotTransaction {
             int defaultGetRangesConcurrency,
             MultiTableSweepQueueWriter sweepQueue,
             ExecutorService deleteExecutor,
+            ExecutorService postFilteringExecutor,
+            ExecutorService rangePrefetchExecutor,
             boolean validateLocksOnReads,
             Supplier<TransactionConfig> transactionConfig,
             ConflictTracer conflictTracer,
@@ -192,6 +194,8 @@ public class SerializableTransaction extends SnapshotTransaction {
                 defaultGetRangesConcurrency,
                 sweepQueue,
                 deleteExecutor,
+                postFilteringExecutor,
+                rangePrefetchExecutor,
                 validateLocksOnReads,
                 transactionConfig,
                 conflictTracer,
@@ -534,14 +538,17 @@ public class SerializableTransaction extends SnapshotTransaction {
     @Override
     protected void throwIfReadWriteConflictForSerializable(long commitTimestamp) {
         Transaction ro = getReadOnlyTransaction(commitTimestamp);
+        // Lock watches let us prove that some of our reads on watched tables cannot have changed between our start
+        // and commit; those need not be read again.
+        TransactionScopedCache commitCache = lockWatchManager.getReadOnlyTransactionScopedCache(getTimestamp());
         verifyRanges(ro);
         verifyColumnRanges(ro);
-        verifyCells(ro);
-        verifyRows(ro);
+        verifyCells(ro, commitCache);
+        verifyRows(ro, commitCache);
         verifyGetSortedColumns(ro);
     }
 
-    private void verifyRows(Transaction ro) {
+    private void verifyRows(Transaction ro, TransactionScopedCache commitCache) {
         for (Map.Entry<TableReference, Set<RowRead>> tableAndRowsEntry : rowsRead.entrySet()) {
             TableReference table = tableAndRowsEntry.getKey();
             Set<RowRead> rows = tableAndRowsEntry.getValue();
@@ -552,12 +559,31 @@ public class SerializableTransaction extends SnapshotTransaction {
             for (RowRead r : rows) {
                 rowsReadByColumns.putAll(r.cols, r.rows);
             }
+            for (ColumnSelection cols : ImmutableSet.copyOf(rowsReadByColumns.keySet())) {
+                removeRowsUnlockedSinceStart(commitCache, table, cols, rowsReadByColumns.get(cols));
+            }
             for (ColumnSelection cols : rowsReadByColumns.keySet()) {
                 verifyColumns(ro, table, readsForTable, rowsReadByColumns, cols);
             }
         }
     }
 
+    /**
+     * A row read with an explicit column selection need not be verified if none of the cells it could have read
+     * were locked between our start and commit. Reads of all columns cannot be enumerated, so are always verified.
+     */
+    private static void removeRowsUnlockedSinceStart(
+            TransactionScopedCache commitCache, TableReference table, ColumnSelection columns, Set<byte[]> rows) {
+        if (columns.allColumnsSelected() || columns.noColumnsSelected()) {
+            return;
+        }
+        Set<Cell> cells = columns.asCellsForRows(rows);
+        Set<Cell> lockedCells = Sets.difference(cells, commitCache.getUnlockedCells(table, cells));
+        Set<byte[]> lockedRows = new TreeSet<>(UnsignedBytes.lexicographicalComparator());
+        lockedCells.forEach(cell -> lockedRows.add(cell.getRowName()));
+        rows.retainAll(lockedRows);
+    }
+
     private void verifyColumns(
             Transaction ro,
             TableReference table,
@@ -612,10 +638,11 @@ public class SerializableTransaction extends SnapshotTransaction {
         }
     }
 
-    private void verifyCells(Transaction readOnlyTransaction) {
+    private void verifyCells(Transaction readOnlyTransaction, TransactionScopedCache commitCache) {
         for (Map.Entry<TableReference, Set<Cell>> tableAndCellsEntry : cellsRead.entrySet()) {
             TableReference table = tableAndCellsEntry.getKey();
-            Set<Cell> cells = tableAndCellsEntry.getValue();
+            Set<Cell> readCells = tableAndCellsEntry.getValue();
+            Set<Cell> cells = Sets.difference(readCells, commitCache.getUnlockedCells(table, readCells));
 
             final ConcurrentNavigableMap<Cell, byte[]> readsForTable = getReadsForTable(table);
             for (Iterable<Cell> batch : Iterables.partition(cells, BATCH_SIZE)) {
@@ -659,8 +686,7 @@ public class SerializableTransaction extends SnapshotTransaction {
                             .build();
                 }
 
-                ConcurrentNavigableMap<Cell, byte[]> writes =
-                        localWriteBuffer.getLocalWrites().get(table);
+                NavigableMap<Cell, byte[]> writes = localWriteBuffer.getLocalWrites().get(table);
                 BatchingVisitableView<RowResult<byte[]>> bv =
                         BatchingVisitableView.of(readOnlyTransaction.getRange(table, range));
                 NavigableMap<Cell, ByteBuffer> readsInRange =
@@ -688,8 +714,7 @@ public class SerializableTransaction extends SnapshotTransaction {
             Cell endCell = Cells.createSmallestCellForRow(RangeRequests.nextLexicographicName(row));
             reads = reads.headMap(endCell, false);
         }
-        ConcurrentNavigableMap<Cell, byte[]> writes =
-                localWriteBuffer.getLocalWrites().get(table);
+        NavigableMap<Cell, byte[]> writes = localWriteBuffer.getLocalWrites().get(table);
         if (writes != null) {
             reads = Maps.filterKeys(reads, Predicates.not(Predicates.in(writes.keySet())));
         }
@@ -882,6 +907,8 @@ public class SerializableTransaction extends SnapshotTransaction {
                 defaultGetRangesConcurrency,
                 sweepQueue,
                 deleteExecutor,
+                postFilteringExecutor,
+                rangePrefetchExecutor,
                 validateLocksOnReads,
                 transactionConfig,
                 conflictTracer,
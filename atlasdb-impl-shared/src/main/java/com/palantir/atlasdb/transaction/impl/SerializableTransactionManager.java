@@ -555,7 +555,7 @@ public class SerializableTransactionManager extends SnapshotTransactionManager {
             PreCommitCondition preCommitCondition) {
         return new SerializableTransaction(
                 metricsManager,
-                keyValueService,
+                transactionKeyValueService,
                 timelockService,
                 lockWatchManager,
                 transactionService,
@@ -575,6 +575,8 @@ public class SerializableTransactionManager extends SnapshotTransactionManager {
                 defaultGetRangesConcurrency,
                 sweepQueueWriter,
                 deleteExecutor,
+                postFilteringExecutor,
+                rangePrefetchExecutor,
                 validateLocksOnReads,
                 transactionConfig,
                 conflictTracer,
@@ -43,6 +43,7 @@ import com.google.common.collect.SetMultimap;
 import com.google.common.collect.Sets;
 import com.google.common.collect.Streams;
 import com.google.common.io.Closer;
+import com.google.common.math.IntMath;
 import com.google.common.primitives.UnsignedBytes;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
@@ -151,6 +152,7 @@ import com.palantir.tracing.CloseableTracer;
 import com.palantir.util.AssertUtils;
 import com.palantir.util.RateLimitedLogger;
 import com.palantir.util.paging.TokenBackedBasicResultsPage;
+import java.math.RoundingMode;
 import java.nio.ByteBuffer;
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
@@ -174,7 +176,6 @@ import java.util.SortedSet;
 import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.ConcurrentNavigableMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.RejectedExecutionException;
@@ -256,7 +257,8 @@ public class SnapshotTransaction extends AbstractTransaction
     private final PreCommitCondition preCommitCondition;
     protected final long timeCreated = System.currentTimeMillis();
 
-    protected final LocalWriteBuffer localWriteBuffer = new LocalWriteBuffer();
+    protected final LocalWriteBuffer localWriteBuffer;
+    private final Optional<TransactionReadCoalescer> readCoalescer;
 
     protected final TransactionConflictDetectionManager conflictDetectionManager;
 
@@ -275,6 +277,8 @@ public class SnapshotTransaction extends AbstractTransaction
     protected final int defaultGetRangesConcurrency;
     private final Set<TableReference> involvedTables = ConcurrentHashMap.newKeySet();
     protected final ExecutorService deleteExecutor;
+    protected final ExecutorService postFilteringExecutor;
+    protected final ExecutorService rangePrefetchExecutor;
     private final Timer.Context transactionTimerContext;
     protected final TransactionOutcomeMetrics transactionOutcomeMetrics;
     protected final boolean validateLocksOnReads;
@@ -304,6 +308,10 @@ public class SnapshotTransaction extends AbstractTransaction
      * @param immutableTimestamp If we find a row written before the immutableTimestamp we don't need to grab a read
      *                           lock for it because we know that no writers exist.
      * @param preCommitCondition This check must pass for this transaction to commit.
+     * @param postFilteringExecutor Runs the subsets that contended cells are split into when post-filtering reads
+     *                              (see {@link TransactionConfig#postFilteringParallelism()}).
+     * @param rangePrefetchExecutor Reads pages of range scans ahead of their consumers
+     *                              (see {@link TransactionConfig#rangeScanPrefetchPages()}).
      */
     /* package */ SnapshotTransaction(
             MetricsManager metricsManager,
@@ -327,11 +335,78 @@ public class SnapshotTransaction extends AbstractTransaction
             int defaultGetRangesConcurrency,
             MultiTableSweepQueueWriter sweepQueue,
             ExecutorService deleteExecutor,
+            ExecutorService postFilteringExecutor,
+            ExecutorService rangePrefetchExecutor,
             boolean validateLocksOnReads,
             Supplier<TransactionConfig> transactionConfig,
             ConflictTracer conflictTracer,
             TableLevelMetricsController tableLevelMetricsController,
             TransactionKnowledgeComponents knowledge) {
+        this(
+                metricsManager,
+                delegateKeyValueService,
+                timelockService,
+                lockWatchManager,
+                transactionService,
+                cleaner,
+                startTimestamp,
+                conflictDetectionManager,
+                sweepStrategyManager,
+                immutableTimestamp,
+                immutableTimestampLock,
+                preCommitCondition,
+                constraintCheckingMode,
+                transactionTimeoutMillis,
+                readSentinelBehavior,
+                allowHiddenTableAccess,
+                timestampValidationReadCache,
+                getRangesExecutor,
+                defaultGetRangesConcurrency,
+                sweepQueue,
+                deleteExecutor,
+                postFilteringExecutor,
+                rangePrefetchExecutor,
+                validateLocksOnReads,
+                transactionConfig,
+                conflictTracer,
+                tableLevelMetricsController,
+                knowledge,
+                createLocalWriteBuffer(transactionConfig));
+    }
+
+    /**
+     * @param localWriteBuffer buffer for the writes of this transaction, which is closed when the transaction ends.
+     */
+    /* package */ SnapshotTransaction(
+            MetricsManager metricsManager,
+            KeyValueService delegateKeyValueService,
+            TimelockService timelockService,
+            LockWatchManagerInternal lockWatchManager,
+            TransactionService transactionService,
+            Cleaner cleaner,
+            Supplier<Long> startTimestamp,
+            ConflictDetectionManager conflictDetectionManager,
+            SweepStrategyManager sweepStrategyManager,
+            long immutableTimestamp,
+            Optional<LockToken> immutableTimestampLock,
+            PreCommitCondition preCommitCondition,
+            AtlasDbConstraintCheckingMode constraintCheckingMode,
+            Long transactionTimeoutMillis,
+            TransactionReadSentinelBehavior readSentinelBehavior,
+            boolean allowHiddenTableAccess,
+            TimestampCache timestampValidationReadCache,
+            ExecutorService getRangesExecutor,
+            int defaultGetRangesConcurrency,
+            MultiTableSweepQueueWriter sweepQueue,
+            ExecutorService deleteExecutor,
+            ExecutorService postFilteringExecutor,
+            ExecutorService rangePrefetchExecutor,
+            boolean validateLocksOnReads,
+            Supplier<TransactionConfig> transactionConfig,
+            ConflictTracer conflictTracer,
+            TableLevelMetricsController tableLevelMetricsController,
+            TransactionKnowledgeComponents knowledge,
+            LocalWriteBuffer localWriteBuffer) {
         this.metricsManager = metricsManager;
         this.lockWatchManager = lockWatchManager;
         this.conflictTracer = conflictTracer;
@@ -356,11 +431,17 @@ public class SnapshotTransaction extends AbstractTransaction
         this.defaultGetRangesConcurrency = defaultGetRangesConcurrency;
         this.sweepQueue = sweepQueue;
         this.deleteExecutor = deleteExecutor;
+        this.postFilteringExecutor = postFilteringExecutor;
+        this.rangePrefetchExecutor = rangePrefetchExecutor;
         this.hasReads = false;
         this.hasPossiblyUnvalidatedReads = false;
         this.transactionOutcomeMetrics = TransactionOutcomeMetrics.create(metricsManager);
         this.validateLocksOnReads = validateLocksOnReads;
         this.transactionConfig = transactionConfig;
+        this.localWriteBuffer = closer.register(localWriteBuffer);
+        this.readCoalescer = transactionConfig.get().enableReadCoalescing()
+                ? Optional.of(new TransactionReadCoalescer(metricsManager))
+                : Optional.empty();
         this.tableLevelMetricsController = tableLevelMetricsController;
         this.timestampCache = timestampValidationReadCache;
         this.knowledge = knowledge;
@@ -376,6 +457,12 @@ public class SnapshotTransaction extends AbstractTransaction
         this.expectationsDataCollectionMetrics = ExpectationsMetrics.of(metricsManager.getTaggedRegistry());
     }
 
+    private static LocalWriteBuffer createLocalWriteBuffer(Supplier<TransactionConfig> transactionConfig) {
+        return transactionConfig.get().enableCompactLocalWriteBuffer()
+                ? LocalWriteBuffer.createCompact()
+                : new LocalWriteBuffer();
+    }
+
     protected TransactionScopedCache getCache() {
         return lockWatchManager.getTransactionScopedCache(getTimestamp());
     }
@@ -1009,13 +1096,31 @@ public class SnapshotTransaction extends AbstractTransaction
     /**
      * This will load the given keys from the underlying key value service and apply postFiltering so we have snapshot
      * isolation.  If the value in the key value service is the empty array this will be included here and needs to be
-     * filtered out.
+     * filtered out. If read coalescing is enabled, cells this transaction has already read, or is reading, are not
+     * read again.
      */
     private ListenableFuture<Map<Cell, byte[]>> getFromKeyValueService(
             TableReference tableRef,
             Set<Cell> cells,
             AsyncKeyValueService asyncKeyValueService,
             AsyncTransactionService asyncTransactionService) {
+        if (readCoalescer.isPresent()) {
+            return readCoalescer
+                    .get()
+                    .get(
+                            tableRef,
+                            cells,
+                            toRead -> readFromKeyValueService(
+                                    tableRef, toRead, asyncKeyValueService, asyncTransactionService));
+        }
+        return readFromKeyValueService(tableRef, cells, asyncKeyValueService, asyncTransactionService);
+    }
+
+    private ListenableFuture<Map<Cell, byte[]>> readFromKeyValueService(
+            TableReference tableRef,
+            Set<Cell> cells,
+            AsyncKeyValueService asyncKeyValueService,
+            AsyncTransactionService asyncTransactionService) {
         Map<Cell, Long> toRead = Cells.constantValueMap(cells, getStartTimestamp());
         ListenableFuture<Collection<Map.Entry<Cell, byte[]>>> postFilteredResults = Futures.transformAsync(
                 asyncKeyValueService.getAsync(tableRef, toRead),
@@ -1358,8 +1463,18 @@ public class SnapshotTransaction extends AbstractTransaction
     @MustBeClosed
     protected <T> ClosableIterator<RowResult<T>> postFilterIterator(
             TableReference tableRef, RangeRequest range, int preFilterBatchSize, Function<Value, T> transformer) {
-        RowRangeBatchProvider batchProvider =
+        BatchProvider<RowResult<Value>> batchProvider =
                 new RowRangeBatchProvider(keyValueService, tableRef, range, getStartTimestamp());
+        TransactionConfig config = transactionConfig.get();
+        if (config.rangeScanPrefetchPages() > 0) {
+            batchProvider = new PrefetchingBatchProvider<>(
+                    batchProvider,
+                    rangePrefetchExecutor,
+                    config.rangeScanPrefetchPages(),
+                    config.rangeScanPrefetchPageBytes(),
+                    PrefetchingBatchProvider::approximateRowSize,
+                    metricsManager);
+        }
         BatchSizeIncreasingIterator<RowResult<Value>> results =
                 new BatchSizeIncreasingIterator<>(batchProvider, preFilterBatchSize, null);
         Iterator<Iterator<RowResult<T>>> batchedPostFiltered = new AbstractIterator<Iterator<RowResult<T>>>() {
@@ -1530,37 +1645,109 @@ public class SnapshotTransaction extends AbstractTransaction
             Function<Value, T> transformer,
             AsyncKeyValueService asyncKeyValueService,
             AsyncTransactionService asyncTransactionService) {
+        // The first round covers every cell read, and in the common case resolves all of them with a single batch of
+        // commit timestamp lookups. Cells that remain (usually hot cells with uncommitted or aborted versions) are
+        // then split into subsets that go through further rounds independently, so that the read is only as slow as
+        // its slowest subset, rather than waiting on the slowest lookup across all cells in every round.
+        ListenableFuture<Map<Cell, Value>> firstRound = getWithPostFilteringInternal(
+                tableReference,
+                resultsToPostFilter,
+                resultsAccumulator,
+                transformer,
+                asyncKeyValueService,
+                asyncTransactionService);
         return Futures.transformAsync(
-                Futures.immediateFuture(resultsToPostFilter),
-                results -> {
-                    int iterations = 0;
-                    Map<Cell, Value> remainingResultsToPostFilter = results;
-                    while (!remainingResultsToPostFilter.isEmpty()) {
-                        remainingResultsToPostFilter = AtlasFutures.getUnchecked(getWithPostFilteringInternal(
-                                tableReference,
-                                remainingResultsToPostFilter,
-                                resultsAccumulator,
-                                transformer,
-                                asyncKeyValueService,
-                                asyncTransactionService));
-                        Preconditions.checkState(
-                                ++iterations < MAX_POST_FILTERING_ITERATIONS,
-                                "Unable to filter cells to find correct result after "
-                                        + "reaching max iterations. This is likely due to aborted cells lying around,"
-                                        + " or in the very rare case, could be due to transactions which constantly "
-                                        + "conflict but never commit. These values will be cleaned up eventually, but"
-                                        + " if the issue persists, ensure that sweep is caught up.",
-                                SafeArg.of("table", tableReference),
-                                SafeArg.of("maxIterations", MAX_POST_FILTERING_ITERATIONS));
+                firstRound,
+                remainingResultsToPostFilter -> {
+                    int parallelism = transactionConfig.get().postFilteringParallelism();
+                    if (parallelism <= 1 || remainingResultsToPostFilter.size() <= 1) {
+                        return Futures.transform(
+                                postFilterUntilResolved(
+                                        tableReference,
+                                        remainingResultsToPostFilter,
+                                        resultsAccumulator,
+                                        transformer,
+                                        asyncKeyValueService,
+                                        asyncTransactionService,
+                                        1),
+                                results -> recordCellsReturned(tableReference, results),
+                                MoreExecutors.directExecutor());
                     }
-                    getCounter(AtlasDbMetricNames.SNAPSHOT_TRANSACTION_CELLS_RETURNED, tableReference)
-                            .inc(resultsAccumulator.size());
 
-                    return Futures.immediateFuture(resultsAccumulator);
+                    List<ListenableFuture<Collection<Map.Entry<Cell, T>>>> subsets = new ArrayList<>();
+                    int subsetSize =
+                            IntMath.divide(remainingResultsToPostFilter.size(), parallelism, RoundingMode.CEILING);
+                    for (List<Map.Entry<Cell, Value>> subset :
+                            Iterables.partition(remainingResultsToPostFilter.entrySet(), subsetSize)) {
+                        Map<Cell, Value> subsetToPostFilter = ImmutableMap.copyOf(subset);
+                        subsets.add(Futures.submitAsync(
+                                () -> postFilterUntilResolved(
+                                        tableReference,
+                                        subsetToPostFilter,
+                                        new ArrayList<>(),
+                                        transformer,
+                                        asyncKeyValueService,
+                                        asyncTransactionService,
+                                        1),
+                                postFilteringExecutor));
+                    }
+                    return Futures.transform(
+                            Futures.allAsList(subsets),
+                            subsetResults -> {
+                                subsetResults.forEach(resultsAccumulator::addAll);
+                                return recordCellsReturned(tableReference, resultsAccumulator);
+                            },
+                            MoreExecutors.directExecutor());
                 },
                 MoreExecutors.directExecutor());
     }
 
+    private <T> ListenableFuture<Collection<Map.Entry<Cell, T>>> postFilterUntilResolved(
+            TableReference tableReference,
+            Map<Cell, Value> remainingResultsToPostFilter,
+            Collection<Map.Entry<Cell, T>> resultsAccumulator,
+            Function<Value, T> transformer,
+            AsyncKeyValueService asyncKeyValueService,
+            AsyncTransactionService asyncTransactionService,
+            int iterations) {
+        Preconditions.checkState(
+                iterations < MAX_POST_FILTERING_ITERATIONS,
+                "Unable to filter cells to find correct result after "
+                        + "reaching max iterations. This is likely due to aborted cells lying around,"
+                        + " or in the very rare case, could be due to transactions which constantly "
+                        + "conflict but never commit. These values will be cleaned up eventually, but"
+                        + " if the issue persists, ensure that sweep is caught up.",
+                SafeArg.of("table", tableReference),
+                SafeArg.of("maxIterations", MAX_POST_FILTERING_ITERATIONS));
+        if (remainingResultsToPostFilter.isEmpty()) {
+            return Futures.immediateFuture(resultsAccumulator);
+        }
+        return Futures.transformAsync(
+                getWithPostFilteringInternal(
+                        tableReference,
+                        remainingResultsToPostFilter,
+                        resultsAccumulator,
+                        transformer,
+                        asyncKeyValueService,
+                        asyncTransactionService),
+                nextResultsToPostFilter -> postFilterUntilResolved(
+                        tableReference,
+                        nextResultsToPostFilter,
+                        resultsAccumulator,
+                        transformer,
+                        asyncKeyValueService,
+                        asyncTransactionService,
+                        iterations + 1),
+                MoreExecutors.directExecutor());
+    }
+
+    private <T> Collection<Map.Entry<Cell, T>> recordCellsReturned(
+            TableReference tableReference, Collection<Map.Entry<Cell, T>> results) {
+        getCounter(AtlasDbMetricNames.SNAPSHOT_TRANSACTION_CELLS_RETURNED, tableReference)
+                .inc(results.size());
+        return results;
+    }
+
     /**
      * A sentinel becomes orphaned if the table has been truncated between the time where the write occurred and where
      * it was truncated. In this case, there is a chance that we end up with a sentinel with no valid AtlasDB cell
@@ -1989,6 +2176,9 @@ public class SnapshotTransaction extends AbstractTransaction
                 state.set(State.FAILED);
                 transactionOutcomeMetrics.markFailedCommit();
             }
+            // The buffered values are not needed in either terminal state, and callers that commit without callbacks
+            // (or whose commit fails) never close the transaction, so release them (and any spill file) now.
+            localWriteBuffer.close();
         }
     }
 
@@ -2056,9 +2246,7 @@ public class SnapshotTransaction extends AbstractTransaction
 
                 // Write to the targeted sweep queue. We must do this before writing to the key value service -
                 // otherwise we may have hanging values that targeted sweep won't know about.
-                timedAndTraced(
-                        "writingToSweepQueue",
-                        () -> sweepQueue.enqueue(localWriteBuffer.getLocalWrites(), getStartTimestamp()));
+                timedAndTraced("writingToSweepQueue", this::enqueueToSweepQueue);
 
                 // Introduced for txn4 - Prevents sweep from making progress beyond immutableTs before entries were
                 // put into the sweep queue. This ensures that sweep must process writes to the sweep queue done by
@@ -2140,6 +2328,16 @@ public class SnapshotTransaction extends AbstractTransaction
         }
     }
 
+    private void enqueueToSweepQueue() {
+        TransactionConfig config = transactionConfig.get();
+        if (!config.enableChunkedCommitWrites()) {
+            sweepQueue.enqueue(localWriteBuffer.getLocalWrites(), getStartTimestamp());
+            return;
+        }
+        CommitWriteChunks.chunks(localWriteBuffer.getLocalWrites(), config.commitWriteChunkSizeBytes())
+                .forEachRemaining(chunk -> sweepQueue.enqueue(chunk, getStartTimestamp()));
+    }
+
     protected void throwIfReadWriteConflictForSerializable(long commitTimestamp) {
         // This is for overriding to get serializable transactions
     }
@@ -2220,7 +2418,7 @@ public class SnapshotTransaction extends AbstractTransaction
      */
     protected void throwIfConflictOnCommit(LockToken commitLocksToken, TransactionService transactionService)
             throws TransactionConflictException {
-        for (Map.Entry<TableReference, ConcurrentNavigableMap<Cell, byte[]>> write :
+        for (Map.Entry<TableReference, NavigableMap<Cell, byte[]>> write :
                 localWriteBuffer.getLocalWrites().entrySet()) {
             ConflictHandler conflictHandler = getConflictHandlerForTable(write.getKey());
             throwIfWriteAlreadyCommitted(
@@ -2852,7 +3050,7 @@ public class SnapshotTransaction extends AbstractTransaction
         Multimap<Cell, TableReference> cellToTableName = HashMultimap.create();
         State actualState = state.get();
         if (expectedState == actualState) {
-            for (Map.Entry<TableReference, ConcurrentNavigableMap<Cell, byte[]>> entry :
+            for (Map.Entry<TableReference, NavigableMap<Cell, byte[]>> entry :
                     localWriteBuffer.getLocalWrites().entrySet()) {
                 TableReference table = entry.getKey();
                 Set<Cell> cells = entry.getValue().keySet();
@@ -2870,7 +3068,7 @@ public class SnapshotTransaction extends AbstractTransaction
         Multimap<TableReference, Cell> tableRefToCells = HashMultimap.create();
         State actualState = state.get();
         if (expectedState == actualState) {
-            for (Map.Entry<TableReference, ConcurrentNavigableMap<Cell, byte[]>> entry :
+            for (Map.Entry<TableReference, NavigableMap<Cell, byte[]>> entry :
                     localWriteBuffer.getLocalWrites().entrySet()) {
                 TableReference table = entry.getKey();
                 Set<Cell> cells = entry.getValue().keySet();
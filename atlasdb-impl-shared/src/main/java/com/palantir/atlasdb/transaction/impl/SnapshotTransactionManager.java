@@ -53,6 +53,7 @@ import com.palantir.atlasdb.transaction.knowledge.TransactionKnowledgeComponents
 import com.palantir.atlasdb.transaction.service.TransactionService;
 import com.palantir.atlasdb.util.MetricsManager;
 import com.palantir.common.base.Throwables;
+import com.palantir.common.concurrent.PTExecutors;
 import com.palantir.lock.LockService;
 import com.palantir.lock.client.StartTransactionFailedException;
 import com.palantir.lock.v2.LockToken;
@@ -83,8 +84,21 @@ import javax.validation.constraints.NotNull;
 
     private static final int NUM_RETRIES = 10;
 
+    /**
+     * Bounds the threads used to post-filter contended cells in parallel subsets, across all transactions of a
+     * manager; subsets beyond this wait for a thread. The threads are only started once a subset is first submitted.
+     */
+    private static final int POST_FILTERING_THREAD_POOL_SIZE = 32;
+
+    /**
+     * Bounds the threads used to read range scan pages ahead of their consumers, across all transactions of a manager.
+     * The threads are only started once a page is first read ahead.
+     */
+    private static final int RANGE_PREFETCH_THREAD_POOL_SIZE = 32;
+
     final MetricsManager metricsManager;
     final KeyValueService keyValueService;
+    final KeyValueService transactionKeyValueService;
     final TransactionService transactionService;
     final TimelockService timelockService;
     final LockWatchManagerInternal lockWatchManager;
@@ -98,6 +112,8 @@ import javax.validation.constraints.NotNull;
     final boolean allowHiddenTableAccess;
     final ExecutorService getRangesExecutor;
     final ExecutorService deleteExecutor;
+    final ExecutorService postFilteringExecutor;
+    final ExecutorService rangePrefetchExecutor;
     final int defaultGetRangesConcurrency;
     final MultiTableSweepQueueWriter sweepQueueWriter;
     final boolean validateLocksOnReads;
@@ -140,6 +156,11 @@ import javax.validation.constraints.NotNull;
         TimestampTracker.instrumentTimestamps(metricsManager, timelockService, cleaner);
         this.metricsManager = metricsManager;
         this.keyValueService = keyValueService;
+        this.transactionKeyValueService = ChunkedWriteKeyValueService.create(
+                GroupCommitKeyValueService.create(
+                        keyValueService, () -> transactionConfig.get().enableGroupCommit()),
+                transactionConfig,
+                metricsManager);
         this.timelockService = timelockService;
         this.timestampManagementService = timestampManagementService;
         this.lockService = lockService;
@@ -155,6 +176,10 @@ import javax.validation.constraints.NotNull;
         this.defaultGetRangesConcurrency = defaultGetRangesConcurrency;
         this.sweepQueueWriter = sweepQueueWriter;
         this.deleteExecutor = deleteExecutor;
+        this.postFilteringExecutor = new LazyExecutorService(
+                () -> PTExecutors.newFixedThreadPool(POST_FILTERING_THREAD_POOL_SIZE, "atlas-post-filtering"));
+        this.rangePrefetchExecutor = new LazyExecutorService(
+                () -> PTExecutors.newFixedThreadPool(RANGE_PREFETCH_THREAD_POOL_SIZE, "atlas-range-prefetch"));
         this.validateLocksOnReads = validateLocksOnReads;
         this.transactionConfig = transactionConfig;
         this.conflictTracer = conflictTracer;
@@ -306,7 +331,7 @@ import javax.validation.constraints.NotNull;
             PreCommitCondition condition) {
         return new SnapshotTransaction(
                 metricsManager,
-                keyValueService,
+                transactionKeyValueService,
                 timelockService,
                 lockWatchManager,
                 transactionService,
@@ -326,6 +351,8 @@ import javax.validation.constraints.NotNull;
                 defaultGetRangesConcurrency,
                 sweepQueueWriter,
                 deleteExecutor,
+                postFilteringExecutor,
+                rangePrefetchExecutor,
                 validateLocksOnReads,
                 transactionConfig,
                 conflictTracer,
@@ -369,11 +396,14 @@ import javax.validation.constraints.NotNull;
                 defaultGetRangesConcurrency,
                 sweepQueueWriter,
                 deleteExecutor,
+                postFilteringExecutor,
+                rangePrefetchExecutor,
                 validateLocksOnReads,
                 transactionConfig,
                 conflictTracer,
                 tableLevelMetricsController,
-                knowledge);
+                knowledge,
+                LocalWriteBuffer.readOnly());
         return runTaskThrowOnConflictWithCallback(
                 txn -> task.execute(txn, condition),
                 new ReadTransaction(transaction, sweepStrategyManager),
@@ -407,9 +437,11 @@ import javax.validation.constraints.NotNull;
                 SafeShutdownRunner.createWithCachedThreadpool(Duration.ofSeconds(20))) {
             shutdownRunner.shutdownSafely(super::close);
             shutdownRunner.shutdownSafely(cleaner::close);
-            shutdownRunner.shutdownSafely(keyValueService::close);
+            shutdownRunner.shutdownSafely(transactionKeyValueService::close);
             shutdownRunner.shutdownSafely(() -> shutdownExecutor(deleteExecutor));
             shutdownRunner.shutdownSafely(() -> shutdownExecutor(getRangesExecutor));
+            shutdownRunner.shutdownSafely(() -> shutdownExecutor(postFilteringExecutor));
+            shutdownRunner.shutdownSafely(() -> shutdownExecutor(rangePrefetchExecutor));
             shutdownRunner.shutdownSafely(this::closeLockServiceIfPossible);
 
             for (Runnable callback : Lists.reverse(closingCallbacks)) {
@@ -0,0 +1,145 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.transaction.impl;
+
+import com.codahale.metrics.Meter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.util.MetricsManager;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Remembers the post-filtered values a transaction has read from the key value service at its start timestamp, so
+ * that reading the same cells again is served from memory, and concurrent reads of overlapping cells share a single
+ * key value service request.
+ *
+ * Each read registers itself as the pending read of every cell it does not already know about before it is sent, so a
+ * later read of any of those cells waits on it rather than reading the cell again. Reads that fail are forgotten, so
+ * that reading the cells again retries them. Results are snapshots at the start timestamp, so this must only ever see
+ * reads of the key value service, never the transaction's own writes.
+ */
+final class TransactionReadCoalescer {
+    private final ConcurrentMap<TableReference, ConcurrentMap<Cell, ListenableFuture<Map<Cell, byte[]>>>> reads =
+            new ConcurrentHashMap<>();
+    private final Meter cellsReadFromMemory;
+    private final Meter cellsCoalesced;
+    private final Meter cellsReadFromKeyValueService;
+
+    TransactionReadCoalescer(MetricsManager metricsManager) {
+        this.cellsReadFromMemory = metricsManager.registerOrGetMeter(TransactionReadCoalescer.class, "memoryHit");
+        this.cellsCoalesced = metricsManager.registerOrGetMeter(TransactionReadCoalescer.class, "inFlightHit");
+        this.cellsReadFromKeyValueService = metricsManager.registerOrGetMeter(TransactionReadCoalescer.class, "miss");
+    }
+
+    /**
+     * Returns the values of the given cells, reading the cells not yet read or being read with the given reader.
+     * The reader must return the post-filtered values of exactly the cells it is given, omitting cells with no value.
+     */
+    ListenableFuture<Map<Cell, byte[]>> get(
+            TableReference tableRef,
+            Set<Cell> cells,
+            Function<Set<Cell>, ListenableFuture<Map<Cell, byte[]>>> reader) {
+        ConcurrentMap<Cell, ListenableFuture<Map<Cell, byte[]>>> tableReads =
+                reads.computeIfAbsent(tableRef, _table -> new ConcurrentHashMap<>());
+
+        SettableFuture<Map<Cell, byte[]>> ownRead = SettableFuture.create();
+        Set<Cell> toRead = new HashSet<>();
+        Map<Cell, ListenableFuture<Map<Cell, byte[]>>> owners = new HashMap<>();
+        Set<ListenableFuture<Map<Cell, byte[]>>> sharedReads = new HashSet<>();
+        long inMemory = 0;
+        long inFlight = 0;
+        for (Cell cell : cells) {
+            ListenableFuture<Map<Cell, byte[]>> existing = tableReads.putIfAbsent(cell, ownRead);
+            if (existing == null) {
+                toRead.add(cell);
+                owners.put(cell, ownRead);
+            } else {
+                owners.put(cell, existing);
+                sharedReads.add(existing);
+                if (existing.isDone()) {
+                    inMemory++;
+                } else {
+                    inFlight++;
+                }
+            }
+        }
+        cellsReadFromMemory.mark(inMemory);
+        cellsCoalesced.mark(inFlight);
+        cellsReadFromKeyValueService.mark(toRead.size());
+
+        if (!toRead.isEmpty()) {
+            startRead(tableReads, toRead, ownRead, reader);
+            sharedReads.add(ownRead);
+        }
+        if (sharedReads.size() == 1 && toRead.size() == cells.size()) {
+            return Futures.nonCancellationPropagating(ownRead);
+        }
+
+        // Look each cell up in the read that owns it, rather than scanning the shared reads, which may be far larger.
+        return Futures.whenAllSucceed(sharedReads.stream()
+                        .map(Futures::nonCancellationPropagating)
+                        .collect(ImmutableList.toImmutableList()))
+                .call(
+                        () -> {
+                            Map<Cell, byte[]> values = new HashMap<>();
+                            for (Map.Entry<Cell, ListenableFuture<Map<Cell, byte[]>>> owner : owners.entrySet()) {
+                                byte[] value = Futures.getDone(owner.getValue()).get(owner.getKey());
+                                if (value != null) {
+                                    values.put(owner.getKey(), value);
+                                }
+                            }
+                            return values;
+                        },
+                        MoreExecutors.directExecutor());
+    }
+
+    private static void startRead(
+            ConcurrentMap<Cell, ListenableFuture<Map<Cell, byte[]>>> tableReads,
+            Set<Cell> toRead,
+            SettableFuture<Map<Cell, byte[]>> ownRead,
+            Function<Set<Cell>, ListenableFuture<Map<Cell, byte[]>>> reader) {
+        Futures.addCallback(
+                ownRead,
+                new FutureCallback<Map<Cell, byte[]>>() {
+                    @Override
+                    public void onSuccess(Map<Cell, byte[]> result) {}
+
+                    @Override
+                    public void onFailure(Throwable throwable) {
+                        toRead.forEach(cell -> tableReads.remove(cell, ownRead));
+                    }
+                },
+                MoreExecutors.directExecutor());
+        try {
+            ownRead.setFuture(reader.apply(toRead));
+        } catch (RuntimeException | Error e) {
+            ownRead.setException(e);
+        }
+    }
+}
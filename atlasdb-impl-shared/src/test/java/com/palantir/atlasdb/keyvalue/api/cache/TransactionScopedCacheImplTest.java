@@ -349,6 +349,27 @@ public final class TransactionScopedCacheImplTest {
                 .containsExactlyInAnyOrder(CELL_1);
     }
 
+    @Test
+    public void readOnlyCacheOnlyReportsCellsNotLockedSinceStartAsUnlocked() {
+        TransactionScopedCache cache = TransactionScopedCacheImpl.create(
+                ValueCacheSnapshotImpl.of(
+                        HashMap.of(CellReference.of(TABLE, CELL_2), CacheEntry.locked()),
+                        HashSet.of(TABLE),
+                        ImmutableSet.of(TABLE)),
+                metrics);
+        TransactionScopedCache readOnlyCache = cache.createReadOnlyCache(CommitUpdate.invalidateSome(ImmutableSet.of(
+                AtlasCellLockDescriptor.of(TABLE.getQualifiedName(), CELL_1.getRowName(), CELL_1.getColumnName()))));
+
+        assertThat(readOnlyCache.getUnlockedCells(TABLE, ImmutableSet.of(CELL_1, CELL_2, CELL_3)))
+                .containsExactly(CELL_3);
+        assertThat(readOnlyCache.getUnlockedCells(
+                        TableReference.createFromFullyQualifiedName("t.unwatched"), ImmutableSet.of(CELL_3)))
+                .isEmpty();
+        assertThat(cache.createReadOnlyCache(CommitUpdate.invalidateAll())
+                        .getUnlockedCells(TABLE, ImmutableSet.of(CELL_3)))
+                .isEmpty();
+    }
+
     @Test
     public void loadFromDbDoesNotBlockCache() {
         ExecutorService executor = Executors.newSingleThreadExecutor();
@@ -0,0 +1,194 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.transaction.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Random;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
+import org.junit.After;
+import org.junit.Test;
+
+public class ArenaCellMapTest {
+    private static final Cell CELL_1 = cell(1, 1);
+    private static final Cell CELL_2 = cell(1, 2);
+    private static final Cell CELL_3 = cell(2, 1);
+
+    private final ByteArena values = new ByteArena(1024);
+    private final ArenaCellMap map = new ArenaCellMap(values);
+
+    @After
+    public void tearDown() {
+        values.close();
+    }
+
+    @Test
+    public void getsAndOverwritesValues() {
+        assertThat(map.put(CELL_1, bytes(1))).isNull();
+        assertThat(map.put(CELL_1, bytes(2))).isEqualTo(bytes(1));
+        assertThat(map.putIfAbsent(CELL_1, bytes(3))).isEqualTo(bytes(2));
+
+        assertThat(map.get(CELL_1)).isEqualTo(bytes(2));
+        assertThat(map.get(CELL_2)).isNull();
+        assertThat(map).hasSize(1);
+    }
+
+    @Test
+    public void iteratesInCellOrderRegardlessOfInsertionOrder() {
+        map.put(CELL_3, bytes(3));
+        map.put(CELL_1, bytes(1));
+        map.put(CELL_2, bytes(2));
+
+        assertThat(map.keySet()).containsExactly(CELL_1, CELL_2, CELL_3);
+        assertThat(map.firstKey()).isEqualTo(CELL_1);
+        assertThat(map.lastKey()).isEqualTo(CELL_3);
+        assertThat(map.tailMap(CELL_2).keySet()).containsExactly(CELL_2, CELL_3);
+        assertThat(map.headMap(CELL_2).keySet()).containsExactly(CELL_1);
+        assertThat(map.subMap(CELL_1, false, CELL_3, true).keySet()).containsExactly(CELL_2, CELL_3);
+    }
+
+    @Test
+    public void viewsReflectLaterWrites() {
+        NavigableMap<Cell, byte[]> tail = map.tailMap(CELL_2);
+        map.put(CELL_1, bytes(1));
+        map.put(CELL_3, bytes(3));
+
+        assertThat(tail.keySet()).containsExactly(CELL_3);
+        assertThat(tail.get(CELL_1)).isNull();
+        assertThatThrownBy(() -> tail.put(CELL_1, bytes(1))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void iteratorsSeeConcurrentInsertionsAfterTheirPosition() {
+        map.put(CELL_1, bytes(1));
+        map.put(CELL_3, bytes(3));
+        Iterator<Cell> iterator = map.keySet().iterator();
+
+        assertThat(iterator.next()).isEqualTo(CELL_1);
+        map.put(CELL_2, bytes(2));
+        assertThat(iterator.next()).isEqualTo(CELL_2);
+        assertThat(iterator.next()).isEqualTo(CELL_3);
+        assertThat(iterator.hasNext()).isFalse();
+    }
+
+    @Test
+    public void spilledValuesCanBeReadBack() {
+        for (int i = 0; i < 1000; i++) {
+            map.put(cell(i, i), bytes(i));
+        }
+
+        assertThat(values.spilledBytes()).isPositive();
+        for (int i = 0; i < 1000; i++) {
+            assertThat(map.get(cell(i, i))).isEqualTo(bytes(i));
+        }
+    }
+
+    @Test
+    public void cellsRemainReadableOnceValuesAreReleased() {
+        for (int i = 0; i < 1000; i++) {
+            map.put(cell(i, i), bytes(i));
+        }
+
+        values.close();
+        values.close();
+        assertThat(values.spilledBytes()).isZero();
+        assertThat(map.keySet()).hasSize(1000).contains(cell(0, 0), cell(999, 999));
+    }
+
+    @Test
+    public void doesNotSupportRemoval() {
+        map.put(CELL_1, bytes(1));
+
+        assertThatThrownBy(() -> map.remove(CELL_1)).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(map::clear).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    public void behavesLikeSkipListMap() {
+        Random random = new Random(0);
+        NavigableMap<Cell, byte[]> expected = new ConcurrentSkipListMap<>();
+        for (int i = 0; i < 5000; i++) {
+            Cell cell = cell(random.nextInt(200), random.nextInt(5));
+            byte[] value = bytes(random.nextInt());
+            map.put(cell, value);
+            expected.put(cell, value);
+
+            if (i % 500 == 0) {
+                Cell probe = cell(random.nextInt(200), random.nextInt(5));
+                assertThat(map.lowerKey(probe)).isEqualTo(expected.lowerKey(probe));
+                assertThat(map.floorKey(probe)).isEqualTo(expected.floorKey(probe));
+                assertThat(map.ceilingKey(probe)).isEqualTo(expected.ceilingKey(probe));
+                assertThat(map.higherKey(probe)).isEqualTo(expected.higherKey(probe));
+                assertThat(entries(map.tailMap(probe))).isEqualTo(entries(expected.tailMap(probe)));
+                assertThat(entries(map.headMap(probe, true))).isEqualTo(entries(expected.headMap(probe, true)));
+            }
+        }
+        assertThat(entries(map)).isEqualTo(entries(expected));
+        assertThat(map).hasSameSizeAs(expected);
+    }
+
+    @Test
+    public void staysOrderedWhenEveryWriteIsFollowedByNavigation() {
+        Random random = new Random(1);
+        NavigableMap<Cell, byte[]> expected = new ConcurrentSkipListMap<>();
+        Iterator<Cell> iterator = map.keySet().iterator();
+        Cell lastIterated = null;
+        for (int i = 0; i < 3000; i++) {
+            Cell cell = cell(random.nextInt(1000), random.nextInt(3));
+            byte[] value = bytes(i);
+            map.put(cell, value);
+            expected.put(cell, value);
+
+            Cell probe = cell(random.nextInt(1000), random.nextInt(3));
+            assertThat(map.floorKey(probe)).isEqualTo(expected.floorKey(probe));
+            assertThat(map.higherKey(probe)).isEqualTo(expected.higherKey(probe));
+            assertThat(map.headMap(probe)).hasSameSizeAs(expected.headMap(probe));
+            if (i % 100 == 0) {
+                assertThat(entries(map.tailMap(probe, false))).isEqualTo(entries(expected.tailMap(probe, false)));
+            }
+            if (i % 7 == 0 && iterator.hasNext()) {
+                Cell next = iterator.next();
+                assertThat(lastIterated == null ? expected.firstKey() : expected.higherKey(lastIterated))
+                        .isEqualTo(next);
+                lastIterated = next;
+            }
+        }
+        assertThat(entries(map)).isEqualTo(entries(expected));
+    }
+
+    private static List<String> entries(Map<Cell, byte[]> map) {
+        return map.entrySet().stream()
+                .map(entry -> entry.getKey() + "=" + PtBytes.encodeHexString(entry.getValue()))
+                .collect(Collectors.toList());
+    }
+
+    private static Cell cell(int row, int col) {
+        return Cell.create(PtBytes.toBytes((long) row), PtBytes.toBytes("c" + col));
+    }
+
+    private static byte[] bytes(int value) {
+        return PtBytes.toBytes((long) value);
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.transaction.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+import com.google.common.collect.ImmutableMap;
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.KeyValueService;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.transaction.ImmutableTransactionConfig;
+import com.palantir.atlasdb.transaction.TransactionConfig;
+import com.palantir.atlasdb.util.MetricsManagers;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Test;
+
+public class ChunkedWriteKeyValueServiceTest {
+    private static final TableReference TABLE_1 = TableReference.createFromFullyQualifiedName("test.table1");
+    private static final TableReference TABLE_2 = TableReference.createFromFullyQualifiedName("test.table2");
+    private static final byte[] VALUE = new byte[100];
+    private static final long CHUNK_SIZE = 1000;
+    private static final int CONCURRENCY = 2;
+
+    private final KeyValueService delegate = mock(KeyValueService.class);
+    private final ChunkedWriteKeyValueService kvs = ChunkedWriteKeyValueService.create(
+            delegate,
+            () -> ImmutableTransactionConfig.builder()
+                    .enableChunkedCommitWrites(true)
+                    .commitWriteChunkSizeBytes(CHUNK_SIZE)
+                    .commitWriteChunkConcurrency(CONCURRENCY)
+                    .build(),
+            MetricsManagers.createForTests());
+
+    @After
+    public void tearDown() {
+        kvs.close();
+    }
+
+    @Test
+    public void writesDirectlyWhenDisabled() {
+        TransactionConfig disabled = ImmutableTransactionConfig.builder()
+                .commitWriteChunkSizeBytes(CHUNK_SIZE)
+                .build();
+        ChunkedWriteKeyValueService disabledKvs =
+                ChunkedWriteKeyValueService.create(delegate, () -> disabled, MetricsManagers.createForTests());
+        Map<TableReference, Map<Cell, byte[]>> writes = writes(TABLE_1, 100);
+
+        disabledKvs.multiPut(writes, 10L);
+        disabledKvs.close();
+
+        verify(delegate).multiPut(writes, 10L);
+        verify(delegate).close();
+        verifyNoMoreInteractions(delegate);
+    }
+
+    @Test
+    public void writesSmallTransactionsDirectly() {
+        Map<TableReference, Map<Cell, byte[]>> writes = writes(TABLE_1, 2);
+
+        kvs.multiPut(writes, 10L);
+
+        verify(delegate).multiPut(writes, 10L);
+        verifyNoMoreInteractions(delegate);
+    }
+
+    @Test
+    public void writesLargeTransactionsInBoundedChunks() {
+        List<Map<TableReference, Map<Cell, byte[]>>> chunks = new ArrayList<>();
+        doAnswer(invocation -> {
+                    synchronized (chunks) {
+                        chunks.add(invocation.getArgument(0));
+                    }
+                    return null;
+                })
+                .when(delegate)
+                .multiPut(any(), anyLong());
+        Map<TableReference, Map<Cell, byte[]>> writes = new HashMap<>();
+        writes.putAll(writes(TABLE_1, 50));
+        writes.putAll(writes(TABLE_2, 50));
+
+        kvs.multiPut(writes, 10L);
+
+        assertThat(chunks).hasSizeGreaterThan(1);
+        Map<TableReference, Map<Cell, byte[]>> written = new HashMap<>();
+        for (Map<TableReference, Map<Cell, byte[]>> chunk : chunks) {
+            assertThat(CommitWriteChunks.approximateSize(chunk)).isLessThan(CHUNK_SIZE + 200);
+            chunk.forEach((table, cells) ->
+                    written.computeIfAbsent(table, _table -> new HashMap<>()).putAll(cells));
+        }
+        assertThat(written).isEqualTo(writes);
+    }
+
+    @Test
+    public void limitsChunksInFlight() {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        doAnswer(invocation -> {
+                    maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                    Thread.sleep(5);
+                    inFlight.decrementAndGet();
+                    return null;
+                })
+                .when(delegate)
+                .multiPut(any(), anyLong());
+
+        kvs.multiPut(writes(TABLE_1, 500), 10L);
+
+        assertThat(maxInFlight).hasValueBetween(1, CONCURRENCY);
+    }
+
+    @Test
+    public void failsIfAnyChunkFails() {
+        doThrow(new RuntimeException("boom")).when(delegate).multiPut(any(), anyLong());
+
+        assertThatThrownBy(() -> kvs.multiPut(writes(TABLE_1, 100), 10L)).hasMessageContaining("boom");
+    }
+
+    @Test
+    public void cancelsChunksInFlightIfAnyChunkFails() throws InterruptedException {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch interrupted = new CountDownLatch(1);
+        doAnswer(invocation -> {
+                    if (calls.getAndIncrement() > 0) {
+                        throw new RuntimeException("boom");
+                    }
+                    try {
+                        Thread.sleep(Long.MAX_VALUE);
+                    } catch (InterruptedException e) {
+                        interrupted.countDown();
+                    }
+                    return null;
+                })
+                .when(delegate)
+                .multiPut(any(), anyLong());
+
+        assertThatThrownBy(() -> kvs.multiPut(writes(TABLE_1, 100), 10L)).hasMessageContaining("boom");
+        assertThat(interrupted.await(10, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    public void detectsWritesExceedingSizeLimit() {
+        Map<TableReference, Map<Cell, byte[]>> writes = writes(TABLE_1, 5);
+        long size = CommitWriteChunks.approximateSize(writes);
+
+        assertThat(CommitWriteChunks.exceedsSize(writes, size)).isFalse();
+        assertThat(CommitWriteChunks.exceedsSize(writes, size - 1)).isTrue();
+        assertThat(CommitWriteChunks.exceedsSize(ImmutableMap.of(), 0)).isFalse();
+    }
+
+    @Test
+    public void chunkingPreservesEveryWrite() {
+        Map<TableReference, Map<Cell, byte[]>> writes = writes(TABLE_1, 95);
+        Map<Cell, byte[]> seen = new ConcurrentHashMap<>();
+
+        CommitWriteChunks.chunks(writes, CHUNK_SIZE).forEachRemaining(chunk -> {
+            assertThat(chunk.keySet()).containsExactly(TABLE_1);
+            assertThat(chunk.get(TABLE_1)).doesNotContainKeys(seen.keySet().toArray(new Cell[0]));
+            seen.putAll(chunk.get(TABLE_1));
+        });
+
+        assertThat(seen).isEqualTo(writes.get(TABLE_1));
+        assertThat(CommitWriteChunks.chunks(ImmutableMap.of(), CHUNK_SIZE)).isExhausted();
+    }
+
+    private static Map<TableReference, Map<Cell, byte[]>> writes(TableReference table, int numCells) {
+        Map<Cell, byte[]> cells = new HashMap<>();
+        for (int i = 0; i < numCells; i++) {
+            cells.put(Cell.create(PtBytes.toBytes("row" + i), PtBytes.toBytes("col")), VALUE);
+        }
+        return ImmutableMap.of(table, cells);
+    }
+}
@@ -18,6 +18,7 @@ package com.palantir.atlasdb.transaction.impl;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
@@ -42,6 +43,7 @@ import com.palantir.logsafe.exceptions.SafeIllegalStateException;
 import java.util.Optional;
 import java.util.concurrent.ExecutionException;
 import org.eclipse.collections.api.factory.primitive.LongLists;
+import org.eclipse.collections.api.factory.primitive.LongLongMaps;
 import org.eclipse.collections.api.map.primitive.LongLongMap;
 import org.junit.Test;
 
@@ -64,6 +66,7 @@ public class CommitTimestampLoaderTest {
 
     private void setup(long startTs, TransactionStatus commitStatus, boolean isAborted) {
         when(timestampCache.getCommitTimestampIfPresent(anyLong())).thenReturn(null);
+        when(timestampCache.getCommitTimestampsIfPresent(any())).thenReturn(LongLongMaps.immutable.empty());
         when(knownAbandonedTransactions.isKnownAbandoned(anyLong())).thenReturn(isAborted);
         when(transactionService.getAsyncV2(startTs)).thenReturn(Futures.immediateFuture(commitStatus));
     }
@@ -168,7 +171,7 @@ public class CommitTimestampLoaderTest {
         // the transaction will eventually throw at commit time. In this test we are only concerned with per read
         // validation.
         assertCanGetCommitTs(startTsKnown, commitTsKnown, commitTimestampLoader);
-        verify(timestampCache).getCommitTimestampIfPresent(startTsKnown);
+        verify(timestampCache).getCommitTimestampsIfPresent(LongLists.immutable.of(startTsKnown));
         verify(timestampCache).putAlreadyCommittedTransaction(startTsKnown, commitTsKnown);
 
         setup(startTsUnknown, commitUnknown, false);
@@ -176,7 +179,7 @@ public class CommitTimestampLoaderTest {
                 startTsUnknown,
                 TransactionStatusUtils.getCommitTsForNonAbortedUnknownTransaction(startTsUnknown),
                 commitTimestampLoader);
-        verify(timestampCache).getCommitTimestampIfPresent(startTsUnknown);
+        verify(timestampCache).getCommitTimestampsIfPresent(LongLists.immutable.of(startTsUnknown));
         verifyNoMoreInteractions(timestampCache);
     }
 
@@ -0,0 +1,152 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.transaction.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableMultimap;
+import com.google.common.util.concurrent.Futures;
+import com.palantir.atlasdb.autobatch.BatchElement;
+import com.palantir.atlasdb.autobatch.DisruptorAutobatcher.DisruptorFuture;
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.KeyValueService;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.keyvalue.api.Value;
+import com.palantir.atlasdb.transaction.impl.GroupCommitKeyValueService.PendingWrites;
+import java.util.Map;
+import org.junit.Test;
+
+public class GroupCommitKeyValueServiceTest {
+    private static final TableReference TABLE_1 = TableReference.createFromFullyQualifiedName("test.table1");
+    private static final TableReference TABLE_2 = TableReference.createFromFullyQualifiedName("test.table2");
+    private static final Cell CELL_1 = Cell.create(PtBytes.toBytes("row1"), PtBytes.toBytes("col"));
+    private static final Cell CELL_2 = Cell.create(PtBytes.toBytes("row2"), PtBytes.toBytes("col"));
+    private static final byte[] VALUE = PtBytes.toBytes("value");
+
+    private final KeyValueService delegate = mock(KeyValueService.class);
+
+    @Test
+    public void writesDirectlyWhenDisabled() {
+        GroupCommitKeyValueService kvs = GroupCommitKeyValueService.create(delegate, () -> false);
+        Map<TableReference, Map<Cell, byte[]>> writes = ImmutableMap.of(TABLE_1, ImmutableMap.of(CELL_1, VALUE));
+
+        kvs.multiPut(writes, 10L);
+
+        verify(delegate).multiPut(writes, 10L);
+        verifyNoMoreInteractions(delegate);
+    }
+
+    @Test
+    public void writesThroughBatcherWhenEnabled() {
+        GroupCommitKeyValueService kvs = GroupCommitKeyValueService.create(delegate, () -> true);
+        Map<TableReference, Map<Cell, byte[]>> writes = ImmutableMap.of(TABLE_1, ImmutableMap.of(CELL_1, VALUE));
+
+        kvs.multiPut(writes, 10L);
+        kvs.close();
+
+        verify(delegate).multiPut(writes, 10L);
+        verify(delegate).close();
+    }
+
+    @Test
+    public void singleTransactionBatchUsesMultiPut() {
+        Map<TableReference, Map<Cell, byte[]>> writes = ImmutableMap.of(TABLE_1, ImmutableMap.of(CELL_1, VALUE));
+        DisruptorFuture<Void> result = new DisruptorFuture<>("test");
+
+        GroupCommitKeyValueService.processBatch(
+                delegate, ImmutableList.of(BatchElement.of(new PendingWrites(writes, 10L), result)));
+
+        verify(delegate).multiPut(writes, 10L);
+        verifyNoMoreInteractions(delegate);
+        assertThat(result).isDone();
+    }
+
+    @Test
+    public void multipleTransactionsShareOnePutPerTable() {
+        DisruptorFuture<Void> firstResult = new DisruptorFuture<>("test");
+        DisruptorFuture<Void> secondResult = new DisruptorFuture<>("test");
+        PendingWrites first = new PendingWrites(
+                ImmutableMap.of(TABLE_1, ImmutableMap.of(CELL_1, VALUE), TABLE_2, ImmutableMap.of(CELL_1, VALUE)),
+                10L);
+        PendingWrites second = new PendingWrites(ImmutableMap.of(TABLE_1, ImmutableMap.of(CELL_2, VALUE)), 20L);
+
+        GroupCommitKeyValueService.processBatch(
+                delegate, ImmutableList.of(BatchElement.of(first, firstResult), BatchElement.of(second, secondResult)));
+
+        verify(delegate)
+                .putWithTimestamps(
+                        TABLE_1,
+                        ImmutableMultimap.of(CELL_1, Value.create(VALUE, 10L), CELL_2, Value.create(VALUE, 20L)));
+        verify(delegate).putWithTimestamps(TABLE_2, ImmutableMultimap.of(CELL_1, Value.create(VALUE, 10L)));
+        verifyNoMoreInteractions(delegate);
+        assertThat(firstResult).isDone();
+        assertThat(secondResult).isDone();
+    }
+
+    @Test
+    public void failureFailsEveryTransactionInBatch() {
+        RuntimeException failure = new RuntimeException("boom");
+        doThrow(failure).when(delegate).putWithTimestamps(any(), any());
+        DisruptorFuture<Void> firstResult = new DisruptorFuture<>("test");
+        DisruptorFuture<Void> secondResult = new DisruptorFuture<>("test");
+
+        GroupCommitKeyValueService.processBatch(
+                delegate,
+                ImmutableList.of(
+                        BatchElement.of(
+                                new PendingWrites(ImmutableMap.of(TABLE_1, ImmutableMap.of(CELL_1, VALUE)), 10L),
+                                firstResult),
+                        BatchElement.of(
+                                new PendingWrites(ImmutableMap.of(TABLE_1, ImmutableMap.of(CELL_2, VALUE)), 20L),
+                                secondResult)));
+
+        assertThatThrownBy(() -> Futures.getUnchecked(firstResult)).hasCause(failure);
+        assertThatThrownBy(() -> Futures.getUnchecked(secondResult)).hasCause(failure);
+    }
+
+    @Test
+    public void failureAfterWritingSomeTablesFailsEveryTransactionInBatch() {
+        RuntimeException failure = new RuntimeException("boom");
+        doThrow(failure).when(delegate).putWithTimestamps(eq(TABLE_2), any());
+        DisruptorFuture<Void> firstResult = new DisruptorFuture<>("test");
+        DisruptorFuture<Void> secondResult = new DisruptorFuture<>("test");
+
+        GroupCommitKeyValueService.processBatch(
+                delegate,
+                ImmutableList.of(
+                        BatchElement.of(
+                                new PendingWrites(ImmutableMap.of(TABLE_1, ImmutableMap.of(CELL_1, VALUE)), 10L),
+                                firstResult),
+                        BatchElement.of(
+                                new PendingWrites(ImmutableMap.of(TABLE_2, ImmutableMap.of(CELL_2, VALUE)), 20L),
+                                secondResult)));
+
+        verify(delegate).putWithTimestamps(TABLE_1, ImmutableMultimap.of(CELL_1, Value.create(VALUE, 10L)));
+        assertThatThrownBy(() -> Futures.getUnchecked(firstResult)).hasCause(failure);
+        assertThatThrownBy(() -> Futures.getUnchecked(secondResult)).hasCause(failure);
+    }
+}
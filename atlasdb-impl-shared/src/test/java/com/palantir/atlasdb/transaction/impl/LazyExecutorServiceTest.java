@@ -0,0 +1,65 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.transaction.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.MoreExecutors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class LazyExecutorServiceTest {
+    private final AtomicInteger executorsCreated = new AtomicInteger();
+    private final ExecutorService delegate = MoreExecutors.newDirectExecutorService();
+    private final LazyExecutorService executor = new LazyExecutorService(() -> {
+        executorsCreated.incrementAndGet();
+        return delegate;
+    });
+
+    @Test
+    public void createsTheExecutorOnceOnFirstUse() {
+        assertThat(executor.isCreated()).isFalse();
+
+        assertThat(Futures.getUnchecked(executor.submit(() -> 1))).isEqualTo(1);
+        assertThat(Futures.getUnchecked(executor.submit(() -> 2))).isEqualTo(2);
+        assertThat(executorsCreated).hasValue(1);
+    }
+
+    @Test
+    public void shutsDownWithoutCreatingTheExecutorIfNeverUsed() throws InterruptedException {
+        executor.shutdown();
+
+        assertThat(executor.awaitTermination(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(executor.isTerminated()).isTrue();
+        assertThatExceptionOfType(RejectedExecutionException.class).isThrownBy(() -> executor.execute(() -> {}));
+        assertThat(executorsCreated).hasValue(0);
+    }
+
+    @Test
+    public void shutsDownTheCreatedExecutor() throws InterruptedException {
+        executor.execute(() -> {});
+        executor.shutdown();
+
+        assertThat(delegate.isShutdown()).isTrue();
+        assertThat(executor.awaitTermination(1, TimeUnit.SECONDS)).isTrue();
+    }
+}
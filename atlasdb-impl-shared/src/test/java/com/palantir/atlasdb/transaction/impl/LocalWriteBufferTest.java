@@ -18,6 +18,7 @@ package com.palantir.atlasdb.transaction.impl;
 
 import static com.palantir.logsafe.testing.Assertions.assertThatLoggableExceptionThrownBy;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
@@ -73,6 +74,32 @@ public class LocalWriteBufferTest {
         assertThat(buffer.getChangeMetadataForTable(TABLE)).isEmpty();
     }
 
+    @Test
+    public void readOnlyBufferRejectsWritesAndHoldsNoState() {
+        LocalWriteBuffer readOnly = LocalWriteBuffer.readOnly();
+
+        assertThatLoggableExceptionThrownBy(() -> readOnly.putLocalWritesAndMetadata(
+                        TABLE, ImmutableMap.of(CELL_1, VALUE_1), ImmutableMap.of()))
+                .isInstanceOf(SafeIllegalStateException.class)
+                .hasLogMessage("Cannot buffer writes in a read-only transaction");
+        assertThat(readOnly.getLocalWritesForTable(TABLE)).isEmpty();
+        assertThat(readOnly.getChangeMetadataForTable(TABLE)).isEmpty();
+        assertThat(readOnly.getLocalWrites()).isEmpty();
+        assertThat(LocalWriteBuffer.readOnly()).isSameAs(readOnly);
+    }
+
+    @Test
+    public void readOnlyBufferReturnsImmutableWrites() {
+        LocalWriteBuffer readOnly = LocalWriteBuffer.readOnly();
+
+        assertThatThrownBy(() -> readOnly.getLocalWritesForTable(TABLE).put(CELL_1, VALUE_1))
+                .isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> readOnly.getLocalWrites().put(TABLE, new ConcurrentSkipListMap<>()))
+                .isInstanceOf(UnsupportedOperationException.class);
+        assertThat(LocalWriteBuffer.readOnly().getLocalWritesForTable(TABLE)).isEmpty();
+        assertThat(LocalWriteBuffer.readOnly().getLocalWrites()).isEmpty();
+    }
+
     @Test
     public void canPutValueWithMetadata() {
         buffer.putLocalWritesAndMetadata(TABLE, ImmutableMap.of(CELL_1, VALUE_1), ImmutableMap.of(CELL_1, METADATA_1));
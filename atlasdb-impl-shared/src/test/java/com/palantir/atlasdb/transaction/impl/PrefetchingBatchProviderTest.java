@@ -0,0 +1,217 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.transaction.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterators;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.palantir.atlasdb.util.MetricsManagers;
+import com.palantir.common.base.ClosableIterator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import javax.annotation.Nullable;
+import org.junit.After;
+import org.junit.Test;
+
+public class PrefetchingBatchProviderTest {
+    private static final List<Integer> ROWS = IntStream.range(0, 100).boxed().collect(Collectors.toList());
+    private static final long ROW_SIZE = 10;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final AtomicInteger rowsRead = new AtomicInteger();
+    private final AtomicBoolean sourceClosed = new AtomicBoolean();
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void returnsEveryRowInOrder() {
+        PrefetchingBatchProvider<Integer> provider = provider(source(ROWS.iterator()), executor, 3, 2 * ROW_SIZE);
+
+        try (ClosableIterator<Integer> rows = provider.getBatch(100, null)) {
+            assertThat(ImmutableList.copyOf(rows)).isEqualTo(ROWS);
+        }
+        assertThat(sourceClosed).isTrue();
+    }
+
+    @Test
+    public void buffersAtMostMaxPagesOfTargetSizeAhead() {
+        PrefetchingBatchProvider<Integer> provider =
+                provider(source(ROWS.iterator()), MoreExecutors.directExecutor(), 3, 2 * ROW_SIZE);
+
+        try (ClosableIterator<Integer> rows = provider.getBatch(100, null)) {
+            assertThat(rowsRead).hasValue(3 * 2);
+
+            assertThat(rows.next()).isEqualTo(0);
+            assertThat(rowsRead).hasValue(4 * 2);
+        }
+    }
+
+    @Test
+    public void returnsEveryRowInOrderAcrossBatches() {
+        PrefetchingBatchProvider<Integer> provider = provider(source(ROWS.iterator()), executor, 3, Long.MAX_VALUE);
+
+        try (ClosableIterator<Integer> rows = provider.getBatch(7, null)) {
+            assertThat(ImmutableList.copyOf(rows)).isEqualTo(ROWS);
+        }
+    }
+
+    @Test
+    public void neverReadsAheadPastTheRequestedBatch() {
+        PrefetchingBatchProvider<Integer> provider =
+                provider(source(ROWS.iterator()), MoreExecutors.directExecutor(), 2, Long.MAX_VALUE);
+
+        try (ClosableIterator<Integer> rows = provider.getBatch(5, null)) {
+            assertThat(rowsRead).hasValue(5);
+
+            assertThat(ImmutableList.copyOf(Iterators.limit(rows, 5))).isEqualTo(ROWS.subList(0, 5));
+            assertThat(rowsRead).hasValue(5);
+
+            assertThat(rows.next()).isEqualTo(5);
+            assertThat(rowsRead).hasValue(2 * 5);
+        }
+    }
+
+    @Test
+    public void readsFewerPagesAheadOfASlowConsumer() {
+        PrefetchingBatchProvider<Integer> provider =
+                provider(source(ROWS.iterator()), MoreExecutors.directExecutor(), 3, 2 * ROW_SIZE);
+
+        try (ClosableIterator<Integer> rows = provider.getBatch(100, null)) {
+            Iterators.advance(rows, 5);
+            assertThat(rowsRead).hasValue(5 * 2);
+
+            Iterators.advance(rows, 20);
+            assertThat(rowsRead).hasValue(14 * 2);
+        }
+    }
+
+    @Test
+    public void readsRejectedPagesOnTheConsumerThread() {
+        PrefetchingBatchProvider<Integer> provider = provider(
+                source(ROWS.iterator()),
+                task -> {
+                    throw new RejectedExecutionException();
+                },
+                3,
+                2 * ROW_SIZE);
+
+        try (ClosableIterator<Integer> rows = provider.getBatch(100, null)) {
+            assertThat(rowsRead).hasValue(0);
+            assertThat(ImmutableList.copyOf(rows)).isEqualTo(ROWS);
+        }
+        assertThat(sourceClosed).isTrue();
+    }
+
+    @Test
+    public void propagatesFailuresToConsumer() {
+        Iterator<Integer> failing = Iterators.concat(
+                ImmutableList.of(1, 2).iterator(), new Iterator<Integer>() {
+                    @Override
+                    public boolean hasNext() {
+                        throw new IllegalStateException("backend unavailable");
+                    }
+
+                    @Override
+                    public Integer next() {
+                        throw new UnsupportedOperationException();
+                    }
+                });
+        PrefetchingBatchProvider<Integer> provider = provider(source(failing), executor, 2, ROW_SIZE);
+
+        try (ClosableIterator<Integer> rows = provider.getBatch(100, null)) {
+            assertThatThrownBy(() -> ImmutableList.copyOf(rows)).hasMessageContaining("backend unavailable");
+        }
+    }
+
+    @Test
+    public void stopsFetchingOnceClosed() {
+        PrefetchingBatchProvider<Integer> provider =
+                provider(source(ROWS.iterator()), MoreExecutors.directExecutor(), 1, ROW_SIZE);
+
+        ClosableIterator<Integer> rows = provider.getBatch(100, null);
+        rows.next();
+        rows.close();
+
+        int readAtClose = rowsRead.get();
+        assertThat(sourceClosed).isTrue();
+        assertThat(readAtClose).isLessThan(ROWS.size());
+        assertThat(rowsRead).hasValue(readAtClose);
+    }
+
+    private PrefetchingBatchProvider<Integer> provider(
+            BatchProvider<Integer> delegate,
+            Executor prefetchExecutor,
+            int maxPagesInFlight,
+            long targetPageBytes) {
+        return new PrefetchingBatchProvider<>(
+                delegate,
+                prefetchExecutor,
+                maxPagesInFlight,
+                targetPageBytes,
+                _row -> ROW_SIZE,
+                MetricsManagers.createForTests());
+    }
+
+    private BatchProvider<Integer> source(Iterator<Integer> rows) {
+        return new BatchProvider<>() {
+            @Override
+            public ClosableIterator<Integer> getBatch(int batchSize, @Nullable byte[] lastToken) {
+                return new ClosableIterator<>() {
+                    @Override
+                    public boolean hasNext() {
+                        return rows.hasNext();
+                    }
+
+                    @Override
+                    public Integer next() {
+                        rowsRead.incrementAndGet();
+                        return rows.next();
+                    }
+
+                    @Override
+                    public void close() {
+                        sourceClosed.set(true);
+                    }
+                };
+            }
+
+            @Override
+            public boolean hasNext(byte[] lastToken) {
+                return true;
+            }
+
+            @Override
+            public byte[] getLastToken(List<Integer> batch) {
+                return new byte[0];
+            }
+        };
+    }
+}
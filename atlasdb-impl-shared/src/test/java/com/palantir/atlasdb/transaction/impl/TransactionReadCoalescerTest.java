@@ -0,0 +1,188 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.transaction.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.google.common.collect.ForwardingMap;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.util.MetricsManager;
+import com.palantir.atlasdb.util.MetricsManagers;
+import com.palantir.common.concurrent.PTExecutors;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.junit.Test;
+
+public class TransactionReadCoalescerTest {
+    private static final TableReference TABLE = TableReference.createFromFullyQualifiedName("test.table");
+    private static final TableReference OTHER_TABLE = TableReference.createFromFullyQualifiedName("test.other");
+    private static final Cell CELL_1 = cell("1");
+    private static final Cell CELL_2 = cell("2");
+    private static final Cell CELL_3 = cell("3");
+    private static final byte[] VALUE = {1, 2, 3};
+
+    private final MetricsManager metricsManager = MetricsManagers.createForTests();
+    private final TransactionReadCoalescer coalescer = new TransactionReadCoalescer(metricsManager);
+    private final List<Set<Cell>> reads = new ArrayList<>();
+
+    @Test
+    public void servesRepeatedReadsFromMemory() {
+        assertThat(get(TABLE, ImmutableSet.of(CELL_1, CELL_2))).containsOnlyKeys(CELL_1);
+        assertThat(get(TABLE, ImmutableSet.of(CELL_1, CELL_2))).containsOnlyKeys(CELL_1);
+
+        assertThat(reads).containsExactly(ImmutableSet.of(CELL_1, CELL_2));
+        assertThat(meter("memoryHit")).isEqualTo(2);
+        assertThat(meter("miss")).isEqualTo(2);
+    }
+
+    @Test
+    public void onlyReadsCellsNotReadBefore() {
+        get(TABLE, ImmutableSet.of(CELL_1));
+        assertThat(get(TABLE, ImmutableSet.of(CELL_1, CELL_2, CELL_3))).containsOnlyKeys(CELL_1, CELL_3);
+
+        assertThat(reads).containsExactly(ImmutableSet.of(CELL_1), ImmutableSet.of(CELL_2, CELL_3));
+    }
+
+    @Test
+    public void doesNotShareReadsAcrossTables() {
+        get(TABLE, ImmutableSet.of(CELL_1));
+        get(OTHER_TABLE, ImmutableSet.of(CELL_1));
+
+        assertThat(reads).hasSize(2);
+    }
+
+    @Test
+    public void coalescesOverlappingInFlightReads() {
+        SettableFuture<Map<Cell, byte[]>> firstRead = SettableFuture.create();
+        ListenableFuture<Map<Cell, byte[]>> first =
+                coalescer.get(TABLE, ImmutableSet.of(CELL_1, CELL_2), _cells -> firstRead);
+        ListenableFuture<Map<Cell, byte[]>> second = coalescer.get(TABLE, ImmutableSet.of(CELL_2, CELL_3), this::read);
+
+        assertThat(reads).containsExactly(ImmutableSet.of(CELL_3));
+        assertThat(second).isNotDone();
+        assertThat(meter("inFlightHit")).isEqualTo(1);
+
+        firstRead.set(ImmutableMap.of(CELL_1, VALUE, CELL_2, VALUE));
+        assertThat(Futures.getUnchecked(first)).containsOnlyKeys(CELL_1, CELL_2);
+        assertThat(Futures.getUnchecked(second)).containsOnlyKeys(CELL_2, CELL_3);
+    }
+
+    @Test
+    public void looksUpRequestedCellsWithoutScanningSharedReads() {
+        Map<Cell, byte[]> unscannable = new ForwardingMap<>() {
+            @Override
+            protected Map<Cell, byte[]> delegate() {
+                return ImmutableMap.of(CELL_1, VALUE, CELL_2, VALUE);
+            }
+
+            @Override
+            public Set<Map.Entry<Cell, byte[]>> entrySet() {
+                throw new UnsupportedOperationException("scanned a shared read");
+            }
+        };
+        coalescer.get(TABLE, ImmutableSet.of(CELL_1, CELL_2), _cells -> Futures.immediateFuture(unscannable));
+
+        assertThat(get(TABLE, ImmutableSet.of(CELL_1, CELL_3))).containsOnlyKeys(CELL_1, CELL_3);
+        assertThat(get(TABLE, ImmutableSet.of(CELL_2))).containsOnlyKeys(CELL_2);
+    }
+
+    @Test
+    public void retriesCellsWhoseReadFailed() {
+        ListenableFuture<Map<Cell, byte[]>> failed = coalescer.get(
+                TABLE, ImmutableSet.of(CELL_1), _cells -> Futures.immediateFailedFuture(new RuntimeException("boom")));
+        assertThatThrownBy(() -> Futures.getUnchecked(failed)).hasMessageContaining("boom");
+
+        assertThat(get(TABLE, ImmutableSet.of(CELL_1))).containsOnlyKeys(CELL_1);
+        assertThat(reads).containsExactly(ImmutableSet.of(CELL_1));
+    }
+
+    @Test
+    public void cancellingOneReadDoesNotCancelCoalescedReads() {
+        SettableFuture<Map<Cell, byte[]>> firstRead = SettableFuture.create();
+        ListenableFuture<Map<Cell, byte[]>> first = coalescer.get(TABLE, ImmutableSet.of(CELL_1), _cells -> firstRead);
+        ListenableFuture<Map<Cell, byte[]>> second = coalescer.get(TABLE, ImmutableSet.of(CELL_1), this::read);
+
+        first.cancel(true);
+        firstRead.set(ImmutableMap.of(CELL_1, VALUE));
+
+        assertThat(Futures.getUnchecked(second)).containsOnlyKeys(CELL_1);
+    }
+
+    @Test
+    public void concurrentReadsOfTheSameCellsReadEachCellOnce() throws InterruptedException {
+        Set<Cell> cells = ImmutableSet.of(CELL_1, CELL_2, CELL_3);
+        List<Set<Cell>> concurrentReads = new ArrayList<>();
+        List<ListenableFuture<Map<Cell, byte[]>>> results = new ArrayList<>();
+        ExecutorService executor = PTExecutors.newFixedThreadPool(8);
+        try {
+            List<Runnable> tasks = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                tasks.add(() -> {
+                    ListenableFuture<Map<Cell, byte[]>> result = coalescer.get(TABLE, cells, toRead -> {
+                        synchronized (concurrentReads) {
+                            concurrentReads.add(toRead);
+                        }
+                        return Futures.immediateFuture(ImmutableMap.of(CELL_1, VALUE));
+                    });
+                    synchronized (results) {
+                        results.add(result);
+                    }
+                });
+            }
+            tasks.forEach(executor::execute);
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+
+        assertThat(concurrentReads.stream().mapToInt(Set::size).sum()).isEqualTo(cells.size());
+        assertThat(results).hasSize(64).allSatisfy(result -> assertThat(Futures.getUnchecked(result))
+                .containsOnlyKeys(CELL_1));
+    }
+
+    private Map<Cell, byte[]> get(TableReference tableRef, Set<Cell> cells) {
+        return Futures.getUnchecked(coalescer.get(tableRef, cells, this::read));
+    }
+
+    private ListenableFuture<Map<Cell, byte[]>> read(Set<Cell> cells) {
+        reads.add(cells);
+        return Futures.immediateFuture(cells.stream()
+                .filter(cell -> !cell.equals(CELL_2))
+                .collect(Collectors.toMap(cell -> cell, _cell -> VALUE)));
+    }
+
+    private long meter(String name) {
+        return metricsManager.registerOrGetMeter(TransactionReadCoalescer.class, name).getCount();
+    }
+
+    private static Cell cell(String row) {
+        return Cell.create(row.getBytes(StandardCharsets.UTF_8), new byte[] {0});
+    }
+}
@@ -22,6 +22,7 @@ import com.palantir.atlasdb.keyvalue.api.Cell;
 import com.palantir.atlasdb.keyvalue.api.RangeRequest;
 import com.palantir.atlasdb.keyvalue.api.RowResult;
 import com.palantir.atlasdb.performance.benchmarks.table.ConsecutiveNarrowTable;
+import com.palantir.atlasdb.transaction.api.Transaction;
 import com.palantir.common.base.BatchingVisitable;
 import com.palantir.common.base.BatchingVisitables;
 import java.util.List;
@@ -41,29 +42,40 @@ public class TransactionGetBenchmarks {
     private static final int RANGES_SINGLE_REQUEST_SIZE = 1;
 
     private Map<Cell, byte[]> getSingleCellInner(ConsecutiveNarrowTable table) {
-        return table.getTransactionManager().runTaskThrowOnConflict(txn -> {
-            Set<Cell> request = table.getCellsRequest(1);
-            Map<Cell, byte[]> result = txn.get(table.getTableRef(), request);
-            byte[] rowName =
-                    Iterables.getOnlyElement(result.entrySet()).getKey().getRowName();
-            int rowNumber = Ints.fromByteArray(rowName);
-            int expectRowNumber = ConsecutiveNarrowTable.rowNumber(
-                    Iterables.getOnlyElement(request).getRowName());
-            Preconditions.checkState(
-                    rowNumber == expectRowNumber, "Start Row %s, row number %s", expectRowNumber, rowNumber);
-            return result;
-        });
+        return table.getTransactionManager().runTaskThrowOnConflict(txn -> getSingleCell(txn, table));
+    }
+
+    private Map<Cell, byte[]> getSingleCellReadOnlyInner(ConsecutiveNarrowTable table) {
+        return table.getTransactionManager().runTaskReadOnly(txn -> getSingleCell(txn, table));
+    }
+
+    private static Map<Cell, byte[]> getSingleCell(Transaction txn, ConsecutiveNarrowTable table) {
+        Set<Cell> request = table.getCellsRequest(1);
+        Map<Cell, byte[]> result = txn.get(table.getTableRef(), request);
+        byte[] rowName = Iterables.getOnlyElement(result.entrySet()).getKey().getRowName();
+        int rowNumber = Ints.fromByteArray(rowName);
+        int expectRowNumber =
+                ConsecutiveNarrowTable.rowNumber(Iterables.getOnlyElement(request).getRowName());
+        Preconditions.checkState(
+                rowNumber == expectRowNumber, "Start Row %s, row number %s", expectRowNumber, rowNumber);
+        return result;
     }
 
     private Map<Cell, byte[]> getCellsInner(ConsecutiveNarrowTable table) {
+        return table.getTransactionManager().runTaskThrowOnConflict(txn -> getCells(txn, table));
+    }
+
+    private Map<Cell, byte[]> getCellsReadOnlyInner(ConsecutiveNarrowTable table) {
+        return table.getTransactionManager().runTaskReadOnly(txn -> getCells(txn, table));
+    }
+
+    private static Map<Cell, byte[]> getCells(Transaction txn, ConsecutiveNarrowTable table) {
         final int getCellsSize = 1000;
-        return table.getTransactionManager().runTaskThrowOnConflict(txn -> {
-            Set<Cell> request = table.getCellsRequest(getCellsSize);
-            Map<Cell, byte[]> result = txn.get(table.getTableRef(), request);
-            Preconditions.checkState(
-                    result.size() == getCellsSize, "expected %s cells, found %s cells", getCellsSize, result.size());
-            return result;
-        });
+        Set<Cell> request = table.getCellsRequest(getCellsSize);
+        Map<Cell, byte[]> result = txn.get(table.getTableRef(), request);
+        Preconditions.checkState(
+                result.size() == getCellsSize, "expected %s cells, found %s cells", getCellsSize, result.size());
+        return result;
     }
 
     private List<RowResult<byte[]>> getSingleRowWithRangeQueryInner(final ConsecutiveNarrowTable table) {
@@ -125,6 +137,14 @@ public class TransactionGetBenchmarks {
         return getCellsInner(table);
     }
 
+    @Benchmark
+    @Threads(1)
+    @Warmup(time = 1, timeUnit = TimeUnit.SECONDS)
+    @Measurement(time = 5, timeUnit = TimeUnit.SECONDS)
+    public Object getCellsReadOnly(ConsecutiveNarrowTable.CleanNarrowTable table) {
+        return getCellsReadOnlyInner(table);
+    }
+
     @Benchmark
     @Threads(1)
     @Warmup(time = 1, timeUnit = TimeUnit.SECONDS)
@@ -173,6 +193,14 @@ public class TransactionGetBenchmarks {
         return getSingleCellInner(table);
     }
 
+    @Benchmark
+    @Threads(1)
+    @Warmup(time = 1, timeUnit = TimeUnit.SECONDS)
+    @Measurement(time = 5, timeUnit = TimeUnit.SECONDS)
+    public Object getSingleCellReadOnly(ConsecutiveNarrowTable.CleanNarrowTable table) {
+        return getSingleCellReadOnlyInner(table);
+    }
+
     @Benchmark
     @Threads(1)
     @Warmup(time = 8, timeUnit = TimeUnit.SECONDS)
@@ -20,10 +20,16 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableList;
@@ -48,6 +54,9 @@ import com.palantir.atlasdb.keyvalue.api.RangeRequest;
 import com.palantir.atlasdb.keyvalue.api.RangeRequests;
 import com.palantir.atlasdb.keyvalue.api.RowResult;
 import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.keyvalue.api.cache.NoOpTransactionScopedCache;
+import com.palantir.atlasdb.keyvalue.api.cache.TransactionScopedCache;
+import com.palantir.atlasdb.keyvalue.api.watch.LockWatchManagerInternal;
 import com.palantir.atlasdb.keyvalue.api.watch.NoOpLockWatchManager;
 import com.palantir.atlasdb.keyvalue.impl.KvsManager;
 import com.palantir.atlasdb.keyvalue.impl.TransactionManagerManager;
@@ -145,7 +154,7 @@ public abstract class AbstractSerializableTransactionTest extends AbstractTransa
                 MetricsManagers.createForTests(),
                 keyValueService,
                 timelockService,
-                NoOpLockWatchManager.create(),
+                options.lockWatchManager,
                 transactionService,
                 NoOpCleaner.INSTANCE,
                 Suppliers.ofInstance(timestampService.getFreshTimestamp()),
@@ -163,6 +172,8 @@ public abstract class AbstractSerializableTransactionTest extends AbstractTransa
                 AbstractTransactionTest.DEFAULT_GET_RANGES_CONCURRENCY,
                 getSweepQueueWriterInitialized(),
                 MoreExecutors.newDirectExecutorService(),
+                MoreExecutors.newDirectExecutorService(),
+                MoreExecutors.newDirectExecutorService(),
                 true,
                 () -> ImmutableTransactionConfig.builder().build(),
                 ConflictTracer.NO_OP,
@@ -178,6 +189,7 @@ public abstract class AbstractSerializableTransactionTest extends AbstractTransa
     private static final class TransactionOptions {
         private PreCommitCondition condition = PreCommitConditions.NO_OP;
         private Optional<LockToken> immutableLockToken = Optional.empty();
+        private LockWatchManagerInternal lockWatchManager = NoOpLockWatchManager.create();
 
         public TransactionOptions withCondition(PreCommitCondition newCondition) {
             this.condition = Preconditions.checkNotNull(newCondition, "newCondition");
@@ -189,6 +201,13 @@ public abstract class AbstractSerializableTransactionTest extends AbstractTransa
                     Optional.of(Preconditions.checkNotNull(newImmutableLockToken, "newImmutableLockToken"));
             return this;
         }
+
+        public TransactionOptions withReadOnlyTransactionScopedCache(TransactionScopedCache newCache) {
+            Preconditions.checkNotNull(newCache, "newCache");
+            this.lockWatchManager = spy(NoOpLockWatchManager.create());
+            doReturn(newCache).when(lockWatchManager).getReadOnlyTransactionScopedCache(anyLong());
+            return this;
+        }
     }
 
     protected MultiTableSweepQueueWriter getSweepQueueWriterUninitialized() {
@@ -1050,6 +1069,48 @@ public abstract class AbstractSerializableTransactionTest extends AbstractTransa
         t2.commit();
     }
 
+    @Test
+    public void cellsUnlockedSinceStartAreNotReadAgainOnCommit() {
+        Transaction t0 = startTransaction();
+        t0.put(TEST_TABLE, ImmutableMap.of(CELL_ONE, BYTES_ONE));
+        t0.commit();
+
+        TransactionScopedCache commitCache = spy(NoOpTransactionScopedCache.create());
+        when(commitCache.getUnlockedCells(eq(TEST_TABLE), any())).thenAnswer(invocation -> invocation.getArgument(1));
+        Transaction t1 =
+                startTransactionWithOptions(new TransactionOptions().withReadOnlyTransactionScopedCache(commitCache));
+        assertThat(t1.get(TEST_TABLE, ImmutableSet.of(CELL_ONE))).containsOnlyKeys(CELL_ONE);
+        // Write to avoid the read only path.
+        t1.put(TEST_TABLE, ImmutableMap.of(CELL_TWO, BYTES_TWO));
+        t1.commit();
+
+        verify(commitCache).getUnlockedCells(TEST_TABLE, ImmutableSet.of(CELL_ONE));
+        verify(commitCache, never()).get(any(), any(), any());
+    }
+
+    @Test
+    public void cellsLockedSinceStartAreStillCheckedForConflictsOnCommit() {
+        Transaction t0 = startTransaction();
+        t0.put(TEST_TABLE, ImmutableMap.of(CELL_ONE, BYTES_ONE, CELL_TWO, BYTES_ONE));
+        t0.commit();
+
+        // Only the first cell is proven unchanged; the second was locked between start and commit.
+        TransactionScopedCache commitCache = spy(NoOpTransactionScopedCache.create());
+        when(commitCache.getUnlockedCells(eq(TEST_TABLE), any())).thenReturn(ImmutableSet.of(CELL_ONE));
+        Transaction t1 =
+                startTransactionWithOptions(new TransactionOptions().withReadOnlyTransactionScopedCache(commitCache));
+        assertThat(t1.get(TEST_TABLE, ImmutableSet.of(CELL_ONE, CELL_TWO))).containsOnlyKeys(CELL_ONE, CELL_TWO);
+        // Write to avoid the read only path.
+        t1.put(TEST_TABLE, ImmutableMap.of(Cell.create(PtBytes.toBytes("r2"), PtBytes.toBytes("c1")), BYTES_ONE));
+
+        Transaction t2 = startTransaction();
+        t2.put(TEST_TABLE, ImmutableMap.of(CELL_TWO, BYTES_TWO));
+        t2.commit();
+
+        assertThatThrownBy(t1::commit).isInstanceOf(TransactionSerializableConflictException.class);
+        verify(commitCache).get(eq(TEST_TABLE), eq(ImmutableSet.of(CELL_TWO)), any());
+    }
+
     @Test
     public void testNoMarkTableInvolvedSkipsPreCommitConditionCheckingOnCommit() {
         PreCommitCondition condition = _ts -> {
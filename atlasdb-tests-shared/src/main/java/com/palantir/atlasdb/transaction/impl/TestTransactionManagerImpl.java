@@ -220,6 +220,8 @@ public class TestTransactionManagerImpl extends SerializableTransactionManager i
                         defaultGetRangesConcurrency,
                         sweepQueueWriter,
                         deleteExecutor,
+                        postFilteringExecutor,
+                        rangePrefetchExecutor,
                         validateLocksOnReads,
                         transactionConfig,
                         ConflictTracer.NO_OP,
@@ -155,15 +155,20 @@ import java.util.Optional;
 import java.util.Random;
 import java.util.Set;
 import java.util.SortedMap;
+import java.util.concurrent.BrokenBarrierException;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletionService;
+import java.util.concurrent.CyclicBarrier;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
@@ -223,6 +228,7 @@ public class SnapshotTransactionTest extends AtlasDbTestCase {
     private final TimestampCache timestampCache = new DefaultTimestampCache(
             metricsManager.getRegistry(), () -> AtlasDbConstants.DEFAULT_TIMESTAMP_CACHE_SIZE);
     private final ExecutorService getRangesExecutor = Executors.newFixedThreadPool(8);
+    private ExecutorService postFilteringExecutor = MoreExecutors.newDirectExecutorService();
     private final int defaultGetRangesConcurrency = 2;
     private final TransactionOutcomeMetrics transactionOutcomeMetrics =
             TransactionOutcomeMetrics.create(metricsManager);
@@ -480,6 +486,8 @@ public class SnapshotTransactionTest extends AtlasDbTestCase {
                         defaultGetRangesConcurrency,
                         MultiTableSweepQueueWriter.NO_OP,
                         MoreExecutors.newDirectExecutorService(),
+                        MoreExecutors.newDirectExecutorService(),
+                        MoreExecutors.newDirectExecutorService(),
                         true,
                         () -> transactionConfig,
                         ConflictTracer.NO_OP,
@@ -2568,6 +2576,49 @@ public class SnapshotTransactionTest extends AtlasDbTestCase {
                         SafeArg.of("maxIterations", SnapshotTransaction.MAX_POST_FILTERING_ITERATIONS));
     }
 
+    @Test
+    public void postFiltersContendedCellsInParallelSubsets() {
+        setTransactionConfig(ImmutableTransactionConfig.builder()
+                .postFilteringParallelism(4)
+                .build());
+        Map<Cell, byte[]> committedValues = new HashMap<>();
+        for (int idx = 0; idx < 10; idx++) {
+            committedValues.put(
+                    Cell.create(PtBytes.toBytes("row" + idx), PtBytes.toBytes("column")), PtBytes.toBytes(idx));
+        }
+        txManager.runTaskThrowOnConflict(txn -> {
+            txn.put(TABLE, committedValues);
+            return null;
+        });
+        for (int round = 0; round < 3; round++) {
+            committedValues.keySet().forEach(cell -> putUncommittedAtFreshTimestamp(TABLE, cell));
+        }
+
+        // Ten cells at parallelism four are split into four subsets; every subset blocks until all four are running.
+        CyclicBarrier allSubsetsRunning = new CyclicBarrier(4);
+        AtomicBoolean ranSequentially = new AtomicBoolean(false);
+        postFilteringExecutor = new ThreadPoolExecutor(4, 4, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>()) {
+            @Override
+            protected void beforeExecute(Thread thread, Runnable runnable) {
+                try {
+                    allSubsetsRunning.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException | BrokenBarrierException | TimeoutException e) {
+                    ranSequentially.set(true);
+                }
+            }
+        };
+        try {
+            Transaction txn = getSnapshotTransactionWith(
+                    timelockService, ImmutableMap.of(TABLE, ConflictHandler.RETRY_ON_WRITE_WRITE));
+
+            assertThat(txn.get(TABLE, committedValues.keySet())).containsExactlyInAnyOrderEntriesOf(committedValues);
+            assertThat(ranSequentially).isFalse();
+        } finally {
+            postFilteringExecutor.shutdownNow();
+            postFilteringExecutor = MoreExecutors.newDirectExecutorService();
+        }
+    }
+
     @Test
     public void metadataIsTransferredToCellLocksForPutWithMetadata() {
         TimelockService timelockService = spy(txManager.getTimelockService());
@@ -2967,6 +3018,8 @@ public class SnapshotTransactionTest extends AtlasDbTestCase {
                 defaultGetRangesConcurrency,
                 MultiTableSweepQueueWriter.NO_OP,
                 MoreExecutors.newDirectExecutorService(),
+                postFilteringExecutor,
+                MoreExecutors.newDirectExecutorService(),
                 validateLocksOnReads,
                 () -> transactionConfig,
                 ConflictTracer.NO_OP,
@@ -15,23 +15,32 @@
  */
 package com.palantir.paxos;
 
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.Striped;
 import com.palantir.logsafe.SafeArg;
 import com.palantir.logsafe.logger.SafeLogger;
 import com.palantir.logsafe.logger.SafeLoggerFactory;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.OptionalLong;
+import java.util.SortedSet;
+import java.util.TreeSet;
 import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.Lock;
+import java.util.stream.Collectors;
 
 public final class PaxosAcceptorImpl implements PaxosAcceptor {
     private static final SafeLogger log = SafeLoggerFactory.get(PaxosAcceptorImpl.class);
+    private static final int ROUND_LOCK_STRIPES = 64;
 
     public static PaxosAcceptor newAcceptor(String logDir) {
         PaxosStateLog<PaxosAcceptorState> stateLog = new PaxosStateLogImpl<>(logDir);
         return new PaxosAcceptorImpl(new ConcurrentSkipListMap<>(), stateLog, stateLog.getGreatestLogEntry());
     }
 
-    public static PaxosAcceptor newSplittingAcceptor(
+    public static PaxosAcceptorImpl newSplittingAcceptor(
             PaxosStorageParameters params,
             SplittingPaxosStateLog.LegacyOperationMarkers legacyOperationMarkers,
             Optional<Long> migrateFrom) {
@@ -47,6 +56,9 @@ public final class PaxosAcceptorImpl implements PaxosAcceptor {
     private final PaxosStateLog<PaxosAcceptorState> acceptorStateLog;
     private final long greatestInLogAtStartup;
 
+    // Held while writing the state of a round to the log, so that writes of a round are never reordered.
+    private final Striped<Lock> roundLocks = Striped.lock(ROUND_LOCK_STRIPES);
+
     private PaxosAcceptorImpl(
             ConcurrentSkipListMap<Long, PaxosAcceptorState> state,
             PaxosStateLog<PaxosAcceptorState> acceptorStateLog,
@@ -58,6 +70,39 @@ public final class PaxosAcceptorImpl implements PaxosAcceptor {
 
     @Override
     public PaxosPromise prepare(long seq, PaxosProposalId pid) {
+        return prepare(seq, pid, (sequence, _newState) -> writeLatestState(sequence));
+    }
+
+    @Override
+    public BooleanPaxosResponse accept(long seq, PaxosProposal proposal) {
+        return accept(seq, proposal, (sequence, _newState) -> writeLatestState(sequence));
+    }
+
+    /**
+     * Starts a batch of prepares and accepts, which behave as {@link #prepare} and {@link #accept} do, except that the
+     * states they need to persist are only written to the log by {@link AcceptorBatch#persist()}, in one write for
+     * the whole batch. The responses of a batch must not be sent until it has been persisted.
+     */
+    public AcceptorBatch startBatch() {
+        return new AcceptorBatch();
+    }
+
+    /**
+     * Writes the latest state of the given round while holding its lock. States only ever advance, so each write of a
+     * round writes a state at least as new as the previous write, and an older state never overwrites a newer one
+     * however concurrent requests race between updating the state in memory and writing it.
+     */
+    private void writeLatestState(long seq) {
+        Lock lock = roundLocks.get(seq);
+        lock.lock();
+        try {
+            acceptorStateLog.writeRound(seq, state.get(seq));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private PaxosPromise prepare(long seq, PaxosProposalId pid, StateWriter stateWriter) {
         try {
             checkLogIfNeeded(seq);
         } catch (Exception e) {
@@ -82,15 +127,14 @@ public final class PaxosAcceptorImpl implements PaxosAcceptor {
                     oldState != null ? oldState.withPromise(pid) : PaxosAcceptorState.newState(pid);
             if ((oldState == null && state.putIfAbsent(seq, newState) == null)
                     || (oldState != null && state.replace(seq, oldState, newState))) {
-                acceptorStateLog.writeRound(seq, newState);
+                stateWriter.write(seq, newState);
                 return PaxosPromise.accept(
                         newState.lastPromisedId, newState.lastAcceptedId, newState.lastAcceptedValue);
             }
         }
     }
 
-    @Override
-    public BooleanPaxosResponse accept(long seq, PaxosProposal proposal) {
+    private BooleanPaxosResponse accept(long seq, PaxosProposal proposal, StateWriter stateWriter) {
         try {
             checkLogIfNeeded(seq);
         } catch (Exception e) {
@@ -112,7 +156,7 @@ public final class PaxosAcceptorImpl implements PaxosAcceptor {
                     : PaxosAcceptorState.newState(proposal.id);
             if ((oldState == null && state.putIfAbsent(seq, newState) == null)
                     || (oldState != null && state.replace(seq, oldState, newState))) {
-                acceptorStateLog.writeRound(seq, newState);
+                stateWriter.write(seq, newState);
                 return new BooleanPaxosResponse(true);
             }
         }
@@ -144,4 +188,78 @@ public final class PaxosAcceptorImpl implements PaxosAcceptor {
             }
         }
     }
+
+    public final class AcceptorBatch {
+        private final SortedSet<Long> sequencesToPersist = new TreeSet<>();
+        private final StateWriter deferredWriter = (seq, _newState) -> sequencesToPersist.add(seq);
+        private final List<Lock> heldLocks = new ArrayList<>();
+
+        private AcceptorBatch() {}
+
+        public PaxosPromise prepare(long seq, PaxosProposalId pid) {
+            return PaxosAcceptorImpl.this.prepare(seq, pid, deferredWriter);
+        }
+
+        public BooleanPaxosResponse accept(long seq, PaxosProposal proposal) {
+            return PaxosAcceptorImpl.this.accept(seq, proposal, deferredWriter);
+        }
+
+        /**
+         * The number of rounds that {@link #persist()} is going to write.
+         */
+        public int size() {
+            return sequencesToPersist.size();
+        }
+
+        /**
+         * Takes the locks of all the rounds this batch has changed, which are held until {@link #unlockRounds()}.
+         * Persisting several batches in one transaction needs all their locks first, so that no thread holds the
+         * database while waiting for a lock. Threads that lock several batches must lock them in the same order.
+         */
+        public void lockRounds() {
+            heldLocks.addAll(lock());
+        }
+
+        public void unlockRounds() {
+            unlock(heldLocks);
+            heldLocks.clear();
+        }
+
+        /**
+         * Durably writes the latest states of all the rounds this batch has changed, while holding their locks, so
+         * that a batch never overwrites a newer state that a concurrent request has already persisted.
+         */
+        public void persist() {
+            if (sequencesToPersist.isEmpty()) {
+                return;
+            }
+            List<Lock> locks = lock();
+            try {
+                List<PaxosRound<PaxosAcceptorState>> rounds = sequencesToPersist.stream()
+                        .map(seq -> PaxosRound.of(seq, state.get(seq)))
+                        .collect(Collectors.toList());
+                acceptorStateLog.writeBatchOfRounds(rounds);
+                sequencesToPersist.clear();
+            } finally {
+                unlock(locks);
+            }
+        }
+
+        private List<Lock> lock() {
+            List<Lock> locks = new ArrayList<>();
+            for (Lock lock : roundLocks.bulkGet(sequencesToPersist)) {
+                lock.lock();
+                locks.add(lock);
+            }
+            return locks;
+        }
+
+        private void unlock(List<Lock> locks) {
+            Lists.reverse(locks).forEach(Lock::unlock);
+        }
+    }
+
+    private interface StateWriter {
+        void write(long seq, PaxosAcceptorState newState);
+    }
 }
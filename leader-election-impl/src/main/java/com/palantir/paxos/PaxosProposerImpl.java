@@ -16,8 +16,15 @@
 package com.palantir.paxos;
 
 import java.util.Collections;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 import javax.annotation.Nullable;
 
 /**
@@ -32,31 +39,66 @@ public final class PaxosProposerImpl implements PaxosProposer {
     private final PaxosLearnerNetworkClient learnerClient;
     private final String uuid;
     private final AtomicLong proposalNumber;
+    private final Optional<Executor> prepareAheadExecutor;
+    private final Supplier<Boolean> shouldPrepareAhead;
+    private final AtomicReference<PreparedRound> preparedAhead = new AtomicReference<>();
 
     public static PaxosProposer newProposer(
             PaxosAcceptorNetworkClient acceptorClient, PaxosLearnerNetworkClient learnerClient, UUID leaderUuid) {
-        return new PaxosProposerImpl(acceptorClient, learnerClient, leaderUuid);
+        return new PaxosProposerImpl(acceptorClient, learnerClient, leaderUuid, Optional.empty(), () -> false);
+    }
+
+    /**
+     * Creates a proposer that, while {@code shouldPrepareAhead} holds, runs phase one for the next sequence number on
+     * the given executor while it runs phase two for the current one. If nothing was accepted for the next sequence
+     * number and no other proposer has prepared it in the meantime, proposing it then only takes phase two, so a
+     * stable proposer of consecutive sequence numbers needs one round trip to the acceptors per proposal rather than
+     * two.
+     */
+    public static PaxosProposer newPreparingAheadProposer(
+            PaxosAcceptorNetworkClient acceptorClient,
+            PaxosLearnerNetworkClient learnerClient,
+            UUID leaderUuid,
+            Executor prepareAheadExecutor,
+            Supplier<Boolean> shouldPrepareAhead) {
+        return new PaxosProposerImpl(
+                acceptorClient, learnerClient, leaderUuid, Optional.of(prepareAheadExecutor), shouldPrepareAhead);
     }
 
     private PaxosProposerImpl(
-            PaxosAcceptorNetworkClient acceptorClient, PaxosLearnerNetworkClient learnerClient, UUID leaderUuid) {
+            PaxosAcceptorNetworkClient acceptorClient,
+            PaxosLearnerNetworkClient learnerClient,
+            UUID leaderUuid,
+            Optional<Executor> prepareAheadExecutor,
+            Supplier<Boolean> shouldPrepareAhead) {
         this.acceptorClient = acceptorClient;
         this.learnerClient = learnerClient;
         this.uuid = leaderUuid.toString();
         this.proposalNumber = new AtomicLong();
+        this.prepareAheadExecutor = prepareAheadExecutor;
+        this.shouldPrepareAhead = shouldPrepareAhead;
     }
 
     @Override
     public byte[] propose(final long seq, @Nullable byte[] bytes) throws PaxosRoundFailureException {
-        return proposeWithId(uuid, seq, bytes);
+        Optional<PaxosProposalId> preparedId = takePreparedAhead(seq);
+        if (preparedId.isPresent()) {
+            try {
+                return acceptAndLearn(seq, preparedId.get(), new PaxosValue(uuid, seq, bytes), true);
+            } catch (PaxosRoundFailureException e) {
+                // Another proposer has prepared this sequence since we did, so we have to prepare it again.
+            }
+        }
+        return proposeWithId(uuid, seq, bytes, true);
     }
 
     @Override
     public byte[] proposeAnonymously(long seq, @Nullable byte[] proposalValue) throws PaxosRoundFailureException {
-        return proposeWithId(UUID.randomUUID().toString(), seq, proposalValue);
+        return proposeWithId(UUID.randomUUID().toString(), seq, proposalValue, false);
     }
 
-    private byte[] proposeWithId(String uuidToProposeWith, final long seq, @Nullable byte[] bytes)
+    private byte[] proposeWithId(
+            String uuidToProposeWith, final long seq, @Nullable byte[] bytes, boolean mayPrepareAhead)
             throws PaxosRoundFailureException {
         final PaxosProposalId proposalId = new PaxosProposalId(proposalNumber.incrementAndGet(), uuidToProposeWith);
         PaxosValue toPropose = new PaxosValue(uuidToProposeWith, seq, bytes);
@@ -64,6 +106,16 @@ public final class PaxosProposerImpl implements PaxosProposer {
         // paxos phase one (prepare and promise)
         final PaxosValue finalValue = phaseOne(seq, proposalId, toPropose);
 
+        return acceptAndLearn(seq, proposalId, finalValue, mayPrepareAhead);
+    }
+
+    private byte[] acceptAndLearn(
+            final long seq, PaxosProposalId proposalId, PaxosValue finalValue, boolean mayPrepareAhead)
+            throws PaxosRoundFailureException {
+        if (mayPrepareAhead) {
+            maybePrepareAhead(seq + 1);
+        }
+
         // paxos phase two (accept request and accepted)
         phaseTwo(seq, proposalId, finalValue);
 
@@ -72,6 +124,47 @@ public final class PaxosProposerImpl implements PaxosProposer {
         return finalValue.getData();
     }
 
+    private void maybePrepareAhead(long seq) {
+        if (!prepareAheadExecutor.isPresent() || !shouldPrepareAhead.get()) {
+            preparedAhead.set(null);
+            return;
+        }
+        PaxosProposalId proposalId = new PaxosProposalId(proposalNumber.incrementAndGet(), uuid);
+        try {
+            preparedAhead.set(new PreparedRound(
+                    seq,
+                    CompletableFuture.supplyAsync(() -> prepareAhead(seq, proposalId), prepareAheadExecutor.get())));
+        } catch (RejectedExecutionException e) {
+            preparedAhead.set(null);
+        }
+    }
+
+    /**
+     * Runs phase one for a sequence number we expect to propose next. The proposal id can only be used to skip phase
+     * one if no acceptor in the quorum has accepted a value for the sequence number, as we would otherwise have to
+     * propose that value instead of our own.
+     */
+    private Optional<PaxosProposalId> prepareAhead(long seq, PaxosProposalId proposalId) {
+        PaxosResponses<PaxosPromise> receivedPromises = acceptorClient.prepare(seq, proposalId);
+        if (!receivedPromises.hasQuorum()
+                || receivedPromises.stream().anyMatch(promise -> promise.lastAcceptedValue != null)) {
+            return Optional.empty();
+        }
+        return Optional.of(proposalId);
+    }
+
+    private Optional<PaxosProposalId> takePreparedAhead(long seq) {
+        PreparedRound round = preparedAhead.getAndSet(null);
+        if (round == null || round.seq != seq) {
+            return Optional.empty();
+        }
+        try {
+            return round.proposalId.join();
+        } catch (CompletionException e) {
+            return Optional.empty();
+        }
+    }
+
     /**
      * Executes phase one of paxos (see http://en.wikipedia.org/wiki/Paxos_(computer_science)#Basic_Paxos).
      *
@@ -126,4 +219,14 @@ public final class PaxosProposerImpl implements PaxosProposer {
     public String getUuid() {
         return uuid;
     }
+
+    private static final class PreparedRound {
+        private final long seq;
+        private final CompletableFuture<Optional<PaxosProposalId>> proposalId;
+
+        private PreparedRound(long seq, CompletableFuture<Optional<PaxosProposalId>> proposalId) {
+            this.seq = seq;
+            this.proposalId = proposalId;
+        }
+    }
 }
@@ -29,6 +29,11 @@ public interface PaxosStorageParameters {
 
     Optional<String> fileBasedLogDirectory();
 
+    /**
+     * If present, rounds are migrated from sqlite to this store, which then serves all new rounds.
+     */
+    Optional<SegmentedPaxosLogStore> segmentedLogStore();
+
     @Default
     default boolean skipConsistencyCheckAndTruncateOldPaxosLog() {
         return false;
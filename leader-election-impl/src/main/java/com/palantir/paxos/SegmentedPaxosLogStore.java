@@ -0,0 +1,627 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.paxos;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.palantir.common.base.Throwables;
+import com.palantir.logsafe.Preconditions;
+import com.palantir.logsafe.SafeArg;
+import com.palantir.logsafe.exceptions.SafeIllegalStateException;
+import com.palantir.logsafe.logger.SafeLogger;
+import com.palantir.logsafe.logger.SafeLoggerFactory;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only storage for the paxos logs of any number of namespaces and use cases, shared by the
+ * {@link SegmentedPaxosStateLog}s that store their rounds in one directory.
+ *
+ * Records are appended to the active segment file until it reaches the segment size, after which a new segment is
+ * started. Every namespace and use case keeps an in-memory index from sequence number to the location of its latest
+ * record, which is rebuilt by replaying the segments on startup. Truncations are appended as records too, and the
+ * oldest segment is deleted once none of its records are indexed any more, so that replaying the remaining segments
+ * never brings back a truncated round.
+ *
+ * Writers append without syncing, and then wait for their records to be durable. Whichever writer syncs first makes
+ * every record appended before it durable, so concurrent writes from all namespaces share one fsync. The directory is
+ * synced whenever segments are created or deleted, as syncing a segment does not make its directory entry durable.
+ * Reads, including of the least and greatest rounds, wait for whatever they observe to be durable.
+ *
+ * If syncing fails, the store fails every later read and write: after a failed fsync the kernel may have dropped the
+ * dirty pages, so a later fsync succeeding says nothing about whether the records it covers are on disk.
+ */
+public final class SegmentedPaxosLogStore implements Closeable {
+    private static final SafeLogger log = SafeLoggerFactory.get(SegmentedPaxosLogStore.class);
+
+    @VisibleForTesting
+    static final long DEFAULT_SEGMENT_SIZE_BYTES = 64 * 1024 * 1024;
+
+    private static final Pattern SEGMENT_FILE_NAME = Pattern.compile("(\\d{20})\\.segment");
+    private static final int HEADER_BYTES = Integer.BYTES + Integer.BYTES;
+    private static final byte WRITE_RECORD = 0;
+    private static final byte TRUNCATE_RECORD = 1;
+
+    private final Path directory;
+    private final long segmentSizeBytes;
+    private final Map<NamespaceAndUseCase, Index> indexes = new ConcurrentHashMap<>();
+
+    // Guards appending, the indexes' contents and the segments, except that segments are only deleted while also
+    // holding the write lock of segmentsLock, so that readers holding its read lock can read from them.
+    private final Lock appendLock = new ReentrantLock();
+    private final ReadWriteLock segmentsLock = new ReentrantReadWriteLock();
+    private final Deque<Segment> segments = new ArrayDeque<>();
+    private long appendedPosition = 0;
+
+    private final Object syncLock = new Object();
+    private volatile long durablePosition = 0;
+    private volatile IOException syncFailure = null;
+
+    private SegmentedPaxosLogStore(Path directory, long segmentSizeBytes) {
+        this.directory = directory;
+        this.segmentSizeBytes = segmentSizeBytes;
+    }
+
+    public static SegmentedPaxosLogStore create(Path directory) {
+        return create(directory, DEFAULT_SEGMENT_SIZE_BYTES);
+    }
+
+    @VisibleForTesting
+    static SegmentedPaxosLogStore create(Path directory, long segmentSizeBytes) {
+        Preconditions.checkArgument(
+                segmentSizeBytes > 0,
+                "Segment size must be positive",
+                SafeArg.of("segmentSizeBytes", segmentSizeBytes));
+        SegmentedPaxosLogStore store = new SegmentedPaxosLogStore(directory, segmentSizeBytes);
+        try {
+            store.recover();
+        } catch (IOException e) {
+            throw Throwables.rewrapAndThrowUncheckedException("Could not open the segmented paxos log", e);
+        }
+        return store;
+    }
+
+    void write(NamespaceAndUseCase namespaceAndUseCase, Iterable<? extends PaxosRound<?>> rounds) {
+        Index index = getIndex(namespaceAndUseCase);
+        List<byte[]> records = new ArrayList<>();
+        List<Long> sequences = new ArrayList<>();
+        int totalBytes = 0;
+        for (PaxosRound<?> round : rounds) {
+            byte[] record = encode(WRITE_RECORD, index.key, round.sequence(), round.valueBytes());
+            records.add(record);
+            sequences.add(round.sequence());
+            totalBytes += record.length;
+        }
+        if (records.isEmpty()) {
+            return;
+        }
+        checkNotFailed();
+
+        long endPosition;
+        appendLock.lock();
+        try {
+            Segment segment = segmentForAppend(totalBytes);
+            long offset = append(segment, records, totalBytes);
+            index.pendingPosition = appendedPosition;
+            for (int i = 0; i < records.size(); i++) {
+                index.put(sequences.get(i), new Location(segment, offset, records.get(i).length));
+                offset += records.get(i).length;
+            }
+            endPosition = appendedPosition;
+            dropUnreferencedSegments();
+        } finally {
+            appendLock.unlock();
+        }
+        awaitDurable(endPosition);
+    }
+
+    /**
+     * Returns the value of the given round once it is durable, or null if there is no such round.
+     */
+    byte[] read(NamespaceAndUseCase namespaceAndUseCase, long seq) throws IOException {
+        Index index = indexes.get(namespaceAndUseCase);
+        if (index == null) {
+            return null;
+        }
+
+        Location location;
+        ByteBuffer record = null;
+        segmentsLock.readLock().lock();
+        try {
+            location = index.locations.get(seq);
+            if (location != null) {
+                record = ByteBuffer.allocate(location.length);
+                readFully(location.segment.channel, record, location.offset);
+            }
+        } finally {
+            segmentsLock.readLock().unlock();
+        }
+        if (location == null) {
+            // The round may be missing because of a truncation that is not yet durable.
+            awaitDurable(index.pendingPosition);
+            return null;
+        }
+        awaitDurable(location.endPosition());
+
+        int bodyLength = record.getInt(0);
+        int checksum = record.getInt(Integer.BYTES);
+        if (bodyLength != location.length - HEADER_BYTES || checksum != checksum(record.array(), HEADER_BYTES)) {
+            log.error(
+                    "Checksum mismatch reading paxos round from segment",
+                    SafeArg.of("sequence", seq),
+                    SafeArg.of("segment", location.segment.id),
+                    SafeArg.of("offset", location.offset));
+            throw new PaxosStateLog.CorruptLogFileException();
+        }
+        int valueOffset = HEADER_BYTES + 1 + index.key.length + Long.BYTES;
+        byte[] value = new byte[location.length - valueOffset];
+        System.arraycopy(record.array(), valueOffset, value, 0, value.length);
+        return value;
+    }
+
+    /**
+     * Returns the least round of the given namespace and use case once it is durable.
+     */
+    long getLeastLogEntry(NamespaceAndUseCase namespaceAndUseCase) {
+        Index index = indexes.get(namespaceAndUseCase);
+        if (index == null) {
+            return PaxosAcceptor.NO_LOG_ENTRY;
+        }
+        long least = index.least;
+        awaitDurable(index.pendingPosition);
+        return least;
+    }
+
+    /**
+     * Returns the greatest round of the given namespace and use case once it is durable.
+     */
+    long getGreatestLogEntry(NamespaceAndUseCase namespaceAndUseCase) {
+        Index index = indexes.get(namespaceAndUseCase);
+        if (index == null) {
+            return PaxosAcceptor.NO_LOG_ENTRY;
+        }
+        long greatest = index.greatest;
+        awaitDurable(index.pendingPosition);
+        return greatest;
+    }
+
+    void truncate(NamespaceAndUseCase namespaceAndUseCase, long toDeleteInclusive) {
+        Index index = indexes.get(namespaceAndUseCase);
+        if (index == null) {
+            return;
+        }
+
+        checkNotFailed();
+
+        long endPosition;
+        appendLock.lock();
+        try {
+            if (index.least == PaxosAcceptor.NO_LOG_ENTRY || index.least > toDeleteInclusive) {
+                return;
+            }
+            byte[] record = encode(TRUNCATE_RECORD, index.key, toDeleteInclusive, new byte[0]);
+            append(segmentForAppend(record.length), List.of(record), record.length);
+            index.pendingPosition = appendedPosition;
+            index.truncate(toDeleteInclusive);
+            endPosition = appendedPosition;
+            dropUnreferencedSegments();
+        } finally {
+            appendLock.unlock();
+        }
+        awaitDurable(endPosition);
+    }
+
+    void truncateAllRounds(NamespaceAndUseCase namespaceAndUseCase) {
+        truncate(namespaceAndUseCase, getGreatestLogEntry(namespaceAndUseCase));
+    }
+
+    @VisibleForTesting
+    int numSegments() {
+        appendLock.lock();
+        try {
+            return segments.size();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        appendLock.lock();
+        segmentsLock.writeLock().lock();
+        try {
+            for (Segment segment : segments) {
+                segment.channel.close();
+            }
+            segments.clear();
+        } finally {
+            segmentsLock.writeLock().unlock();
+            appendLock.unlock();
+        }
+    }
+
+    private Index getIndex(NamespaceAndUseCase namespaceAndUseCase) {
+        return indexes.computeIfAbsent(namespaceAndUseCase, Index::new);
+    }
+
+    /**
+     * Waits until everything up to the given position of the log is durable. Writers waiting for the same fsync queue
+     * on the sync lock, and the first of them to get it syncs everything appended so far on behalf of all others.
+     */
+    private void awaitDurable(long position) {
+        checkNotFailed();
+        if (durablePosition >= position) {
+            return;
+        }
+        synchronized (syncLock) {
+            checkNotFailed();
+            if (durablePosition >= position) {
+                return;
+            }
+            Segment segment;
+            long syncedPosition;
+            appendLock.lock();
+            try {
+                // Segments are synced as they fill up, so syncing the active segment makes the whole log durable.
+                segment = segments.getLast();
+                syncedPosition = appendedPosition;
+            } finally {
+                appendLock.unlock();
+            }
+            try {
+                segment.channel.force(false);
+            } catch (IOException e) {
+                log.error("Problem syncing paxos log segment", SafeArg.of("segment", segment.id), e);
+                throw fail(e);
+            }
+            durablePosition = syncedPosition;
+        }
+    }
+
+    private void checkNotFailed() {
+        IOException failure = syncFailure;
+        if (failure != null) {
+            throw new SafeIllegalStateException("The paxos log failed to sync and can no longer be used", failure);
+        }
+    }
+
+    private RuntimeException fail(IOException failure) {
+        syncFailure = failure;
+        return new SafeIllegalStateException("The paxos log failed to sync and can no longer be used", failure);
+    }
+
+    private Segment segmentForAppend(int recordBytes) {
+        Segment active = segments.getLast();
+        if (active.size == 0 || active.size + recordBytes <= segmentSizeBytes) {
+            return active;
+        }
+        try {
+            active.channel.force(false);
+        } catch (IOException e) {
+            log.error("Problem syncing paxos log segment", SafeArg.of("segment", active.id), e);
+            throw fail(e);
+        }
+        try {
+            Segment next = Segment.create(directory, active.id + 1, appendedPosition);
+            segments.addLast(next);
+            return next;
+        } catch (IOException e) {
+            log.error("Problem starting a new paxos log segment", SafeArg.of("segment", active.id + 1), e);
+            throw Throwables.rewrapAndThrowUncheckedException(e);
+        }
+    }
+
+    private long append(Segment segment, List<byte[]> records, int totalBytes) {
+        ByteBuffer buffer = ByteBuffer.allocate(totalBytes);
+        records.forEach(buffer::put);
+        buffer.flip();
+        long offset = segment.size;
+        try {
+            while (buffer.hasRemaining()) {
+                segment.channel.write(buffer, offset + buffer.position());
+            }
+        } catch (IOException e) {
+            log.error("Problem appending to paxos log segment", SafeArg.of("segment", segment.id), e);
+            throw Throwables.rewrapAndThrowUncheckedException(e);
+        }
+        segment.size += totalBytes;
+        appendedPosition += totalBytes;
+        return offset;
+    }
+
+    /**
+     * Deletes segments from the oldest onwards for as long as they hold no indexed records. Only the oldest segment
+     * may go, as its truncation records may still be needed to hide records in older segments on replay.
+     */
+    private void dropUnreferencedSegments() {
+        boolean deleted = false;
+        while (segments.size() > 1 && segments.getFirst().liveRecords == 0) {
+            Segment segment = segments.removeFirst();
+            segmentsLock.writeLock().lock();
+            try {
+                segment.channel.close();
+            } catch (IOException e) {
+                log.warn("Failed to close paxos log segment", SafeArg.of("segment", segment.id), e);
+            } finally {
+                segmentsLock.writeLock().unlock();
+            }
+            try {
+                deleted |= Files.deleteIfExists(segment.path);
+            } catch (IOException e) {
+                log.warn("Failed to delete paxos log segment", SafeArg.of("segment", segment.id), e);
+            }
+        }
+        if (deleted) {
+            try {
+                syncDirectory(directory);
+            } catch (IOException e) {
+                log.warn("Failed to sync the paxos log directory after deleting segments", e);
+            }
+        }
+    }
+
+    private void recover() throws IOException {
+        Files.createDirectories(directory);
+        List<Long> segmentIds;
+        try (Stream<Path> files = Files.list(directory)) {
+            segmentIds = files.map(path -> SEGMENT_FILE_NAME.matcher(path.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .map(matcher -> Long.parseLong(matcher.group(1)))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+        for (int i = 0; i < segmentIds.size(); i++) {
+            Segment segment = Segment.open(directory, segmentIds.get(i), appendedPosition);
+            segments.addLast(segment);
+            replay(segment, i == segmentIds.size() - 1);
+            appendedPosition += segment.size;
+        }
+        if (segments.isEmpty()) {
+            segments.addLast(Segment.create(directory, 0, 0));
+        }
+        durablePosition = appendedPosition;
+        dropUnreferencedSegments();
+    }
+
+    private void replay(Segment segment, boolean isLastSegment) throws IOException {
+        long fileSize = segment.channel.size();
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        long offset = 0;
+        while (offset < fileSize) {
+            header.clear();
+            boolean complete = offset + HEADER_BYTES <= fileSize;
+            ByteBuffer body = null;
+            if (complete) {
+                readFully(segment.channel, header, offset);
+                int bodyLength = header.getInt(0);
+                complete = bodyLength > 0 && offset + HEADER_BYTES + bodyLength <= fileSize;
+                if (complete) {
+                    body = ByteBuffer.allocate(bodyLength);
+                    readFully(segment.channel, body, offset + HEADER_BYTES);
+                    complete = header.getInt(Integer.BYTES) == checksum(body.array(), 0);
+                }
+            }
+            if (!complete) {
+                if (!isLastSegment) {
+                    throw new SafeIllegalStateException(
+                            "Paxos log segment is corrupt",
+                            SafeArg.of("segment", segment.id),
+                            SafeArg.of("offset", offset));
+                }
+                // A write that was interrupted by a crash was never acknowledged, so is safe to discard.
+                log.warn(
+                        "Discarding incomplete record at the end of the paxos log",
+                        SafeArg.of("segment", segment.id),
+                        SafeArg.of("offset", offset),
+                        SafeArg.of("discardedBytes", fileSize - offset));
+                segment.channel.truncate(offset);
+                break;
+            }
+            body.rewind();
+            apply(segment, offset, body);
+            offset += HEADER_BYTES + body.capacity();
+        }
+        segment.size = offset;
+    }
+
+    private void apply(Segment segment, long offset, ByteBuffer body) {
+        byte type = body.get();
+        String namespace = readString(body);
+        String useCase = readString(body);
+        long seq = body.getLong();
+        Index index = getIndex(ImmutableNamespaceAndUseCase.of(Client.of(namespace), useCase));
+        if (type == TRUNCATE_RECORD) {
+            index.truncate(seq);
+        } else {
+            index.put(seq, new Location(segment, offset, HEADER_BYTES + body.capacity()));
+        }
+    }
+
+    private static byte[] encode(byte type, byte[] key, long seq, byte[] value) {
+        int bodyLength = 1 + key.length + Long.BYTES + value.length;
+        ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + bodyLength);
+        record.putInt(bodyLength);
+        record.putInt(0);
+        record.put(type).put(key).putLong(seq).put(value);
+        record.putInt(Integer.BYTES, checksum(record.array(), HEADER_BYTES));
+        return record.array();
+    }
+
+    private static int checksum(byte[] bytes, int offset) {
+        CRC32C crc = new CRC32C();
+        crc.update(bytes, offset, bytes.length - offset);
+        return (int) crc.getValue();
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Makes the creation and deletion of files in the given directory durable, which syncing the files themselves
+     * does not.
+     */
+    private static void syncDirectory(Path directory) throws IOException {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new PaxosStateLog.CorruptLogFileException();
+            }
+        }
+    }
+
+    private static final class Segment {
+        private final long id;
+        private final Path path;
+        private final FileChannel channel;
+        private final long basePosition;
+
+        // Guarded by the append lock.
+        private long size = 0;
+        private int liveRecords = 0;
+
+        private Segment(long id, Path path, FileChannel channel, long basePosition) {
+            this.id = id;
+            this.path = path;
+            this.channel = channel;
+            this.basePosition = basePosition;
+        }
+
+        private static Segment open(Path directory, long id, long basePosition) throws IOException {
+            Path path = segmentPath(directory, id);
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            return new Segment(id, path, channel, basePosition);
+        }
+
+        /**
+         * Creates a new, empty segment. The directory is synced before returning, so that no write to the segment
+         * can be acknowledged while the segment itself could still be lost in a crash.
+         */
+        private static Segment create(Path directory, long id, long basePosition) throws IOException {
+            Path path = segmentPath(directory, id);
+            FileChannel channel = FileChannel.open(
+                    path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            try {
+                syncDirectory(directory);
+            } catch (IOException e) {
+                channel.close();
+                throw e;
+            }
+            return new Segment(id, path, channel, basePosition);
+        }
+
+        private static Path segmentPath(Path directory, long id) {
+            return directory.resolve(String.format("%020d.segment", id));
+        }
+    }
+
+    private static final class Location {
+        private final Segment segment;
+        private final long offset;
+        private final int length;
+
+        private Location(Segment segment, long offset, int length) {
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        private long endPosition() {
+            return segment.basePosition + offset + length;
+        }
+    }
+
+    /**
+     * The rounds of one namespace and use case. Only modified while holding the append lock, but may be read at any
+     * time; the least and greatest entries are kept up to date on every modification so that reading them is free.
+     */
+    private static final class Index {
+        private final byte[] key;
+        private final ConcurrentSkipListMap<Long, Location> locations = new ConcurrentSkipListMap<>();
+        private volatile long least = PaxosAcceptor.NO_LOG_ENTRY;
+        private volatile long greatest = PaxosAcceptor.NO_LOG_ENTRY;
+
+        // The end of the latest record to change this index, which is set before changing it, so that anyone seeing a
+        // change knows how much of the log must be durable before acting on it.
+        private volatile long pendingPosition = 0;
+
+        private Index(NamespaceAndUseCase namespaceAndUseCase) {
+            byte[] namespace = namespaceAndUseCase.namespace().value().getBytes(StandardCharsets.UTF_8);
+            byte[] useCase = namespaceAndUseCase.useCase().getBytes(StandardCharsets.UTF_8);
+            this.key = ByteBuffer.allocate(Short.BYTES + namespace.length + Short.BYTES + useCase.length)
+                    .putShort((short) namespace.length)
+                    .put(namespace)
+                    .putShort((short) useCase.length)
+                    .put(useCase)
+                    .array();
+        }
+
+        private void put(long seq, Location location) {
+            location.segment.liveRecords++;
+            Location previous = locations.put(seq, location);
+            if (previous != null) {
+                previous.segment.liveRecords--;
+            }
+            if (least == PaxosAcceptor.NO_LOG_ENTRY || seq < least) {
+                least = seq;
+            }
+            if (seq > greatest) {
+                greatest = seq;
+            }
+        }
+
+        private void truncate(long toDeleteInclusive) {
+            NavigableMap<Long, Location> truncated = locations.headMap(toDeleteInclusive, true);
+            truncated.values().forEach(location -> location.segment.liveRecords--);
+            truncated.clear();
+            Map.Entry<Long, Location> first = locations.firstEntry();
+            least = first == null ? PaxosAcceptor.NO_LOG_ENTRY : first.getKey();
+            if (first == null) {
+                greatest = PaxosAcceptor.NO_LOG_ENTRY;
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.paxos;
+
+import com.google.common.collect.ImmutableList;
+import com.palantir.common.persist.Persistable;
+import java.io.IOException;
+
+/**
+ * The paxos log of one namespace and use case, stored in a {@link SegmentedPaxosLogStore} that may be shared with
+ * many others.
+ */
+public final class SegmentedPaxosStateLog<V extends Persistable & Versionable> implements PaxosStateLog<V> {
+    private final NamespaceAndUseCase namespaceAndUseCase;
+    private final SegmentedPaxosLogStore store;
+
+    private SegmentedPaxosStateLog(NamespaceAndUseCase namespaceAndUseCase, SegmentedPaxosLogStore store) {
+        this.namespaceAndUseCase = namespaceAndUseCase;
+        this.store = store;
+    }
+
+    public static <V extends Persistable & Versionable> PaxosStateLog<V> create(
+            NamespaceAndUseCase namespaceAndUseCase, SegmentedPaxosLogStore store) {
+        return new SegmentedPaxosStateLog<>(namespaceAndUseCase, store);
+    }
+
+    @Override
+    public void writeRound(long seq, V round) {
+        store.write(namespaceAndUseCase, ImmutableList.of(PaxosRound.of(seq, round)));
+    }
+
+    @Override
+    public void writeBatchOfRounds(Iterable<PaxosRound<V>> rounds) {
+        store.write(namespaceAndUseCase, rounds);
+    }
+
+    @Override
+    public byte[] readRound(long seq) throws IOException {
+        return store.read(namespaceAndUseCase, seq);
+    }
+
+    @Override
+    public long getLeastLogEntry() {
+        return store.getLeastLogEntry(namespaceAndUseCase);
+    }
+
+    @Override
+    public long getGreatestLogEntry() {
+        return store.getGreatestLogEntry(namespaceAndUseCase);
+    }
+
+    @Override
+    public void truncate(long toDeleteInclusive) {
+        store.truncate(namespaceAndUseCase, toDeleteInclusive);
+    }
+
+    @Override
+    public void truncateAllRounds() {
+        store.truncateAllRounds(namespaceAndUseCase);
+    }
+}
@@ -22,6 +22,8 @@ import com.palantir.logsafe.exceptions.SafeIllegalStateException;
 import com.palantir.logsafe.logger.SafeLogger;
 import com.palantir.logsafe.logger.SafeLoggerFactory;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.OptionalLong;
 import java.util.concurrent.atomic.AtomicLong;
 import org.immutables.value.Value;
@@ -33,6 +35,7 @@ import org.immutables.value.Value;
  */
 public final class SplittingPaxosStateLog<V extends Persistable & Versionable> implements PaxosStateLog<V> {
     private static final SafeLogger log = SafeLoggerFactory.get(SplittingPaxosStateLog.class);
+    private static final String SEGMENTED_MIGRATION_SUFFIX = "!segmented";
 
     private final PaxosStateLog<V> legacyLog;
     private final PaxosStateLog<V> currentLog;
@@ -75,6 +78,19 @@ public final class SplittingPaxosStateLog<V extends Persistable & Versionable> i
             Persistable.Hydrator<V> hydrator,
             LegacyOperationMarkers legacyOperationMarkers,
             OptionalLong migrateFrom) {
+        PaxosStateLog<V> sqliteBackedLog =
+                createSqliteBackedWithMigration(params, hydrator, legacyOperationMarkers, migrateFrom);
+        return params.segmentedLogStore()
+                .map(store -> createSegmentedWithMigration(
+                        params, store, sqliteBackedLog, hydrator, legacyOperationMarkers, migrateFrom))
+                .orElse(sqliteBackedLog);
+    }
+
+    private static <V extends Persistable & Versionable> PaxosStateLog<V> createSqliteBackedWithMigration(
+            PaxosStorageParameters params,
+            Persistable.Hydrator<V> hydrator,
+            LegacyOperationMarkers legacyOperationMarkers,
+            OptionalLong migrateFrom) {
         String logDirectory = params.fileBasedLogDirectory()
                 .orElseThrow(() -> new SafeIllegalStateException("We currently need to have file-based storage"));
         NamespaceAndUseCase namespaceUseCase = params.namespaceAndUseCase();
@@ -105,6 +121,43 @@ public final class SplittingPaxosStateLog<V extends Persistable & Versionable> i
         return SplittingPaxosStateLog.create(splittingParameters);
     }
 
+    /**
+     * Migrates the rounds of the given sqlite backed log to the segmented log store, in the same way as they were
+     * migrated from files to sqlite. The progress of this migration is tracked separately in sqlite, under a use case
+     * of its own.
+     */
+    private static <V extends Persistable & Versionable> PaxosStateLog<V> createSegmentedWithMigration(
+            PaxosStorageParameters params,
+            SegmentedPaxosLogStore store,
+            PaxosStateLog<V> sqliteBackedLog,
+            Persistable.Hydrator<V> hydrator,
+            LegacyOperationMarkers legacyOperationMarkers,
+            OptionalLong migrateFrom) {
+        NamespaceAndUseCase namespaceUseCase = params.namespaceAndUseCase();
+        NamespaceAndUseCase migrationStateKey = ImmutableNamespaceAndUseCase.of(
+                namespaceUseCase.namespace(), namespaceUseCase.useCase() + SEGMENTED_MIGRATION_SUFFIX);
+
+        PaxosStateLogMigrator.MigrationContext<V> migrationContext = ImmutableMigrationContext.<V>builder()
+                .sourceLog(sqliteBackedLog)
+                .destinationLog(SegmentedPaxosStateLog.create(namespaceUseCase, store))
+                .hydrator(hydrator)
+                .migrationState(SqlitePaxosStateLogMigrationState.create(migrationStateKey, params.sqliteDataSource()))
+                .migrateFrom(migrateFrom)
+                .namespaceAndUseCase(namespaceUseCase)
+                .build();
+
+        long cutoff = PaxosStateLogMigrator.migrateAndReturnCutoff(migrationContext);
+
+        SplittingParameters<V> splittingParameters = ImmutableSplittingParameters.<V>builder()
+                .legacyLog(sqliteBackedLog)
+                .currentLog(migrationContext.destinationLog())
+                .cutoffInclusive(cutoff)
+                .legacyOperationMarkers(legacyOperationMarkers)
+                .build();
+
+        return SplittingPaxosStateLog.create(splittingParameters);
+    }
+
     @Override
     public void writeRound(long seq, V round) {
         if (seq >= cutoffInclusive) {
@@ -116,6 +169,21 @@ public final class SplittingPaxosStateLog<V extends Persistable & Versionable> i
         }
     }
 
+    @Override
+    public void writeBatchOfRounds(Iterable<PaxosRound<V>> rounds) {
+        List<PaxosRound<V>> currentRounds = new ArrayList<>();
+        for (PaxosRound<V> round : rounds) {
+            if (round.sequence() >= cutoffInclusive) {
+                currentRounds.add(round);
+            } else {
+                writeRound(round.sequence(), round.value());
+            }
+        }
+        if (!currentRounds.isEmpty()) {
+            currentLog.writeBatchOfRounds(currentRounds);
+        }
+    }
+
     @Override
     public byte[] readRound(long seq) throws IOException {
         if (seq >= cutoffInclusive) {
@@ -19,8 +19,10 @@ package com.palantir.paxos;
 import com.palantir.common.persist.Persistable;
 import java.util.Optional;
 import java.util.OptionalLong;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import javax.sql.DataSource;
+import org.jdbi.v3.core.Handle;
 import org.jdbi.v3.core.Jdbi;
 import org.jdbi.v3.core.mapper.immutables.JdbiImmutables;
 import org.jdbi.v3.sqlobject.SingleValue;
@@ -33,25 +35,57 @@ import org.jdbi.v3.sqlobject.statement.SqlUpdate;
 
 @SuppressWarnings("checkstyle:FinalClass") // non-final for mocking
 public class SqlitePaxosStateLog<V extends Persistable & Versionable> implements PaxosStateLog<V> {
+    private static final ThreadLocal<SharedTransaction> SHARED_TRANSACTION = new ThreadLocal<>();
+
     private final Client namespace;
     private final String useCase;
+    private final DataSource dataSource;
     private final Jdbi jdbi;
 
-    private SqlitePaxosStateLog(NamespaceAndUseCase namespaceAndUseCase, Jdbi jdbi) {
+    private SqlitePaxosStateLog(NamespaceAndUseCase namespaceAndUseCase, DataSource dataSource, Jdbi jdbi) {
         this.namespace = namespaceAndUseCase.namespace();
         this.useCase = namespaceAndUseCase.useCase();
+        this.dataSource = dataSource;
         this.jdbi = jdbi;
     }
 
     public static <V extends Persistable & Versionable> PaxosStateLog<V> create(
             NamespaceAndUseCase namespaceAndUseCase, DataSource dataSource) {
-        Jdbi jdbi = Jdbi.create(dataSource).installPlugin(new SqlObjectPlugin());
-        jdbi.getConfig(JdbiImmutables.class).registerImmutable(Client.class, PaxosRound.class);
-        SqlitePaxosStateLog<V> log = new SqlitePaxosStateLog<>(namespaceAndUseCase, jdbi);
+        SqlitePaxosStateLog<V> log = new SqlitePaxosStateLog<>(namespaceAndUseCase, dataSource, createJdbi(dataSource));
         log.initialize();
         return log;
     }
 
+    /**
+     * Returns a runner that runs the given writes in one transaction on the given data source, so that what they
+     * write to the logs of any namespaces and use cases stored in it is committed together, at the cost of one
+     * commit. Writes to logs stored elsewhere, such as legacy file based logs, are made as usual.
+     */
+    public static Consumer<Runnable> sharedTransactionRunner(DataSource dataSource) {
+        Jdbi jdbi = createJdbi(dataSource);
+        return writes -> {
+            SharedTransaction outer = SHARED_TRANSACTION.get();
+            if (outer != null && outer.dataSource == dataSource) {
+                writes.run();
+                return;
+            }
+            jdbi.useTransaction(handle -> {
+                SHARED_TRANSACTION.set(new SharedTransaction(dataSource, handle));
+                try {
+                    writes.run();
+                } finally {
+                    SHARED_TRANSACTION.set(outer);
+                }
+            });
+        };
+    }
+
+    private static Jdbi createJdbi(DataSource dataSource) {
+        Jdbi jdbi = Jdbi.create(dataSource).installPlugin(new SqlObjectPlugin());
+        jdbi.getConfig(JdbiImmutables.class).registerImmutable(Client.class, PaxosRound.class);
+        return jdbi;
+    }
+
     private void initialize() {
         execute(Queries::createTable);
     }
@@ -96,9 +130,23 @@ public class SqlitePaxosStateLog<V extends Persistable & Versionable> implements
     }
 
     private <T> T execute(Function<Queries, T> call) {
+        SharedTransaction transaction = SHARED_TRANSACTION.get();
+        if (transaction != null && transaction.dataSource == dataSource) {
+            return call.apply(transaction.handle.attach(Queries.class));
+        }
         return jdbi.withExtension(Queries.class, call::apply);
     }
 
+    private static final class SharedTransaction {
+        private final DataSource dataSource;
+        private final Handle handle;
+
+        private SharedTransaction(DataSource dataSource, Handle handle) {
+            this.dataSource = dataSource;
+            this.handle = handle;
+        }
+    }
+
     public interface Queries {
         @SqlUpdate("CREATE TABLE IF NOT EXISTS paxosLog ("
                 + "namespace TEXT,"
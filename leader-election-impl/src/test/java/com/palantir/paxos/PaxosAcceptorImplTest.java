@@ -0,0 +1,96 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.paxos;
+
+import static com.palantir.paxos.PaxosStateLogTestUtils.NAMESPACE;
+import static com.palantir.paxos.PaxosStateLogTestUtils.readRoundUnchecked;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.util.Optional;
+import javax.sql.DataSource;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class PaxosAcceptorImplTest {
+    private static final PaxosProposalId PROPOSAL_ID_1 = new PaxosProposalId(1L, "uuid");
+    private static final PaxosProposalId PROPOSAL_ID_2 = new PaxosProposalId(2L, "uuid");
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private PaxosStateLog<PaxosAcceptorState> log;
+    private PaxosAcceptorImpl acceptor;
+
+    @Before
+    public void setup() throws IOException {
+        DataSource dataSource = SqliteConnections.getDefaultConfiguredPooledDataSource(
+                tempFolder.newFolder().toPath());
+        PaxosStorageParameters params = ImmutablePaxosStorageParameters.builder()
+                .fileBasedLogDirectory(tempFolder.newFolder().getPath())
+                .sqliteDataSource(dataSource)
+                .namespaceAndUseCase(NAMESPACE)
+                .build();
+        acceptor = PaxosAcceptorImpl.newSplittingAcceptor(
+                params,
+                ImmutableLegacyOperationMarkers.builder()
+                        .markLegacyRead(() -> {})
+                        .markLegacyWrite(() -> {})
+                        .build(),
+                Optional.empty());
+        log = SqlitePaxosStateLog.create(NAMESPACE, dataSource);
+    }
+
+    @Test
+    public void batchOnlyWritesRoundsOnPersist() {
+        PaxosAcceptorImpl.AcceptorBatch batch = acceptor.startBatch();
+        assertThat(batch.prepare(1L, PROPOSAL_ID_1).isSuccessful()).isTrue();
+        assertThat(batch.prepare(2L, PROPOSAL_ID_1).isSuccessful()).isTrue();
+
+        assertThat(batch.size()).isEqualTo(2);
+        assertThat(log.getGreatestLogEntry()).isEqualTo(PaxosAcceptor.NO_LOG_ENTRY);
+
+        batch.persist();
+        assertThat(lastPromisedId(1L)).isEqualTo(PROPOSAL_ID_1);
+        assertThat(lastPromisedId(2L)).isEqualTo(PROPOSAL_ID_1);
+    }
+
+    @Test
+    public void batchDoesNotOverwriteNewerStates() {
+        PaxosAcceptorImpl.AcceptorBatch batch = acceptor.startBatch();
+        batch.prepare(1L, PROPOSAL_ID_1);
+        acceptor.prepare(1L, PROPOSAL_ID_2);
+
+        batch.persist();
+        assertThat(lastPromisedId(1L)).isEqualTo(PROPOSAL_ID_2);
+    }
+
+    @Test
+    public void rejectedRequestsAreNotPersisted() {
+        acceptor.prepare(1L, PROPOSAL_ID_2);
+
+        PaxosAcceptorImpl.AcceptorBatch batch = acceptor.startBatch();
+        assertThat(batch.prepare(1L, PROPOSAL_ID_1).isSuccessful()).isFalse();
+        assertThat(batch.size()).isZero();
+    }
+
+    private PaxosProposalId lastPromisedId(long seq) {
+        return PaxosAcceptorState.BYTES_HYDRATOR.hydrateFromBytes(readRoundUnchecked(log, seq)).lastPromisedId;
+    }
+}
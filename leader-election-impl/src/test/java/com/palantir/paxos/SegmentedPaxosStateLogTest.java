@@ -0,0 +1,282 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.paxos;
+
+import static com.palantir.paxos.PaxosStateLogTestUtils.getPaxosValue;
+import static com.palantir.paxos.PaxosStateLogTestUtils.valueForRound;
+import static com.palantir.paxos.PaxosStateLogTestUtils.wrap;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+import com.google.common.util.concurrent.Futures;
+import com.palantir.common.concurrent.PTExecutors;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import javax.sql.DataSource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SegmentedPaxosStateLogTest {
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private static final Client CLIENT_1 = Client.of("tom");
+    private static final Client CLIENT_2 = Client.of("two");
+
+    private static final String USE_CASE_1 = "useCase1";
+    private static final String USE_CASE_2 = "useCase2";
+
+    private Path directory;
+    private SegmentedPaxosLogStore store;
+    private PaxosStateLog<PaxosValue> stateLog;
+
+    @Before
+    public void setup() throws IOException {
+        directory = tempFolder.newFolder().toPath();
+        store = SegmentedPaxosLogStore.create(directory);
+        stateLog = SegmentedPaxosStateLog.create(wrap(CLIENT_1, USE_CASE_1), store);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        store.close();
+    }
+
+    @Test
+    public void readingNonExistentRoundReturnsNull() throws IOException {
+        assertThat(stateLog.readRound(10L)).isNull();
+    }
+
+    @Test
+    public void canWriteAndRetrieveBatch() {
+        List<PaxosRound<PaxosValue>> inputs = PaxosStateLogTestUtils.generateRounds(LongStream.rangeClosed(5L, 10L));
+        stateLog.writeBatchOfRounds(inputs);
+
+        for (PaxosRound<PaxosValue> round : inputs) {
+            assertThat(getPaxosValue(stateLog, round.sequence())).isEqualTo(round.value());
+        }
+    }
+
+    @Test
+    public void canOverwriteSequences() {
+        writeValueForRound(5L);
+        PaxosValue newEntry = new PaxosValue("otherLeader", 5L, new byte[] {1});
+        stateLog.writeRound(5L, newEntry);
+
+        assertThat(getPaxosValue(stateLog, 5L)).isEqualTo(newEntry);
+    }
+
+    @Test
+    public void extremeQueriesIgnoreEntriesFromOtherSequences() {
+        PaxosStateLog<PaxosValue> otherLog = SegmentedPaxosStateLog.create(wrap(CLIENT_2, USE_CASE_1), store);
+        PaxosStateLog<PaxosValue> anotherLog = SegmentedPaxosStateLog.create(wrap(CLIENT_1, USE_CASE_2), store);
+        otherLog.writeRound(1L, valueForRound(1L));
+        otherLog.writeRound(5L, valueForRound(5L));
+        anotherLog.writeRound(21L, valueForRound(21L));
+        anotherLog.writeRound(2L, valueForRound(2L));
+
+        assertThat(stateLog.getLeastLogEntry()).isEqualTo(PaxosAcceptor.NO_LOG_ENTRY);
+        assertThat(stateLog.getGreatestLogEntry()).isEqualTo(PaxosAcceptor.NO_LOG_ENTRY);
+        assertThat(otherLog.getLeastLogEntry()).isEqualTo(1L);
+        assertThat(otherLog.getGreatestLogEntry()).isEqualTo(5L);
+        assertThat(anotherLog.getLeastLogEntry()).isEqualTo(2L);
+        assertThat(anotherLog.getGreatestLogEntry()).isEqualTo(21L);
+    }
+
+    @Test
+    public void canTruncateInclusive() throws IOException {
+        writeValueForRound(5L);
+        writeValueForRound(7L);
+        writeValueForRound(9L);
+        writeValueForRound(1L);
+
+        stateLog.truncate(7L);
+        assertThat(stateLog.getLeastLogEntry()).isEqualTo(9L);
+        assertThat(stateLog.getGreatestLogEntry()).isEqualTo(9L);
+        assertThat(stateLog.readRound(5L)).isNull();
+    }
+
+    @Test
+    public void canTruncateAll() {
+        writeValueForRound(5L);
+        writeValueForRound(9L);
+
+        stateLog.truncateAllRounds();
+        assertThat(stateLog.getLeastLogEntry()).isEqualTo(PaxosAcceptor.NO_LOG_ENTRY);
+        assertThat(stateLog.getGreatestLogEntry()).isEqualTo(PaxosAcceptor.NO_LOG_ENTRY);
+    }
+
+    @Test
+    public void roundsAndTruncationsSurviveRestart() throws IOException {
+        PaxosStateLog<PaxosValue> otherLog = SegmentedPaxosStateLog.create(wrap(CLIENT_2, USE_CASE_1), store);
+        LongStream.rangeClosed(1L, 10L).forEach(this::writeValueForRound);
+        otherLog.writeRound(3L, valueForRound(3L));
+        stateLog.truncate(4L);
+
+        reopenStore();
+        otherLog = SegmentedPaxosStateLog.create(wrap(CLIENT_2, USE_CASE_1), store);
+
+        assertThat(stateLog.getLeastLogEntry()).isEqualTo(5L);
+        assertThat(stateLog.getGreatestLogEntry()).isEqualTo(10L);
+        assertThat(stateLog.readRound(4L)).isNull();
+        assertThat(getPaxosValue(stateLog, 7L)).isEqualTo(valueForRound(7L));
+        assertThat(getPaxosValue(otherLog, 3L)).isEqualTo(valueForRound(3L));
+    }
+
+    @Test
+    public void dropsSegmentsOnceAllTheirRoundsAreTruncated() throws IOException {
+        reopenStore(256);
+        LongStream.rangeClosed(1L, 20L).forEach(this::writeValueForRound);
+        int segmentsBeforeTruncation = store.numSegments();
+        assertThat(segmentsBeforeTruncation).isGreaterThan(2);
+
+        stateLog.truncate(19L);
+        assertThat(store.numSegments()).isLessThan(segmentsBeforeTruncation);
+
+        reopenStore(256);
+        assertThat(stateLog.getLeastLogEntry()).isEqualTo(20L);
+        assertThat(getPaxosValue(stateLog, 20L)).isEqualTo(valueForRound(20L));
+    }
+
+    @Test
+    public void doesNotDropSegmentsStillHoldingRoundsOfOtherNamespaces() throws IOException {
+        reopenStore(256);
+        PaxosStateLog<PaxosValue> otherLog = SegmentedPaxosStateLog.create(wrap(CLIENT_2, USE_CASE_1), store);
+        otherLog.writeRound(1L, valueForRound(1L));
+        LongStream.rangeClosed(1L, 20L).forEach(this::writeValueForRound);
+
+        stateLog.truncateAllRounds();
+
+        reopenStore(256);
+        otherLog = SegmentedPaxosStateLog.create(wrap(CLIENT_2, USE_CASE_1), store);
+        assertThat(stateLog.getGreatestLogEntry()).isEqualTo(PaxosAcceptor.NO_LOG_ENTRY);
+        assertThat(getPaxosValue(otherLog, 1L)).isEqualTo(valueForRound(1L));
+    }
+
+    @Test
+    public void discardsIncompleteRecordAtTheEndOfTheLog() throws IOException {
+        writeValueForRound(1L);
+        writeValueForRound(2L);
+        store.close();
+
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.collect(Collectors.toList()).get(0);
+        }
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 1);
+        }
+
+        reopenStore();
+        assertThat(stateLog.getGreatestLogEntry()).isEqualTo(1L);
+        writeValueForRound(3L);
+        assertThat(getPaxosValue(stateLog, 3L)).isEqualTo(valueForRound(3L));
+    }
+
+    @Test
+    public void concurrentWritersAcrossNamespacesAreAllDurable() throws IOException {
+        int numThreads = 32;
+        ExecutorService executor = PTExecutors.newFixedThreadPool(numThreads);
+        List<Future<?>> futures = IntStream.range(0, numThreads)
+                .mapToObj(thread -> executor.submit(() -> {
+                    PaxosStateLog<PaxosValue> log =
+                            SegmentedPaxosStateLog.create(wrap(Client.of("client" + thread), USE_CASE_1), store);
+                    for (int i = 0; i < 100; i++) {
+                        log.writeRound(i, valueForRound(i));
+                    }
+                }))
+                .collect(Collectors.toList());
+        futures.forEach(
+                future -> assertThatCode(() -> Futures.getUnchecked(future)).doesNotThrowAnyException());
+        executor.shutdown();
+
+        reopenStore();
+        for (int thread = 0; thread < numThreads; thread++) {
+            PaxosStateLog<PaxosValue> log =
+                    SegmentedPaxosStateLog.create(wrap(Client.of("client" + thread), USE_CASE_1), store);
+            assertThat(log.getGreatestLogEntry()).isEqualTo(99L);
+            assertThat(getPaxosValue(log, 42L)).isEqualTo(valueForRound(42L));
+        }
+    }
+
+    @Test
+    public void migratesRoundsFromSqlite() throws IOException {
+        DataSource dataSource = SqliteConnections.getDefaultConfiguredPooledDataSource(
+                tempFolder.newFolder().toPath());
+        PaxosStorageParameters sqliteOnly = ImmutablePaxosStorageParameters.builder()
+                .fileBasedLogDirectory(tempFolder.newFolder().getPath())
+                .sqliteDataSource(dataSource)
+                .namespaceAndUseCase(wrap(CLIENT_1, USE_CASE_1))
+                .build();
+        PaxosStateLog<PaxosValue> sqliteLog = createWithMigration(sqliteOnly);
+        LongStream.rangeClosed(1L, 100L).forEach(round -> sqliteLog.writeRound(round, valueForRound(round)));
+
+        PaxosStorageParameters segmented = ImmutablePaxosStorageParameters.builder()
+                .from(sqliteOnly)
+                .segmentedLogStore(store)
+                .build();
+        PaxosStateLog<PaxosValue> migratedLog = createWithMigration(segmented);
+        migratedLog.writeRound(101L, valueForRound(101L));
+
+        assertThat(stateLog.getLeastLogEntry()).isEqualTo(100L - PaxosStateLogMigrator.SAFETY_BUFFER);
+        assertThat(stateLog.getGreatestLogEntry()).isEqualTo(101L);
+        assertThat(sqliteLog.getGreatestLogEntry()).isEqualTo(100L);
+        assertThat(getPaxosValue(migratedLog, 1L)).isEqualTo(valueForRound(1L));
+        assertThat(getPaxosValue(migratedLog, 100L)).isEqualTo(valueForRound(100L));
+
+        assertThatCode(() -> createWithMigration(segmented)).doesNotThrowAnyException();
+    }
+
+    private static PaxosStateLog<PaxosValue> createWithMigration(PaxosStorageParameters params) {
+        return SplittingPaxosStateLog.createWithMigration(
+                params,
+                PaxosValue.BYTES_HYDRATOR,
+                ImmutableLegacyOperationMarkers.builder()
+                        .markLegacyRead(() -> {})
+                        .markLegacyWrite(() -> {})
+                        .build(),
+                OptionalLong.empty());
+    }
+
+    private void reopenStore() throws IOException {
+        reopenStore(SegmentedPaxosLogStore.DEFAULT_SEGMENT_SIZE_BYTES);
+    }
+
+    private void reopenStore(long segmentSizeBytes) throws IOException {
+        store.close();
+        store = SegmentedPaxosLogStore.create(directory, segmentSizeBytes);
+        stateLog = SegmentedPaxosStateLog.create(wrap(CLIENT_1, USE_CASE_1), store);
+    }
+
+    private void writeValueForRound(long round) {
+        stateLog.writeRound(round, valueForRound(round));
+    }
+}
@@ -20,6 +20,7 @@ import static com.palantir.paxos.PaxosStateLogTestUtils.valueForRound;
 import static com.palantir.paxos.PaxosStateLogTestUtils.wrap;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.util.concurrent.Futures;
@@ -29,6 +30,7 @@ import java.io.IOException;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.LongStream;
@@ -89,6 +91,38 @@ public class SqlitePaxosStateLogTest {
         }
     }
 
+    @Test
+    public void sharedTransactionCommitsTheWritesOfEveryLog() throws IOException {
+        PaxosStateLog<PaxosValue> otherLog = SqlitePaxosStateLog.create(wrap(CLIENT_2, USE_CASE_2), dataSource);
+        Consumer<Runnable> sharedTransactionRunner = SqlitePaxosStateLog.sharedTransactionRunner(dataSource);
+
+        sharedTransactionRunner.accept(() -> {
+            stateLog.writeRound(1L, valueForRound(1L));
+            otherLog.writeRound(2L, valueForRound(2L));
+        });
+
+        assertThat(PaxosValue.BYTES_HYDRATOR.hydrateFromBytes(stateLog.readRound(1L)))
+                .isEqualTo(valueForRound(1L));
+        assertThat(PaxosValue.BYTES_HYDRATOR.hydrateFromBytes(otherLog.readRound(2L)))
+                .isEqualTo(valueForRound(2L));
+    }
+
+    @Test
+    public void failedSharedTransactionWritesNothingToAnyLog() throws IOException {
+        PaxosStateLog<PaxosValue> otherLog = SqlitePaxosStateLog.create(wrap(CLIENT_2, USE_CASE_2), dataSource);
+        Consumer<Runnable> sharedTransactionRunner = SqlitePaxosStateLog.sharedTransactionRunner(dataSource);
+
+        assertThatThrownBy(() -> sharedTransactionRunner.accept(() -> {
+                    stateLog.writeRound(1L, valueForRound(1L));
+                    otherLog.writeRound(2L, valueForRound(2L));
+                    throw new RuntimeException("boom");
+                }))
+                .hasMessageContaining("boom");
+
+        assertThat(stateLog.readRound(1L)).isNull();
+        assertThat(otherLog.readRound(2L)).isNull();
+    }
+
     @Test
     public void canWriteEmptyBatch() {
         assertThatCode(() -> stateLog.writeBatchOfRounds(ImmutableList.of())).doesNotThrowAnyException();
@@ -76,6 +76,13 @@ public class LockDescriptor implements Comparable<LockDescriptor>, Serializable,
         return bytes.clone();
     }
 
+    /**
+     * Returns the number of bytes in this descriptor, without copying them.
+     */
+    public int length() {
+        return bytes.length;
+    }
+
     @Override
     public int hashCode() {
         if (hashCode == 0) {
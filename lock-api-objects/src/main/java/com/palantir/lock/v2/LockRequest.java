@@ -15,8 +15,12 @@
  */
 package com.palantir.lock.v2;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
 import com.palantir.lock.LockDescriptor;
 import com.palantir.lock.watch.LockRequestMetadata;
 import com.palantir.logsafe.Preconditions;
@@ -34,6 +38,16 @@ public interface LockRequest {
     @Value.Parameter
     Set<LockDescriptor> getLockDescriptors();
 
+    /**
+     * Descriptors to lock in shared mode, which any number of requests may hold at the same time, so long as no request
+     * holds them exclusively. Must not overlap with {@link #getLockDescriptors()}.
+     */
+    @Value.Default
+    @JsonInclude(Include.NON_EMPTY)
+    default Set<LockDescriptor> getSharedLockDescriptors() {
+        return ImmutableSet.of();
+    }
+
     @Value.Parameter
     long getAcquireTimeoutMs();
 
@@ -60,5 +74,8 @@ public interface LockRequest {
     @Value.Check
     default void check() {
         Preconditions.checkState(getAcquireTimeoutMs() >= 0, "Acquire timeout cannot be negative.");
+        Preconditions.checkState(
+                Sets.intersection(getLockDescriptors(), getSharedLockDescriptors()).isEmpty(),
+                "Cannot lock a descriptor both exclusively and in shared mode.");
     }
 }
@@ -49,6 +49,7 @@ public final class ConjureLockRequests {
                 .orElseGet(() -> ImmutableList.copyOf(request.getLockDescriptors()));
         return ConjureLockRequest.builder()
                 .lockDescriptors(toConjure(orderedLocks))
+                .sharedLockDescriptors(toConjure(ImmutableList.copyOf(request.getSharedLockDescriptors())))
                 .clientDescription(request.getClientDescription())
                 .requestId(UUID.randomUUID())
                 .acquireTimeoutMs(Ints.checkedCast(request.getAcquireTimeoutMs()))
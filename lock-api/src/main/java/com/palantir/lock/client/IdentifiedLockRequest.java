@@ -16,11 +16,16 @@
 package com.palantir.lock.client;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
 import com.palantir.lock.LockDescriptor;
 import com.palantir.lock.v2.LockRequest;
 import com.palantir.lock.watch.LockRequestMetadata;
+import com.palantir.logsafe.Preconditions;
 import com.palantir.logsafe.Unsafe;
 import java.util.Optional;
 import java.util.Set;
@@ -39,6 +44,16 @@ public interface IdentifiedLockRequest {
     @Value.Parameter
     Set<LockDescriptor> getLockDescriptors();
 
+    /**
+     * Descriptors to lock in shared mode, which any number of requests may hold at the same time, so long as no request
+     * holds them exclusively. Must not overlap with {@link #getLockDescriptors()}.
+     */
+    @Value.Default
+    @JsonInclude(Include.NON_EMPTY)
+    default Set<LockDescriptor> getSharedLockDescriptors() {
+        return ImmutableSet.of();
+    }
+
     @Value.Parameter
     long getAcquireTimeoutMs();
 
@@ -49,6 +64,13 @@ public interface IdentifiedLockRequest {
     @JsonIgnore
     Optional<LockRequestMetadata> getMetadata();
 
+    @Value.Check
+    default void check() {
+        Preconditions.checkState(
+                Sets.intersection(getLockDescriptors(), getSharedLockDescriptors()).isEmpty(),
+                "Cannot lock a descriptor both exclusively and in shared mode.");
+    }
+
     static IdentifiedLockRequest of(Set<LockDescriptor> lockDescriptors, long acquireTimeoutMs) {
         return ImmutableIdentifiedLockRequest.of(
                 UUID.randomUUID(), lockDescriptors, acquireTimeoutMs, Optional.empty(), Optional.empty());
@@ -74,12 +96,12 @@ public interface IdentifiedLockRequest {
     }
 
     static IdentifiedLockRequest from(LockRequest lockRequest) {
-        if (lockRequest.getClientDescription().isPresent()) {
-            return of(
-                    lockRequest.getLockDescriptors(),
-                    lockRequest.getAcquireTimeoutMs(),
-                    lockRequest.getClientDescription().get());
-        }
-        return of(lockRequest.getLockDescriptors(), lockRequest.getAcquireTimeoutMs());
+        return ImmutableIdentifiedLockRequest.builder()
+                .requestId(UUID.randomUUID())
+                .lockDescriptors(lockRequest.getLockDescriptors())
+                .sharedLockDescriptors(lockRequest.getSharedLockDescriptors())
+                .acquireTimeoutMs(lockRequest.getAcquireTimeoutMs())
+                .clientDescription(lockRequest.getClientDescription())
+                .build();
     }
 }
@@ -140,6 +140,7 @@ public class LegacyTimelockService implements TimelockService {
 
     private com.palantir.lock.LockRequest toLegacyLockRequest(LockRequest request) {
         SortedMap<LockDescriptor, LockMode> locks = buildLockMap(request.getLockDescriptors(), LockMode.WRITE);
+        locks.putAll(buildLockMap(request.getSharedLockDescriptors(), LockMode.READ));
         return com.palantir.lock.LockRequest.builder(locks)
                 .blockForAtMost(SimpleTimeDuration.of(request.getAcquireTimeoutMs(), TimeUnit.MILLISECONDS))
                 .build();
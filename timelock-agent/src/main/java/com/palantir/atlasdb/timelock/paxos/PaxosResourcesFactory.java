@@ -19,6 +19,7 @@ package com.palantir.atlasdb.timelock.paxos;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Suppliers;
 import com.palantir.atlasdb.util.MetricsManager;
+import com.palantir.common.concurrent.PTExecutors;
 import com.palantir.common.proxy.PredicateSwitchedProxy;
 import com.palantir.conjure.java.api.config.service.UserAgent;
 import com.palantir.conjure.java.config.ssl.SslSocketFactories;
@@ -53,12 +54,17 @@ import java.nio.file.Path;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import javax.sql.DataSource;
 import org.immutables.value.Value;
 
 public final class PaxosResourcesFactory {
+    private static final ExecutorService PREPARE_AHEAD_EXECUTOR = PTExecutors.newCachedThreadPoolWithMaxThreads(
+            TimeLockPaxosExecutors.MAXIMUM_POOL_SIZE, "timestamp-paxos-prepare-ahead");
+    private static final ExecutorService UPPER_LIMIT_EXTENDER = PTExecutors.newCachedThreadPoolWithMaxThreads(
+            TimeLockPaxosExecutors.MAXIMUM_POOL_SIZE, "timestamp-upper-limit-extender");
 
     private PaxosResourcesFactory() {}
 
@@ -220,8 +226,10 @@ public final class PaxosResourcesFactory {
                 .addAllCloseables(singleLeaderClientFactories.closeables())
                 .build();
 
-        NetworkClientFactories.Factory<PaxosProposer> proposerFactory =
-                getPaxosProposerFactory(timelockMetrics, combinedNetworkClientFactories);
+        Supplier<Boolean> prepareAheadForTimestamps =
+                Suppliers.compose(runtime -> runtime.timestampPaxos().prepareAhead(), paxosRuntime::get);
+        NetworkClientFactories.Factory<PaxosProposer> proposerFactory = getPaxosProposerFactory(
+                timelockMetrics, combinedNetworkClientFactories, prepareAheadForTimestamps);
 
         NetworkClientFactories.Factory<ManagedTimestampService> timestampFactory = client -> {
             // TODO (jkong): live reload ping
@@ -234,7 +242,13 @@ public final class PaxosResourcesFactory {
                             combinedNetworkClientFactories.learner().create(client),
                             paxosRuntime.get().maximumWaitBeforeProposalMs()),
                     client);
-            return PersistentTimestampServiceImpl.create(boundStore);
+            return paxosRuntime
+                    .get()
+                    .timestampPaxos()
+                    .proactiveUpperLimitExtensionThreshold()
+                    .map(threshold -> PersistentTimestampServiceImpl.createWithProactiveUpperLimitExtension(
+                            boundStore, UPPER_LIMIT_EXTENDER, threshold))
+                    .orElseGet(() -> PersistentTimestampServiceImpl.create(boundStore));
         };
 
         return ImmutablePaxosResources.builder()
@@ -245,15 +259,21 @@ public final class PaxosResourcesFactory {
 
     @VisibleForTesting
     static NetworkClientFactories.Factory<PaxosProposer> getPaxosProposerFactory(
-            TimelockPaxosMetrics timelockMetrics, NetworkClientFactories combinedNetworkClientFactories) {
+            TimelockPaxosMetrics timelockMetrics,
+            NetworkClientFactories combinedNetworkClientFactories,
+            Supplier<Boolean> prepareAhead) {
         return client -> {
             PaxosAcceptorNetworkClient acceptorNetworkClient =
                     combinedNetworkClientFactories.acceptor().create(client);
             PaxosLearnerNetworkClient learnerNetworkClient =
                     combinedNetworkClientFactories.learner().create(client);
 
-            PaxosProposer paxosProposer =
-                    PaxosProposerImpl.newProposer(acceptorNetworkClient, learnerNetworkClient, UUID.randomUUID());
+            PaxosProposer paxosProposer = PaxosProposerImpl.newPreparingAheadProposer(
+                    acceptorNetworkClient,
+                    learnerNetworkClient,
+                    UUID.randomUUID(),
+                    PREPARE_AHEAD_EXECUTOR,
+                    prepareAhead);
 
             return timelockMetrics.instrument(PaxosProposer.class, paxosProposer, client);
         };
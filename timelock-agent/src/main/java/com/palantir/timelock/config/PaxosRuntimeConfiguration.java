@@ -21,6 +21,7 @@ import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.google.common.base.Preconditions;
 import java.time.Duration;
+import java.util.Optional;
 import org.immutables.value.Value;
 
 @JsonDeserialize(as = ImmutablePaxosRuntimeConfiguration.class)
@@ -108,9 +109,36 @@ public interface PaxosRuntimeConfiguration {
             return false;
         }
 
+        /**
+         * If true, a timestamp service prepares the next paxos sequence number for its bound while it proposes the
+         * current one, so that extending the bound usually only needs the accept phase.
+         */
+        @Value.Default
+        @JsonProperty("prepare-ahead")
+        default boolean prepareAhead() {
+            return false;
+        }
+
+        /**
+         * If present, a timestamp service extends its upper limit in the background once less than this fraction of
+         * its buffer is left to hand out, rather than only once a request runs into the limit. Only read when the
+         * timestamp service of a client is created.
+         */
+        @JsonProperty("proactive-upper-limit-extension-threshold")
+        Optional<Double> proactiveUpperLimitExtensionThreshold();
+
         static TimestampPaxosConfig defaultConfig() {
             return ImmutableTimestampPaxosConfig.builder().build();
         }
+
+        @Value.Check
+        default void check() {
+            proactiveUpperLimitExtensionThreshold()
+                    .ifPresent(threshold -> Preconditions.checkArgument(
+                            threshold > 0.0 && threshold < 1.0,
+                            "Proactive upper limit extension threshold must be between 0 and 1; found '%s'.",
+                            threshold));
+        }
     }
 
     @Value.Check
@@ -21,6 +21,7 @@ import com.palantir.atlasdb.debug.LockDiagnosticConfig;
 import com.palantir.atlasdb.timelock.AsyncTimelockService;
 import com.palantir.atlasdb.timelock.AsyncTimelockServiceImpl;
 import com.palantir.atlasdb.timelock.TimeLockServices;
+import com.palantir.atlasdb.timelock.lock.AsyncLockMetrics;
 import com.palantir.atlasdb.timelock.lock.AsyncLockService;
 import com.palantir.atlasdb.timelock.lock.LockLog;
 import com.palantir.atlasdb.timelock.lock.NonTransactionalLockService;
@@ -100,7 +101,8 @@ public class AsyncTimeLockServicesCreator implements TimeLockServicesCreator {
                         maybeEnhancedLockLog,
                         reaperExecutor,
                         timeoutExecutor,
-                        BufferMetrics.of(metricsManager.getTaggedRegistry())),
+                        BufferMetrics.of(metricsManager.getTaggedRegistry()),
+                        AsyncLockMetrics.of(metricsManager.getTaggedRegistry())),
                 timestampServiceSupplier.get(),
                 maybeEnhancedLockLog,
                 RequestMetrics.of(metricsManager.getTaggedRegistry()));
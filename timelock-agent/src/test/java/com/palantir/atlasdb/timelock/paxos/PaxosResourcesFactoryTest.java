@@ -30,7 +30,8 @@ public class PaxosResourcesFactoryTest {
     public void individualTimestampServicesHaveDifferingProposers() {
         NetworkClientFactories.Factory<PaxosProposer> proposerFactory = PaxosResourcesFactory.getPaxosProposerFactory(
                 TimelockPaxosMetrics.of(PaxosUseCase.TIMESTAMP, MetricsManagers.createForTests()),
-                mock(NetworkClientFactories.class, Answers.RETURNS_DEEP_STUBS));
+                mock(NetworkClientFactories.class, Answers.RETURNS_DEEP_STUBS),
+                () -> false);
         Client client = Client.of("client");
         PaxosProposer proposer1 = proposerFactory.create(client);
         PaxosProposer proposer2 = proposerFactory.create(client);
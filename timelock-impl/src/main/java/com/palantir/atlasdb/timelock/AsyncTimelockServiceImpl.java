@@ -111,6 +111,7 @@ public class AsyncTimelockServiceImpl implements AsyncTimelockService {
         AsyncResult<Leased<LockToken>> result = lockService.lock(
                 request.getRequestId(),
                 request.getLockDescriptors(),
+                request.getSharedLockDescriptors(),
                 TimeLimit.of(request.getAcquireTimeoutMs()),
                 request.getMetadata());
         changeMetadataHistogram.update(request.getMetadata()
@@ -159,6 +159,7 @@ public final class ConjureTimelockResource implements UndertowConjureTimelockSer
                                     .build()));
             IdentifiedLockRequest lockRequest = ImmutableIdentifiedLockRequest.builder()
                     .lockDescriptors(lockDescriptors)
+                    .sharedLockDescriptors(fromConjureLockDescriptors(request.getSharedLockDescriptors()))
                     .clientDescription(request.getClientDescription())
                     .requestId(request.getRequestId())
                     .acquireTimeoutMs(request.getAcquireTimeoutMs())
@@ -207,21 +208,25 @@ public final class ConjureTimelockResource implements UndertowConjureTimelockSer
     @Override
     public ListenableFuture<ConjureRefreshLocksResponse> refreshLocks(
             AuthHeader authHeader, String namespace, ConjureRefreshLocksRequest request) {
+        Set<LockToken> tokens = fromConjureLockTokens(request.getTokens());
         return refreshLocksInternal(
                 namespace,
-                fromConjureLockTokens(request.getTokens()),
+                tokens,
                 refreshed -> ConjureRefreshLocksResponse.of(
-                        toConjureLockTokens(refreshed.refreshedTokens()), refreshed.getLease()));
+                        echoOrToConjureLockTokens(request.getTokens(), tokens, refreshed.refreshedTokens()),
+                        refreshed.getLease()));
     }
 
     @Override
     public ListenableFuture<ConjureRefreshLocksResponseV2> refreshLocksV2(
             AuthHeader authHeader, String namespace, ConjureRefreshLocksRequestV2 request) {
+        Set<LockToken> tokens = fromConjureLockV2Tokens(request.get());
         return refreshLocksInternal(
                 namespace,
-                fromConjureLockV2Tokens(request.get()),
+                tokens,
                 refreshed -> ConjureRefreshLocksResponseV2.of(
-                        toConjureLockV2Tokens(refreshed.refreshedTokens()), refreshed.getLease()));
+                        echoOrToConjureLockV2Tokens(request.get(), tokens, refreshed.refreshedTokens()),
+                        refreshed.getLease()));
     }
 
     private <T> ListenableFuture<T> refreshLocksInternal(
@@ -235,19 +240,21 @@ public final class ConjureTimelockResource implements UndertowConjureTimelockSer
     @Override
     public ListenableFuture<ConjureUnlockResponse> unlock(
             AuthHeader authHeader, String namespace, ConjureUnlockRequest request) {
+        Set<LockToken> tokens = fromConjureLockTokens(request.getTokens());
         return unlockInternal(
                 namespace,
-                fromConjureLockTokens(request.getTokens()),
-                unlocked -> ConjureUnlockResponse.of(toConjureLockTokens(unlocked)));
+                tokens,
+                unlocked -> ConjureUnlockResponse.of(echoOrToConjureLockTokens(request.getTokens(), tokens, unlocked)));
     }
 
     @Override
     public ListenableFuture<ConjureUnlockResponseV2> unlockV2(
             AuthHeader authHeader, String namespace, ConjureUnlockRequestV2 request) {
+        Set<LockToken> tokens = fromConjureLockV2Tokens(request.get());
         return unlockInternal(
                 namespace,
-                fromConjureLockV2Tokens(request.get()),
-                unlocked -> ConjureUnlockResponseV2.of(toConjureLockV2Tokens(unlocked)));
+                tokens,
+                unlocked -> ConjureUnlockResponseV2.of(echoOrToConjureLockV2Tokens(request.get(), tokens, unlocked)));
     }
 
     private <T> ListenableFuture<T> unlockInternal(
@@ -256,6 +263,19 @@ public final class ConjureTimelockResource implements UndertowConjureTimelockSer
                 forNamespace(namespace).unlock(tokens), userTokenTranslator::apply, MoreExecutors.directExecutor()));
     }
 
+    // Usually every token succeeds, in which case the requested tokens are echoed back as they are rather than
+    // converted back again. Checking that takes a hash lookup per token, which is cheaper than converting them; equal
+    // sizes alone would not prove that the lock service handed back the same tokens.
+    private static Set<ConjureLockToken> echoOrToConjureLockTokens(
+            Set<ConjureLockToken> requested, Set<LockToken> tokens, Set<LockToken> succeeded) {
+        return succeeded.equals(tokens) ? requested : toConjureLockTokens(succeeded);
+    }
+
+    private static Set<ConjureLockTokenV2> echoOrToConjureLockV2Tokens(
+            Set<ConjureLockTokenV2> requested, Set<LockToken> tokens, Set<LockToken> succeeded) {
+        return succeeded.equals(tokens) ? requested : toConjureLockV2Tokens(succeeded);
+    }
+
     // The reason for duplication in the following four methods is for performance reasons; while one might
     // ordinarily use a stream or perhaps some kind of transformation function, this is a hot path.
     private static Set<LockToken> fromConjureLockTokens(Set<ConjureLockToken> lockTokens) {
@@ -15,6 +15,7 @@
  */
 package com.palantir.atlasdb.timelock.lock;
 
+import com.codahale.metrics.Gauge;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableSet;
 import com.palantir.atlasdb.timelock.lock.watch.LockWatchingService;
@@ -56,22 +57,29 @@ public class AsyncLockService implements Closeable {
      * @param lockLog lock logger
      * @param reaperExecutor executor for reaping locks that have not been refreshed by clients
      * @param timeoutExecutor executor for timing out lock requests that have blocked for longer than permitted
+     * @param asyncLockMetrics metrics for how promptly expired locks are reaped and blocked requests are timed out
      * @return an asynchronous lock service
      */
     public static AsyncLockService createDefault(
             LockLog lockLog,
             ScheduledExecutorService reaperExecutor,
             ScheduledExecutorService timeoutExecutor,
-            BufferMetrics bufferMetrics) {
+            BufferMetrics bufferMetrics,
+            AsyncLockMetrics asyncLockMetrics) {
 
         LeaderClock clock = LeaderClock.create();
 
-        HeldLocksCollection heldLocks = HeldLocksCollection.create(clock);
+        HeldLocksCollection heldLocks = HeldLocksCollection.create(clock, asyncLockMetrics.reaperLag());
         LockWatchingService lockWatchingService = new LockWatchingServiceImpl(heldLocks, clock.id(), bufferMetrics);
-        LockAcquirer lockAcquirer = new LockAcquirer(lockLog, timeoutExecutor, clock, lockWatchingService);
+        LockAcquirer lockAcquirer = new LockAcquirer(
+                lockLog, timeoutExecutor, clock, lockWatchingService, asyncLockMetrics.timeoutLag());
+
+        LockCollection locks = new LockCollection();
+        asyncLockMetrics.liveLocks((Gauge<Integer>) locks::liveLocks);
+        asyncLockMetrics.liveLockDescriptorBytes((Gauge<Long>) locks::liveLockDescriptorBytes);
 
         return new AsyncLockService(
-                new LockCollection(),
+                locks,
                 new ImmutableTimestampTracker(),
                 lockAcquirer,
                 heldLocks,
@@ -108,16 +116,17 @@ public class AsyncLockService implements Closeable {
     }
 
     private void scheduleExpiredLockReaper() {
+        long tickMillis = HeldLocksCollection.REAPER_TICK.toMillis();
         reaperExecutor.scheduleAtFixedRate(
                 () -> {
                     try {
-                        heldLocks.removeExpired();
+                        heldLocks.reapExpired();
                     } catch (Throwable t) {
                         log.warn("Error while removing expired lock requests. Trying again on next iteration.", t);
                     }
                 },
-                0,
-                LockLeaseContract.SERVER_LEASE_TIMEOUT.toMillis() / 2,
+                tickMillis,
+                tickMillis,
                 TimeUnit.MILLISECONDS);
     }
 
@@ -130,8 +139,21 @@ public class AsyncLockService implements Closeable {
             Set<LockDescriptor> lockDescriptors,
             TimeLimit timeout,
             Optional<LockRequestMetadata> metadata) {
+        return lock(requestId, lockDescriptors, ImmutableSet.of(), timeout, metadata);
+    }
+
+    /**
+     * Locks {@code lockDescriptors} exclusively and {@code sharedLockDescriptors} in shared mode, so that other
+     * requests may hold the latter in shared mode at the same time.
+     */
+    public AsyncResult<Leased<LockToken>> lock(
+            UUID requestId,
+            Set<LockDescriptor> lockDescriptors,
+            Set<LockDescriptor> sharedLockDescriptors,
+            TimeLimit timeout,
+            Optional<LockRequestMetadata> metadata) {
         return heldLocks.getExistingOrAcquire(
-                requestId, () -> acquireLocks(requestId, lockDescriptors, timeout, metadata));
+                requestId, () -> acquireLocks(requestId, lockDescriptors, sharedLockDescriptors, timeout, metadata));
     }
 
     public AsyncResult<Leased<LockToken>> lockImmutableTimestamp(UUID requestId, long timestamp) {
@@ -153,14 +175,17 @@ public class AsyncLockService implements Closeable {
     private AsyncResult<HeldLocks> acquireLocks(
             UUID requestId,
             Set<LockDescriptor> lockDescriptors,
+            Set<LockDescriptor> sharedLockDescriptors,
             TimeLimit timeout,
             Optional<LockRequestMetadata> metadata) {
-        OrderedLocks orderedLocks = locks.getAll(lockDescriptors);
+        OrderedLocks orderedLocks = sharedLockDescriptors.isEmpty()
+                ? locks.getAll(requestId, lockDescriptors)
+                : locks.getAll(requestId, lockDescriptors, sharedLockDescriptors);
         return lockAcquirer.acquireLocks(requestId, orderedLocks, timeout, metadata);
     }
 
     private AsyncResult<Void> awaitLocks(UUID requestId, Set<LockDescriptor> lockDescriptors, TimeLimit timeout) {
-        OrderedLocks orderedLocks = locks.getAll(lockDescriptors);
+        OrderedLocks orderedLocks = locks.getAll(requestId, lockDescriptors);
         return lockAcquirer.waitForLocks(requestId, orderedLocks, timeout);
     }
 
@@ -28,10 +28,16 @@ import javax.annotation.concurrent.ThreadSafe;
 @ThreadSafe
 public class AsyncResult<T> {
 
+    private static final AsyncResult<Void> COMPLETED = new AsyncResult<>(CompletableFuture.completedFuture(null));
+
     private final CompletableFuture<T> future;
 
+    /**
+     * Returns a result that has already completed successfully. As it can never change state, the same instance is
+     * shared by all callers.
+     */
     public static AsyncResult<Void> completedResult() {
-        return new AsyncResult<>(CompletableFuture.completedFuture(null));
+        return COMPLETED;
     }
 
     public AsyncResult() {
@@ -16,15 +16,32 @@
 package com.palantir.atlasdb.timelock.lock;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableSet;
 import com.palantir.atlasdb.timelock.util.LoggableIllegalStateException;
 import com.palantir.lock.LockDescriptor;
 import com.palantir.logsafe.SafeArg;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.NotThreadSafe;
 
+/**
+ * A lock on a single descriptor, which is either held exclusively by one request, or shared by any number of requests
+ * through its {@link SharedLock} view.
+ *
+ * Requests that cannot be granted straight away are queued and granted strictly in order, so a request for exclusive
+ * mode waiting for shared holders to unlock holds back any shared requests that arrive after it, and writers are never
+ * starved by a stream of overlapping readers.
+ *
+ * A lock created by a {@link LockCollection} is retired once it is idle: nobody holds it, nobody is queued for it,
+ * and no request that has looked it up is yet to use it. The collection then forgets it, and a retired lock can no
+ * longer be looked up, so that a later request for its descriptor creates a fresh lock.
+ */
 public class ExclusiveLock implements AsyncLock {
 
     private final LockDescriptor descriptor;
@@ -35,31 +52,110 @@ public class ExclusiveLock implements AsyncLock {
     @GuardedBy("this")
     private UUID currentHolder = null;
 
+    @GuardedBy("this")
+    private final Set<UUID> sharedHolders = new HashSet<>();
+
+    /**
+     * Requests that have looked this lock up, but have not yet locked, waited for, unlocked or timed out on it.
+     * Allocated on first use, as most locks only ever have one such request at a time.
+     */
+    @GuardedBy("this")
+    private Set<UUID> interestedRequests = null;
+
+    @GuardedBy("this")
+    private boolean retired = false;
+
+    @Nullable
+    private final Consumer<ExclusiveLock> onRetired;
+
     public ExclusiveLock(LockDescriptor descriptor) {
+        this(descriptor, null);
+    }
+
+    ExclusiveLock(LockDescriptor descriptor, @Nullable Consumer<ExclusiveLock> onRetired) {
         this.descriptor = descriptor;
+        this.onRetired = onRetired;
+    }
+
+    /**
+     * Registers that the given request is about to use this lock, so that it is not retired in the meantime. Returns
+     * false if this lock has already been retired, in which case it must not be used.
+     */
+    synchronized boolean retain(UUID requestId) {
+        if (retired) {
+            return false;
+        }
+        if (interestedRequests == null) {
+            interestedRequests = new HashSet<>(2);
+        }
+        interestedRequests.add(requestId);
+        return true;
     }
 
     @Override
     public synchronized AsyncResult<Void> lock(UUID requestId) {
-        return submit(new LockRequest(requestId, false));
+        release(requestId);
+        if (isAvailable()) {
+            currentHolder = requestId;
+            return AsyncResult.completedResult();
+        }
+        return submit(new LockRequest(requestId, false, false));
     }
 
     @Override
     public synchronized AsyncResult<Void> waitUntilAvailable(UUID requestId) {
-        return submit(new LockRequest(requestId, true));
+        release(requestId);
+        if (isAvailable()) {
+            retireIfIdle();
+            return AsyncResult.completedResult();
+        }
+        return submit(new LockRequest(requestId, false, true));
     }
 
     @Override
     public synchronized void unlock(UUID requestId) {
+        release(requestId);
         if (Objects.equals(requestId, currentHolder)) {
             currentHolder = null;
             processQueue();
         }
+        retireIfIdle();
+    }
+
+    synchronized AsyncResult<Void> lockShared(UUID requestId) {
+        release(requestId);
+        if (isAvailableForShared()) {
+            sharedHolders.add(requestId);
+            return AsyncResult.completedResult();
+        }
+        return submit(new LockRequest(requestId, true, false));
+    }
+
+    synchronized AsyncResult<Void> waitUntilAvailableForShared(UUID requestId) {
+        release(requestId);
+        if (isAvailableForShared()) {
+            retireIfIdle();
+            return AsyncResult.completedResult();
+        }
+        return submit(new LockRequest(requestId, true, true));
+    }
+
+    synchronized void unlockShared(UUID requestId) {
+        release(requestId);
+        if (sharedHolders.remove(requestId)) {
+            processQueue();
+        }
+        retireIfIdle();
     }
 
     @Override
     public synchronized void timeout(UUID requestId) {
+        release(requestId);
         queue.timeoutAndRemoveIfStillQueued(requestId);
+        // The request may have been holding back requests queued behind it, such as shared requests behind an
+        // exclusive request that was waiting for shared holders.
+        processQueue();
+        retireIfIdle();
     }
 
     @Override
@@ -72,6 +168,40 @@ public class ExclusiveLock implements AsyncLock {
         return currentHolder;
     }
 
+    @VisibleForTesting
+    synchronized Set<UUID> getSharedHolders() {
+        return ImmutableSet.copyOf(sharedHolders);
+    }
+
+    @GuardedBy("this")
+    private void release(UUID requestId) {
+        if (interestedRequests != null) {
+            interestedRequests.remove(requestId);
+        }
+    }
+
+    @GuardedBy("this")
+    private void retireIfIdle() {
+        if (onRetired == null || retired || !isAvailable()) {
+            return;
+        }
+        if (interestedRequests != null && !interestedRequests.isEmpty()) {
+            return;
+        }
+        retired = true;
+        onRetired.accept(this);
+    }
+
+    @GuardedBy("this")
+    private boolean isAvailable() {
+        return currentHolder == null && sharedHolders.isEmpty() && queue.isEmpty();
+    }
+
+    @GuardedBy("this")
+    private boolean isAvailableForShared() {
+        return currentHolder == null && queue.isEmpty();
+    }
+
     @GuardedBy("this")
     private AsyncResult<Void> submit(LockRequest request) {
         queue.enqueue(request);
@@ -82,24 +212,35 @@ public class ExclusiveLock implements AsyncLock {
 
     @GuardedBy("this")
     private void processQueue() {
-        while (!queue.isEmpty() && currentHolder == null) {
+        while (!queue.isEmpty() && canBeGranted(queue.peek())) {
             LockRequest head = queue.dequeue();
 
             if (!head.releaseImmediately) {
-                currentHolder = head.requestId;
+                if (head.shared) {
+                    sharedHolders.add(head.requestId);
+                } else {
+                    currentHolder = head.requestId;
+                }
             }
 
             head.result.complete(null);
         }
     }
 
+    @GuardedBy("this")
+    private boolean canBeGranted(LockRequest request) {
+        return currentHolder == null && (request.shared || sharedHolders.isEmpty());
+    }
+
     private static class LockRequest {
         private final AsyncResult<Void> result = new AsyncResult<>();
         private final UUID requestId;
+        private final boolean shared;
         private final boolean releaseImmediately;
 
-        LockRequest(UUID requestId, boolean releaseImmediately) {
+        LockRequest(UUID requestId, boolean shared, boolean releaseImmediately) {
             this.requestId = requestId;
+            this.shared = shared;
             this.releaseImmediately = releaseImmediately;
         }
     }
@@ -123,6 +264,10 @@ public class ExclusiveLock implements AsyncLock {
             return queue.isEmpty();
         }
 
+        public LockRequest peek() {
+            return queue.values().iterator().next();
+        }
+
         public LockRequest dequeue() {
             return queue.remove(queue.keySet().iterator().next());
         }
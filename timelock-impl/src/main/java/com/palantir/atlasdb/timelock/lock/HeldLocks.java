@@ -22,6 +22,7 @@ import com.palantir.common.time.NanoTime;
 import com.palantir.lock.LockDescriptor;
 import com.palantir.lock.v2.LockToken;
 import com.palantir.lock.watch.LockRequestMetadata;
+import java.time.Duration;
 import java.util.Collection;
 import java.util.Optional;
 import java.util.Set;
@@ -108,6 +109,19 @@ public class HeldLocks {
         return true;
     }
 
+    /**
+     * As {@link #refresh()}, but as of a time the caller has already read from the leader clock, so that a batch of
+     * locks can be refreshed with a single read of the clock.
+     */
+    public synchronized boolean refresh(NanoTime refreshTime) {
+        if (isUnlocked) {
+            return false;
+        }
+
+        expirationTimer.refresh(refreshTime);
+        return true;
+    }
+
     public synchronized boolean unlockExplicitly() {
         boolean successfullyUnlocked = unlockInternal();
         if (successfullyUnlocked) {
@@ -142,6 +156,10 @@ public class HeldLocks {
         return expirationTimer.lastRefreshTime();
     }
 
+    public Duration timeUntilExpiry() {
+        return expirationTimer.timeUntilExpiry();
+    }
+
     public Collection<AsyncLock> getLocks() {
         return acquiredLocks;
     }
@@ -15,56 +15,117 @@
  */
 package com.palantir.atlasdb.timelock.lock;
 
+import com.codahale.metrics.Timer;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
 import com.palantir.common.time.NanoTime;
 import com.palantir.leader.NotCurrentLeaderException;
 import com.palantir.lock.v2.LeaderTime;
 import com.palantir.lock.v2.Lease;
 import com.palantir.lock.v2.LockToken;
+import java.time.Duration;
+import java.util.HashSet;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 
 public class HeldLocksCollection {
+    /**
+     * The same period at which all held locks used to be scanned for expiry. Expired requests are removed up to two
+     * ticks after their lease expires.
+     */
+    @VisibleForTesting
+    static final Duration REAPER_TICK = LockLeaseContract.SERVER_LEASE_TIMEOUT.dividedBy(2);
+
+    private static final int REAPER_WHEEL_SIZE = 64;
+
     @VisibleForTesting
     final ConcurrentMap<UUID, AsyncResult<HeldLocks>> heldLocksById = new ConcurrentHashMap<>();
 
+    private final ConcurrentMap<UUID, TimingWheel.Timeout> expiryChecksById = new ConcurrentHashMap<>();
     private final LeaderClock leaderClock;
+    private final TimingWheel reaper;
 
     @VisibleForTesting
     HeldLocksCollection(LeaderClock leaderClock) {
+        this(leaderClock, new Timer());
+    }
+
+    private HeldLocksCollection(LeaderClock leaderClock, Timer reaperLag) {
         this.leaderClock = leaderClock;
+        this.reaper = new TimingWheel(REAPER_TICK, REAPER_WHEEL_SIZE, reaperLag);
     }
 
     public static HeldLocksCollection create(LeaderClock leaderClock) {
         return new HeldLocksCollection(leaderClock);
     }
 
+    public static HeldLocksCollection create(LeaderClock leaderClock, Timer reaperLag) {
+        return new HeldLocksCollection(leaderClock, reaperLag);
+    }
+
     public AsyncResult<Leased<LockToken>> getExistingOrAcquire(
             UUID requestId, Supplier<AsyncResult<HeldLocks>> lockAcquirer) {
         return heldLocksById
-                .computeIfAbsent(requestId, ignored -> lockAcquirer.get())
+                .computeIfAbsent(requestId, ignored -> trackExpiry(requestId, lockAcquirer.get()))
                 .map(this::createLeasableLockToken);
     }
 
+    /**
+     * Unlocks the given tokens, returning those that were unlocked.
+     */
     public Set<LockToken> unlock(Set<LockToken> tokens) {
-        Set<LockToken> unlocked = filter(tokens, HeldLocks::unlockExplicitly);
-        for (LockToken token : unlocked) {
-            heldLocksById.remove(token.getRequestId());
+        Set<LockToken> notUnlocked = null;
+        for (LockToken token : tokens) {
+            UUID requestId = token.getRequestId();
+            HeldLocks heldLocks = getIfHeld(requestId);
+            if (heldLocks != null && heldLocks.unlockExplicitly()) {
+                heldLocksById.remove(requestId);
+                cancelExpiryCheck(requestId);
+            } else {
+                notUnlocked = addTo(notUnlocked, token);
+            }
         }
-        return unlocked;
+        return allExcept(tokens, notUnlocked);
     }
 
+    /**
+     * Refreshes the given tokens, returning those that were refreshed. The leader clock is read twice for the whole
+     * batch rather than once per token.
+     */
     public Leased<Set<LockToken>> refresh(Set<LockToken> tokens) {
         Lease lease = leaseWithStart(leaderClock.time());
-        return Leased.of(filter(tokens, HeldLocks::refresh), lease);
+        // Read after the lease start, so that the client's lease never outlasts the server's.
+        NanoTime refreshTime = leaderClock.time().currentTime();
+
+        Set<LockToken> notRefreshed = null;
+        for (LockToken token : tokens) {
+            HeldLocks heldLocks = getIfHeld(token.getRequestId());
+            if (heldLocks == null || !heldLocks.refresh(refreshTime)) {
+                notRefreshed = addTo(notRefreshed, token);
+            }
+        }
+        return Leased.of(allExcept(tokens, notRefreshed), lease);
     }
 
+    /**
+     * Advances the expiry checks of held locks by one {@link #REAPER_TICK}, removing requests whose leases expired or
+     * which failed or timed out. Unlike {@link #removeExpired()}, this only looks at requests due a check, so it does
+     * not scan every held lock on each call. Must be called at a fixed rate of one {@link #REAPER_TICK} by a single
+     * thread.
+     */
+    public void reapExpired() {
+        reaper.tick();
+    }
+
+    /**
+     * Removes every request whose lease has expired, or which has failed or timed out, scanning all held locks.
+     */
     public void removeExpired() {
         heldLocksById.values().removeIf(this::shouldRemove);
     }
@@ -93,20 +154,65 @@ public class HeldLocksCollection {
         return Lease.of(leaderTime, LockLeaseContract.CLIENT_LEASE_TIMEOUT);
     }
 
+    private AsyncResult<HeldLocks> trackExpiry(UUID requestId, AsyncResult<HeldLocks> lockResult) {
+        scheduleExpiryCheck(requestId, lockResult, LockLeaseContract.SERVER_LEASE_TIMEOUT);
+        lockResult.onError(_error -> scheduleExpiryCheck(requestId, lockResult, Duration.ZERO));
+        lockResult.onTimeout(() -> scheduleExpiryCheck(requestId, lockResult, Duration.ZERO));
+        return lockResult;
+    }
+
+    private void scheduleExpiryCheck(UUID requestId, AsyncResult<HeldLocks> lockResult, Duration delay) {
+        TimingWheel.Timeout check = reaper.schedule(delay, () -> checkExpiry(requestId, lockResult));
+        TimingWheel.Timeout previous = expiryChecksById.put(requestId, check);
+        if (previous != null) {
+            previous.cancel();
+        }
+    }
+
+    private void checkExpiry(UUID requestId, AsyncResult<HeldLocks> lockResult) {
+        if (heldLocksById.get(requestId) != lockResult) {
+            removeFinishedExpiryCheck(requestId);
+        } else if (shouldRemove(lockResult)) {
+            heldLocksById.remove(requestId, lockResult);
+            removeFinishedExpiryCheck(requestId);
+        } else if (lockResult.isCompletedSuccessfully()) {
+            scheduleExpiryCheck(requestId, lockResult, lockResult.get().timeUntilExpiry());
+        } else {
+            scheduleExpiryCheck(requestId, lockResult, LockLeaseContract.SERVER_LEASE_TIMEOUT);
+        }
+    }
+
+    private void removeFinishedExpiryCheck(UUID requestId) {
+        expiryChecksById.computeIfPresent(requestId, (_id, check) -> check.isPending() ? check : null);
+    }
+
+    private void cancelExpiryCheck(UUID requestId) {
+        TimingWheel.Timeout check = expiryChecksById.remove(requestId);
+        if (check != null) {
+            check.cancel();
+        }
+    }
+
     private boolean shouldRemove(AsyncResult<HeldLocks> lockResult) {
         return lockResult.isFailed() || lockResult.isTimedOut() || lockResult.test(HeldLocks::unlockIfExpired);
     }
 
-    private Set<LockToken> filter(Set<LockToken> tokens, Predicate<HeldLocks> predicate) {
-        Set<LockToken> filtered = Sets.newHashSetWithExpectedSize(tokens.size());
+    private static Set<LockToken> addTo(@Nullable Set<LockToken> tokens, LockToken token) {
+        Set<LockToken> nonNullTokens = tokens == null ? new HashSet<>() : tokens;
+        nonNullTokens.add(token);
+        return nonNullTokens;
+    }
 
-        for (LockToken token : tokens) {
-            AsyncResult<HeldLocks> lockResult = heldLocksById.get(token.getRequestId());
-            if (lockResult != null && lockResult.test(predicate)) {
-                filtered.add(token);
-            }
-        }
+    private static Set<LockToken> allExcept(Set<LockToken> tokens, @Nullable Set<LockToken> excluded) {
+        return excluded == null ? tokens : ImmutableSet.copyOf(Sets.difference(tokens, excluded));
+    }
 
-        return filtered;
+    @Nullable
+    private HeldLocks getIfHeld(UUID requestId) {
+        AsyncResult<HeldLocks> lockResult = heldLocksById.get(requestId);
+        if (lockResult == null || !lockResult.isCompletedSuccessfully()) {
+            return null;
+        }
+        return lockResult.get();
     }
 }
@@ -15,50 +15,246 @@
  */
 package com.palantir.atlasdb.timelock.lock;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.math.IntMath;
 import com.palantir.atlasdb.timelock.util.LoggableIllegalStateException;
+import com.palantir.logsafe.Preconditions;
 import com.palantir.logsafe.SafeArg;
+import java.math.RoundingMode;
+import java.util.Arrays;
 import java.util.Optional;
-import java.util.SortedMap;
-import java.util.TreeMap;
 import java.util.UUID;
 import javax.annotation.concurrent.GuardedBy;
 
+/**
+ * Tracks the timestamps locked by transactions that are still running, so that the oldest of them can be served as
+ * the immutable timestamp.
+ *
+ * Timestamps are spread over independently synchronized stripes, so that concurrent transaction starts rarely contend
+ * with each other. Each stripe publishes its own minimum, and {@link #getImmutableTimestamp()} combines them without
+ * taking any locks.
+ */
 public class ImmutableTimestampTracker {
+    private static final long NO_TIMESTAMP = Long.MAX_VALUE;
+    private static final int MAX_STRIPES = 64;
+
+    private final Stripe[] stripes;
+    private final int stripeShift;
+
+    public ImmutableTimestampTracker() {
+        this(Math.min(MAX_STRIPES, IntMath.ceilingPowerOfTwo(Runtime.getRuntime().availableProcessors())));
+    }
 
-    @GuardedBy("this")
-    private final SortedMap<Long, UUID> holdersByTimestamp = new TreeMap<>();
-
-    public synchronized void lock(long timestamp, UUID requestId) {
-        boolean wasAdded = holdersByTimestamp.putIfAbsent(timestamp, requestId) == null;
-        if (!wasAdded) {
-            throw new LoggableIllegalStateException(
-                    "A request attempted to lock a timestamp that was already locked",
-                    SafeArg.of("timestamp", timestamp),
-                    SafeArg.of("requestId", requestId),
-                    SafeArg.of("currentHolder", holdersByTimestamp.get(timestamp)));
+    @VisibleForTesting
+    ImmutableTimestampTracker(int numStripes) {
+        Preconditions.checkArgument(
+                numStripes > 0 && Integer.bitCount(numStripes) == 1,
+                "Number of stripes must be a power of two",
+                SafeArg.of("numStripes", numStripes));
+        this.stripes = new Stripe[numStripes];
+        for (int i = 0; i < numStripes; i++) {
+            stripes[i] = new Stripe();
         }
+        this.stripeShift = Long.SIZE - IntMath.log2(numStripes, RoundingMode.UNNECESSARY);
     }
 
-    public synchronized void unlock(long timestamp, UUID requestId) {
-        boolean wasRemoved = holdersByTimestamp.remove(timestamp, requestId);
-        if (!wasRemoved) {
-            throw new LoggableIllegalStateException(
-                    "A request attempted to unlock a timestamp that was not locked or was locked by another request",
-                    SafeArg.of("timestamp", timestamp),
-                    SafeArg.of("requestId", requestId),
-                    SafeArg.of("currentHolder", holdersByTimestamp.get(timestamp)));
+    public void lock(long timestamp, UUID requestId) {
+        stripeFor(timestamp).lock(timestamp, requestId);
+    }
+
+    public void unlock(long timestamp, UUID requestId) {
+        stripeFor(timestamp).unlock(timestamp, requestId);
+    }
+
+    /**
+     * Returns the smallest timestamp locked at some point during the call, or possibly a smaller timestamp that was
+     * unlocked concurrently, but never a timestamp larger than every one locked throughout the call.
+     */
+    public Optional<Long> getImmutableTimestamp() {
+        while (true) {
+            long increasesBefore = sumOfMinimumIncreases();
+            long min = NO_TIMESTAMP;
+            for (Stripe stripe : stripes) {
+                min = Math.min(min, stripe.min);
+            }
+            // If the minimum of a stripe went up while we were reading, we may have missed a timestamp locked on a
+            // stripe read earlier, and so must read again.
+            if (sumOfMinimumIncreases() == increasesBefore) {
+                return min == NO_TIMESTAMP ? Optional.empty() : Optional.of(min);
+            }
+            Thread.onSpinWait();
         }
     }
 
-    public synchronized Optional<Long> getImmutableTimestamp() {
-        if (holdersByTimestamp.isEmpty()) {
-            return Optional.empty();
+    private long sumOfMinimumIncreases() {
+        long sum = 0;
+        for (Stripe stripe : stripes) {
+            sum += stripe.minIncreases;
         }
-        return Optional.of(holdersByTimestamp.firstKey());
+        return sum;
     }
 
     // TODO(nziebart): should these locks should be created by LockCollection for consistency?
     public AsyncLock getLockFor(long timestamp) {
         return new ImmutableTimestampLock(timestamp, this);
     }
+
+    private Stripe stripeFor(long timestamp) {
+        // Fibonacci hashing, so that timestamps handed out in strides still spread over every stripe.
+        return stripes[(int) ((timestamp * 0x9E3779B97F4A7C15L) >>> stripeShift)];
+    }
+
+    /**
+     * The timestamps of one stripe, kept sorted in an array. Transactions mostly lock timestamps in increasing order
+     * and unlock the oldest ones first, so locking usually appends at the end and unlocking usually removes from the
+     * front; both are then constant time. Timestamps unlocked from the middle leave a gap, which is reclaimed once gaps
+     * outnumber the timestamps still locked.
+     */
+    private static final class Stripe {
+        private static final int INITIAL_CAPACITY = 16;
+
+        @GuardedBy("this")
+        private long[] timestamps = new long[INITIAL_CAPACITY];
+
+        @GuardedBy("this")
+        private UUID[] holders = new UUID[INITIAL_CAPACITY];
+
+        /**
+         * Entries in use are those in [head, tail). A null holder marks a gap, and the entries at head and tail - 1
+         * are never gaps.
+         */
+        @GuardedBy("this")
+        private int head = 0;
+
+        @GuardedBy("this")
+        private int tail = 0;
+
+        @GuardedBy("this")
+        private int numLocked = 0;
+
+        private volatile long min = NO_TIMESTAMP;
+
+        /**
+         * Incremented before {@link #min} is raised, so that readers can tell whether a minimum went up under them.
+         */
+        private volatile long minIncreases = 0;
+
+        synchronized void lock(long timestamp, UUID requestId) {
+            int index = find(timestamp);
+            if (index >= 0 && holders[index] != null) {
+                throw new LoggableIllegalStateException(
+                        "A request attempted to lock a timestamp that was already locked",
+                        SafeArg.of("timestamp", timestamp),
+                        SafeArg.of("requestId", requestId),
+                        SafeArg.of("currentHolder", holders[index]));
+            }
+
+            if (index >= 0) {
+                holders[index] = requestId;
+            } else {
+                index = insert(-(index + 1), timestamp, requestId);
+            }
+            numLocked++;
+
+            if (index == head) {
+                min = timestamp;
+            }
+        }
+
+        @SuppressWarnings("NonAtomicVolatileUpdate") // Only updated under this stripe's monitor.
+        synchronized void unlock(long timestamp, UUID requestId) {
+            int index = find(timestamp);
+            if (index < 0 || !requestId.equals(holders[index])) {
+                throw new LoggableIllegalStateException(
+                        "A request attempted to unlock a timestamp that was not locked or was locked by another "
+                                + "request",
+                        SafeArg.of("timestamp", timestamp),
+                        SafeArg.of("requestId", requestId),
+                        SafeArg.of("currentHolder", index < 0 ? null : holders[index]));
+            }
+
+            holders[index] = null;
+            numLocked--;
+            while (tail > head && holders[tail - 1] == null) {
+                tail--;
+            }
+
+            if (index == head) {
+                while (head < tail && holders[head] == null) {
+                    head++;
+                }
+                if (head == tail) {
+                    head = 0;
+                    tail = 0;
+                }
+                minIncreases++;
+                min = head < tail ? timestamps[head] : NO_TIMESTAMP;
+            } else if (tail - head - numLocked > Math.max(numLocked, INITIAL_CAPACITY)) {
+                compact(timestamps, holders);
+            }
+        }
+
+        @GuardedBy("this")
+        private int find(long timestamp) {
+            return Arrays.binarySearch(timestamps, head, tail, timestamp);
+        }
+
+        /**
+         * Inserts the timestamp before the entry at the given index, and returns the index it ends up at.
+         */
+        @GuardedBy("this")
+        private int insert(int index, long timestamp, UUID requestId) {
+            if (index == head && head > 0) {
+                head--;
+                set(head, timestamp, requestId);
+                return head;
+            }
+            if (tail == timestamps.length) {
+                makeRoom();
+                index = -(find(timestamp) + 1);
+            }
+            System.arraycopy(timestamps, index, timestamps, index + 1, tail - index);
+            System.arraycopy(holders, index, holders, index + 1, tail - index);
+            tail++;
+            set(index, timestamp, requestId);
+            return index;
+        }
+
+        @GuardedBy("this")
+        private void set(int index, long timestamp, UUID requestId) {
+            timestamps[index] = timestamp;
+            holders[index] = requestId;
+        }
+
+        @GuardedBy("this")
+        private void makeRoom() {
+            if (numLocked * 2 <= timestamps.length) {
+                compact(timestamps, holders);
+            } else {
+                compact(new long[timestamps.length * 2], new UUID[holders.length * 2]);
+            }
+        }
+
+        /**
+         * Moves the locked timestamps to the front of the given arrays, dropping any gaps, and makes those arrays the
+         * ones in use.
+         */
+        @GuardedBy("this")
+        private void compact(long[] newTimestamps, UUID[] newHolders) {
+            int size = 0;
+            for (int i = head; i < tail; i++) {
+                UUID holder = holders[i];
+                if (holder != null) {
+                    newTimestamps[size] = timestamps[i];
+                    newHolders[size] = holder;
+                    size++;
+                }
+            }
+            Arrays.fill(newHolders, size, newHolders.length, null);
+            timestamps = newTimestamps;
+            holders = newHolders;
+            head = 0;
+            tail = size;
+        }
+    }
 }
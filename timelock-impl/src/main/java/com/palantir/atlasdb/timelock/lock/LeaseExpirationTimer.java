@@ -16,6 +16,7 @@
 package com.palantir.atlasdb.timelock.lock;
 
 import com.palantir.common.time.NanoTime;
+import java.time.Duration;
 import java.util.function.Supplier;
 
 public class LeaseExpirationTimer {
@@ -32,10 +33,23 @@ public class LeaseExpirationTimer {
         lastRefreshTime = clock.get();
     }
 
+    /**
+     * Refreshes the lease as of the given time, read from the same clock, unless it was already refreshed later.
+     */
+    public void refresh(NanoTime refreshTime) {
+        if (lastRefreshTime.isBefore(refreshTime)) {
+            lastRefreshTime = refreshTime;
+        }
+    }
+
     public boolean isExpired() {
         return expiry().isBefore(clock.get());
     }
 
+    public Duration timeUntilExpiry() {
+        return Duration.ofNanos(Math.max(0, NanoTime.nanosBetween(clock.get(), expiry())));
+    }
+
     public NanoTime lastRefreshTime() {
         return lastRefreshTime;
     }
@@ -15,24 +15,36 @@
  */
 package com.palantir.atlasdb.timelock.lock;
 
-import com.google.common.base.Throwables;
+import com.codahale.metrics.Timer;
+import com.google.common.annotations.VisibleForTesting;
 import com.palantir.atlasdb.timelock.lock.watch.LockWatchingService;
 import com.palantir.lock.watch.LockRequestMetadata;
 import com.palantir.logsafe.SafeArg;
 import com.palantir.logsafe.logger.SafeLogger;
 import com.palantir.logsafe.logger.SafeLoggerFactory;
+import java.time.Duration;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 public class LockAcquirer implements AutoCloseable {
 
     private static final SafeLogger log = SafeLoggerFactory.get(LockAcquirer.class);
 
+    /**
+     * Timeouts are on a fine-grained wheel, as requests may block for short time limits, but the wheel only ticks while
+     * some blocked request has a timeout pending, so a namespace without contention does not tick at all.
+     */
+    @VisibleForTesting
+    static final Duration TIMEOUT_TICK = Duration.ofMillis(10);
+
+    private static final int TIMEOUT_WHEEL_SIZE = 1024;
+
     private final LockLog lockLog;
     private final ScheduledExecutorService timeoutExecutor;
+    private final TimingWheel timeouts;
     private final LeaderClock leaderClock;
     private final LockWatchingService lockWatcher;
 
@@ -41,10 +53,25 @@ public class LockAcquirer implements AutoCloseable {
             ScheduledExecutorService timeoutExecutor,
             LeaderClock leaderClock,
             LockWatchingService lockWatcher) {
+        this(lockLog, timeoutExecutor, leaderClock, lockWatcher, new Timer());
+    }
+
+    /**
+     * @param timeoutLag records how late blocked lock requests are timed out, relative to their time limit.
+     */
+    public LockAcquirer(
+            LockLog lockLog,
+            ScheduledExecutorService timeoutExecutor,
+            LeaderClock leaderClock,
+            LockWatchingService lockWatcher,
+            Timer timeoutLag) {
         this.lockLog = lockLog;
         this.timeoutExecutor = timeoutExecutor;
+        this.timeouts = new TimingWheel(TIMEOUT_TICK, TIMEOUT_WHEEL_SIZE, timeoutLag);
         this.leaderClock = leaderClock;
         this.lockWatcher = lockWatcher;
+
+        timeouts.tickWhilePending(timeoutExecutor);
     }
 
     public AsyncResult<HeldLocks> acquireLocks(UUID requestId, OrderedLocks locks, TimeLimit timeout) {
@@ -70,13 +97,19 @@ public class LockAcquirer implements AutoCloseable {
         timeoutExecutor.shutdown();
     }
 
+    /**
+     * Acquires the locks of one request in order. Locks that are granted straight away are taken in a single pass, and
+     * only when a lock is contended does the acquisition wait, resuming the pass from that lock once it is granted.
+     * Since locks are only ever waited on in their global order, requests cannot deadlock.
+     */
     private class Acquisition {
         private final UUID requestId;
-        private final OrderedLocks locks;
+        private final List<AsyncLock> locks;
         private final TimeLimit timeout;
         private final Function<AsyncLock, AsyncResult<Void>> lockFunction;
+        private final AsyncResult<Void> result = new AsyncResult<>();
 
-        private AsyncResult<Void> result;
+        private volatile boolean timedOut = false;
 
         Acquisition(
                 UUID requestId,
@@ -84,31 +117,69 @@ public class LockAcquirer implements AutoCloseable {
                 TimeLimit timeout,
                 Function<AsyncLock, AsyncResult<Void>> lockFunction) {
             this.requestId = requestId;
-            this.locks = locks;
+            this.locks = locks.get();
             this.timeout = timeout;
             this.lockFunction = lockFunction;
         }
 
         public AsyncResult<Void> execute() {
-            acquireLocks();
+            acquireFrom(0);
             registerCompletionHandlers();
             scheduleTimeout();
 
             return result;
         }
 
-        private void acquireLocks() {
-            try {
-                AsyncResult<Void> lockResult = AsyncResult.completedResult();
-                for (AsyncLock lock : locks.get()) {
-                    lockResult = lockResult.concatWith(() -> lockFunction.apply(lock));
+        /**
+         * Acquires the locks from the given index onwards, until either all are held or one is contended, in which
+         * case this is called again once that lock is granted. Only one call is ever in progress for an acquisition.
+         */
+        private void acquireFrom(int startIndex) {
+            for (int index = startIndex; index < locks.size(); index++) {
+                if (timedOut) {
+                    result.timeout();
+                    return;
                 }
-                this.result = lockResult;
-            } catch (Throwable t) {
-                log.error("Error while acquiring locks", t);
-                unlockAll();
-                throw Throwables.propagate(t);
+
+                AsyncResult<Void> lockResult;
+                try {
+                    lockResult = lockFunction.apply(locks.get(index));
+                } catch (Throwable t) {
+                    result.fail(t);
+                    return;
+                }
+
+                if (!lockResult.isComplete()) {
+                    int nextIndex = index + 1;
+                    lockResult.onComplete(() -> {
+                        if (completeIfUnsuccessful(lockResult)) {
+                            return;
+                        }
+                        acquireFrom(nextIndex);
+                    });
+                    if (timedOut) {
+                        // The timeout may have passed over this lock before the request was queued on it.
+                        locks.get(index).timeout(requestId);
+                    }
+                    return;
+                }
+                if (completeIfUnsuccessful(lockResult)) {
+                    return;
+                }
+            }
+            result.complete(null);
+        }
+
+        private boolean completeIfUnsuccessful(AsyncResult<Void> lockResult) {
+            if (lockResult.isTimedOut()) {
+                result.timeout();
+                return true;
+            }
+            if (lockResult.isFailed()) {
+                result.fail(lockResult.getError());
+                return true;
             }
+            return false;
         }
 
         private void registerCompletionHandlers() {
@@ -126,7 +197,7 @@ public class LockAcquirer implements AutoCloseable {
 
         private void unlockAll() {
             try {
-                for (AsyncLock lock : locks.get()) {
+                for (AsyncLock lock : locks) {
                     lock.unlock(requestId);
                 }
             } catch (Throwable t) {
@@ -139,11 +210,15 @@ public class LockAcquirer implements AutoCloseable {
                 return;
             }
 
-            timeoutExecutor.schedule(this::timeoutAll, timeout.getTimeMillis(), TimeUnit.MILLISECONDS);
+            TimingWheel.Timeout scheduledTimeout =
+                    timeouts.schedule(Duration.ofMillis(timeout.getTimeMillis()), this::timeoutAll);
+            result.onComplete(scheduledTimeout::cancel);
         }
 
         private void timeoutAll() {
-            for (AsyncLock lock : locks.get()) {
+            // Stops the acquisition moving on to further locks, should the lock it is waiting for be granted anyway.
+            timedOut = true;
+            for (AsyncLock lock : locks) {
                 lock.timeout(requestId);
             }
         }
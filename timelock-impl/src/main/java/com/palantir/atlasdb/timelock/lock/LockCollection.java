@@ -15,41 +15,102 @@
  */
 package com.palantir.atlasdb.timelock.lock;
 
-import com.github.benmanes.caffeine.cache.Caffeine;
-import com.github.benmanes.caffeine.cache.LoadingCache;
-import com.google.common.collect.Lists;
+import com.google.common.collect.Iterables;
 import com.palantir.lock.LockDescriptor;
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.List;
+import java.util.Arrays;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * The locks currently in use, by descriptor. A lock is created when a request first looks up its descriptor, and
+ * forgotten as soon as it is idle again (see {@link ExclusiveLock}), so the collection only ever holds the locks that
+ * are held, waited for, or about to be used, and frees them without relying on the garbage collector to notice.
+ *
+ * Every lock looked up for a request must then be locked, waited for, unlocked or timed out on by that request.
+ */
 public class LockCollection {
 
-    private final LoadingCache<LockDescriptor, AsyncLock> locksById;
+    private final ConcurrentMap<LockDescriptor, ExclusiveLock> locksByDescriptor = new ConcurrentHashMap<>();
+    private final AtomicLong descriptorBytes = new AtomicLong();
+
+    public OrderedLocks getAll(UUID requestId, Set<LockDescriptor> descriptors) {
+        if (descriptors.size() == 1) {
+            return OrderedLocks.fromSingleLock(getLock(requestId, Iterables.getOnlyElement(descriptors)));
+        }
+
+        LockDescriptor[] orderedDescriptors = descriptors.toArray(new LockDescriptor[0]);
+        Arrays.sort(orderedDescriptors);
 
-    public LockCollection() {
-        locksById = Caffeine.newBuilder().weakValues().build(ExclusiveLock::new);
+        AsyncLock[] locks = new AsyncLock[orderedDescriptors.length];
+        for (int i = 0; i < orderedDescriptors.length; i++) {
+            locks[i] = getLock(requestId, orderedDescriptors[i]);
+        }
+
+        return OrderedLocks.fromOrderedList(Arrays.asList(locks));
     }
 
-    public OrderedLocks getAll(Set<LockDescriptor> descriptors) {
-        List<LockDescriptor> orderedDescriptors = sort(descriptors);
+    /**
+     * Returns the locks for the given descriptors in the same global order as {@link #getAll(UUID, Set)}, taking those
+     * in {@code sharedDescriptors} in shared mode. The two sets of descriptors must be disjoint.
+     */
+    public OrderedLocks getAll(
+            UUID requestId, Set<LockDescriptor> exclusiveDescriptors, Set<LockDescriptor> sharedDescriptors) {
+        LockDescriptor[] orderedDescriptors =
+                new LockDescriptor[exclusiveDescriptors.size() + sharedDescriptors.size()];
+        int size = 0;
+        for (LockDescriptor descriptor : exclusiveDescriptors) {
+            orderedDescriptors[size++] = descriptor;
+        }
+        for (LockDescriptor descriptor : sharedDescriptors) {
+            orderedDescriptors[size++] = descriptor;
+        }
+        Arrays.sort(orderedDescriptors);
 
-        List<AsyncLock> locks = Lists.newArrayListWithExpectedSize(descriptors.size());
-        for (LockDescriptor descriptor : orderedDescriptors) {
-            locks.add(getLock(descriptor));
+        AsyncLock[] locks = new AsyncLock[orderedDescriptors.length];
+        for (int i = 0; i < orderedDescriptors.length; i++) {
+            ExclusiveLock lock = getLock(requestId, orderedDescriptors[i]);
+            locks[i] = sharedDescriptors.contains(orderedDescriptors[i]) ? new SharedLock(lock) : lock;
         }
 
-        return OrderedLocks.fromOrderedList(locks);
+        return OrderedLocks.fromOrderedList(Arrays.asList(locks));
     }
 
-    private static List<LockDescriptor> sort(Set<LockDescriptor> descriptors) {
-        List<LockDescriptor> orderedDescriptors = new ArrayList<>(descriptors);
-        orderedDescriptors.sort(Comparator.naturalOrder());
-        return orderedDescriptors;
+    /**
+     * The number of locks currently in use.
+     */
+    public int liveLocks() {
+        return locksByDescriptor.size();
     }
 
-    private AsyncLock getLock(LockDescriptor descriptor) {
-        return locksById.get(descriptor);
+    /**
+     * The total size of the descriptors of the locks currently in use.
+     */
+    public long liveLockDescriptorBytes() {
+        return descriptorBytes.get();
+    }
+
+    private ExclusiveLock getLock(UUID requestId, LockDescriptor descriptor) {
+        while (true) {
+            ExclusiveLock lock = locksByDescriptor.computeIfAbsent(descriptor, this::createLock);
+            if (lock.retain(requestId)) {
+                return lock;
+            }
+            // The lock went idle after we found it, and is about to be forgotten; make way for a fresh one.
+            forget(lock);
+        }
+    }
+
+    private ExclusiveLock createLock(LockDescriptor descriptor) {
+        descriptorBytes.addAndGet(descriptor.length());
+        return new ExclusiveLock(descriptor, this::forget);
+    }
+
+    private void forget(ExclusiveLock lock) {
+        if (locksByDescriptor.remove(lock.getDescriptor(), lock)) {
+            descriptorBytes.addAndGet(-lock.getDescriptor().length());
+        }
     }
 }
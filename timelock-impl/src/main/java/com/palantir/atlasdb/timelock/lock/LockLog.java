@@ -29,10 +29,19 @@ import java.util.Collection;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
+/**
+ * Records the blocking time of every lock request, and logs requests that are slow to acquire their locks.
+ *
+ * Unless lock diagnostics are being collected, the details of a request are only gathered into a {@link RequestInfo}
+ * once it turns out to be slow, so requests that acquire their locks straight away, which are the vast majority, are
+ * recorded without allocating anything.
+ */
 public class LockLog {
 
+    private final LoggingLockEvents loggingEvents;
     private final LockEvents events;
     private final Optional<LockDiagnosticCollector> lockDiagnosticInfoCollector;
 
@@ -40,8 +49,9 @@ public class LockLog {
         this(new LoggingLockEvents(metricRegistry, thresholdMillis));
     }
 
-    private LockLog(LockEvents events) {
-        this.events = events;
+    private LockLog(LoggingLockEvents loggingEvents) {
+        this.loggingEvents = loggingEvents;
+        this.events = loggingEvents;
         this.lockDiagnosticInfoCollector = Optional.empty();
     }
 
@@ -50,7 +60,8 @@ public class LockLog {
      * @deprecated Remove this once PDS-95791 is resolved.
      */
     @Deprecated
-    private LockLog(LockEvents loggingLockEvents, LockDiagnosticCollector lockDiagnosticInfoCollector) {
+    private LockLog(LoggingLockEvents loggingLockEvents, LockDiagnosticCollector lockDiagnosticInfoCollector) {
+        this.loggingEvents = loggingLockEvents;
         this.events = new CombinedLockEvents(ImmutableList.of(loggingLockEvents, lockDiagnosticInfoCollector));
         this.lockDiagnosticInfoCollector = Optional.of(lockDiagnosticInfoCollector);
     }
@@ -62,15 +73,15 @@ public class LockLog {
     @Deprecated
     public LockLog withLockRequestDiagnosticCollection(LockDiagnosticConfig lockDiagnosticConfig) {
         Preconditions.checkState(!lockDiagnosticInfoCollector.isPresent(), "diagnostics are already being collected");
-        return new LockLog(events, new LockDiagnosticCollector(lockDiagnosticConfig));
+        return new LockLog(loggingEvents, new LockDiagnosticCollector(lockDiagnosticConfig));
     }
 
     public void registerRequest(IdentifiedLockRequest request, AsyncResult<?> result) {
-        registerRequest(RequestInfo.of(request), result);
+        registerRequest(request, RequestInfo::of, result);
     }
 
     public void registerRequest(WaitForLocksRequest request, AsyncResult<?> result) {
-        registerRequest(RequestInfo.of(request), result);
+        registerRequest(request, RequestInfo::of, result);
     }
 
     /**
@@ -79,9 +90,42 @@ public class LockLog {
      */
     @Deprecated
     public void registerLockImmutableTimestampRequest(UUID requestId, long timestamp, AsyncResult<?> result) {
+        if (!lockDiagnosticInfoCollector.isPresent() && result.isComplete()) {
+            recordUnblockedRequest(result);
+            return;
+        }
         registerRequest(ImmutableRequestInfo.of(requestId, Long.toString(timestamp), ImmutableSet.of()), result);
     }
 
+    private <T> void registerRequest(T request, Function<T, RequestInfo> toRequestInfo, AsyncResult<?> result) {
+        if (lockDiagnosticInfoCollector.isPresent()) {
+            registerRequest(toRequestInfo.apply(request), result);
+            return;
+        }
+
+        if (result.isComplete()) {
+            recordUnblockedRequest(result);
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        result.onComplete(() -> {
+            long durationMillis = System.currentTimeMillis() - start;
+            if (loggingEvents.isSlowAcquisition(durationMillis)) {
+                requestComplete(toRequestInfo.apply(request), result, durationMillis);
+            } else if (result.isCompletedSuccessfully() || result.isTimedOut()) {
+                loggingEvents.recordBlockingTime(durationMillis);
+            }
+        });
+    }
+
+    private void recordUnblockedRequest(AsyncResult<?> result) {
+        // Requests that did not block are never slow, so their details are never needed.
+        if (result.isCompletedSuccessfully() || result.isTimedOut()) {
+            loggingEvents.recordBlockingTime(0L);
+        }
+    }
+
     private void registerRequest(RequestInfo requestInfo, AsyncResult<?> result) {
         events.registerRequest(requestInfo);
         if (result.isComplete()) {
@@ -15,6 +15,7 @@
  */
 package com.palantir.atlasdb.timelock.lock;
 
+import com.codahale.metrics.LockFreeExponentiallyDecayingReservoir;
 import com.codahale.metrics.Meter;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Timer;
@@ -24,9 +25,9 @@ import com.palantir.logsafe.SafeArg;
 import com.palantir.logsafe.UnsafeArg;
 import com.palantir.logsafe.logger.SafeLogger;
 import com.palantir.logsafe.logger.SafeLoggerFactory;
-import java.time.Duration;
 import java.util.Collection;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
 public class LoggingLockEvents implements LockEvents {
@@ -40,7 +41,9 @@ public class LoggingLockEvents implements LockEvents {
     private final Supplier<Long> thresholdMillis;
 
     LoggingLockEvents(MetricRegistry metrics, Supplier<Long> thresholdMillis) {
-        this.requestTimer = metrics.timer("lock.blocking-time");
+        // Updated for every lock request, so uses a reservoir that request threads can update without locking.
+        this.requestTimer = metrics.timer(
+                "lock.blocking-time", () -> new Timer(LockFreeExponentiallyDecayingReservoir.builder().build()));
         this.successfulSlowAcquisitionMeter = metrics.meter("lock.successful-slow-acquisition");
         this.timedOutSlowAcquisitionMeter = metrics.meter("lock.timeout-slow-acquisition");
         this.lockExpiredMeter = metrics.meter("lock.expired");
@@ -54,7 +57,7 @@ public class LoggingLockEvents implements LockEvents {
 
     @Override
     public void timedOut(RequestInfo request, long acquisitionTimeMillis) {
-        requestTimer.update(Duration.ofMillis(acquisitionTimeMillis));
+        recordBlockingTime(acquisitionTimeMillis);
         if (!isSlowAcquisition(acquisitionTimeMillis)) {
             return;
         }
@@ -70,7 +73,7 @@ public class LoggingLockEvents implements LockEvents {
 
     @Override
     public void successfulAcquisition(RequestInfo request, long acquisitionTimeMillis) {
-        requestTimer.update(Duration.ofMillis(acquisitionTimeMillis));
+        recordBlockingTime(acquisitionTimeMillis);
         if (!isSlowAcquisition(acquisitionTimeMillis)) {
             return;
         }
@@ -98,7 +101,15 @@ public class LoggingLockEvents implements LockEvents {
         // do nothing
     }
 
-    private boolean isSlowAcquisition(long acquisitionTimeMillis) {
+    /**
+     * Records how long a request blocked for, without logging it. Only for requests that are not slow, for which the
+     * details of the request are never needed.
+     */
+    void recordBlockingTime(long acquisitionTimeMillis) {
+        requestTimer.update(acquisitionTimeMillis, TimeUnit.MILLISECONDS);
+    }
+
+    boolean isSlowAcquisition(long acquisitionTimeMillis) {
         return acquisitionTimeMillis != 0 && acquisitionTimeMillis >= thresholdMillis.get();
     }
 
@@ -0,0 +1,312 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.timelock.lock;
+
+import com.codahale.metrics.Timer;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.math.IntMath;
+import com.google.common.math.LongMath;
+import com.palantir.logsafe.Preconditions;
+import com.palantir.logsafe.SafeArg;
+import com.palantir.logsafe.logger.SafeLogger;
+import com.palantir.logsafe.logger.SafeLoggerFactory;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nullable;
+
+/**
+ * A hashed timing wheel, which runs tasks after a delay at the cost of constant work per scheduled task and per tick,
+ * however many tasks are outstanding.
+ *
+ * Time is measured in ticks of {@link #tick()}, which is expected to be called at a fixed rate of one tick duration
+ * by a single thread, or by {@link #tickWhilePending(ScheduledExecutorService)}, which only ticks while tasks are
+ * outstanding, so that an idle wheel costs nothing. Tasks run on the ticking thread, and never earlier than their
+ * delay after they were scheduled, but may run up to two ticks late, or later if ticks fall behind. How far behind
+ * tasks actually run is recorded in the given timer.
+ *
+ * Any thread may schedule and cancel tasks; new tasks and cancellations are queued and only applied to the wheel by
+ * the ticking thread, so the wheel itself needs no synchronization. The queues are striped by thread, so that threads
+ * scheduling and cancelling at the same time do not all append to the tail of one queue.
+ */
+final class TimingWheel {
+    private static final SafeLogger log = SafeLoggerFactory.get(TimingWheel.class);
+    private static final int MAX_STRIPES = 64;
+
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final Timer lag;
+    private final Stripe[] stripes;
+    private final int stripeMask;
+
+    private volatile long ticks = 0;
+
+    /**
+     * Tasks that have been scheduled, and have neither run nor been removed from the wheel after being cancelled.
+     */
+    private final AtomicLong outstanding = new AtomicLong();
+
+    private final AtomicBoolean ticking = new AtomicBoolean();
+
+    @Nullable
+    private volatile ScheduledExecutorService tickExecutor;
+
+    TimingWheel(Duration tickDuration, int wheelSize, Timer lag) {
+        this(
+                tickDuration,
+                wheelSize,
+                lag,
+                Math.min(MAX_STRIPES, IntMath.ceilingPowerOfTwo(Runtime.getRuntime().availableProcessors())));
+    }
+
+    @VisibleForTesting
+    TimingWheel(Duration tickDuration, int wheelSize, Timer lag, int numStripes) {
+        Preconditions.checkArgument(
+                !tickDuration.isNegative() && !tickDuration.isZero(),
+                "Tick duration must be positive",
+                SafeArg.of("tickDuration", tickDuration));
+        Preconditions.checkArgument(
+                wheelSize > 0 && Integer.bitCount(wheelSize) == 1,
+                "Wheel size must be a power of two",
+                SafeArg.of("wheelSize", wheelSize));
+        this.tickNanos = tickDuration.toNanos();
+        this.wheel = new Bucket[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = wheelSize - 1;
+        this.lag = lag;
+
+        Preconditions.checkArgument(
+                numStripes > 0 && Integer.bitCount(numStripes) == 1,
+                "Number of stripes must be a power of two",
+                SafeArg.of("numStripes", numStripes));
+        this.stripes = new Stripe[numStripes];
+        for (int i = 0; i < numStripes; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.stripeMask = numStripes - 1;
+    }
+
+    /**
+     * Ticks the wheel on the given executor at a fixed rate of one tick duration, but only while tasks are outstanding.
+     * Ticking stops once the last task has run or been cancelled, and starts again when a task is next scheduled.
+     */
+    void tickWhilePending(ScheduledExecutorService executor) {
+        tickExecutor = executor;
+        startTickingIfNeeded();
+    }
+
+    /**
+     * Schedules the given task to run once the given delay has elapsed. The returned timeout may be used to cancel
+     * the task.
+     */
+    Timeout schedule(Duration delay, Runnable task) {
+        long delayNanos = Math.max(0, delay.toNanos());
+        // The next tick may be imminent, so one extra tick guarantees that the task never runs early.
+        long delayTicks = LongMath.divide(delayNanos, tickNanos, RoundingMode.CEILING) + 1;
+        Timeout timeout = new Timeout(task, ticks + delayTicks, System.nanoTime() + delayNanos);
+        outstanding.incrementAndGet();
+        currentStripe().scheduled.add(timeout);
+        startTickingIfNeeded();
+        return timeout;
+    }
+
+    /**
+     * Advances the wheel by one tick, and runs every task that is due. Must only be called by one thread at a time.
+     */
+    void tick() {
+        long tick = ticks + 1;
+        ticks = tick;
+        removeCancelled();
+        addScheduled(tick);
+
+        Bucket bucket = wheel[(int) (tick & mask)];
+        Timeout timeout = bucket.head;
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            if (timeout.deadlineTick <= tick) {
+                bucket.remove(timeout);
+                run(timeout);
+            }
+            timeout = next;
+        }
+    }
+
+    private void startTickingIfNeeded() {
+        ScheduledExecutorService executor = tickExecutor;
+        if (executor != null && outstanding.get() > 0 && ticking.compareAndSet(false, true)) {
+            scheduleTick(executor, System.nanoTime() + tickNanos);
+        }
+    }
+
+    private void scheduleTick(ScheduledExecutorService executor, long tickAtNanos) {
+        try {
+            executor.schedule(
+                    () -> tickAndContinue(executor, tickAtNanos),
+                    Math.max(0, tickAtNanos - System.nanoTime()),
+                    TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            log.info("Timing wheel executor has been shut down, so the wheel will no longer tick", e);
+        }
+    }
+
+    private void tickAndContinue(ScheduledExecutorService executor, long tickAtNanos) {
+        try {
+            tick();
+        } catch (Throwable t) {
+            log.warn("Error while running timing wheel tasks. Trying again on next tick.", t);
+        }
+        if (outstanding.get() > 0) {
+            scheduleTick(executor, tickAtNanos + tickNanos);
+            return;
+        }
+        ticking.set(false);
+        // A task may have been scheduled since the check above, by a thread that saw the wheel still ticking.
+        startTickingIfNeeded();
+    }
+
+    private void addScheduled(long tick) {
+        for (Stripe stripe : stripes) {
+            Timeout timeout;
+            while ((timeout = stripe.scheduled.poll()) != null) {
+                if (timeout.isCancelled) {
+                    outstanding.decrementAndGet();
+                } else if (timeout.deadlineTick <= tick) {
+                    run(timeout);
+                } else {
+                    Bucket bucket = wheel[(int) (timeout.deadlineTick & mask)];
+                    bucket.add(timeout);
+                }
+            }
+        }
+    }
+
+    private void removeCancelled() {
+        for (Stripe stripe : stripes) {
+            Timeout timeout;
+            while ((timeout = stripe.cancelled.poll()) != null) {
+                if (timeout.bucket != null) {
+                    timeout.bucket.remove(timeout);
+                    outstanding.decrementAndGet();
+                }
+            }
+        }
+    }
+
+    private Stripe currentStripe() {
+        // Threads keep their identity hash code, so a thread always uses the same stripe.
+        return stripes[Thread.currentThread().hashCode() & stripeMask];
+    }
+
+    private void run(Timeout timeout) {
+        outstanding.decrementAndGet();
+        if (timeout.isCancelled) {
+            return;
+        }
+        timeout.hasRun = true;
+        lag.update(Math.max(0, System.nanoTime() - timeout.deadlineNanos), TimeUnit.NANOSECONDS);
+        try {
+            timeout.task.run();
+        } catch (Throwable t) {
+            log.warn("Error while running a timing wheel task", t);
+        }
+    }
+
+    final class Timeout {
+        private final Runnable task;
+        private final long deadlineTick;
+        private final long deadlineNanos;
+        private volatile boolean isCancelled = false;
+        private volatile boolean hasRun = false;
+
+        // Only accessed by the ticking thread.
+        private Bucket bucket;
+        private Timeout previous;
+        private Timeout next;
+
+        private Timeout(Runnable task, long deadlineTick, long deadlineNanos) {
+            this.task = task;
+            this.deadlineTick = deadlineTick;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        /**
+         * Whether the task has neither run nor been cancelled yet.
+         */
+        boolean isPending() {
+            return !isCancelled && !hasRun;
+        }
+
+        void cancel() {
+            if (isPending()) {
+                isCancelled = true;
+                currentStripe().cancelled.add(this);
+            }
+        }
+    }
+
+    private static final class Stripe {
+        private final Queue<Timeout> scheduled = new ConcurrentLinkedQueue<>();
+        private final Queue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+    }
+
+    /**
+     * Doubly linked list of the timeouts in one slot of the wheel, so that cancelled timeouts are removed in constant
+     * time. Tasks due in later rotations of the wheel share the slot, and are skipped until their tick.
+     */
+    private static final class Bucket {
+        private Timeout head;
+        private Timeout tail;
+
+        private void add(Timeout timeout) {
+            timeout.bucket = this;
+            timeout.previous = tail;
+            if (tail == null) {
+                head = timeout;
+            } else {
+                tail.next = timeout;
+            }
+            tail = timeout;
+        }
+
+        private void remove(Timeout timeout) {
+            if (timeout.bucket != this) {
+                return;
+            }
+            if (timeout.previous == null) {
+                head = timeout.next;
+            } else {
+                timeout.previous.next = timeout.next;
+            }
+            if (timeout.next == null) {
+                tail = timeout.previous;
+            } else {
+                timeout.next.previous = timeout.previous;
+            }
+            timeout.bucket = null;
+            timeout.previous = null;
+            timeout.next = null;
+        }
+    }
+}
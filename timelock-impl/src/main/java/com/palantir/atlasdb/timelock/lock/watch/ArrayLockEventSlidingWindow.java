@@ -28,38 +28,67 @@ import com.palantir.lock.watch.UnlockEvent;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import javax.annotation.concurrent.NotThreadSafe;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import javax.annotation.concurrent.ThreadSafe;
 
-@NotThreadSafe
+/**
+ * A fixed size ring of the most recent lock watch events, which any number of threads may add to and read from
+ * without locking.
+ *
+ * Writers claim consecutive versions from a shared counter, store their event in its slot, and then publish it by
+ * advancing {@link #lastVersion()}. Events are published in version order: a writer whose predecessors are still
+ * storing their events waits for them before publishing, which takes no longer than those writers take to store a
+ * reference, so an event is visible to readers by the time {@link #add} returns. Readers only read published events,
+ * and check the version of each event they read, so that a window overwritten while it was being read is reported as
+ * too old rather than returned.
+ */
+@ThreadSafe
 public class ArrayLockEventSlidingWindow {
-    private final LockWatchEvent[] buffer;
+    private static final int SPINS_BEFORE_YIELDING = 100;
+
+    private final AtomicReferenceArray<LockWatchEvent> buffer;
     private final int maxSize;
-    private long nextSequence = 0;
+    private final AtomicLong nextSequence = new AtomicLong(0);
+    private final AtomicLong lastPublished = new AtomicLong(-1);
     private final Counter changeMetadataCounter;
     private final Counter eventsWithMetadataCounter;
 
     ArrayLockEventSlidingWindow(int maxSize, BufferMetrics bufferMetrics) {
-        this.buffer = new LockWatchEvent[maxSize];
+        this.buffer = new AtomicReferenceArray<>(maxSize);
         this.maxSize = maxSize;
         this.changeMetadataCounter = bufferMetrics.changeMetadata();
         this.eventsWithMetadataCounter = bufferMetrics.eventsWithMetadata();
     }
 
     long lastVersion() {
-        return nextSequence - 1;
+        return lastPublished.get();
     }
 
     void add(LockWatchEvent.Builder eventBuilder) {
-        LockWatchEvent event = eventBuilder.build(nextSequence);
-        int index = LongMath.mod(nextSequence, maxSize);
+        long sequence = nextSequence.getAndIncrement();
+        LockWatchEvent event = eventBuilder.build(sequence);
+        event.accept(LockWatchEventMetadataVisitor.INSTANCE).ifPresent(this::incrementMetadataCounters);
 
-        Optional.ofNullable(buffer[index])
+        // The event this overwrites must have been published, or its writer could still be about to store it.
+        awaitPublished(sequence - maxSize);
+        int index = LongMath.mod(sequence, maxSize);
+        Optional.ofNullable(buffer.getAndSet(index, event))
                 .flatMap(replacedEvent -> replacedEvent.accept(LockWatchEventMetadataVisitor.INSTANCE))
                 .ifPresent(this::decrementMetadataCounters);
-        event.accept(LockWatchEventMetadataVisitor.INSTANCE).ifPresent(this::incrementMetadataCounters);
 
-        buffer[index] = event;
-        nextSequence++;
+        awaitPublished(sequence - 1);
+        lastPublished.set(sequence);
+    }
+
+    private void awaitPublished(long sequence) {
+        for (int spins = 0; lastPublished.get() < sequence; spins++) {
+            if (spins < SPINS_BEFORE_YIELDING) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
     }
 
     private void incrementMetadataCounters(LockRequestMetadata metadata) {
@@ -72,16 +101,26 @@ public class ArrayLockEventSlidingWindow {
         eventsWithMetadataCounter.dec();
     }
 
+    /**
+     * Returns the events after the given version, up to the last published version, or empty if the given version is
+     * in the future or its successors are no longer in the window.
+     */
     public Optional<List<LockWatchEvent>> getNextEvents(long version) {
-        if (versionInTheFuture(version) || versionTooOld(version)) {
+        long lastVersion = lastVersion();
+        if (versionInTheFuture(version, lastVersion) || versionTooOld(version, lastVersion)) {
             return Optional.empty();
         }
         int startIndex = LongMath.mod(version + 1, maxSize);
-        int windowSize = Ints.saturatedCast(lastVersion() - version);
+        int windowSize = Ints.saturatedCast(lastVersion - version);
         List<LockWatchEvent> events = new ArrayList<>(windowSize);
 
         for (int i = startIndex; events.size() < windowSize; i = incrementAndMod(i)) {
-            events.add(buffer[i]);
+            LockWatchEvent event = buffer.get(i);
+            if (event.sequence() != version + 1 + events.size()) {
+                // Writers have wrapped around the window since we started reading it.
+                return Optional.empty();
+            }
+            events.add(event);
         }
 
         return Optional.of(events);
@@ -92,12 +131,12 @@ public class ArrayLockEventSlidingWindow {
         return num >= maxSize ? num % maxSize : num;
     }
 
-    private boolean versionInTheFuture(long version) {
-        return version > lastVersion();
+    private static boolean versionInTheFuture(long version, long lastVersion) {
+        return version > lastVersion;
     }
 
-    private boolean versionTooOld(long version) {
-        return lastVersion() - version > maxSize;
+    private boolean versionTooOld(long version, long lastVersion) {
+        return lastVersion - version > maxSize;
     }
 
     private enum LockWatchEventMetadataVisitor implements LockWatchEvent.Visitor<Optional<LockRequestMetadata>> {
@@ -25,6 +25,7 @@ import com.palantir.lock.v2.LockToken;
 import com.palantir.lock.watch.LockEvent;
 import com.palantir.lock.watch.LockRequestMetadata;
 import com.palantir.lock.watch.LockWatchCreatedEvent;
+import com.palantir.lock.watch.LockWatchEvent;
 import com.palantir.lock.watch.LockWatchReferences.LockWatchReference;
 import com.palantir.lock.watch.LockWatchStateUpdate;
 import com.palantir.lock.watch.LockWatchVersion;
@@ -34,14 +35,26 @@ import java.util.HashSet;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+/**
+ * Events are ordered by the versions they claim in the {@link ArrayLockEventSlidingWindow}, and diffs cover every
+ * event published before they are computed, so computing a diff takes no lock. Logging events only takes the shared
+ * side of a read/write lock, so that producers do not contend with each other, while {@link #runTask} takes the
+ * exclusive side: no event may be logged between running its task and computing its diff, or the diff would include
+ * events that happened after the task. Callers that need no events to be logged while a {@link LockWatchCreatedEvent}
+ * is computed, so that the locks it reports open are consistent with the events around it, must exclude concurrent
+ * calls to {@link #logLock} and {@link #logUnlock} themselves.
+ */
 public class LockEventLogImpl implements LockEventLog {
     private final UUID logId;
     private final ArrayLockEventSlidingWindow slidingWindow;
     private final Supplier<LockWatches> watchesSupplier;
     private final HeldLocksCollection heldLocksCollection;
+    private final ReadWriteLock taskLock = new ReentrantReadWriteLock();
 
     LockEventLogImpl(
             UUID logId,
@@ -55,34 +68,47 @@ public class LockEventLogImpl implements LockEventLog {
     }
 
     @Override
-    public synchronized LockWatchStateUpdate getLogDiff(Optional<LockWatchVersion> fromVersion) {
+    public LockWatchStateUpdate getLogDiff(Optional<LockWatchVersion> fromVersion) {
         return tryGetNextEvents(fromVersion).orElseGet(this::calculateSnapshot);
     }
 
     @Override
-    public synchronized <T> ValueAndLockWatchStateUpdate<T> runTask(
+    public <T> ValueAndLockWatchStateUpdate<T> runTask(
             Optional<LockWatchVersion> lastKnownVersion, Supplier<T> task) {
-        T t = task.get();
-        LockWatchStateUpdate logDiff = getLogDiff(lastKnownVersion);
-        return ValueAndLockWatchStateUpdate.of(logDiff, t);
+        taskLock.writeLock().lock();
+        try {
+            T t = task.get();
+            LockWatchStateUpdate logDiff = getLogDiff(lastKnownVersion);
+            return ValueAndLockWatchStateUpdate.of(logDiff, t);
+        } finally {
+            taskLock.writeLock().unlock();
+        }
     }
 
     @Override
-    public synchronized void logLock(
+    public void logLock(
             Set<LockDescriptor> locksTakenOut, LockToken lockToken, Optional<LockRequestMetadata> metadata) {
-
-        slidingWindow.add(LockEvent.builder(locksTakenOut, lockToken, metadata));
+        addEvent(LockEvent.builder(locksTakenOut, lockToken, metadata));
     }
 
     @Override
-    public synchronized void logUnlock(Set<LockDescriptor> locksUnlocked) {
-        slidingWindow.add(UnlockEvent.builder(locksUnlocked));
+    public void logUnlock(Set<LockDescriptor> locksUnlocked) {
+        addEvent(UnlockEvent.builder(locksUnlocked));
     }
 
     @Override
-    public synchronized void logLockWatchCreated(LockWatches newWatches) {
+    public void logLockWatchCreated(LockWatches newWatches) {
         Set<LockDescriptor> openLocks = calculateOpenLocks(newWatches.ranges());
-        slidingWindow.add(LockWatchCreatedEvent.builder(newWatches.references(), openLocks));
+        addEvent(LockWatchCreatedEvent.builder(newWatches.references(), openLocks));
+    }
+
+    private void addEvent(LockWatchEvent.Builder eventBuilder) {
+        taskLock.readLock().lock();
+        try {
+            slidingWindow.add(eventBuilder);
+        } finally {
+            taskLock.readLock().unlock();
+        }
     }
 
     private Optional<LockWatchStateUpdate> tryGetNextEvents(Optional<LockWatchVersion> fromVersion) {
@@ -90,9 +116,10 @@ public class LockEventLogImpl implements LockEventLog {
             return Optional.empty();
         }
 
+        long version = fromVersion.get().version();
         return slidingWindow
-                .getNextEvents(fromVersion.get().version())
-                .map(events -> LockWatchStateUpdate.success(logId, slidingWindow.lastVersion(), events));
+                .getNextEvents(version)
+                .map(events -> LockWatchStateUpdate.success(logId, version + events.size(), events));
     }
 
     @Unsafe
@@ -55,10 +55,12 @@ import java.util.stream.Collectors;
  *
  * <ol>
  *     <li>Registering locks and unlocks requires a read lock.</li>
- *     <li>Updating watches requires a write lock to swap the actual reference. This ensures that, as soon as an update
- *     is made, any registered locks and unlocks onwards will use updated ranges for filtering. This is necessary to
- *     guarantee that the log will contain any locks/unlocks of newly watched locks; see
- *     {@link LockEventLogImpl#calculateOpenLocks} for more details.</li>
+ *     <li>Updating watches requires a write lock to swap the actual reference and log the resulting
+ *     {@link com.palantir.lock.watch.LockWatchCreatedEvent}. This ensures that, as soon as an update is made, any
+ *     registered locks and unlocks onwards will use updated ranges for filtering, and are logged after the event
+ *     reporting which newly watched locks were already held. This is necessary to guarantee that the log will contain
+ *     any locks/unlocks of newly watched locks; see {@link LockEventLogImpl#calculateOpenLocks} for more details. The
+ *     lock event log itself takes no locks, so this is the only place that locks and unlocks wait.</li>
  *     <li>Updating in {@link #addToWatches(LockWatchRequest)} is synchronised to minimise the scope of holding
  *     the write lock above while still preventing concurrent updates.</li>
  *     <li>Fairness of the lock ensures that updates are eventually granted, even in the presence of constant locks and
@@ -90,7 +92,6 @@ public class LockWatchingServiceImpl implements LockWatchingService {
                 "New references watched",
                 SafeArg.of("sizeOfReferences", changedWatches.references().size()),
                 UnsafeArg.of("references", changedWatches.references())));
-        changes.ifPresent(this::logLockWatchEvent);
         Set<LockWatchReference> allReferences = watches.get().references();
         if (log.isDebugEnabled()) {
             log.debug(
@@ -132,6 +133,7 @@ public class LockWatchingServiceImpl implements LockWatchingService {
             watchesLock.writeLock().lock();
             try {
                 watches.set(updatedWatches);
+                lockEventLog.logLockWatchCreated(newWatches.get());
             } finally {
                 watchesLock.writeLock().unlock();
             }
@@ -152,10 +154,6 @@ public class LockWatchingServiceImpl implements LockWatchingService {
         return newRefs.isEmpty() ? Optional.empty() : Optional.of(ImmutableLockWatches.of(newRefs, newRanges));
     }
 
-    private void logLockWatchEvent(LockWatches newWatches) {
-        lockEventLog.logLockWatchCreated(newWatches);
-    }
-
     private void runIfDescriptorsMatchLockWatches(
             Set<LockDescriptor> unfiltered, Consumer<Set<LockDescriptor>> consumer) {
         runIfDescriptorsMatchLockWatchesWithMetadata(
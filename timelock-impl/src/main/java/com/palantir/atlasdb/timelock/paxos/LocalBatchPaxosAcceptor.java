@@ -18,16 +18,27 @@ package com.palantir.atlasdb.timelock.paxos;
 
 import static java.util.stream.Collectors.toSet;
 
+import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.collect.Lists;
 import com.google.common.collect.SetMultimap;
 import com.palantir.common.streams.KeyedStream;
 import com.palantir.paxos.BooleanPaxosResponse;
 import com.palantir.paxos.Client;
 import com.palantir.paxos.PaxosAcceptor;
+import com.palantir.paxos.PaxosAcceptorImpl.AcceptorBatch;
 import com.palantir.paxos.PaxosPromise;
 import com.palantir.paxos.PaxosProposal;
 import com.palantir.paxos.PaxosProposalId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.HttpHeaders;
 
@@ -35,23 +46,27 @@ public class LocalBatchPaxosAcceptor implements BatchPaxosAcceptor {
 
     private final AcceptorCache acceptorCache;
     private final LocalPaxosComponents paxosComponents;
+    private final BatchPaxosAcceptorMetrics metrics;
+    private final Consumer<Runnable> sharedTransactionRunner;
 
-    LocalBatchPaxosAcceptor(LocalPaxosComponents paxosComponents, AcceptorCache acceptorCache) {
+    LocalBatchPaxosAcceptor(
+            LocalPaxosComponents paxosComponents,
+            AcceptorCache acceptorCache,
+            BatchPaxosAcceptorMetrics metrics,
+            Consumer<Runnable> sharedTransactionRunner) {
         this.paxosComponents = paxosComponents;
         this.acceptorCache = acceptorCache;
+        this.metrics = metrics;
+        this.sharedTransactionRunner = sharedTransactionRunner;
     }
 
     @Override
     public SetMultimap<Client, WithSeq<PaxosPromise>> prepare(
             SetMultimap<Client, WithSeq<PaxosProposalId>> promiseWithSeqRequestsByClient) {
-        SetMultimap<Client, WithSeq<PaxosPromise>> results = KeyedStream.stream(promiseWithSeqRequestsByClient)
-                .map((client, paxosProposalIdWithSeq) -> {
-                    PaxosPromise promise = paxosComponents
-                            .acceptor(client)
-                            .prepare(paxosProposalIdWithSeq.seq(), paxosProposalIdWithSeq.value());
-                    return paxosProposalIdWithSeq.withNewValue(promise);
-                })
-                .collectToSetMultimap();
+        SetMultimap<Client, WithSeq<PaxosPromise>> results = runInBatches(
+                promiseWithSeqRequestsByClient,
+                (batch, paxosProposalIdWithSeq) -> paxosProposalIdWithSeq.withNewValue(
+                        batch.prepare(paxosProposalIdWithSeq.seq(), paxosProposalIdWithSeq.value())));
         primeCache(promiseWithSeqRequestsByClient.keySet());
         return results;
     }
@@ -59,13 +74,11 @@ public class LocalBatchPaxosAcceptor implements BatchPaxosAcceptor {
     @Override
     public SetMultimap<Client, WithSeq<BooleanPaxosResponse>> accept(
             SetMultimap<Client, PaxosProposal> proposalRequestsByClient) {
-        SetMultimap<Client, WithSeq<BooleanPaxosResponse>> results = KeyedStream.stream(proposalRequestsByClient)
-                .map((client, paxosProposal) -> {
+        SetMultimap<Client, WithSeq<BooleanPaxosResponse>> results =
+                runInBatches(proposalRequestsByClient, (batch, paxosProposal) -> {
                     long seq = paxosProposal.getValue().getRound();
-                    BooleanPaxosResponse ack = paxosComponents.acceptor(client).accept(seq, paxosProposal);
-                    return WithSeq.of(ack, seq);
-                })
-                .collectToSetMultimap();
+                    return WithSeq.of(batch.accept(seq, paxosProposal), seq);
+                });
         primeCache(proposalRequestsByClient.keySet());
         return results;
     }
@@ -98,6 +111,52 @@ public class LocalBatchPaxosAcceptor implements BatchPaxosAcceptor {
                 .build();
     }
 
+    /**
+     * Runs the requests of each client against its acceptor as one batch, and then persists the rounds that the
+     * batches of all clients changed in one shared transaction. Nothing is returned until every batch is persisted.
+     */
+    private <R, T> SetMultimap<Client, T> runInBatches(
+            SetMultimap<Client, R> requestsByClient, BiFunction<AcceptorBatch, R, T> operation) {
+        ImmutableSetMultimap.Builder<Client, T> results = ImmutableSetMultimap.builder();
+        // Sorted by client, so that concurrent requests lock the rounds of the batches in the same order.
+        Map<Client, AcceptorBatch> batches = new TreeMap<>(Comparator.comparing(Client::value));
+        for (Map.Entry<Client, Collection<R>> requests : requestsByClient.asMap().entrySet()) {
+            AcceptorBatch batch = paxosComponents.acceptor(requests.getKey()).startBatch();
+            for (R request : requests.getValue()) {
+                results.put(requests.getKey(), operation.apply(batch, request));
+            }
+            batches.put(requests.getKey(), batch);
+        }
+        persist(batches.values());
+        return results.build();
+    }
+
+    private void persist(Collection<AcceptorBatch> batches) {
+        int rounds = batches.stream().mapToInt(AcceptorBatch::size).sum();
+        if (rounds == 0) {
+            return;
+        }
+        metrics.roundsPerWrite().update(rounds);
+        metrics.writeLatency().time(() -> persistInSharedTransaction(batches));
+    }
+
+    /**
+     * Locks the rounds of every batch before starting the transaction, so that the transaction never waits for a
+     * request that holds the lock of a round while waiting for the database itself.
+     */
+    private void persistInSharedTransaction(Collection<AcceptorBatch> batches) {
+        List<AcceptorBatch> lockedBatches = new ArrayList<>();
+        try {
+            for (AcceptorBatch batch : batches) {
+                batch.lockRounds();
+                lockedBatches.add(batch);
+            }
+            sharedTransactionRunner.accept(() -> batches.forEach(AcceptorBatch::persist));
+        } finally {
+            Lists.reverse(lockedBatches).forEach(AcceptorBatch::unlockRounds);
+        }
+    }
+
     private void primeCache(Set<Client> clients) {
         Set<WithSeq<Client>> latestSequences = KeyedStream.of(clients)
                 .map(paxosComponents::acceptor)
@@ -40,6 +40,7 @@ import com.palantir.paxos.PaxosLearnerImpl;
 import com.palantir.paxos.PaxosStorageParameters;
 import com.palantir.paxos.PaxosValue;
 import com.palantir.paxos.SplittingPaxosStateLog;
+import com.palantir.paxos.SqlitePaxosStateLog;
 import com.palantir.sls.versions.OrderableSlsVersion;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -158,7 +159,7 @@ public class LocalPaxosComponents {
                 SafeArg.of("duration", Duration.between(startInstant, Instant.now())));
     }
 
-    public PaxosAcceptor acceptor(Client client) {
+    public PaxosAcceptorImpl acceptor(Client client) {
         return getOrCreateComponents(client).acceptor();
     }
 
@@ -201,7 +202,7 @@ public class LocalPaxosComponents {
         PaxosLearner learner = PaxosLearnerImpl.newSplittingLearner(
                 getLearnerParameters(client), createMetrics(PaxosLearner.class), PaxosKnowledgeEventRecorder.NO_OP);
 
-        PaxosAcceptor acceptor = PaxosAcceptorImpl.newSplittingAcceptor(
+        PaxosAcceptorImpl acceptor = PaxosAcceptorImpl.newSplittingAcceptor(
                 getAcceptorParameters(client),
                 createMetrics(PaxosAcceptor.class),
                 learner.getGreatestLearnedValue().map(PaxosValue::getRound));
@@ -267,7 +268,13 @@ public class LocalPaxosComponents {
 
     private BatchPaxosAcceptor createBatchAcceptor() {
         AcceptorCache acceptorCache = metrics.instrument(AcceptorCache.class, new AcceptorCacheImpl());
-        return metrics.instrument(BatchPaxosAcceptor.class, new LocalBatchPaxosAcceptor(this, acceptorCache));
+        return metrics.instrument(
+                BatchPaxosAcceptor.class,
+                new LocalBatchPaxosAcceptor(
+                        this,
+                        acceptorCache,
+                        BatchPaxosAcceptorMetrics.of(metrics.metrics()),
+                        SqlitePaxosStateLog.sharedTransactionRunner(sqliteDataSource)));
     }
 
     private BatchPaxosLearner createBatchLearner() {
@@ -280,7 +287,7 @@ public class LocalPaxosComponents {
 
     @Value.Immutable
     interface Components {
-        PaxosAcceptor acceptor();
+        PaxosAcceptorImpl acceptor();
 
         PaxosLearner learner();
 
@@ -21,6 +21,9 @@ import static org.assertj.core.api.Assertions.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -59,6 +62,7 @@ import com.palantir.timestamp.TimestampRange;
 import com.palantir.tokens.auth.AuthHeader;
 import java.net.URL;
 import java.time.Duration;
+import java.util.HashSet;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ExecutionException;
@@ -193,6 +197,58 @@ public class ConjureTimelockResourceTest {
         verify(timelockService).refreshLockLeases(eq(ImmutableSet.of(LockToken.of(tokenThree))));
     }
 
+    @Test
+    public void echoesRequestedTokensIfAllAreRefreshed() {
+        Set<ConjureLockTokenV2> request = ImmutableSet.of(
+                ConjureLockTokenV2.of(UUID.randomUUID()), ConjureLockTokenV2.of(UUID.randomUUID()));
+        Lease lease =
+                Lease.of(LeaderTime.of(LeadershipId.random(), NanoTime.createForTests(1234L)), Duration.ofDays(2000));
+        Set<LockToken> refreshedTokens = spy(new HashSet<LockToken>());
+        RefreshLockResponseV2 refreshResponse = mock(RefreshLockResponseV2.class);
+        when(refreshResponse.refreshedTokens()).thenReturn(refreshedTokens);
+        when(refreshResponse.getLease()).thenReturn(lease);
+        when(timelockService.refreshLockLeases(any())).thenAnswer(invocation -> {
+            refreshedTokens.addAll(invocation.getArgument(0));
+            return Futures.immediateFuture(refreshResponse);
+        });
+
+        ConjureRefreshLocksResponseV2 response = Futures.getUnchecked(
+                resource.refreshLocksV2(AUTH_HEADER, NAMESPACE, ConjureRefreshLocksRequestV2.of(request)));
+
+        assertThat(response.getRefreshedTokens()).isEqualTo(request);
+        verify(refreshedTokens, never()).iterator();
+    }
+
+    @Test
+    public void echoesRequestedTokensIfAllAreUnlocked() {
+        Set<ConjureLockToken> request =
+                ImmutableSet.of(ConjureLockToken.of(UUID.randomUUID()), ConjureLockToken.of(UUID.randomUUID()));
+        Set<LockToken> unlockedTokens = spy(new HashSet<LockToken>());
+        when(timelockService.unlock(any())).thenAnswer(invocation -> {
+            unlockedTokens.addAll(invocation.getArgument(0));
+            return Futures.immediateFuture(unlockedTokens);
+        });
+
+        ConjureUnlockResponse response =
+                Futures.getUnchecked(resource.unlock(AUTH_HEADER, NAMESPACE, ConjureUnlockRequest.of(request)));
+
+        assertThat(response.getTokens()).isEqualTo(request);
+        verify(unlockedTokens, never()).iterator();
+    }
+
+    @Test
+    public void convertsUnlockedTokensIfTheyDifferFromTheRequestedTokens() {
+        UUID requested = UUID.randomUUID();
+        UUID unlocked = UUID.randomUUID();
+        when(timelockService.unlock(any()))
+                .thenReturn(Futures.immediateFuture(ImmutableSet.of(LockToken.of(unlocked))));
+
+        ConjureUnlockResponseV2 response = Futures.getUnchecked(resource.unlockV2(
+                AUTH_HEADER, NAMESPACE, ConjureUnlockRequestV2.of(ImmutableSet.of(ConjureLockTokenV2.of(requested)))));
+
+        assertThat(response.get()).containsExactly(ConjureLockTokenV2.of(unlocked));
+    }
+
     @Test
     public void jerseyPropagatesExceptions() {
         when(resource.leaderTime(AUTH_HEADER, NAMESPACE)).thenThrow(new BlockingTimeoutException(""));
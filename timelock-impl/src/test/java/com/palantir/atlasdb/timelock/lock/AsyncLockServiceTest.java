@@ -36,7 +36,8 @@ public class AsyncLockServiceTest {
                 new LockLog(metricsManager.getRegistry(), () -> 1L),
                 reaperExecutor,
                 timeoutExecutor,
-                BufferMetrics.of(metricsManager.getTaggedRegistry()));
+                BufferMetrics.of(metricsManager.getTaggedRegistry()),
+                AsyncLockMetrics.of(metricsManager.getTaggedRegistry()));
 
         asyncLockService.close();
         assertThat(reaperExecutor.isShutdown()).isTrue();
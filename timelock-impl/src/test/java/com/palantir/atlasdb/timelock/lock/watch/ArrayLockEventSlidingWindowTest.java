@@ -34,6 +34,11 @@ import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.LongStream;
@@ -156,6 +161,45 @@ public class ArrayLockEventSlidingWindowTest {
         assertThat(bufferMetrics.eventsWithMetadata().getCount()).isEqualTo(WINDOW_SIZE - 1);
     }
 
+    @Test
+    public void concurrentWritersPublishEveryVersionOnceAndInOrder() throws InterruptedException {
+        int writers = 8;
+        int eventsPerWriter = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(writers + 1);
+        AtomicBoolean readerFailed = new AtomicBoolean(false);
+        CountDownLatch writersDone = new CountDownLatch(writers);
+        try {
+            for (int i = 0; i < writers; i++) {
+                executor.execute(() -> {
+                    addEvents(eventsPerWriter);
+                    writersDone.countDown();
+                });
+            }
+            executor.execute(() -> {
+                while (writersDone.getCount() > 0) {
+                    long version = Math.max(-1, slidingWindow.lastVersion() - WINDOW_SIZE / 2);
+                    slidingWindow.getNextEvents(version).ifPresent(events -> {
+                        for (int j = 0; j < events.size(); j++) {
+                            if (events.get(j).sequence() != version + 1 + j) {
+                                readerFailed.set(true);
+                            }
+                        }
+                    });
+                }
+            });
+            assertThat(writersDone.await(30, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            executor.shutdown();
+            assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        }
+
+        assertThat(readerFailed).isFalse();
+        long lastVersion = (long) writers * eventsPerWriter - 1;
+        assertThat(slidingWindow.lastVersion()).isEqualTo(lastVersion);
+        assertContainsNextEventsInOrder(
+                lastVersion - WINDOW_SIZE, (int) lastVersion - WINDOW_SIZE + 1, (int) lastVersion);
+    }
+
     private void whenLogContainsEvents0To4() {
         // Log contains events [0,1,2,3,4]
         addEvents(5);
@@ -23,6 +23,7 @@ import static org.mockito.Mockito.when;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.RangeSet;
 import com.google.common.collect.TreeRangeSet;
+import com.google.common.util.concurrent.Uninterruptibles;
 import com.palantir.atlasdb.encoding.PtBytes;
 import com.palantir.atlasdb.keyvalue.api.TableReference;
 import com.palantir.atlasdb.keyvalue.api.watch.LockWatchReferenceUtils;
@@ -45,6 +46,10 @@ import com.palantir.lock.watch.UnlockEvent;
 import java.util.Arrays;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import org.junit.Before;
@@ -177,6 +182,32 @@ public class LockEventLogImplTest {
         assertThat(snapshot.lockWatches()).containsExactly(entireTable);
     }
 
+    @Test
+    public void unlockLoggedWhileTaskRunsIsNotIncludedInItsDiff() throws InterruptedException {
+        ImmutableSet<LockDescriptor> locks = ImmutableSet.of(DESCRIPTOR);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        CountDownLatch unlockLogged = new CountDownLatch(1);
+        try {
+            ValueAndLockWatchStateUpdate<Boolean> result = log.runTask(NEGATIVE_VERSION_CURRENT_LOG_ID, () -> {
+                executor.execute(() -> {
+                    log.logUnlock(locks);
+                    unlockLogged.countDown();
+                });
+                return Uninterruptibles.awaitUninterruptibly(unlockLogged, 500, TimeUnit.MILLISECONDS);
+            });
+
+            assertThat(result.value()).isFalse();
+            assertThat(UpdateVisitors.assertSuccess(result.lockWatchStateUpdate()).events()).isEmpty();
+
+            assertThat(unlockLogged.await(10, TimeUnit.SECONDS)).isTrue();
+            LockWatchStateUpdate update = log.getLogDiff(NEGATIVE_VERSION_CURRENT_LOG_ID);
+            assertThat(UpdateVisitors.assertSuccess(update).events())
+                    .containsExactly(UnlockEvent.builder(locks).build(0L));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     private LockWatches createWatchesFor(LockWatchReference... references) {
         return ImmutableLockWatches.of(
                 Arrays.stream(references).collect(Collectors.toSet()),
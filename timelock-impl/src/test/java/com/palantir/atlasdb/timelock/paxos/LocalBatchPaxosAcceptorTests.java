@@ -17,6 +17,10 @@
 package com.palantir.atlasdb.timelock.paxos;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -25,10 +29,15 @@ import com.google.common.collect.ImmutableSetMultimap;
 import com.google.common.collect.SetMultimap;
 import com.palantir.paxos.BooleanPaxosResponse;
 import com.palantir.paxos.Client;
+import com.palantir.paxos.PaxosAcceptorImpl.AcceptorBatch;
 import com.palantir.paxos.PaxosPromise;
 import com.palantir.paxos.PaxosProposal;
 import com.palantir.paxos.PaxosProposalId;
 import com.palantir.paxos.PaxosValue;
+import com.palantir.tritium.metrics.registry.DefaultTaggedMetricRegistry;
+import com.palantir.tritium.metrics.registry.TaggedMetricRegistry;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.Random;
 import java.util.UUID;
@@ -36,6 +45,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Answers;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
@@ -54,18 +64,23 @@ public class LocalBatchPaxosAcceptorTests {
     @Mock
     private AcceptorCache cache;
 
+    private final TaggedMetricRegistry metrics = new DefaultTaggedMetricRegistry();
+    private final List<Runnable> sharedTransactions = new ArrayList<>();
     private LocalBatchPaxosAcceptor resource;
 
     @Before
     public void before() {
-        resource = new LocalBatchPaxosAcceptor(components, cache);
+        resource = new LocalBatchPaxosAcceptor(components, cache, BatchPaxosAcceptorMetrics.of(metrics), writes -> {
+            sharedTransactions.add(writes);
+            writes.run();
+        });
     }
 
     @Test
     public void weProxyPrepareRequests() {
-        when(components.acceptor(CLIENT_1).prepare(1, PROPOSAL_ID_1)).thenReturn(promise(PROPOSAL_ID_1));
-        when(components.acceptor(CLIENT_2).prepare(1, PROPOSAL_ID_1)).thenReturn(promise(PROPOSAL_ID_1));
-        when(components.acceptor(CLIENT_2).prepare(2, PROPOSAL_ID_2)).thenReturn(promise(PROPOSAL_ID_2));
+        when(components.acceptor(CLIENT_1).startBatch().prepare(1, PROPOSAL_ID_1)).thenReturn(promise(PROPOSAL_ID_1));
+        when(components.acceptor(CLIENT_2).startBatch().prepare(1, PROPOSAL_ID_1)).thenReturn(promise(PROPOSAL_ID_1));
+        when(components.acceptor(CLIENT_2).startBatch().prepare(2, PROPOSAL_ID_2)).thenReturn(promise(PROPOSAL_ID_2));
 
         when(components.acceptor(CLIENT_1).getLatestSequencePreparedOrAccepted())
                 .thenReturn(1L);
@@ -94,9 +109,9 @@ public class LocalBatchPaxosAcceptorTests {
         PaxosProposal proposal1 = proposal(PROPOSAL_ID_1, 1);
         PaxosProposal proposal2 = proposal(PROPOSAL_ID_2, 2);
 
-        when(components.acceptor(CLIENT_1).accept(1, proposal1)).thenReturn(success());
-        when(components.acceptor(CLIENT_2).accept(1, proposal1)).thenReturn(success());
-        when(components.acceptor(CLIENT_2).accept(2, proposal2)).thenReturn(success());
+        when(components.acceptor(CLIENT_1).startBatch().accept(1, proposal1)).thenReturn(success());
+        when(components.acceptor(CLIENT_2).startBatch().accept(1, proposal1)).thenReturn(success());
+        when(components.acceptor(CLIENT_2).startBatch().accept(2, proposal2)).thenReturn(success());
 
         when(components.acceptor(CLIENT_1).getLatestSequencePreparedOrAccepted())
                 .thenReturn(1L);
@@ -121,6 +136,66 @@ public class LocalBatchPaxosAcceptorTests {
         verify(cache).updateSequenceNumbers(ImmutableSet.of(WithSeq.of(CLIENT_1, 1), WithSeq.of(CLIENT_2, 2)));
     }
 
+    @Test
+    public void persistsTheRoundsOfEachClientInOneWriteBeforeResponding() {
+        PaxosProposal proposal1 = proposal(PROPOSAL_ID_1, 1);
+        PaxosProposal proposal2 = proposal(PROPOSAL_ID_2, 2);
+        AcceptorBatch batch = components.acceptor(CLIENT_1).startBatch();
+        when(batch.accept(anyLong(), any())).thenReturn(success());
+        when(batch.size()).thenReturn(2);
+
+        resource.accept(ImmutableSetMultimap.of(CLIENT_1, proposal1, CLIENT_1, proposal2));
+
+        InOrder inOrder = inOrder(batch);
+        inOrder.verify(batch).accept(1, proposal1);
+        inOrder.verify(batch).accept(2, proposal2);
+        inOrder.verify(batch).lockRounds();
+        inOrder.verify(batch).persist();
+        inOrder.verify(batch).unlockRounds();
+        inOrder.verifyNoMoreInteractions();
+
+        BatchPaxosAcceptorMetrics acceptorMetrics = BatchPaxosAcceptorMetrics.of(metrics);
+        assertThat(acceptorMetrics.roundsPerWrite().getSnapshot().getValues()).containsExactly(2L);
+        assertThat(acceptorMetrics.writeLatency().getCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void persistsTheRoundsOfAllClientsInOneSharedTransaction() {
+        PaxosProposal proposal1 = proposal(PROPOSAL_ID_1, 1);
+        AcceptorBatch firstBatch = components.acceptor(CLIENT_1).startBatch();
+        AcceptorBatch secondBatch = components.acceptor(CLIENT_2).startBatch();
+        when(firstBatch.accept(anyLong(), any())).thenReturn(success());
+        when(secondBatch.accept(anyLong(), any())).thenReturn(success());
+        when(firstBatch.size()).thenReturn(1);
+        when(secondBatch.size()).thenReturn(1);
+
+        resource.accept(ImmutableSetMultimap.of(CLIENT_2, proposal1, CLIENT_1, proposal1));
+
+        assertThat(sharedTransactions).hasSize(1);
+        InOrder inOrder = inOrder(firstBatch, secondBatch);
+        inOrder.verify(firstBatch).lockRounds();
+        inOrder.verify(secondBatch).lockRounds();
+        inOrder.verify(firstBatch).persist();
+        inOrder.verify(secondBatch).persist();
+        inOrder.verify(secondBatch).unlockRounds();
+        inOrder.verify(firstBatch).unlockRounds();
+        assertThat(BatchPaxosAcceptorMetrics.of(metrics).roundsPerWrite().getSnapshot().getValues())
+                .containsExactly(2L);
+    }
+
+    @Test
+    public void doesNotWriteIfNoRoundChanged() {
+        PaxosProposal proposal1 = proposal(PROPOSAL_ID_1, 1);
+        AcceptorBatch batch = components.acceptor(CLIENT_1).startBatch();
+        when(batch.accept(1, proposal1)).thenReturn(new BooleanPaxosResponse(false));
+
+        resource.accept(ImmutableSetMultimap.of(CLIENT_1, proposal1));
+
+        verify(batch, never()).persist();
+        assertThat(sharedTransactions).isEmpty();
+        assertThat(BatchPaxosAcceptorMetrics.of(metrics).writeLatency().getCount()).isZero();
+    }
+
     @Test
     public void cachedEndpointDelegatesToCache() throws InvalidAcceptorCacheKeyException {
         AcceptorCacheKey cacheKey = AcceptorCacheKey.newCacheKey();
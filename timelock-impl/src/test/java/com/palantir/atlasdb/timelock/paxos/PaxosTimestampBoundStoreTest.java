@@ -21,6 +21,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -48,7 +49,9 @@ import com.palantir.paxos.PaxosRoundFailureException;
 import com.palantir.paxos.SingleLeaderAcceptorNetworkClient;
 import com.palantir.paxos.SingleLeaderLearnerNetworkClient;
 import com.palantir.paxos.SqliteConnections;
+import com.palantir.paxos.SqlitePaxosStateLog;
 import com.palantir.sls.versions.OrderableSlsVersion;
+import com.palantir.tritium.metrics.registry.DefaultTaggedMetricRegistry;
 import java.io.IOException;
 import java.nio.file.Paths;
 import java.util.ArrayList;
@@ -58,6 +61,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import javax.annotation.Nullable;
+import javax.sql.DataSource;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
@@ -111,11 +115,13 @@ public class PaxosTimestampBoundStoreTest {
 
         for (int i = 0; i < NUM_NODES; i++) {
             String root = temporaryFolder.getRoot().getAbsolutePath();
+            DataSource sqliteDataSource =
+                    SqliteConnections.getDefaultConfiguredPooledDataSource(Paths.get(root, i + "sqlite"));
             LocalPaxosComponents components = LocalPaxosComponents.createWithAsyncMigration(
                     TimelockPaxosMetrics.of(PaxosUseCase.TIMESTAMP, MetricsManagers.createForTests()),
                     PaxosUseCase.TIMESTAMP,
                     Paths.get(root, i + "legacy"),
-                    SqliteConnections.getDefaultConfiguredPooledDataSource(Paths.get(root, i + "sqlite")),
+                    sqliteDataSource,
                     UUID.randomUUID(),
                     true,
                     OrderableSlsVersion.valueOf("0.0.0"),
@@ -130,7 +136,11 @@ public class PaxosTimestampBoundStoreTest {
             acceptors.add(ToggleableExceptionProxy.newProxyInstance(
                     PaxosAcceptor.class, components.acceptor(CLIENT), failureController, EXCEPTION));
 
-            BatchPaxosAcceptor batchAcceptor = new LocalBatchPaxosAcceptor(components, new AcceptorCacheImpl());
+            BatchPaxosAcceptor batchAcceptor = new LocalBatchPaxosAcceptor(
+                    components,
+                    new AcceptorCacheImpl(),
+                    BatchPaxosAcceptorMetrics.of(new DefaultTaggedMetricRegistry()),
+                    SqlitePaxosStateLog.sharedTransactionRunner(sqliteDataSource));
             batchPaxosAcceptors.add(ToggleableExceptionProxy.newProxyInstance(
                     BatchPaxosAcceptor.class, batchAcceptor, failureController, EXCEPTION));
 
@@ -369,6 +379,35 @@ public class PaxosTimestampBoundStoreTest {
         verify(wrapper, times(2)).propose(anyLong(), any(byte[].class));
     }
 
+    @Test
+    public void skipsThePreparePhaseWhenPreparedAhead() {
+        acceptorClient = spy(acceptorClient);
+        store = createPaxosTimestampBoundStore(0, createPreparingAheadProposer(0));
+        store.getUpperLimit();
+
+        store.storeUpperLimit(TIMESTAMP_1);
+        store.storeUpperLimit(TIMESTAMP_2);
+        store.storeUpperLimit(TIMESTAMP_3);
+
+        assertThat(store.getUpperLimit()).isGreaterThanOrEqualTo(TIMESTAMP_3);
+        verify(acceptorClient, times(1)).prepare(eq(1L), any());
+        verify(acceptorClient, times(1)).prepare(eq(2L), any());
+    }
+
+    @Test
+    public void throwsNotCurrentLeaderExceptionIfPreparedAheadRoundWasSuperseded() {
+        store = createPaxosTimestampBoundStore(0, createPreparingAheadProposer(0));
+        store.getUpperLimit();
+        store.storeUpperLimit(TIMESTAMP_1);
+
+        PaxosTimestampBoundStore additionalStore = createPaxosTimestampBoundStore(1);
+        assertThat(additionalStore.getUpperLimit()).isGreaterThanOrEqualTo(TIMESTAMP_1);
+        additionalStore.storeUpperLimit(TIMESTAMP_2);
+
+        assertThatThrownBy(() -> store.storeUpperLimit(TIMESTAMP_3)).isInstanceOf(NotCurrentLeaderException.class);
+        assertThat(additionalStore.getUpperLimit()).isGreaterThanOrEqualTo(TIMESTAMP_2);
+    }
+
     private PaxosTimestampBoundStore createPaxosTimestampBoundStore(int nodeIndex) {
         PaxosProposer proposer = createPaxosProposer(nodeIndex);
         return createPaxosTimestampBoundStore(nodeIndex, proposer);
@@ -383,6 +422,11 @@ public class PaxosTimestampBoundStoreTest {
         return PaxosProposerImpl.newProposer(acceptorClient, learnerClientsByNode.get(nodeIndex), UUID.randomUUID());
     }
 
+    private PaxosProposer createPreparingAheadProposer(int nodeIndex) {
+        return PaxosProposerImpl.newPreparingAheadProposer(
+                acceptorClient, learnerClientsByNode.get(nodeIndex), UUID.randomUUID(), executor, () -> true);
+    }
+
     private static class OnceFailingPaxosProposer implements PaxosProposer {
         private final PaxosProposer delegate;
         private boolean hasFailed = false;
@@ -0,0 +1,207 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.timelock.lock;
+
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.palantir.atlasdb.timelock.api.LockWatchRequest;
+import com.palantir.atlasdb.timelock.lockwatches.BufferMetrics;
+import com.palantir.common.concurrent.PTExecutors;
+import com.palantir.lock.AtlasRowLockDescriptor;
+import com.palantir.lock.LockDescriptor;
+import com.palantir.lock.v2.LockToken;
+import com.palantir.lock.v2.RefreshLockResponseV2;
+import com.palantir.lock.watch.LockWatchReferences;
+import com.palantir.lock.watch.LockWatchStateUpdate;
+import com.palantir.lock.watch.LockWatchVersion;
+import com.palantir.tritium.metrics.registry.DefaultTaggedMetricRegistry;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Drives an {@link AsyncLockService} directly, with no network or leadership in the way.
+ *
+ * Each request locks {@link #descriptorsPerRequest} row locks, a {@link #watchedFraction} of which are in a watched
+ * table. Without contention, every thread locks rows of its own; with contention, all threads lock the same rows, so
+ * that each request waits for the previous holder. Another {@link #heldLocks} requests hold a lock each throughout, and
+ * are refreshed before every iteration so that none expire, to show how the service scales with the locks it holds.
+ */
+@Measurement(iterations = 5, time = 2)
+@Warmup(iterations = 3, time = 1)
+@Fork(value = 1)
+@Threads(4)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class AsyncLockServiceBenchmark {
+    private static final String WATCHED_TABLE = "benchmark.watched";
+    private static final String UNWATCHED_TABLE = "benchmark.unwatched";
+    private static final TimeLimit TIMEOUT = TimeLimit.of(TimeUnit.MINUTES.toMillis(1));
+    private static final int WATCH_EVENTS_BEHIND = 100;
+    private static final int REFRESH_BATCH_SIZE = 10_000;
+
+    @Param({"1", "100", "10000"})
+    public int descriptorsPerRequest;
+
+    @Param({"false", "true"})
+    public boolean contended;
+
+    @Param({"0.0", "0.1", "1.0"})
+    public double watchedFraction;
+
+    @Param({"0", "1000000"})
+    public int heldLocks;
+
+    private final AtomicInteger threadIds = new AtomicInteger();
+    private final AtomicLong timestamps = new AtomicLong();
+    private AsyncLockService lockService;
+    private Set<LockDescriptor> sharedDescriptors;
+    private LockWatchVersion watchVersionBehind;
+    private List<LockToken> heldTokens;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        lockService = AsyncLockService.createDefault(
+                new LockLog(new MetricRegistry(), () -> Long.MAX_VALUE),
+                PTExecutors.newSingleThreadScheduledExecutor(),
+                PTExecutors.newSingleThreadScheduledExecutor(),
+                BufferMetrics.of(new DefaultTaggedMetricRegistry()),
+                AsyncLockMetrics.of(new DefaultTaggedMetricRegistry()));
+        lockService
+                .getLockWatchingService()
+                .startWatching(LockWatchRequest.of(ImmutableSet.of(LockWatchReferences.entireTable(WATCHED_TABLE))));
+        sharedDescriptors = descriptors("shared");
+
+        LockWatchStateUpdate.Snapshot snapshot = (LockWatchStateUpdate.Snapshot)
+                lockService.getLockWatchingService().getWatchStateUpdate(Optional.empty());
+        watchVersionBehind = LockWatchVersion.of(snapshot.logId(), snapshot.lastKnownVersion());
+        Set<LockDescriptor> watchedDescriptors = descriptors("events");
+        for (int i = 0; i < WATCH_EVENTS_BEHIND; i++) {
+            lockService.unlock(await(lockService.lock(UUID.randomUUID(), watchedDescriptors, TIMEOUT)));
+        }
+
+        heldTokens = new ArrayList<>(heldLocks);
+        for (int i = 0; i < heldLocks; i++) {
+            LockDescriptor descriptor =
+                    AtlasRowLockDescriptor.of(UNWATCHED_TABLE, ("held-" + i).getBytes(StandardCharsets.UTF_8));
+            heldTokens.add(await(lockService.lock(UUID.randomUUID(), ImmutableSet.of(descriptor), TIMEOUT)));
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void refreshHeldLocks() {
+        for (List<LockToken> tokens : Lists.partition(heldTokens, REFRESH_BATCH_SIZE)) {
+            lockService.refresh(ImmutableSet.copyOf(tokens));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        lockService.close();
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        private Set<LockDescriptor> descriptors;
+        private LockToken heldToken;
+
+        @Setup(Level.Trial)
+        public void setUp(AsyncLockServiceBenchmark benchmark) {
+            String prefix = "thread-" + benchmark.threadIds.getAndIncrement();
+            descriptors = benchmark.contended ? benchmark.sharedDescriptors : benchmark.descriptors(prefix);
+            heldToken = await(
+                    benchmark.lockService.lock(UUID.randomUUID(), benchmark.descriptors(prefix + "-held"), TIMEOUT));
+        }
+    }
+
+    @Benchmark
+    public boolean lockAndUnlock(ThreadState state) {
+        LockToken token = await(lockService.lock(UUID.randomUUID(), state.descriptors, TIMEOUT));
+        return lockService.unlock(token);
+    }
+
+    @Benchmark
+    public RefreshLockResponseV2 refresh(ThreadState state) {
+        return lockService.refresh(ImmutableSet.of(state.heldToken));
+    }
+
+    @Benchmark
+    public boolean lockImmutableTimestampAndUnlock() {
+        AsyncResult<Leased<LockToken>> result =
+                lockService.lockImmutableTimestamp(UUID.randomUUID(), timestamps.incrementAndGet());
+        return lockService.unlock(await(result));
+    }
+
+    @Benchmark
+    public boolean waitForLocks(ThreadState state) {
+        AsyncResult<Void> result = lockService.waitForLocks(UUID.randomUUID(), state.descriptors, TIMEOUT);
+        awaitCompletion(result);
+        return result.isCompletedSuccessfully();
+    }
+
+    @Benchmark
+    public LockWatchStateUpdate getWatchStateUpdate() {
+        return lockService.getLockWatchingService().getWatchStateUpdate(Optional.of(watchVersionBehind));
+    }
+
+    @Benchmark
+    public LockWatchStateUpdate getWatchStateSnapshot() {
+        return lockService.getLockWatchingService().getWatchStateUpdate(Optional.empty());
+    }
+
+    private Set<LockDescriptor> descriptors(String prefix) {
+        int watched = (int) Math.round(descriptorsPerRequest * watchedFraction);
+        ImmutableSet.Builder<LockDescriptor> descriptors = ImmutableSet.builderWithExpectedSize(descriptorsPerRequest);
+        for (int i = 0; i < descriptorsPerRequest; i++) {
+            String table = i < watched ? WATCHED_TABLE : UNWATCHED_TABLE;
+            descriptors.add(AtlasRowLockDescriptor.of(table, (prefix + "-" + i).getBytes(StandardCharsets.UTF_8)));
+        }
+        return descriptors.build();
+    }
+
+    private static LockToken await(AsyncResult<Leased<LockToken>> result) {
+        awaitCompletion(result);
+        return result.get().value();
+    }
+
+    private static void awaitCompletion(AsyncResult<?> result) {
+        while (!result.isComplete()) {
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.timelock.lock;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Starts and finishes transactions against an {@link ImmutableTimestampTracker} from many threads, while another
+ * thread repeatedly reads the immutable timestamp, as TimeLock does when serving it alongside transaction starts.
+ * Each thread keeps {@link #openPerThread} timestamps locked, finishing its oldest as it starts a new one.
+ */
+@Measurement(iterations = 5, time = 2)
+@Warmup(iterations = 3, time = 1)
+@Fork(value = 1)
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ImmutableTimestampTrackerBenchmark {
+    @Param({"1", "64"})
+    public int openPerThread;
+
+    private final ImmutableTimestampTracker tracker = new ImmutableTimestampTracker();
+    private final AtomicLong timestamps = new AtomicLong();
+
+    @State(Scope.Thread)
+    public static class OpenTransactions {
+        private long[] timestamps;
+        private UUID[] requestIds;
+        private int oldest;
+
+        @Setup
+        public void setUp(ImmutableTimestampTrackerBenchmark benchmark) {
+            timestamps = new long[benchmark.openPerThread];
+            requestIds = new UUID[benchmark.openPerThread];
+            for (int i = 0; i < benchmark.openPerThread; i++) {
+                timestamps[i] = benchmark.timestamps.incrementAndGet();
+                requestIds[i] = UUID.randomUUID();
+                benchmark.tracker.lock(timestamps[i], requestIds[i]);
+            }
+        }
+    }
+
+    @Benchmark
+    @Group("tracker")
+    @GroupThreads(7)
+    public long startAndFinishTransaction(OpenTransactions open) {
+        int index = open.oldest;
+        tracker.unlock(open.timestamps[index], open.requestIds[index]);
+
+        long timestamp = timestamps.incrementAndGet();
+        open.timestamps[index] = timestamp;
+        tracker.lock(timestamp, open.requestIds[index]);
+        open.oldest = (index + 1) % open.timestamps.length;
+        return timestamp;
+    }
+
+    @Benchmark
+    @Group("tracker")
+    @GroupThreads(1)
+    public Optional<Long> getImmutableTimestamp() {
+        return tracker.getImmutableTimestamp();
+    }
+}
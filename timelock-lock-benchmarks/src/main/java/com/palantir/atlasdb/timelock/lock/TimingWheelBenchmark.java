@@ -0,0 +1,77 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.timelock.lock;
+
+import com.codahale.metrics.Timer;
+import com.palantir.common.concurrent.PTExecutors;
+import java.time.Duration;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Schedules and cancels tasks on a ticking {@link TimingWheel} from many threads, as every lock request does with its
+ * lease expiry check and every blocked lock request does with its timeout. A single stripe is the unstriped wheel.
+ */
+@Measurement(iterations = 5, time = 2)
+@Warmup(iterations = 3, time = 1)
+@Fork(value = 1)
+@Threads(8)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TimingWheelBenchmark {
+    private static final Duration DELAY = Duration.ofSeconds(20);
+    private static final Runnable TASK = () -> {};
+
+    @Param({"1", "8", "64"})
+    public int stripes;
+
+    private ScheduledExecutorService tickExecutor;
+    private TimingWheel wheel;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        tickExecutor = PTExecutors.newSingleThreadScheduledExecutor();
+        wheel = new TimingWheel(Duration.ofMillis(10), 1024, new Timer(), stripes);
+        wheel.tickWhilePending(tickExecutor);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        tickExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public TimingWheel.Timeout scheduleAndCancel() {
+        TimingWheel.Timeout timeout = wheel.schedule(DELAY, TASK);
+        timeout.cancel();
+        return timeout;
+    }
+}
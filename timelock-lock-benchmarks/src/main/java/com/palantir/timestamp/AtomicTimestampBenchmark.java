@@ -0,0 +1,60 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.timestamp;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares handing out timestamps from {@link AtomicTimestamp} with the compare-and-set loop it used before, with
+ * every thread incrementing the same counter.
+ */
+@Measurement(iterations = 5, time = 2)
+@Warmup(iterations = 3, time = 1)
+@Fork(value = 1)
+@Threads(Threads.MAX)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class AtomicTimestampBenchmark {
+    @Param({"1", "100"})
+    public long timestampsPerRequest;
+
+    private final AtomicTimestamp timestamp = new AtomicTimestamp(0);
+    private final AtomicLong compareAndSetTimestamp = new AtomicLong();
+
+    @Benchmark
+    public TimestampRange fetchAndAdd() {
+        return timestamp.incrementBy(timestampsPerRequest);
+    }
+
+    @Benchmark
+    public TimestampRange compareAndSet() {
+        long upperBound = compareAndSetTimestamp.updateAndGet(current -> Math.addExact(current, timestampsPerRequest));
+        return TimestampRange.createInclusiveRange(upperBound - timestampsPerRequest + 1L, upperBound);
+    }
+}
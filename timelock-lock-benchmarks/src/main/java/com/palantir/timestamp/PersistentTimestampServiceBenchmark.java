@@ -0,0 +1,105 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.timestamp;
+
+import com.palantir.common.concurrent.PTExecutors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Samples the latency of {@link PersistentTimestampService#getFreshTimestamps(int)} against a bound store that takes
+ * {@link #storeLatencyMillis} to persist a new upper limit, as a paxos round or database write would.
+ *
+ * Many threads requesting large batches at once exhaust the buffer in bursts; compare the tail latencies with and
+ * without {@link #proactiveExtension} of the upper limit.
+ */
+@Measurement(iterations = 5, time = 2)
+@Warmup(iterations = 3, time = 1)
+@Fork(value = 1)
+@Threads(16)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PersistentTimestampServiceBenchmark {
+    private static final double EXTENSION_THRESHOLD = 0.5;
+
+    @Param({"1", "1000", "10000"})
+    public int timestampsPerRequest;
+
+    @Param({"1", "10"})
+    public long storeLatencyMillis;
+
+    @Param({"false", "true"})
+    public boolean proactiveExtension;
+
+    private ExecutorService extender;
+    private PersistentTimestampService timestampService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        extender = PTExecutors.newCachedThreadPool("persistent-timestamp-benchmark-extender");
+        TimestampBoundStore store = new SlowBoundStore(TimeUnit.MILLISECONDS.toNanos(storeLatencyMillis));
+        PersistentUpperLimit upperLimit = proactiveExtension
+                ? PersistentUpperLimit.createWithProactiveExtension(store, extender, EXTENSION_THRESHOLD)
+                : new PersistentUpperLimit(store);
+        timestampService = new PersistentTimestampServiceImpl(new PersistentTimestamp(upperLimit, upperLimit.get()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        extender.shutdownNow();
+    }
+
+    @Benchmark
+    public TimestampRange getFreshTimestamps() {
+        return timestampService.getFreshTimestamps(timestampsPerRequest);
+    }
+
+    private static final class SlowBoundStore implements TimestampBoundStore {
+        private final long storeLatencyNanos;
+        private volatile long upperLimit = 0;
+
+        private SlowBoundStore(long storeLatencyNanos) {
+            this.storeLatencyNanos = storeLatencyNanos;
+        }
+
+        @Override
+        public long getUpperLimit() {
+            return upperLimit;
+        }
+
+        @Override
+        public void storeUpperLimit(long limit) {
+            LockSupport.parkNanos(storeLatencyNanos);
+            upperLimit = limit;
+        }
+    }
+}
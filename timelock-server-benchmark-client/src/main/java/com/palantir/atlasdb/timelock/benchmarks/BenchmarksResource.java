@@ -23,6 +23,7 @@ import com.palantir.atlasdb.timelock.benchmarks.benchmarks.KvsReadBenchmark;
 import com.palantir.atlasdb.timelock.benchmarks.benchmarks.KvsWriteBenchmark;
 import com.palantir.atlasdb.timelock.benchmarks.benchmarks.LockAndUnlockContendedBenchmark;
 import com.palantir.atlasdb.timelock.benchmarks.benchmarks.LockAndUnlockUncontendedBenchmark;
+import com.palantir.atlasdb.timelock.benchmarks.benchmarks.LockAndUnlockWatchedBenchmark;
 import com.palantir.atlasdb.timelock.benchmarks.benchmarks.RangeScanDynamicColumnsBenchmark;
 import com.palantir.atlasdb.timelock.benchmarks.benchmarks.RangeScanRowsBenchmark;
 import com.palantir.atlasdb.timelock.benchmarks.benchmarks.TimestampBenchmark;
@@ -82,6 +83,11 @@ public class BenchmarksResource implements BenchmarksService {
         return LockAndUnlockContendedBenchmark.execute(txnManager, numClients, numRequestsPerClient, numDistinctLocks);
     }
 
+    @Override
+    public Map<String, Object> lockAndUnlockWatched(int numClients, int numRequestsPerClient, int numDistinctLocks) {
+        return LockAndUnlockWatchedBenchmark.execute(txnManager, numClients, numRequestsPerClient, numDistinctLocks);
+    }
+
     @Override
     public Map<String, Object> transactionReadRows(
             int numClients, int numRequestsPerClient, int numRows, int dataSize) {
@@ -61,6 +61,13 @@ public interface BenchmarksService {
             @QueryParam("numRequestsPerClient") int numRequestsPerClient,
             @QueryParam("numDistinctLocks") int numDistinctLocks);
 
+    @GET
+    @Path("/lock-unlock-watched")
+    Map<String, Object> lockAndUnlockWatched(
+            @QueryParam("numClients") int numClients,
+            @QueryParam("numRequestsPerClient") int numRequestsPerClient,
+            @QueryParam("numDistinctLocks") int numDistinctLocks);
+
     @GET
     @Path("/read-txn-rows")
     Map<String, Object> transactionReadRows(
@@ -0,0 +1,92 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.timelock.benchmarks.benchmarks;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.palantir.atlasdb.timelock.benchmarks.schema.BenchmarksSchema;
+import com.palantir.atlasdb.transaction.api.TransactionManager;
+import com.palantir.lock.AtlasRowLockDescriptor;
+import com.palantir.lock.LockDescriptor;
+import com.palantir.lock.v2.LockRequest;
+import com.palantir.lock.v2.LockToken;
+import com.palantir.lock.v2.TimelockService;
+import com.palantir.lock.watch.LockWatchReferences;
+import com.palantir.logsafe.Preconditions;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Locks and unlocks rows of a watched table from many clients at once, so that every call appends to the lock watch
+ * event log concurrently, and starts a read-only transaction after each call, so that the log is read as it is being
+ * written.
+ */
+public final class LockAndUnlockWatchedBenchmark extends AbstractBenchmark {
+    private static final int ACQUIRE_TIMEOUT_MS = 50_000;
+
+    private final TransactionManager txnManager;
+    private final TimelockService timelock;
+    private final List<LockDescriptor> lockDescriptors;
+    private final AtomicLong counter = new AtomicLong(0);
+
+    public static Map<String, Object> execute(
+            TransactionManager txnManager, int numClients, int requestsPerClient, int numDistinctLocks) {
+        txnManager
+                .getLockWatchManager()
+                .registerPreciselyWatches(ImmutableSet.of(
+                        LockWatchReferences.entireTable(BenchmarksSchema.BLOBS_TABLE_REF.getQualifiedName())));
+        return new LockAndUnlockWatchedBenchmark(txnManager, numClients, requestsPerClient, numDistinctLocks)
+                .execute();
+    }
+
+    private LockAndUnlockWatchedBenchmark(
+            TransactionManager txnManager, int numClients, int numRequestsPerClient, int numDistinctLocks) {
+        super(numClients, numRequestsPerClient);
+        this.txnManager = txnManager;
+        this.timelock = txnManager.getTimelockService();
+
+        List<LockDescriptor> descriptors = Lists.newArrayListWithExpectedSize(numDistinctLocks);
+        for (int i = 0; i < numDistinctLocks; i++) {
+            descriptors.add(AtlasRowLockDescriptor.of(
+                    BenchmarksSchema.BLOBS_TABLE_REF.getQualifiedName(),
+                    UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8)));
+        }
+        lockDescriptors = ImmutableList.copyOf(descriptors);
+    }
+
+    @Override
+    protected void performOneCall() {
+        LockToken token = timelock.lock(nextRequest()).getToken();
+        boolean wasUnlocked = timelock.unlock(ImmutableSet.of(token)).contains(token);
+        Preconditions.checkState(wasUnlocked, "unlock returned false");
+        txnManager.runTaskReadOnly(txn -> txn.getTimestamp());
+    }
+
+    @Override
+    protected Map<String, Object> getExtraParameters() {
+        return ImmutableMap.of("numDistinctLocks", lockDescriptors.size());
+    }
+
+    private LockRequest nextRequest() {
+        LockDescriptor lockDescriptor = lockDescriptors.get((int) (counter.incrementAndGet() % lockDescriptors.size()));
+        return LockRequest.of(ImmutableSet.of(lockDescriptor), ACQUIRE_TIMEOUT_MS);
+    }
+}
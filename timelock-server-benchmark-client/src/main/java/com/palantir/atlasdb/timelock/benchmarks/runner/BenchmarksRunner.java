@@ -38,6 +38,11 @@ public class BenchmarksRunner extends BenchmarkRunnerBase {
         runAndPrintResults(() -> client.lockAndUnlockContended(8, 1000, 2));
     }
 
+    @Test
+    public void lockAndUnlockWatched() {
+        runAndPrintResults(() -> client.lockAndUnlockWatched(16, 1000, 64));
+    }
+
     @Test
     public void writeTransactionRows() {
         runAndPrintResults(() -> client.transactionWriteRows(1, 20, 1000, 200));
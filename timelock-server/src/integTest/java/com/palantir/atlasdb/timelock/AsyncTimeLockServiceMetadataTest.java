@@ -30,6 +30,7 @@ import com.palantir.atlasdb.timelock.api.ConjureIdentifiedVersion;
 import com.palantir.atlasdb.timelock.api.ConjureStartTransactionsRequest;
 import com.palantir.atlasdb.timelock.api.ConjureStartTransactionsResponse;
 import com.palantir.atlasdb.timelock.api.LockWatchRequest;
+import com.palantir.atlasdb.timelock.lock.AsyncLockMetrics;
 import com.palantir.atlasdb.timelock.lock.AsyncLockService;
 import com.palantir.atlasdb.timelock.lock.LockLog;
 import com.palantir.atlasdb.timelock.lockwatches.BufferMetrics;
@@ -78,7 +79,8 @@ public class AsyncTimeLockServiceMetadataTest {
             lockLog,
             scheduledExecutorService,
             scheduledExecutorService,
-            BufferMetrics.of(metricsManager.getTaggedRegistry()));
+            BufferMetrics.of(metricsManager.getTaggedRegistry()),
+            AsyncLockMetrics.of(metricsManager.getTaggedRegistry()));
     private final AsyncTimelockServiceImpl timeLockService =
             new AsyncTimelockServiceImpl(asyncLockService, new InMemoryTimestampService(), lockLog, requestMetrics);
     private final ConjureStartTransactionsRequest startTransactionsRequestWithInitialVersion =
@@ -48,7 +48,7 @@ public class AsyncLockServiceTest {
 
     private static final String LOCK_A = "a";
     private static final String LOCK_B = "b";
-    private static final long REAPER_PERIOD_MS = LockLeaseContract.SERVER_LEASE_TIMEOUT.toMillis() / 2;
+    private static final long REAPER_PERIOD_MS = HeldLocksCollection.REAPER_TICK.toMillis();
 
     private static final TimeLimit DEADLINE = TimeLimit.of(123L);
 
@@ -75,7 +75,7 @@ public class AsyncLockServiceTest {
         when(acquirer.acquireLocks(any(), any(), any())).thenReturn(new AsyncResult<>());
         when(acquirer.acquireLocks(any(), any(), any(), any())).thenReturn(new AsyncResult<>());
         when(acquirer.waitForLocks(any(), any(), any())).thenReturn(new AsyncResult<>());
-        when(locks.getAll(any())).thenReturn(OrderedLocks.fromSingleLock(newLock()));
+        when(locks.getAll(any(), any())).thenReturn(OrderedLocks.fromSingleLock(newLock()));
         when(immutableTimestampTracker.getImmutableTimestamp()).thenReturn(Optional.empty());
         when(immutableTimestampTracker.getLockFor(anyLong())).thenReturn(newLock());
     }
@@ -84,7 +84,7 @@ public class AsyncLockServiceTest {
     public void passesOrderedLocksToAcquirer() {
         OrderedLocks expected = orderedLocks(newLock(), newLock());
         Set<LockDescriptor> descriptors = descriptors(LOCK_A, LOCK_B);
-        when(locks.getAll(descriptors)).thenReturn(expected);
+        when(locks.getAll(REQUEST_ID, descriptors)).thenReturn(expected);
 
         lockService.lock(REQUEST_ID, descriptors, DEADLINE);
 
@@ -95,7 +95,7 @@ public class AsyncLockServiceTest {
     public void passesOrderedLocksToAcquirerWhenWaitingForLocks() {
         OrderedLocks expected = orderedLocks(newLock(), newLock());
         Set<LockDescriptor> descriptors = descriptors(LOCK_A, LOCK_B);
-        when(locks.getAll(descriptors)).thenReturn(expected);
+        when(locks.getAll(REQUEST_ID, descriptors)).thenReturn(expected);
 
         lockService.waitForLocks(REQUEST_ID, descriptors, DEADLINE);
 
@@ -140,16 +140,16 @@ public class AsyncLockServiceTest {
         triggerNextReaperIteration();
         triggerNextReaperIteration();
 
-        verify(heldLocks, times(3)).removeExpired();
+        verify(heldLocks, times(3)).reapExpired();
     }
 
     @Test
     public void reaperDoesNotDieIfItEncountersAnException() {
-        doThrow(new RuntimeException("test")).when(heldLocks).removeExpired();
+        doThrow(new RuntimeException("test")).when(heldLocks).reapExpired();
         triggerNextReaperIteration();
         triggerNextReaperIteration();
 
-        verify(heldLocks, times(2)).removeExpired();
+        verify(heldLocks, times(2)).reapExpired();
     }
 
     @Test
@@ -176,6 +176,6 @@ public class AsyncLockServiceTest {
     }
 
     private void triggerNextReaperIteration() {
-        reaperExecutor.tick(REAPER_PERIOD_MS - 1, TimeUnit.MILLISECONDS);
+        reaperExecutor.tick(REAPER_PERIOD_MS, TimeUnit.MILLISECONDS);
     }
 }
@@ -32,6 +32,7 @@ public class ExclusiveLockTests {
     private static final LockDescriptor LOCK_DESCRIPTOR = StringLockDescriptor.of("foo");
 
     private final ExclusiveLock lock = new ExclusiveLock(LOCK_DESCRIPTOR);
+    private final SharedLock sharedLock = new SharedLock(lock);
 
     @Test
     public void canLockAndUnlock() {
@@ -219,6 +220,107 @@ public class ExclusiveLockTests {
         assertThat(request2.isCompletedSuccessfully()).isTrue();
     }
 
+    @Test
+    public void sharedLockCanBeHeldByManyRequests() {
+        lockSharedSynchronously(REQUEST_1);
+        lockSharedSynchronously(REQUEST_2);
+
+        assertThat(lock.getSharedHolders()).containsExactlyInAnyOrder(REQUEST_1, REQUEST_2);
+    }
+
+    @Test
+    public void sharedLockWaitsForExclusiveHolder() {
+        lockSynchronously(REQUEST_1);
+        AsyncResult<Void> request2 = sharedLock.lock(REQUEST_2);
+        AsyncResult<Void> request3 = sharedLock.lock(REQUEST_3);
+
+        assertThat(request2.isComplete()).isFalse();
+        unlock(REQUEST_1);
+
+        assertThat(request2.isCompletedSuccessfully()).isTrue();
+        assertThat(request3.isCompletedSuccessfully()).isTrue();
+    }
+
+    @Test
+    public void exclusiveLockWaitsForAllSharedHolders() {
+        lockSharedSynchronously(REQUEST_1);
+        lockSharedSynchronously(REQUEST_2);
+        AsyncResult<Void> request3 = lockAsync(REQUEST_3);
+
+        sharedLock.unlock(REQUEST_1);
+        assertThat(request3.isComplete()).isFalse();
+
+        sharedLock.unlock(REQUEST_2);
+        assertThat(request3.isCompletedSuccessfully()).isTrue();
+        assertThat(lock.getCurrentHolder()).isEqualTo(REQUEST_3);
+    }
+
+    @Test
+    public void sharedRequestsDoNotOvertakeQueuedExclusiveRequest() {
+        lockSharedSynchronously(REQUEST_1);
+        AsyncResult<Void> request2 = lockAsync(REQUEST_2);
+        AsyncResult<Void> request3 = sharedLock.lock(REQUEST_3);
+
+        assertThat(request3.isComplete()).isFalse();
+
+        sharedLock.unlock(REQUEST_1);
+        assertThat(request2.isCompletedSuccessfully()).isTrue();
+        assertThat(request3.isComplete()).isFalse();
+
+        unlock(REQUEST_2);
+        assertThat(request3.isCompletedSuccessfully()).isTrue();
+    }
+
+    @Test
+    public void exclusiveUnlockDoesNotReleaseSharedHold() {
+        lockSharedSynchronously(REQUEST_1);
+
+        unlock(REQUEST_1);
+
+        assertThat(lock.getSharedHolders()).containsExactly(REQUEST_1);
+    }
+
+    @Test
+    public void waitUntilAvailableForSharedOnlyWaitsForExclusiveHolder() {
+        lockSharedSynchronously(REQUEST_1);
+        sharedLock.waitUntilAvailable(REQUEST_2).get();
+
+        sharedLock.unlock(REQUEST_1);
+        lockSynchronously(REQUEST_3);
+        AsyncResult<Void> request2 = sharedLock.waitUntilAvailable(REQUEST_2);
+        assertThat(request2.isComplete()).isFalse();
+
+        unlock(REQUEST_3);
+        assertThat(request2.isCompletedSuccessfully()).isTrue();
+        assertThat(lock.getSharedHolders()).isEmpty();
+    }
+
+    @Test
+    public void timedOutSharedRequestDoesNotGetTheLock() {
+        lockSynchronously(REQUEST_1);
+        AsyncResult<Void> request2 = sharedLock.lock(REQUEST_2);
+
+        sharedLock.timeout(REQUEST_2);
+        unlock(REQUEST_1);
+
+        assertThat(request2.isTimedOut()).isTrue();
+        assertThat(lock.getSharedHolders()).isEmpty();
+    }
+
+    @Test
+    public void sharedRequestQueuedBehindTimedOutExclusiveRequestIsGranted() {
+        lockSharedSynchronously(REQUEST_1);
+        AsyncResult<Void> request2 = lockAsync(REQUEST_2);
+        AsyncResult<Void> request3 = sharedLock.lock(REQUEST_3);
+        assertThat(request3.isComplete()).isFalse();
+
+        lock.timeout(REQUEST_2);
+
+        assertThat(request2.isTimedOut()).isTrue();
+        assertThat(request3.isCompletedSuccessfully()).isTrue();
+        assertThat(lock.getSharedHolders()).containsExactlyInAnyOrder(REQUEST_1, REQUEST_3);
+    }
+
     private AsyncResult<Void> waitUntilAvailableAsync(UUID request) {
         return lock.waitUntilAvailable(request);
     }
@@ -227,6 +329,10 @@ public class ExclusiveLockTests {
         waitUntilAvailableAsync(requestId).get();
     }
 
+    private void lockSharedSynchronously(UUID requestId) {
+        sharedLock.lock(requestId).get();
+    }
+
     private void lockSynchronously(UUID requestId) {
         lock.lock(requestId).get();
     }
@@ -16,7 +16,9 @@
 package com.palantir.atlasdb.timelock.lock;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
@@ -103,6 +105,55 @@ public class HeldLocksCollectionTest {
         assertThat(heldLocksCollection.heldLocksById).isEmpty();
     }
 
+    @Test
+    public void reaperRemovesFailedAndTimedOutRequestsOnNextTick() {
+        mockFailedRequest();
+        mockTimedOutRequest();
+
+        heldLocksCollection.reapExpired();
+
+        assertThat(heldLocksCollection.heldLocksById).isEmpty();
+    }
+
+    @Test
+    public void reaperOnlyChecksRequestsOnceTheirLeaseIsDue() {
+        mockExpiredRequest();
+
+        reapFor(LockLeaseContract.SERVER_LEASE_TIMEOUT);
+        assertThat(heldLocksCollection.heldLocksById).hasSize(1);
+
+        heldLocksCollection.reapExpired();
+        assertThat(heldLocksCollection.heldLocksById).isEmpty();
+    }
+
+    @Test
+    public void reaperChecksRefreshedRequestsAgainWhenTheirLeaseIsNextDue() {
+        HeldLocks heldLocks = mock(HeldLocks.class);
+        when(heldLocks.timeUntilExpiry()).thenReturn(HeldLocksCollection.REAPER_TICK);
+        when(heldLocks.lastRefreshTime()).thenReturn(time.get());
+        AsyncResult<HeldLocks> result = new AsyncResult<>();
+        result.complete(heldLocks);
+        heldLocksCollection.getExistingOrAcquire(REQUEST_ID, () -> result);
+
+        reapFor(LockLeaseContract.SERVER_LEASE_TIMEOUT.plus(HeldLocksCollection.REAPER_TICK));
+        verify(heldLocks).unlockIfExpired();
+
+        when(heldLocks.unlockIfExpired()).thenReturn(true);
+        reapFor(HeldLocksCollection.REAPER_TICK.multipliedBy(2));
+        assertThat(heldLocksCollection.heldLocksById).isEmpty();
+    }
+
+    @Test
+    public void reaperDoesNotCheckUnlockedRequests() {
+        LockToken token = mockRefreshableRequest();
+        HeldLocks heldLocks = heldLocksCollection.heldLocksById.get(token.getRequestId()).get();
+        heldLocksCollection.unlock(ImmutableSet.of(token));
+
+        reapFor(LockLeaseContract.SERVER_LEASE_TIMEOUT.plus(HeldLocksCollection.REAPER_TICK));
+
+        verify(heldLocks, never()).unlockIfExpired();
+    }
+
     @Test
     public void refreshReturnsSubsetOfUnlockedLocks() {
         LockToken unlockableRequest = mockRefreshableRequest();
@@ -233,6 +284,24 @@ public class HeldLocksCollectionTest {
         assertThat(refreshResult.lease().leaderTime().currentTime()).isLessThan(minRefreshTime);
     }
 
+    @Test
+    public void refreshReadsLeaderClockOnlyTwicePerBatch() {
+        Set<LockToken> tokens =
+                ImmutableSet.of(lockSync(REQUEST_ID), lockSync(REQUEST_ID_2), lockSync(UUID.randomUUID()));
+        long clockReads = atomicLong.get();
+
+        heldLocksCollection.refresh(tokens);
+
+        assertThat(atomicLong.get() - clockReads).isEqualTo(2);
+    }
+
+    @Test
+    public void refreshReturnsRequestedTokensIfAllAreRefreshed() {
+        Set<LockToken> tokens = ImmutableSet.of(mockRefreshableRequest(), mockRefreshableRequest());
+
+        assertThat(heldLocksCollection.refresh(tokens).value()).isEqualTo(tokens);
+    }
+
     @Test
     public void emptyRefreshResponse() {
         LockToken t1 = LockToken.of(UUID.randomUUID());
@@ -252,6 +321,12 @@ public class HeldLocksCollectionTest {
         assertThat(heldLocksCollection.heldLocksById).isEmpty();
     }
 
+    private void reapFor(Duration duration) {
+        for (long i = 0; i < duration.dividedBy(HeldLocksCollection.REAPER_TICK); i++) {
+            heldLocksCollection.reapExpired();
+        }
+    }
+
     private LockToken lockSync(UUID requestId) {
         AsyncResult<HeldLocks> result = new AsyncResult<>();
         AsyncResult<Leased<LockToken>> acquireResult =
@@ -301,14 +376,14 @@ public class HeldLocksCollectionTest {
     private LockToken mockRefreshableRequest() {
         return mockHeldLocksForNewRequest(heldLocks -> {
             when(heldLocks.unlockExplicitly()).thenReturn(true);
-            when(heldLocks.refresh()).thenReturn(true);
+            when(heldLocks.refresh(any())).thenReturn(true);
         });
     }
 
     private LockToken mockNonRefreshableRequest() {
         return mockHeldLocksForNewRequest(heldLocks -> {
             when(heldLocks.unlockExplicitly()).thenReturn(false);
-            when(heldLocks.refresh()).thenReturn(false);
+            when(heldLocks.refresh(any())).thenReturn(false);
         });
     }
 
@@ -18,7 +18,18 @@ package com.palantir.atlasdb.timelock.lock;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.TreeSet;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 import org.junit.Test;
 
 public class ImmutableTimestampTrackerTest {
@@ -78,6 +89,69 @@ public class ImmutableTimestampTrackerTest {
         assertThatThrownBy(() -> unlock(TIMESTAMP_1, REQUEST_1)).isInstanceOf(IllegalStateException.class);
     }
 
+    @Test
+    public void canRelockTimestampUnlockedOutOfOrder() {
+        lock(TIMESTAMP_1, REQUEST_1);
+        lock(TIMESTAMP_2, REQUEST_1);
+        lock(3L, REQUEST_1);
+
+        unlock(TIMESTAMP_2, REQUEST_1);
+        lock(TIMESTAMP_2, REQUEST_2);
+        unlock(TIMESTAMP_1, REQUEST_1);
+
+        assertThat(tracker.getImmutableTimestamp()).contains(TIMESTAMP_2);
+        assertThatThrownBy(() -> unlock(TIMESTAMP_2, REQUEST_1)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void tracksMinimumOfTimestampsLockedAndUnlockedInAnyOrder() {
+        ImmutableTimestampTracker stripedTracker = new ImmutableTimestampTracker(4);
+        Random random = new Random(0);
+        List<Long> timestamps =
+                LongStream.range(0, 1_000).map(i -> i * 16).boxed().collect(Collectors.toList());
+        TreeSet<Long> locked = new TreeSet<>();
+
+        Collections.shuffle(timestamps, random);
+        for (long timestamp : timestamps) {
+            stripedTracker.lock(timestamp, REQUEST_1);
+            locked.add(timestamp);
+            assertThat(stripedTracker.getImmutableTimestamp()).contains(locked.first());
+        }
+
+        Collections.shuffle(timestamps, random);
+        for (long timestamp : timestamps) {
+            stripedTracker.unlock(timestamp, REQUEST_1);
+            locked.remove(timestamp);
+            assertThat(stripedTracker.getImmutableTimestamp())
+                    .isEqualTo(locked.isEmpty() ? Optional.empty() : Optional.of(locked.first()));
+        }
+    }
+
+    @Test
+    public void immutableTimestampNeverExceedsTimestampsLockedByConcurrentCallers() throws InterruptedException {
+        int numThreads = 4;
+        AtomicLong violations = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        for (int thread = 0; thread < numThreads; thread++) {
+            long firstTimestamp = thread;
+            executor.execute(() -> {
+                for (long timestamp = firstTimestamp; timestamp < 400_000; timestamp += numThreads) {
+                    UUID requestId = UUID.randomUUID();
+                    tracker.lock(timestamp, requestId);
+                    if (tracker.getImmutableTimestamp().orElseThrow() > timestamp) {
+                        violations.incrementAndGet();
+                    }
+                    tracker.unlock(timestamp, requestId);
+                }
+            });
+        }
+        executor.shutdown();
+
+        assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        assertThat(violations).hasValue(0);
+        assertThat(tracker.getImmutableTimestamp()).isEmpty();
+    }
+
     private AsyncResult<Void> lock(long timestamp, UUID requestId) {
         return tracker.getLockFor(timestamp).lock(requestId);
     }
@@ -60,6 +60,17 @@ public class LeaseExpirationTimerTest {
         assertThat(timer.isExpired()).isFalse();
     }
 
+    @Test
+    public void refreshAsOfEarlierTimeDoesNotShortenLease() {
+        setTime(START_TIME_NANOS + leaseDuration().toNanos());
+        timer.refresh();
+
+        timer.refresh(NanoTime.createForTests(START_TIME_NANOS));
+        setTime(START_TIME_NANOS + leaseDuration().toNanos() + 1L);
+
+        assertThat(timer.isExpired()).isFalse();
+    }
+
     private void setTime(long nanos) {
         currentTimeNanos = nanos;
     }
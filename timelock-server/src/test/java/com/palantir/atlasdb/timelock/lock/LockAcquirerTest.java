@@ -89,6 +89,37 @@ public class LockAcquirerTest {
         assertThat(acquisitions.isCompletedSuccessfully()).isTrue();
     }
 
+    @Test
+    public void onlyWaitsOnContendedLocksAndResumesInOrder() {
+        lockB.lock(OTHER_REQUEST_ID);
+
+        AsyncResult<HeldLocks> acquisitions = acquire(lockA, lockB, lockC);
+
+        assertThat(lockA.getCurrentHolder()).isEqualTo(REQUEST_ID);
+        verify(lockC, never()).lock(any());
+        assertThat(acquisitions.isComplete()).isFalse();
+
+        lockB.unlock(OTHER_REQUEST_ID);
+
+        assertThat(lockB.getCurrentHolder()).isEqualTo(REQUEST_ID);
+        assertThat(lockC.getCurrentHolder()).isEqualTo(REQUEST_ID);
+        assertThat(acquisitions.isCompletedSuccessfully()).isTrue();
+    }
+
+    @Test(timeout = 10_000)
+    public void doesNotStackOverflowIfManyLocksAreContended() {
+        List<ExclusiveLock> locks = IntStream.range(0, 10_000)
+                .mapToObj(i -> new ExclusiveLock(LOCK_DESCRIPTOR))
+                .collect(Collectors.toList());
+        locks.forEach(lock -> lock.lock(OTHER_REQUEST_ID));
+
+        AsyncResult<HeldLocks> acquisitions = acquire(ImmutableList.<AsyncLock>copyOf(locks));
+        locks.forEach(lock -> lock.unlock(OTHER_REQUEST_ID));
+
+        assertThat(acquisitions.isCompletedSuccessfully()).isTrue();
+        assertThat(locks).allSatisfy(lock -> assertThat(lock.getCurrentHolder()).isEqualTo(REQUEST_ID));
+    }
+
     @Test(timeout = 10_000)
     public void doesNotStackOverflowIfLocksAreAcquiredSynchronously() {
         List<AsyncLock> locks = IntStream.range(0, 10_000)
@@ -188,7 +219,7 @@ public class LockAcquirerTest {
         acquire(lockB);
         AsyncResult<?> result = acquire(lockA, lockB, lockC);
 
-        executor.tick(TIMEOUT.getTimeMillis() + 1L, TimeUnit.MILLISECONDS);
+        executor.tick(TIMEOUT.getTimeMillis() + 2 * LockAcquirer.TIMEOUT_TICK.toMillis(), TimeUnit.MILLISECONDS);
 
         verify(lockB).timeout(REQUEST_ID);
         assertThat(result.isTimedOut()).isTrue();
@@ -199,7 +230,7 @@ public class LockAcquirerTest {
         acquire(lockB);
         AsyncResult<?> result = acquire(lockA, lockB, lockC);
 
-        executor.tick(TIMEOUT.getTimeMillis() + 1L, TimeUnit.MILLISECONDS);
+        executor.tick(TIMEOUT.getTimeMillis() + 2 * LockAcquirer.TIMEOUT_TICK.toMillis(), TimeUnit.MILLISECONDS);
 
         verify(lockC, never()).lock(any());
         assertNotLocked(lockA);
@@ -30,13 +30,16 @@ import org.junit.Test;
 
 public class LockCollectionTest {
 
+    private static final UUID REQUEST_ID = UUID.randomUUID();
+    private static final UUID OTHER_REQUEST_ID = UUID.randomUUID();
+
     private final LockCollection lockCollection = new LockCollection();
 
     @Test
     public void createsLocksOnDemand() {
         Set<LockDescriptor> descriptors = descriptors("foo", "bar");
 
-        List<AsyncLock> locks = lockCollection.getAll(descriptors).get();
+        List<AsyncLock> locks = lockCollection.getAll(REQUEST_ID, descriptors).get();
 
         assertThat(locks).hasSize(2);
         assertThat(ImmutableSet.copyOf(locks)).hasSize(2);
@@ -46,8 +49,8 @@ public class LockCollectionTest {
     public void returnsSameLockForMultipleRequests() {
         Set<LockDescriptor> descriptors = descriptors("foo", "bar");
 
-        List<AsyncLock> locks1 = lockCollection.getAll(descriptors).get();
-        List<AsyncLock> locks2 = lockCollection.getAll(descriptors).get();
+        List<AsyncLock> locks1 = lockCollection.getAll(REQUEST_ID, descriptors).get();
+        List<AsyncLock> locks2 = lockCollection.getAll(REQUEST_ID, descriptors).get();
 
         assertThat(locks1).containsExactlyElementsOf(locks2);
     }
@@ -60,16 +63,87 @@ public class LockCollectionTest {
                 .sorted()
                 .collect(Collectors.toList());
         List<AsyncLock> expectedOrder = orderedDescriptors.stream()
-                .map(descriptor -> lockCollection.getAll(ImmutableSet.of(descriptor)))
+                .map(descriptor -> lockCollection.getAll(REQUEST_ID, ImmutableSet.of(descriptor)))
                 .map(orderedLocks -> orderedLocks.get().get(0))
                 .collect(Collectors.toList());
 
         List<AsyncLock> actualOrder =
-                lockCollection.getAll(ImmutableSet.copyOf(orderedDescriptors)).get();
+                lockCollection.getAll(REQUEST_ID, ImmutableSet.copyOf(orderedDescriptors)).get();
 
         assertThat(actualOrder).containsExactlyElementsOf(expectedOrder);
     }
 
+    @Test
+    public void returnsSharedViewsOfTheSameLocksInOrder() {
+        List<AsyncLock> exclusiveLocks =
+                lockCollection.getAll(REQUEST_ID, descriptors("a", "b", "c")).get();
+
+        List<AsyncLock> locks =
+                lockCollection.getAll(REQUEST_ID, descriptors("a", "c"), descriptors("b")).get();
+
+        assertThat(locks).extracting(AsyncLock::getDescriptor).containsExactly(descriptorsInOrder("a", "b", "c"));
+        assertThat(locks.get(0)).isSameAs(exclusiveLocks.get(0));
+        assertThat(locks.get(1)).isInstanceOf(SharedLock.class);
+        assertThat(locks.get(2)).isSameAs(exclusiveLocks.get(2));
+    }
+
+    @Test
+    public void forgetsLocksOnceUnlocked() {
+        List<AsyncLock> locks = lockCollection.getAll(REQUEST_ID, descriptors("foo", "bar")).get();
+        assertThat(lockCollection.liveLocks()).isEqualTo(2);
+        assertThat(lockCollection.liveLockDescriptorBytes()).isEqualTo(6);
+
+        locks.forEach(lock -> lock.lock(REQUEST_ID));
+        locks.forEach(lock -> lock.unlock(REQUEST_ID));
+
+        assertThat(lockCollection.liveLocks()).isZero();
+        assertThat(lockCollection.liveLockDescriptorBytes()).isZero();
+    }
+
+    @Test
+    public void doesNotForgetLocksStillToBeUsedByOtherRequests() {
+        AsyncLock lock = lockCollection.getAll(REQUEST_ID, descriptors("foo")).get().get(0);
+        AsyncLock sameLock = lockCollection.getAll(OTHER_REQUEST_ID, descriptors("foo")).get().get(0);
+
+        lock.lock(REQUEST_ID);
+        lock.unlock(REQUEST_ID);
+
+        assertThat(lockCollection.liveLocks()).isEqualTo(1);
+        assertThat(sameLock).isSameAs(lock);
+        assertThat(sameLock.lock(OTHER_REQUEST_ID).isCompletedSuccessfully()).isTrue();
+    }
+
+    @Test
+    public void doesNotForgetLocksWithQueuedRequests() {
+        AsyncLock lock = lockCollection.getAll(REQUEST_ID, descriptors("foo")).get().get(0);
+        lockCollection.getAll(OTHER_REQUEST_ID, descriptors("foo"));
+        lock.lock(REQUEST_ID);
+        AsyncResult<Void> queued = lock.lock(OTHER_REQUEST_ID);
+
+        lock.unlock(REQUEST_ID);
+
+        assertThat(queued.isCompletedSuccessfully()).isTrue();
+        assertThat(lockCollection.liveLocks()).isEqualTo(1);
+
+        lock.unlock(OTHER_REQUEST_ID);
+        assertThat(lockCollection.liveLocks()).isZero();
+    }
+
+    @Test
+    public void createsFreshLockAfterForgettingIdleLock() {
+        AsyncLock lock = lockCollection.getAll(REQUEST_ID, descriptors("foo")).get().get(0);
+        lock.waitUntilAvailable(REQUEST_ID);
+
+        AsyncLock freshLock = lockCollection.getAll(OTHER_REQUEST_ID, descriptors("foo")).get().get(0);
+
+        assertThat(freshLock).isNotSameAs(lock);
+        assertThat(lockCollection.liveLocks()).isEqualTo(1);
+    }
+
+    private static LockDescriptor[] descriptorsInOrder(String... names) {
+        return Arrays.stream(names).map(StringLockDescriptor::of).toArray(LockDescriptor[]::new);
+    }
+
     private static Set<LockDescriptor> descriptors(String... names) {
         return Arrays.stream(names).map(StringLockDescriptor::of).collect(Collectors.toSet());
     }
@@ -0,0 +1,88 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.timelock.lock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.collect.ImmutableSet;
+import com.palantir.lock.StringLockDescriptor;
+import com.palantir.lock.client.IdentifiedLockRequest;
+import java.util.UUID;
+import org.junit.Test;
+
+public class LockLogTest {
+    private static final IdentifiedLockRequest REQUEST =
+            IdentifiedLockRequest.of(ImmutableSet.of(StringLockDescriptor.of("foo")), 1_000L);
+
+    private final MetricRegistry metrics = new MetricRegistry();
+
+    @Test
+    public void recordsRequestsThatDidNotBlock() {
+        LockLog lockLog = new LockLog(metrics, () -> 1L);
+
+        lockLog.registerRequest(REQUEST, completedResult());
+        lockLog.registerLockImmutableTimestampRequest(UUID.randomUUID(), 1L, completedResult());
+
+        assertThat(metrics.timer("lock.blocking-time").getCount()).isEqualTo(2);
+        assertThat(metrics.meter("lock.successful-slow-acquisition").getCount()).isZero();
+    }
+
+    @Test
+    public void recordsTimedOutRequestsButNotFailedRequests() {
+        LockLog lockLog = new LockLog(metrics, () -> 1L);
+        AsyncResult<Void> timedOut = new AsyncResult<>();
+        AsyncResult<Void> failed = new AsyncResult<>();
+
+        lockLog.registerRequest(REQUEST, timedOut);
+        lockLog.registerRequest(REQUEST, failed);
+        timedOut.timeout();
+        failed.fail(new RuntimeException());
+
+        assertThat(metrics.timer("lock.blocking-time").getCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void recordsSlowRequestsInDetail() throws InterruptedException {
+        LockLog lockLog = new LockLog(metrics, () -> 1L);
+        AsyncResult<Void> result = new AsyncResult<>();
+
+        lockLog.registerRequest(REQUEST, result);
+        Thread.sleep(5);
+        result.complete(null);
+
+        assertThat(metrics.timer("lock.blocking-time").getCount()).isEqualTo(1);
+        assertThat(metrics.meter("lock.successful-slow-acquisition").getCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void doesNotRecordFastBlockedRequestsInDetail() {
+        LockLog lockLog = new LockLog(metrics, () -> 10_000L);
+        AsyncResult<Void> result = new AsyncResult<>();
+
+        lockLog.registerRequest(REQUEST, result);
+        result.complete(null);
+
+        assertThat(metrics.timer("lock.blocking-time").getCount()).isEqualTo(1);
+        assertThat(metrics.meter("lock.successful-slow-acquisition").getCount()).isZero();
+    }
+
+    private static AsyncResult<Void> completedResult() {
+        AsyncResult<Void> result = new AsyncResult<>();
+        result.complete(null);
+        return result;
+    }
+}
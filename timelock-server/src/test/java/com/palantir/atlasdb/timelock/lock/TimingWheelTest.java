@@ -0,0 +1,178 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.timelock.lock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.codahale.metrics.Timer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.jmock.lib.concurrent.DeterministicScheduler;
+import org.junit.Test;
+
+public class TimingWheelTest {
+    private static final Duration TICK = Duration.ofMillis(10);
+    private static final int WHEEL_SIZE = 8;
+
+    private final Timer lag = new Timer();
+    private final TimingWheel wheel = new TimingWheel(TICK, WHEEL_SIZE, lag);
+    private final List<String> ran = new ArrayList<>();
+
+    @Test
+    public void runsTasksOnceTheirDelayHasElapsed() {
+        wheel.schedule(Duration.ofMillis(25), () -> ran.add("task"));
+
+        tick(3);
+        assertThat(ran).isEmpty();
+
+        tick(1);
+        assertThat(ran).containsExactly("task");
+        assertThat(lag.getCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void runsTasksWithNoDelayOnNextTick() {
+        wheel.schedule(Duration.ZERO, () -> ran.add("task"));
+
+        tick(1);
+
+        assertThat(ran).containsExactly("task");
+    }
+
+    @Test
+    public void runsTasksDueInLaterRotationsOfTheWheel() {
+        wheel.schedule(TICK.multipliedBy(3 * WHEEL_SIZE), () -> ran.add("late"));
+        wheel.schedule(TICK.multipliedBy(2), () -> ran.add("early"));
+
+        tick(3);
+        assertThat(ran).containsExactly("early");
+
+        tick(3 * WHEEL_SIZE - 3);
+        assertThat(ran).containsExactly("early");
+
+        tick(1);
+        assertThat(ran).containsExactly("early", "late");
+    }
+
+    @Test
+    public void doesNotRunCancelledTasks() {
+        TimingWheel.Timeout beforeAdded = wheel.schedule(TICK, () -> ran.add("beforeAdded"));
+        beforeAdded.cancel();
+        TimingWheel.Timeout afterAdded = wheel.schedule(TICK.multipliedBy(4), () -> ran.add("afterAdded"));
+        wheel.schedule(TICK.multipliedBy(4), () -> ran.add("kept"));
+
+        tick(2);
+        afterAdded.cancel();
+        tick(10);
+
+        assertThat(ran).containsExactly("kept");
+        assertThat(afterAdded.isPending()).isFalse();
+    }
+
+    @Test
+    public void keepsRunningTasksAfterOneFails() {
+        wheel.schedule(TICK, () -> {
+            throw new RuntimeException("boom");
+        });
+        wheel.schedule(TICK, () -> ran.add("task"));
+
+        tick(2);
+
+        assertThat(ran).containsExactly("task");
+    }
+
+    @Test
+    public void tasksMayScheduleFurtherTasks() {
+        wheel.schedule(TICK, () -> wheel.schedule(TICK, () -> ran.add("rescheduled")));
+
+        tick(4);
+
+        assertThat(ran).containsExactly("rescheduled");
+    }
+
+    @Test
+    public void ticksOnExecutorWhileTasksArePending() {
+        DeterministicScheduler executor = new DeterministicScheduler();
+        wheel.tickWhilePending(executor);
+        wheel.schedule(Duration.ofMillis(25), () -> ran.add("task"));
+
+        executor.tick(39, TimeUnit.MILLISECONDS);
+        assertThat(ran).isEmpty();
+
+        executor.tick(1, TimeUnit.MILLISECONDS);
+        assertThat(ran).containsExactly("task");
+    }
+
+    @Test
+    public void stopsTickingOnceNoTasksArePending() {
+        DeterministicScheduler executor = new DeterministicScheduler();
+        wheel.tickWhilePending(executor);
+        assertThat(executor.isIdle()).isTrue();
+
+        wheel.schedule(Duration.ofMillis(25), () -> ran.add("first"));
+        executor.tick(40, TimeUnit.MILLISECONDS);
+        assertThat(ran).containsExactly("first");
+        assertThat(executor.isIdle()).isTrue();
+
+        wheel.schedule(Duration.ofSeconds(1), () -> ran.add("cancelled")).cancel();
+        executor.tick(10, TimeUnit.MILLISECONDS);
+        assertThat(executor.isIdle()).isTrue();
+
+        wheel.schedule(Duration.ofMillis(25), () -> ran.add("second"));
+        executor.tick(40, TimeUnit.MILLISECONDS);
+        assertThat(ran).containsExactly("first", "second");
+        assertThat(executor.isIdle()).isTrue();
+    }
+
+    @Test
+    public void runsTasksScheduledAndCancelledFromManyThreads() throws InterruptedException {
+        TimingWheel stripedWheel = new TimingWheel(TICK, WHEEL_SIZE, lag, 4);
+        List<String> concurrentlyRan = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            String task = "task" + i;
+            threads.add(new Thread(() -> {
+                stripedWheel.schedule(TICK, () -> concurrentlyRan.add(task));
+                stripedWheel.schedule(TICK, () -> concurrentlyRan.add("cancelled")).cancel();
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        for (int i = 0; i < 2; i++) {
+            stripedWheel.tick();
+        }
+
+        assertThat(concurrentlyRan)
+                .containsExactlyInAnyOrderElementsOf(
+                        IntStream.range(0, 16).mapToObj(i -> "task" + i).collect(Collectors.toList()));
+    }
+
+    private void tick(int ticks) {
+        for (int i = 0; i < ticks; i++) {
+            wheel.tick();
+        }
+    }
+}
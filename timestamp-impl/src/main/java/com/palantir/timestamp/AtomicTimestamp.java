@@ -15,9 +15,20 @@
  */
 package com.palantir.timestamp;
 
+import com.google.common.annotations.VisibleForTesting;
 import java.util.concurrent.atomic.AtomicLong;
 
 public class AtomicTimestamp {
+    /**
+     * Increments of at most this many timestamps from at most {@link #FETCH_AND_ADD_CEILING} are handed out with a
+     * single fetch-and-add, which unlike a compare-and-set loop never has to retry when many threads are handing out
+     * timestamps at once. Together the two leave enough headroom that concurrent increments cannot overflow.
+     */
+    @VisibleForTesting
+    static final long MAX_FETCH_AND_ADD_DELTA = 1L << 31;
+
+    @VisibleForTesting
+    static final long FETCH_AND_ADD_CEILING = Long.MAX_VALUE - (1L << 62);
 
     private final AtomicLong value;
 
@@ -26,7 +37,9 @@ public class AtomicTimestamp {
     }
 
     public TimestampRange incrementBy(long delta) {
-        long upperBound = value.updateAndGet(current -> Math.addExact(current, delta));
+        long upperBound = canFetchAndAdd(delta)
+                ? value.addAndGet(delta)
+                : value.updateAndGet(current -> Math.addExact(current, delta));
         long lowerBound = upperBound - delta + 1L;
         return TimestampRange.createInclusiveRange(lowerBound, upperBound);
     }
@@ -34,4 +47,8 @@ public class AtomicTimestamp {
     public void increaseTo(long target) {
         value.updateAndGet(current -> Math.max(current, target));
     }
+
+    private boolean canFetchAndAdd(long delta) {
+        return delta >= 0 && delta <= MAX_FETCH_AND_ADD_DELTA && value.get() <= FETCH_AND_ADD_CEILING;
+    }
 }
@@ -22,6 +22,8 @@ import com.palantir.atlasdb.AtlasDbConstants;
 import com.palantir.logsafe.SafeArg;
 import com.palantir.logsafe.logger.SafeLogger;
 import com.palantir.logsafe.logger.SafeLoggerFactory;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
 import javax.annotation.concurrent.ThreadSafe;
 
 @ThreadSafe
@@ -49,6 +51,7 @@ public class PersistentTimestampServiceImpl implements PersistentTimestampServic
     private static final int MAX_TIMESTAMPS_PER_REQUEST = 10_000;
 
     private ErrorCheckingTimestampBoundStore store;
+    private Function<TimestampBoundStore, PersistentUpperLimit> upperLimitFactory;
     private PersistentTimestamp timestamp;
     private final InitializingWrapper wrapper = new InitializingWrapper();
 
@@ -65,7 +68,27 @@ public class PersistentTimestampServiceImpl implements PersistentTimestampServic
     }
 
     public static PersistentTimestampService create(ErrorCheckingTimestampBoundStore store, boolean initializeAsync) {
-        PersistentTimestampServiceImpl service = new PersistentTimestampServiceImpl(store);
+        return create(store, initializeAsync, PersistentUpperLimit::new);
+    }
+
+    /**
+     * Creates a timestamp service that extends its upper limit on the given executor once less than the given
+     * fraction of the buffer is left to hand out, rather than only once a request runs into the limit.
+     */
+    public static PersistentTimestampService createWithProactiveUpperLimitExtension(
+            TimestampBoundStore store, Executor upperLimitExtender, double extensionThreshold) {
+        return create(
+                new ErrorCheckingTimestampBoundStore(store),
+                AtlasDbConstants.DEFAULT_INITIALIZE_ASYNC,
+                boundStore -> PersistentUpperLimit.createWithProactiveExtension(
+                        boundStore, upperLimitExtender, extensionThreshold));
+    }
+
+    private static PersistentTimestampService create(
+            ErrorCheckingTimestampBoundStore store,
+            boolean initializeAsync,
+            Function<TimestampBoundStore, PersistentUpperLimit> upperLimitFactory) {
+        PersistentTimestampServiceImpl service = new PersistentTimestampServiceImpl(store, upperLimitFactory);
         service.wrapper.initialize(initializeAsync);
         return service.wrapper.isInitialized() ? service : service.wrapper;
     }
@@ -75,12 +98,15 @@ public class PersistentTimestampServiceImpl implements PersistentTimestampServic
         this.timestamp = timestamp;
     }
 
-    private PersistentTimestampServiceImpl(ErrorCheckingTimestampBoundStore store) {
+    private PersistentTimestampServiceImpl(
+            ErrorCheckingTimestampBoundStore store,
+            Function<TimestampBoundStore, PersistentUpperLimit> upperLimitFactory) {
         this.store = store;
+        this.upperLimitFactory = upperLimitFactory;
     }
 
     private void tryInitialize() {
-        PersistentUpperLimit upperLimit = new PersistentUpperLimit(store);
+        PersistentUpperLimit upperLimit = upperLimitFactory.apply(store);
         long latestTimestamp = upperLimit.get();
         timestamp = new PersistentTimestamp(upperLimit, latestTimestamp);
     }
@@ -16,8 +16,17 @@
 package com.palantir.timestamp;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.palantir.logsafe.Preconditions;
+import com.palantir.logsafe.SafeArg;
+import com.palantir.logsafe.logger.SafeLogger;
+import com.palantir.logsafe.logger.SafeLoggerFactory;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class PersistentUpperLimit {
+    private static final SafeLogger log = SafeLoggerFactory.get(PersistentUpperLimit.class);
 
     /**
      * Some internal atlas clients have behavior tied to this value and will need to
@@ -28,12 +37,36 @@ public class PersistentUpperLimit {
 
     private volatile long currentLimit;
     private final TimestampBoundStore store;
+    private final Optional<Executor> backgroundExtender;
+    private final double extensionThreshold;
+    private final AtomicBoolean extensionInProgress = new AtomicBoolean(false);
 
     public PersistentUpperLimit(TimestampBoundStore boundStore) {
+        this(boundStore, Optional.empty(), 0.0);
+    }
+
+    private PersistentUpperLimit(
+            TimestampBoundStore boundStore, Optional<Executor> backgroundExtender, double extensionThreshold) {
         this.store = boundStore;
+        this.backgroundExtender = backgroundExtender;
+        this.extensionThreshold = extensionThreshold;
         this.currentLimit = boundStore.getUpperLimit();
     }
 
+    /**
+     * Creates an upper limit that is extended on the given executor once less than the given fraction of its buffer
+     * is left to hand out, so that requests only wait for the bound store if timestamps are handed out faster than
+     * the store can extend the limit.
+     */
+    public static PersistentUpperLimit createWithProactiveExtension(
+            TimestampBoundStore boundStore, Executor backgroundExtender, double extensionThreshold) {
+        Preconditions.checkArgument(
+                extensionThreshold > 0.0 && extensionThreshold < 1.0,
+                "Extension threshold must be in (0, 1)",
+                SafeArg.of("extensionThreshold", extensionThreshold));
+        return new PersistentUpperLimit(boundStore, Optional.of(backgroundExtender), extensionThreshold);
+    }
+
     public long get() {
         return currentLimit;
     }
@@ -42,14 +75,54 @@ public class PersistentUpperLimit {
         if (newLimit > currentLimit) {
             updateLimit(newLimit);
         }
+        if (backgroundExtender.isPresent() && isRunningLow(newLimit)) {
+            extendInBackground(backgroundExtender.get(), newLimit);
+        }
+    }
+
+    private boolean isRunningLow(long handedOut) {
+        return currentLimit - handedOut < extensionThreshold * BUFFER;
+    }
+
+    private void extendInBackground(Executor executor, long handedOut) {
+        if (!extensionInProgress.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    extendIfRunningLow(handedOut);
+                } catch (Throwable t) {
+                    // Requests run into the limit and extend it themselves if this keeps failing.
+                    log.info("Failed to extend the timestamp upper limit in the background", t);
+                } finally {
+                    extensionInProgress.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            extensionInProgress.set(false);
+            log.info("Could not schedule a background extension of the timestamp upper limit", e);
+        }
     }
 
     private synchronized void updateLimit(long newLimit) {
         if (currentLimit >= newLimit) {
             return;
         }
+        extendFrom(newLimit);
+    }
+
+    private synchronized void extendIfRunningLow(long handedOut) {
+        if (isRunningLow(handedOut)) {
+            extendFrom(handedOut);
+        }
+    }
 
-        long newLimitWithBuffer = Math.addExact(newLimit, BUFFER);
+    private void extendFrom(long handedOut) {
+        long newLimitWithBuffer = Math.addExact(handedOut, BUFFER);
+        if (newLimitWithBuffer <= currentLimit) {
+            return;
+        }
         storeUpperLimit(newLimitWithBuffer);
         currentLimit = newLimitWithBuffer;
     }
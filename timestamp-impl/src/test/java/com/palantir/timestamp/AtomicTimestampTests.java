@@ -18,6 +18,10 @@ package com.palantir.timestamp;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -59,6 +63,34 @@ public class AtomicTimestampTests {
         assertThat(timestamp.incrementBy(1).getUpperBound()).isEqualTo(INITIAL_TIMESTAMP + 101);
     }
 
+    @Test
+    public void handsOutDisjointRangesConcurrently() throws InterruptedException {
+        List<TimestampRange> ranges = Collections.synchronizedList(new ArrayList<>());
+        for (int i = 0; i < 1000; i++) {
+            long delta = i % 10 + 1;
+            executor.submit(() -> ranges.add(timestamp.incrementBy(delta)));
+        }
+
+        waitForExecutorToFinish();
+
+        ranges.sort(Comparator.comparingLong(TimestampRange::getLowerBound));
+        long expectedLowerBound = INITIAL_TIMESTAMP + 1;
+        for (TimestampRange range : ranges) {
+            assertThat(range.getLowerBound()).isEqualTo(expectedLowerBound);
+            expectedLowerBound = range.getUpperBound() + 1;
+        }
+        assertThat(timestamp.incrementBy(1).getUpperBound()).isEqualTo(expectedLowerBound);
+    }
+
+    @Test
+    public void handsOutLargeIncrementsAndIncrementsNearTheLimit() {
+        long delta = AtomicTimestamp.MAX_FETCH_AND_ADD_DELTA + 1;
+        assertThat(timestamp.incrementBy(delta).getUpperBound()).isEqualTo(INITIAL_TIMESTAMP + delta);
+
+        timestamp.increaseTo(Long.MAX_VALUE - 10);
+        assertThat(timestamp.incrementBy(10).getUpperBound()).isEqualTo(Long.MAX_VALUE);
+    }
+
     private void waitForExecutorToFinish() throws InterruptedException {
         executor.shutdown();
         executor.awaitTermination(10, TimeUnit.SECONDS);
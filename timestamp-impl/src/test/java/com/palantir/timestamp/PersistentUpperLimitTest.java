@@ -24,6 +24,12 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.google.common.util.concurrent.MoreExecutors;
+import com.palantir.logsafe.exceptions.SafeIllegalArgumentException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -31,6 +37,7 @@ public class PersistentUpperLimitTest {
     private static final long TIMESTAMP = 12345L;
     private static final long INITIAL_UPPER_LIMIT = 10L;
     private static final long BUFFER = PersistentUpperLimit.BUFFER;
+    private static final double THRESHOLD = 0.5;
 
     private TimestampBoundStore boundStore;
     private PersistentUpperLimit upperLimit;
@@ -111,4 +118,85 @@ public class PersistentUpperLimitTest {
 
         assertThat(upperLimit.get()).isEqualTo(INITIAL_UPPER_LIMIT);
     }
+
+    @Test
+    public void shouldExtendTheLimitInTheBackgroundOnceItIsRunningLow() {
+        List<Runnable> tasks = new ArrayList<>();
+        PersistentUpperLimit proactiveLimit = proactiveUpperLimit(tasks::add);
+        proactiveLimit.increaseToAtLeast(INITIAL_UPPER_LIMIT + 1);
+        long limit = proactiveLimit.get();
+
+        long halfway = limit - BUFFER / 2;
+        proactiveLimit.increaseToAtLeast(halfway);
+        assertThat(tasks).isEmpty();
+
+        proactiveLimit.increaseToAtLeast(halfway + 1);
+        assertThat(tasks).hasSize(1);
+        assertThat(proactiveLimit.get()).isEqualTo(limit);
+
+        tasks.get(0).run();
+        assertThat(proactiveLimit.get()).isEqualTo(halfway + 1 + BUFFER);
+        verify(boundStore).storeUpperLimit(halfway + 1 + BUFFER);
+    }
+
+    @Test
+    public void shouldOnlyScheduleOneBackgroundExtensionAtATime() {
+        List<Runnable> tasks = new ArrayList<>();
+        PersistentUpperLimit proactiveLimit = proactiveUpperLimit(tasks::add);
+
+        proactiveLimit.increaseToAtLeast(INITIAL_UPPER_LIMIT + 1);
+        proactiveLimit.increaseToAtLeast(INITIAL_UPPER_LIMIT + BUFFER - 10);
+        proactiveLimit.increaseToAtLeast(INITIAL_UPPER_LIMIT + BUFFER - 5);
+        assertThat(tasks).hasSize(1);
+
+        tasks.get(0).run();
+        proactiveLimit.increaseToAtLeast(proactiveLimit.get() - 1);
+        assertThat(tasks).hasSize(2);
+    }
+
+    @Test
+    public void shouldNotStoreInTheBackgroundIfTheLimitWasAlreadyExtended() {
+        List<Runnable> tasks = new ArrayList<>();
+        PersistentUpperLimit proactiveLimit = proactiveUpperLimit(tasks::add);
+
+        proactiveLimit.increaseToAtLeast(INITIAL_UPPER_LIMIT + 1);
+        proactiveLimit.increaseToAtLeast(INITIAL_UPPER_LIMIT + BUFFER - 10);
+        proactiveLimit.increaseToAtLeast(INITIAL_UPPER_LIMIT + 2 * BUFFER);
+        long extendedLimit = proactiveLimit.get();
+
+        tasks.get(0).run();
+        assertThat(proactiveLimit.get()).isEqualTo(extendedLimit);
+        verify(boundStore, times(2)).storeUpperLimit(anyLong());
+    }
+
+    @Test
+    public void shouldSurviveBackgroundExtensionFailures() {
+        PersistentUpperLimit proactiveLimit = proactiveUpperLimit(MoreExecutors.directExecutor());
+        proactiveLimit.increaseToAtLeast(INITIAL_UPPER_LIMIT + 1);
+        long limit = proactiveLimit.get();
+
+        doThrow(RuntimeException.class).when(boundStore).storeUpperLimit(anyLong());
+        proactiveLimit.increaseToAtLeast(limit - 1);
+        assertThat(proactiveLimit.get()).isEqualTo(limit);
+
+        PersistentUpperLimit rejectingLimit = proactiveUpperLimit(task -> {
+            throw new RejectedExecutionException();
+        });
+        rejectingLimit.increaseToAtLeast(INITIAL_UPPER_LIMIT);
+        assertThat(rejectingLimit.get()).isEqualTo(INITIAL_UPPER_LIMIT);
+    }
+
+    @Test
+    public void shouldRejectExtensionThresholdsOutsideTheBuffer() {
+        assertThatExceptionOfType(SafeIllegalArgumentException.class)
+                .isThrownBy(() -> PersistentUpperLimit.createWithProactiveExtension(
+                        boundStore, MoreExecutors.directExecutor(), 0.0));
+        assertThatExceptionOfType(SafeIllegalArgumentException.class)
+                .isThrownBy(() -> PersistentUpperLimit.createWithProactiveExtension(
+                        boundStore, MoreExecutors.directExecutor(), 1.0));
+    }
+
+    private PersistentUpperLimit proactiveUpperLimit(Executor executor) {
+        return PersistentUpperLimit.createWithProactiveExtension(boundStore, executor, THRESHOLD);
+    }
 }